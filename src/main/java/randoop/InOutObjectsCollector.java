@@ -9,12 +9,12 @@ import randoop.sequence.ExecutableSequence;
 
 public final class InOutObjectsCollector implements ExecutionVisitor {
 
-	private XStream xstream;
+	private ObjectGraphCloner cloner;
 	private List<Object> inputs;
 	private List<Object> outputs;
 	
 	public InOutObjectsCollector(XStream xstream) {
-		this.xstream = xstream;
+		this.cloner = new ObjectGraphCloner(xstream);
 	}
 
 	public List<Object> getInputs() {
@@ -55,7 +55,6 @@ public final class InOutObjectsCollector implements ExecutionVisitor {
 
 
 	private Object cloneObject(Object o) {
-		String xml = xstream.toXML(o);
-		return xstream.fromXML(xml);
+		return cloner.deepCopy(o);
 	}
 }
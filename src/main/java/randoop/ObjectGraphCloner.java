@@ -0,0 +1,240 @@
+package randoop;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
+
+/**
+ * Deep-copies object graphs, as an XStream XML round trip does, but without XML. Shared and cyclic
+ * references are preserved. Immutable values are shared rather than copied. The common JDK
+ * collections are rebuilt through their public API; other objects are allocated, like XStream
+ * does, without calling a constructor, and their fields are copied.
+ *
+ * <p>An object graph that contains an object that cannot be copied this way (a proxy, a lambda, or
+ * an object whose fields cannot be made accessible) is copied with an XStream round trip instead.
+ * Classes that cannot be copied are remembered, so later graphs that contain them go straight to
+ * XStream.
+ *
+ * <p>Not thread-safe.
+ */
+public final class ObjectGraphCloner {
+
+	/** Classes whose instances are immutable, and therefore shared by the copy. */
+	private static final Set<Class<?>> IMMUTABLE = new HashSet<>();
+
+	static {
+		IMMUTABLE.add(String.class);
+		IMMUTABLE.add(Boolean.class);
+		IMMUTABLE.add(Byte.class);
+		IMMUTABLE.add(Character.class);
+		IMMUTABLE.add(Short.class);
+		IMMUTABLE.add(Integer.class);
+		IMMUTABLE.add(Long.class);
+		IMMUTABLE.add(Float.class);
+		IMMUTABLE.add(Double.class);
+		IMMUTABLE.add(BigInteger.class);
+		IMMUTABLE.add(BigDecimal.class);
+		IMMUTABLE.add(UUID.class);
+		IMMUTABLE.add(Class.class);
+	}
+
+	private final XStream xstream;
+	private final ReflectionProvider reflectionProvider;
+
+	/** The instance fields of each class copied field by field, including inherited ones. */
+	private final Map<Class<?>, Field[]> fields = new HashMap<>();
+
+	/** Classes whose instances cannot be copied without XStream. */
+	private final Set<Class<?>> uncopyable = new HashSet<>();
+
+	public ObjectGraphCloner(XStream xstream) {
+		this.xstream = xstream;
+		this.reflectionProvider = xstream.getReflectionProvider();
+	}
+
+	/**
+	 * Returns a deep copy of the given object.
+	 *
+	 * @param o the object to copy, may be null
+	 * @return a copy of {@code o} that shares no mutable state with it
+	 */
+	public Object deepCopy(Object o) {
+		try {
+			return copy(o, new IdentityHashMap<>());
+		} catch (UncopyableException | RuntimeException e) {
+			return xstream.fromXML(xstream.toXML(o));
+		}
+	}
+
+	private Object copy(Object o, Map<Object, Object> copies) throws UncopyableException {
+		if (o == null) {
+			return null;
+		}
+		Class<?> c = o.getClass();
+		if (IMMUTABLE.contains(c) || o instanceof Enum) {
+			return o;
+		}
+		Object copy = copies.get(o);
+		if (copy != null) {
+			return copy;
+		}
+		if (c.isArray()) {
+			return copyArray(o, c, copies);
+		}
+		if (uncopyable.contains(c)) {
+			throw new UncopyableException();
+		}
+		if (c == ArrayList.class || c == LinkedList.class || c == ArrayDeque.class
+				|| c == HashSet.class || c == LinkedHashSet.class) {
+			Collection<Object> collection = newCollection(c);
+			copies.put(o, collection);
+			for (Object element : (Collection<?>) o) {
+				collection.add(copy(element, copies));
+			}
+			return collection;
+		}
+		if (c == TreeSet.class) {
+			Comparator<Object> comparator = copyComparator(((TreeSet<?>) o).comparator(), copies);
+			TreeSet<Object> set = new TreeSet<>(comparator);
+			copies.put(o, set);
+			for (Object element : (TreeSet<?>) o) {
+				set.add(copy(element, copies));
+			}
+			return set;
+		}
+		if (c == HashMap.class || c == LinkedHashMap.class || c == TreeMap.class) {
+			Map<Object, Object> map;
+			if (c == HashMap.class) {
+				map = new HashMap<>();
+			} else if (c == LinkedHashMap.class) {
+				map = new LinkedHashMap<>();
+			} else {
+				map = new TreeMap<>(copyComparator(((TreeMap<?, ?>) o).comparator(), copies));
+			}
+			copies.put(o, map);
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) o).entrySet()) {
+				map.put(copy(entry.getKey(), copies), copy(entry.getValue(), copies));
+			}
+			return map;
+		}
+		return copyFields(o, c, copies);
+	}
+
+	private Object copyArray(Object array, Class<?> c, Map<Object, Object> copies)
+			throws UncopyableException {
+		int length = Array.getLength(array);
+		Class<?> componentType = c.getComponentType();
+		if (componentType.isPrimitive()) {
+			Object copy = Array.newInstance(componentType, length);
+			System.arraycopy(array, 0, copy, 0, length);
+			copies.put(array, copy);
+			return copy;
+		}
+		Object[] elements = (Object[]) array;
+		Object[] copy = (Object[]) Array.newInstance(componentType, length);
+		copies.put(array, copy);
+		for (int i = 0; i < length; i++) {
+			copy[i] = copy(elements[i], copies);
+		}
+		return copy;
+	}
+
+	private Collection<Object> newCollection(Class<?> c) {
+		if (c == ArrayList.class) {
+			return new ArrayList<>();
+		}
+		if (c == LinkedList.class) {
+			return new LinkedList<>();
+		}
+		if (c == ArrayDeque.class) {
+			return new ArrayDeque<>();
+		}
+		if (c == HashSet.class) {
+			return new HashSet<>();
+		}
+		return new LinkedHashSet<>();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Comparator<Object> copyComparator(Comparator<?> comparator, Map<Object, Object> copies)
+			throws UncopyableException {
+		return (Comparator<Object>) copy(comparator, copies);
+	}
+
+	private Object copyFields(Object o, Class<?> c, Map<Object, Object> copies)
+			throws UncopyableException {
+		Object copy;
+		Field[] classFields;
+		try {
+			if (Proxy.isProxyClass(c) || c.isSynthetic() || c.getName().contains("$$Lambda")) {
+				throw new UncopyableException();
+			}
+			classFields = getFields(c);
+			copy = reflectionProvider.newInstance(c);
+		} catch (UncopyableException | RuntimeException e) {
+			// RuntimeException: a field cannot be made accessible, or the class cannot be instantiated
+			uncopyable.add(c);
+			throw new UncopyableException();
+		}
+		copies.put(o, copy);
+		try {
+			for (Field f : classFields) {
+				Class<?> type = f.getType();
+				if (type.isPrimitive()) {
+					f.set(copy, f.get(o));
+				} else {
+					f.set(copy, copy(f.get(o), copies));
+				}
+			}
+		} catch (IllegalAccessException e) {
+			uncopyable.add(c);
+			throw new UncopyableException();
+		}
+		return copy;
+	}
+
+	private Field[] getFields(Class<?> c) {
+		Field[] result = fields.get(c);
+		if (result == null) {
+			List<Field> instanceFields = new ArrayList<>();
+			for (Class<?> k = c; k != null; k = k.getSuperclass()) {
+				for (Field f : k.getDeclaredFields()) {
+					if (!Modifier.isStatic(f.getModifiers())) {
+						f.setAccessible(true);
+						instanceFields.add(f);
+					}
+				}
+			}
+			result = instanceFields.toArray(new Field[0]);
+			fields.put(c, result);
+		}
+		return result;
+	}
+
+	/** Thrown when an object graph contains an object that can only be copied with XStream. */
+	private static class UncopyableException extends Exception {
+		private static final long serialVersionUID = 1L;
+	}
+}
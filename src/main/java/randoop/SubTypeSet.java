@@ -1,5 +1,6 @@
 package randoop;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -12,6 +13,10 @@ import randoop.util.MultiMap;
 /**
  * A set of classes. This data structure additionally allows for efficient answers to queries about
  * can-be-used-as relationships.
+ *
+ * <p>The can-be-used-as relation itself is computed by a {@link TypeLattice} that belongs to this
+ * set. This set records the ids of the types it has been queried for, so that adding a type is a
+ * bitset intersection rather than a call to {@link Type#isAssignableFrom} for each query type.
  */
 public class SubTypeSet {
 
@@ -24,6 +29,14 @@ public class SubTypeSet {
    */
   private IMultiMap<Type, Type> subTypes;
 
+  /**
+   * The can-be-used-as relation among the types that this set has contained or been queried for.
+   */
+  private final TypeLattice lattice = new TypeLattice();
+
+  /** The {@link #lattice} ids of the keys of {@link #subTypes}. */
+  private final BitSet queryIds = new BitSet();
+
   /** If true, then {@link #mark} and {@link #undoLastStep()} are supported. */
   private boolean supportsCheckpoints;
 
@@ -55,6 +68,10 @@ public class SubTypeSet {
     }
     ((CheckpointingMultiMap<Type, Type>) subTypes).undoToLastMark();
     ((CheckpointingSet<Type>) types).undoToLastMark();
+    queryIds.clear();
+    for (Type type : subTypes.keySet()) {
+      queryIds.set(lattice.id(type));
+    }
   }
 
   /**
@@ -70,11 +87,12 @@ public class SubTypeSet {
     types.add(c);
 
     // Update existing entries.
-    for (Type cls : subTypes.keySet()) {
-      if (cls.isAssignableFrom(c)) {
-        if (!subTypes.getValues(cls).contains(c)) {
-          subTypes.add(cls, c);
-        }
+    BitSet matchingQueries = lattice.usableAs(lattice.id(c));
+    matchingQueries.and(queryIds);
+    for (int q = matchingQueries.nextSetBit(0); q >= 0; q = matchingQueries.nextSetBit(q + 1)) {
+      Type cls = lattice.type(q);
+      if (!subTypes.getValues(cls).contains(c)) {
+        subTypes.add(cls, c);
       }
     }
   }
@@ -86,15 +104,15 @@ public class SubTypeSet {
       return;
     }
 
-    Set<Type> compatibleTypes = new LinkedHashSet<>();
+    int id = lattice.id(type);
+    queryIds.set(id);
+    BitSet assignable = lattice.assignableTo(id);
+    // Iterate over the types rather than the bitset, to keep the types in insertion order.
     for (Type t : types) {
-      if (type.isAssignableFrom(t)) {
-        compatibleTypes.add(t);
+      if (assignable.get(lattice.id(t))) {
+        subTypes.add(type, t);
       }
     }
-    for (Type cls : compatibleTypes) {
-      subTypes.add(type, cls);
-    }
   }
 
   // TODO: I think that the set does not contain {@code c} itself.  Check and document.
@@ -0,0 +1,126 @@
+package randoop;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import randoop.types.Type;
+
+/**
+ * An index of the can-be-used-as relation among the types of one {@link SubTypeSet}, so that
+ * {@link Type#isAssignableFrom} is called at most once for each pair of types, even when the set
+ * is rolled back and the same types are added again.
+ *
+ * <p>Each type gets a dense integer id. A type may be registered as a <em>member</em> type (one
+ * that the set contains) and as a <em>query</em> type (one whose matches the set was asked for).
+ * For each query type, the index records, as a bitset of ids, the member types that can be used as
+ * it; for each member type, the query types that it can be used as. When a type is registered in
+ * one role, it is compared against every type registered in the other role, so the bitsets are
+ * always complete.
+ *
+ * <p>The index belongs to its set and lives no longer than it. Like {@link SubTypeSet}, it is not
+ * thread-safe.
+ */
+final class TypeLattice {
+
+  /** Map from a type to its id. */
+  private final Map<Type, Integer> ids = new HashMap<>();
+
+  /** The types, indexed by id. */
+  private final List<Type> types = new ArrayList<>();
+
+  /** The ids of the member types. */
+  private final BitSet memberIds = new BitSet();
+
+  /** The ids of the query types. */
+  private final BitSet queryIds = new BitSet();
+
+  /**
+   * For each query type, indexed by id, the ids of the member types that can be used as it. Null
+   * for a type that is not a query type.
+   */
+  private final List<BitSet> assignableTo = new ArrayList<>();
+
+  /**
+   * For each member type, indexed by id, the ids of the query types that it can be used as. Null
+   * for a type that is not a member type.
+   */
+  private final List<BitSet> usableAs = new ArrayList<>();
+
+  /**
+   * Returns the id of the given type, assigning one if it has none.
+   *
+   * @param type a type
+   * @return the id of {@code type}
+   */
+  int id(Type type) {
+    Integer id = ids.get(type);
+    if (id == null) {
+      id = types.size();
+      ids.put(type, id);
+      types.add(type);
+      assignableTo.add(null);
+      usableAs.add(null);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the type with the given id.
+   *
+   * @param id the id of a type
+   * @return the type whose id is {@code id}
+   */
+  Type type(int id) {
+    return types.get(id);
+  }
+
+  /**
+   * Returns the ids of the query types that the given type can be used as, registering the type as
+   * a member type if necessary.
+   *
+   * @param id the id of a type
+   * @return the ids of the query types that the type with id {@code id} can be used as; the caller
+   *     may modify the result
+   */
+  BitSet usableAs(int id) {
+    if (!memberIds.get(id)) {
+      memberIds.set(id);
+      BitSet queries = new BitSet();
+      Type member = types.get(id);
+      for (int q = queryIds.nextSetBit(0); q >= 0; q = queryIds.nextSetBit(q + 1)) {
+        if (types.get(q).isAssignableFrom(member)) {
+          queries.set(q);
+          assignableTo.get(q).set(id);
+        }
+      }
+      usableAs.set(id, queries);
+    }
+    return (BitSet) usableAs.get(id).clone();
+  }
+
+  /**
+   * Returns the ids of the member types that can be used as the given type, registering the type
+   * as a query type if necessary.
+   *
+   * @param id the id of a type
+   * @return the ids of the member types that can be used as the type with id {@code id}; the
+   *     caller may modify the result
+   */
+  BitSet assignableTo(int id) {
+    if (!queryIds.get(id)) {
+      queryIds.set(id);
+      BitSet members = new BitSet();
+      Type query = types.get(id);
+      for (int m = memberIds.nextSetBit(0); m >= 0; m = memberIds.nextSetBit(m + 1)) {
+        if (query.isAssignableFrom(types.get(m))) {
+          members.set(m);
+          usableAs.get(m).set(id);
+        }
+      }
+      assignableTo.set(id, members);
+    }
+    return (BitSet) assignableTo.get(id).clone();
+  }
+}
@@ -0,0 +1,29 @@
+package randoop.compile;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+
+/**
+ * A {@code JavaFileManager} that never writes class files to disk. The compiler writes each class
+ * file to a {@link SequenceJavaFileObject} in memory, which is discarded after the compilation.
+ * This is for compilations whose only purpose is to determine whether source code compiles.
+ */
+class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+  /**
+   * Creates an {@link InMemoryFileManager} that reads files using the given file manager.
+   *
+   * @param fileManager the file manager to which to delegate everything but class output
+   */
+  InMemoryFileManager(JavaFileManager fileManager) {
+    super(fileManager);
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForOutput(
+      Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+    return new SequenceJavaFileObject(className.replace('.', '/') + kind.extension, kind);
+  }
+}
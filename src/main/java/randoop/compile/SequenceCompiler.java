@@ -1,16 +1,13 @@
 package randoop.compile;
 
 import java.io.File;
-import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
@@ -50,6 +47,9 @@ public class SequenceCompiler {
   /** The {@code FileManager} for this compiler. */
   private final JavaFileManager fileManager;
 
+  /** The {@code FileManager} for compilations that only check whether source code compiles. */
+  private final JavaFileManager inMemoryFileManager;
+
   /** Creates a {@link SequenceCompiler}. */
   public SequenceCompiler() {
     this(new ArrayList<String>());
@@ -77,10 +77,11 @@ public class SequenceCompiler {
     }
 
     this.fileManager = compiler.getStandardFileManager(null, null, null);
+    this.inMemoryFileManager = new InMemoryFileManager(fileManager);
   }
 
   /**
-   * Indicates whether the given class is compilable.
+   * Indicates whether the given class is compilable. Does not write any class files.
    *
    * @param packageName the package name for the class, null if default package
    * @param classname the simple name of the class
@@ -90,18 +91,7 @@ public class SequenceCompiler {
   public boolean isCompilable(
       final String packageName, final String classname, final String javaSource) {
     DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-    boolean result = compile(packageName, classname, javaSource, diagnostics);
-
-    // Compilation can create multiple .class files; this only deletes the main one.
-    Path dir = Paths.get((packageName == null) ? "." : packageName.replace(".", "/"));
-    try {
-      Files.delete(dir.resolve(classname + ".class"));
-    } catch (NoSuchFileException e) {
-      // Nothing to do, but I wonder why the file doesn't exist.
-    } catch (IOException e) {
-      System.out.printf(
-          "Unable to delete %s: %s%n", dir.resolve(classname + ".class").toAbsolutePath(), e);
-    }
+    boolean result = compile(classname, javaSource, inMemoryFileManager, diagnostics);
 
     if (!result
         && debugCompilationFailure != null
@@ -130,7 +120,7 @@ public class SequenceCompiler {
 
     DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
 
-    boolean success = compile(packageName, classname, javaSource, diagnostics);
+    boolean success = compile(classname, javaSource, fileManager, diagnostics);
     if (!success) {
       throw new SequenceCompilerException("Compilation failed", javaSource, diagnostics);
     }
@@ -138,21 +128,20 @@ public class SequenceCompiler {
 
   /**
    * A helper method for the {@link #compile(String, String, String)} and {@link
-   * #isCompilable(String, String, String)} methods: compiles the given class using the given
-   * diagnostics collector.
+   * #isCompilable(String, String, String)} methods: compiles the given class using the given file
+   * manager and diagnostics collector.
    *
-   * @param packageName the package of the class, null if default package
    * @param classname the simple name of the class
    * @param javaSource the source text of the class
+   * @param fileManager the file manager to which the compiler writes class files
    * @param diagnostics the {@code DiagnosticsCollector} object to use for the compilation. Always
    *     use a new diagnostics collector each compilation to avoid accumulating errors.
    * @return true if the class source is successfully compiled, false otherwise
    */
-  @SuppressWarnings("UnusedVariable") // TODO: remove packageName formal parameter
   private boolean compile(
-      final String packageName,
       final String classname,
       final String javaSource,
+      JavaFileManager fileManager,
       DiagnosticCollector<JavaFileObject> diagnostics) {
     String classFileName = classname + ".java";
     List<JavaFileObject> sources = new ArrayList<>();
@@ -186,6 +175,34 @@ public class SequenceCompiler {
     return loadClassFile(dir, fqName);
   }
 
+  /**
+   * Compiles the given classes in a single compiler task, writing the class files to the given
+   * directory. Compiling many classes at once is much faster than compiling them one at a time.
+   *
+   * @param sources map from the simple name of each class to its source text. The simple names
+   *     must be distinct, even if the classes are in different packages.
+   * @param directory the directory in which to write the class files, in package-named
+   *     subdirectories
+   * @param diagnostics the {@code DiagnosticsCollector} object to use for the compilation. Each
+   *     diagnostic's source is named for the class whose source contains the error.
+   * @return true if all the classes were successfully compiled, false otherwise
+   */
+  public boolean compileAll(
+      Map<String, String> sources,
+      Path directory,
+      DiagnosticCollector<JavaFileObject> diagnostics) {
+    List<JavaFileObject> fileObjects = new ArrayList<>(sources.size());
+    for (Map.Entry<String, String> source : sources.entrySet()) {
+      fileObjects.add(new SequenceJavaFileObject(source.getKey() + ".java", source.getValue()));
+    }
+    List<String> options = new ArrayList<>(compilerOptions);
+    options.set(options.lastIndexOf("-d") + 1, directory.toString());
+    JavaCompiler.CompilationTask task =
+        compiler.getTask(null, fileManager, diagnostics, options, null, fileObjects);
+    Boolean succeeded = task.call();
+    return (succeeded != null && succeeded);
+  }
+
   /**
    * Given a .class file, returns the corresponding Class object.
    *
@@ -0,0 +1,493 @@
+package randoop.condition;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.plumelib.util.FilesPlume;
+import randoop.Globals;
+import randoop.compile.SequenceCompiler;
+import randoop.reflection.RawSignature;
+import randoop.util.Log;
+
+/**
+ * Compiles the expression methods of many specifications together, in a single compiler task, and
+ * optionally caches the compiled classes on disk.
+ *
+ * <p>{@link ExecutableBooleanExpression#createMethod} compiles one class per expression, and each
+ * compilation has a large fixed cost. This class instead generates a few classes, each containing
+ * the expression methods for one package, and compiles them all at once. Expressions that do not
+ * compile are left out; {@link SpecificationTranslator} compiles them individually, which reports
+ * their errors as usual.
+ *
+ * <p>The cache is keyed by a hash of the generated source code, the Java version, and the path,
+ * size, and modification time of each file on the classpath. The generated source code is
+ * determined by the specifications, so a later run with the same specifications and classpath
+ * loads the classes instead of compiling them, and a run after a jar file or class file on the
+ * classpath was rebuilt compiles them again.
+ */
+final class BatchExpressionCompiler {
+
+  private BatchExpressionCompiler() {
+    throw new IllegalStateException("no instance");
+  }
+
+  /** The maximum number of expression methods in one generated class. */
+  private static final int MAX_METHODS_PER_CLASS = 500;
+
+  /** The prefix of the names of the generated classes. */
+  private static final String CLASS_NAME_PREFIX = "RandoopExpressionBatch";
+
+  /** The prefix of the names of the generated expression methods. */
+  private static final String METHOD_NAME_PREFIX = "expression";
+
+  /** The file whose presence in a cache directory indicates that the directory is complete. */
+  private static final String COMPLETE_MARKER = "complete";
+
+  /** An expression method to be compiled. */
+  static final class ExpressionMethod {
+
+    /** The signature of the method; its class name and method name are ignored. */
+    final RawSignature signature;
+
+    /** The parameter declarations of the method, including parameter names and parentheses. */
+    final String declarations;
+
+    /** The boolean Java expression that is the body of the method. */
+    final String expressionSource;
+
+    /**
+     * Creates an expression method to be compiled.
+     *
+     * @param signature the signature of the method; its class name and method name are ignored
+     * @param declarations the parameter declarations of the method, including parameter names and
+     *     wrapped in parentheses
+     * @param expressionSource the boolean Java expression that is the body of the method
+     */
+    ExpressionMethod(RawSignature signature, String declarations, String expressionSource) {
+      this.signature = signature;
+      this.declarations = declarations;
+      this.expressionSource = expressionSource;
+    }
+
+    /**
+     * Returns the key of this expression method; see {@link BatchExpressionCompiler#key}.
+     *
+     * @return the key of this expression method
+     */
+    String key() {
+      return BatchExpressionCompiler.key(signature, declarations, expressionSource);
+    }
+  }
+
+  /** A generated class, containing expression methods that are all in the same package. */
+  private static final class ExpressionClass {
+
+    /** The package of the class, or null for the default package. */
+    final @Nullable String packageName;
+
+    /** The simple name of the class. */
+    final String simpleName;
+
+    /**
+     * The expression methods of the class. The method at index {@code i} is named {@link
+     * #METHOD_NAME_PREFIX} followed by {@code i}. Null for a method that has been left out because
+     * it does not compile.
+     */
+    final List<@Nullable ExpressionMethod> methods = new ArrayList<>();
+
+    /**
+     * Creates an empty generated class.
+     *
+     * @param packageName the package of the class, or null for the default package
+     * @param simpleName the simple name of the class
+     */
+    ExpressionClass(@Nullable String packageName, String simpleName) {
+      this.packageName = packageName;
+      this.simpleName = simpleName;
+    }
+
+    /**
+     * Returns the binary name of this class.
+     *
+     * @return the binary name of this class
+     */
+    String binaryName() {
+      return (packageName == null) ? simpleName : packageName + "." + simpleName;
+    }
+
+    /**
+     * The line number, in the source code most recently returned by {@link #source}, of the first
+     * line of each method.
+     */
+    private int[] firstLines = new int[0];
+
+    /**
+     * Returns the source code of this class.
+     *
+     * @return the source code of this class
+     */
+    String source() {
+      StringBuilder sb = new StringBuilder();
+      if (packageName != null) {
+        sb.append("package ").append(packageName).append(";").append(Globals.lineSep);
+        sb.append(Globals.lineSep);
+      }
+      sb.append("public class ").append(simpleName).append(" {").append(Globals.lineSep);
+      int lines = (packageName == null) ? 1 : 3;
+      firstLines = new int[methods.size()];
+      for (int i = 0; i < methods.size(); i++) {
+        firstLines[i] = lines + 1;
+        ExpressionMethod method = methods.get(i);
+        if (method == null) {
+          continue;
+        }
+        lines += 3 + lineCount(method.declarations) + lineCount(method.expressionSource);
+        sb.append("  public static boolean ")
+            .append(METHOD_NAME_PREFIX)
+            .append(i)
+            .append(method.declarations)
+            .append(" throws Throwable {")
+            .append(Globals.lineSep);
+        sb.append("    return ")
+            .append(method.expressionSource)
+            .append(";")
+            .append(Globals.lineSep);
+        sb.append("  }").append(Globals.lineSep);
+      }
+      sb.append("}").append(Globals.lineSep);
+      return sb.toString();
+    }
+
+    /**
+     * Returns the index of the method that contains the given line of the source code most recently
+     * returned by {@link #source}.
+     *
+     * @param line a line number, starting from 1
+     * @return the index of the method that contains {@code line}, or -1 if it is not in a method
+     */
+    int methodAt(long line) {
+      for (int i = firstLines.length - 1; i >= 0; i--) {
+        if (methods.get(i) != null && firstLines[i] <= line) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Returns the number of line terminators in the given text.
+     *
+     * @param text some text
+     * @return the number of line terminators in {@code text}
+     */
+    private static int lineCount(String text) {
+      int count = 0;
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (c == '\n' || (c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) {
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Returns the key that identifies an expression method: two expression methods with the same key
+   * behave identically.
+   *
+   * @param signature the signature of the method; its class name and method name are ignored
+   * @param declarations the parameter declarations of the method, including parameter names and
+   *     wrapped in parentheses
+   * @param expressionSource the boolean Java expression that is the body of the method
+   * @return the key of the expression method
+   */
+  static String key(RawSignature signature, String declarations, String expressionSource) {
+    return signature.getPackageName() + " " + declarations + " " + expressionSource;
+  }
+
+  /**
+   * Compiles the given expression methods in a single compiler task, or loads them from the cache.
+   *
+   * @param expressions the expression methods to compile; may contain duplicates
+   * @param compiler the compiler to use
+   * @param cacheDirectory the directory in which compiled classes are cached, or null not to cache
+   *     them
+   * @return map from the key (see {@link #key}) of each expression method to the compiled method.
+   *     Expression methods that do not compile are omitted.
+   */
+  static Map<String, Method> compile(
+      Collection<ExpressionMethod> expressions,
+      SequenceCompiler compiler,
+      @Nullable Path cacheDirectory) {
+    if (expressions.isEmpty()) {
+      return new HashMap<>();
+    }
+    List<ExpressionClass> classes = plan(expressions);
+    Map<String, String> sources = new LinkedHashMap<>();
+    for (ExpressionClass expressionClass : classes) {
+      sources.put(expressionClass.simpleName, expressionClass.source());
+    }
+    String hash = hash(sources.values());
+
+    try {
+      Path cached = null;
+      if (cacheDirectory != null) {
+        cached = cacheDirectory.resolve(hash);
+        if (Files.exists(cached.resolve(COMPLETE_MARKER))) {
+          Log.logPrintf("Loading compiled specification expressions from %s%n", cached);
+          return load(classes, cached);
+        }
+        Files.createDirectories(cacheDirectory);
+      }
+
+      Path output =
+          (cacheDirectory == null)
+              ? Files.createTempDirectory("randoop-expressions")
+              : Files.createTempDirectory(cacheDirectory, hash + "-");
+      if (!compileAll(classes, sources, compiler, output)) {
+        deleteDirectory(output);
+        return new HashMap<>();
+      }
+
+      if (cached == null) {
+        Map<String, Method> result = load(classes, output);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteDirectory(output)));
+        return result;
+      }
+      Files.createFile(output.resolve(COMPLETE_MARKER));
+      try {
+        Files.move(output, cached, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        // Another run stored the same classes concurrently.
+        deleteDirectory(output);
+      }
+      return load(classes, cached);
+    } catch (IOException e) {
+      Log.logPrintf("Unable to batch-compile specification expressions: %s%n", e);
+      return new HashMap<>();
+    }
+  }
+
+  /**
+   * Assigns the given expression methods to generated classes. The assignment depends only on the
+   * set of expression methods, not on their order, so that the cache is effective.
+   *
+   * @param expressions the expression methods to compile; may contain duplicates
+   * @return the classes to generate
+   */
+  private static List<ExpressionClass> plan(Collection<ExpressionMethod> expressions) {
+    Map<String, ExpressionMethod> byKey = new TreeMap<>();
+    for (ExpressionMethod expression : expressions) {
+      byKey.putIfAbsent(expression.key(), expression);
+    }
+    // Each package's methods fill classes of at most MAX_METHODS_PER_CLASS methods.
+    Map<@Nullable String, ExpressionClass> currentClass = new HashMap<>();
+    List<ExpressionClass> classes = new ArrayList<>();
+    for (ExpressionMethod expression : byKey.values()) {
+      String packageName = expression.signature.getPackageName();
+      ExpressionClass expressionClass = currentClass.get(packageName);
+      if (expressionClass == null || expressionClass.methods.size() == MAX_METHODS_PER_CLASS) {
+        expressionClass = new ExpressionClass(packageName, CLASS_NAME_PREFIX + classes.size());
+        currentClass.put(packageName, expressionClass);
+        classes.add(expressionClass);
+      }
+      expressionClass.methods.add(expression);
+    }
+    return classes;
+  }
+
+  /**
+   * Compiles the given classes into the given directory. If some expression methods do not
+   * compile, leaves them out and compiles the classes again.
+   *
+   * @param classes the classes to compile; their methods that do not compile are set to null
+   * @param sources map from the simple name of each class to its source code
+   * @param compiler the compiler to use
+   * @param output the directory in which to write the class files
+   * @return true if the compilation succeeded, possibly after leaving out some methods
+   */
+  private static boolean compileAll(
+      List<ExpressionClass> classes,
+      Map<String, String> sources,
+      SequenceCompiler compiler,
+      Path output) {
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    if (compiler.compileAll(sources, output, diagnostics)) {
+      return true;
+    }
+
+    // Leave out each method that has an error, and try again.
+    Map<String, ExpressionClass> bySourceName = new HashMap<>();
+    for (ExpressionClass expressionClass : classes) {
+      bySourceName.put(expressionClass.simpleName + ".java", expressionClass);
+    }
+    Set<ExpressionClass> changed = new HashSet<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() != Diagnostic.Kind.ERROR || diagnostic.getSource() == null) {
+        continue;
+      }
+      ExpressionClass expressionClass =
+          bySourceName.get(diagnostic.getSource().toUri().getPath());
+      int index =
+          (expressionClass == null) ? -1 : expressionClass.methodAt(diagnostic.getLineNumber());
+      if (index < 0) {
+        // The error is not in an expression method.
+        return false;
+      }
+      expressionClass.methods.set(index, null);
+      changed.add(expressionClass);
+    }
+    if (changed.isEmpty()) {
+      return false;
+    }
+    Log.logPrintf(
+        "Some specification expressions did not compile; they will be compiled individually.%n");
+    Map<String, String> retrySources = new LinkedHashMap<>();
+    for (ExpressionClass expressionClass : classes) {
+      retrySources.put(expressionClass.simpleName, expressionClass.source());
+    }
+    return compiler.compileAll(retrySources, output, new DiagnosticCollector<>());
+  }
+
+  /**
+   * Loads the expression methods of the given classes from the given directory.
+   *
+   * @param classes the generated classes
+   * @param directory the directory that contains the class files
+   * @return map from the key (see {@link #key}) of each expression method to the loaded method.
+   *     Expression methods that are not in the class files are omitted.
+   * @throws MalformedURLException if the directory cannot be converted to a URL
+   */
+  private static Map<String, Method> load(List<ExpressionClass> classes, Path directory)
+      throws MalformedURLException {
+    Map<String, Method> result = new HashMap<>();
+    ClassLoader loader = new URLClassLoader(new URL[] {directory.toUri().toURL()});
+    for (ExpressionClass expressionClass : classes) {
+      Class<?> loaded;
+      try {
+        loaded = loader.loadClass(expressionClass.binaryName());
+      } catch (ClassNotFoundException | LinkageError e) {
+        continue;
+      }
+      for (int i = 0; i < expressionClass.methods.size(); i++) {
+        ExpressionMethod expression = expressionClass.methods.get(i);
+        if (expression == null) {
+          continue;
+        }
+        try {
+          result.put(
+              expression.key(),
+              loaded.getDeclaredMethod(
+                  METHOD_NAME_PREFIX + i, expression.signature.getParameterTypes()));
+        } catch (NoSuchMethodException e) {
+          // The method did not compile when the cached classes were created.
+        }
+      }
+    }
+    Log.logPrintf(
+        "Loaded %d specification expressions in %d classes%n", result.size(), classes.size());
+    return result;
+  }
+
+  /**
+   * Returns a hash of the given source code, the classpath and the files on it, and the Java
+   * version.
+   *
+   * @param sources the source code of the generated classes
+   * @return a hexadecimal hash of the sources and the compilation environment
+   */
+  private static String hash(Collection<String> sources) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new Error("SHA-256 is always available", e);
+    }
+    for (String entry : Globals.getClassPath().split(File.pathSeparator)) {
+      digest.update(entry.getBytes(UTF_8));
+      digest.update((byte) 0);
+      updateWithFiles(digest, entry);
+    }
+    digest.update(System.getProperty("java.version").getBytes(UTF_8));
+    for (String source : sources) {
+      digest.update((byte) 0);
+      digest.update(source.getBytes(UTF_8));
+    }
+    StringBuilder sb = new StringBuilder();
+    for (byte b : digest.digest()) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Adds to the digest the path, size, and modification time of each file of a classpath entry: the
+   * entry itself if it is a jar file, or the files under it if it is a directory. Reading the
+   * attributes is much cheaper than reading the files, and they change whenever a file is rebuilt.
+   * Adds nothing for an entry that does not exist.
+   *
+   * @param digest the digest to update
+   * @param entry a classpath entry
+   */
+  private static void updateWithFiles(MessageDigest digest, String entry) {
+    if (entry.isEmpty()) {
+      return;
+    }
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(Paths.get(entry))) {
+      files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    } catch (IOException | UncheckedIOException | InvalidPathException e) {
+      return;
+    }
+    for (Path file : files) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        String description =
+            file + " " + attributes.size() + " " + attributes.lastModifiedTime().toMillis();
+        digest.update(description.getBytes(UTF_8));
+        digest.update((byte) 0);
+      } catch (IOException e) {
+        // The file was deleted while walking; it is not on the classpath any more.
+      }
+    }
+  }
+
+  /**
+   * Deletes the given directory and its contents, ignoring errors.
+   *
+   * @param directory the directory to delete
+   */
+  private static void deleteDirectory(Path directory) {
+    FilesPlume.deleteDir(directory.toFile());
+  }
+}
@@ -1,11 +1,13 @@
 package randoop.condition;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Objects;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.StringsPlume;
 import randoop.Globals;
 import randoop.compile.SequenceCompiler;
@@ -15,6 +17,7 @@ import randoop.main.GenInputsAbstract;
 import randoop.main.RandoopBug;
 import randoop.output.NameGenerator;
 import randoop.reflection.RawSignature;
+import randoop.util.MethodHandleReflectionCode;
 
 /**
  * A {@code ExecutableBooleanExpression} represents a boolean Java expression, and allows evaluation
@@ -37,6 +40,12 @@ public class ExecutableBooleanExpression {
    */
   private final Method expressionMethod;
 
+  /**
+   * A handle for {@link #expressionMethod} that takes the argument values as one array, or null if
+   * none could be created. Calling the handle is much faster than calling the method reflectively.
+   */
+  private final @Nullable MethodHandle expressionHandle;
+
   /** The comment describing this expression. */
   private final String comment;
 
@@ -56,6 +65,7 @@ public class ExecutableBooleanExpression {
    */
   ExecutableBooleanExpression(Method expressionMethod, String comment, String contractSource) {
     this.expressionMethod = expressionMethod;
+    this.expressionHandle = MethodHandleReflectionCode.spreadHandle(expressionMethod);
     this.comment = comment;
     this.contractSource = contractSource;
   }
@@ -140,31 +150,52 @@ public class ExecutableBooleanExpression {
    * @return true if this expression is satisfied by the values, false otherwise
    */
   public boolean check(Object[] values) {
+    if (expressionHandle != null
+        && MethodHandleReflectionCode.canInvoke(expressionMethod, values)) {
+      Object result;
+      try {
+        result = (Object) expressionHandle.invokeExact(values);
+      } catch (Throwable e) {
+        // Unlike reflection, a method handle does not wrap an exception thrown by the method.
+        return checkFailed(e);
+      }
+      return (Boolean) result;
+    }
     try {
       return (boolean) expressionMethod.invoke(null, values);
     } catch (IllegalAccessException e) {
       throw new RandoopSpecificationError("Failure executing expression method", e);
     } catch (InvocationTargetException e) {
-      // Evaluation of the expression threw an exception.
-      String messageDetails =
-          String.format(
-              "  contractSource = %s%n  comment = %s%n  cause = %s",
-              contractSource, comment, e.getCause());
-      if (GenInputsAbstract.ignore_condition_exception) {
-        if (!GenInputsAbstract.ignore_condition_exception_quiet) {
-          System.out.println("Failure executing expression method; fix the specification.");
-          System.out.println(messageDetails);
-          e.printStackTrace(System.out);
-        }
-        return false;
-      } else {
-        throw new RandoopSpecificationError(
-            "Failure executing expression method; fix the specification"
-                // + " or pass --ignore-condition-exception=true "
-                + "."
-                + System.lineSeparator()
-                + messageDetails);
+      return checkFailed(e.getCause());
+    }
+  }
+
+  /**
+   * Handles an exception thrown by the evaluation of this expression: either reports it and treats
+   * the expression as false, or throws a {@link RandoopSpecificationError}, depending on {@link
+   * GenInputsAbstract#ignore_condition_exception}.
+   *
+   * @param cause the exception thrown by the evaluation of this expression
+   * @return false, if the exception is to be ignored
+   */
+  private boolean checkFailed(Throwable cause) {
+    String messageDetails =
+        String.format(
+            "  contractSource = %s%n  comment = %s%n  cause = %s", contractSource, comment, cause);
+    if (GenInputsAbstract.ignore_condition_exception) {
+      if (!GenInputsAbstract.ignore_condition_exception_quiet) {
+        System.out.println("Failure executing expression method; fix the specification.");
+        System.out.println(messageDetails);
+        cause.printStackTrace(System.out);
       }
+      return false;
+    } else {
+      throw new RandoopSpecificationError(
+          "Failure executing expression method; fix the specification"
+              // + " or pass --ignore-condition-exception=true "
+              + "."
+              + System.lineSeparator()
+              + messageDetails);
     }
   }
 
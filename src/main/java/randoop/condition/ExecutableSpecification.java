@@ -1,7 +1,9 @@
 package randoop.condition;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * The executable version of an {@link randoop.condition.specification.OperationSpecification}. It
@@ -42,6 +44,13 @@ public class ExecutableSpecification {
    */
   private List<ExecutableSpecification> parentList = new ArrayList<>();
 
+  /**
+   * This specification followed by the elements of {@link #parentList}: the specifications whose
+   * guards {@link #checkPrestate(Object[])} evaluates. Computed on first use, and reset by {@link
+   * #addParent}.
+   */
+  private ExecutableSpecification @Nullable [] hierarchy = null;
+
   /** Creates an empty {@link ExecutableSpecification} object. */
   public ExecutableSpecification() {
     this(
@@ -72,43 +81,50 @@ public class ExecutableSpecification {
    * Check all guard expressions of the method's full specification, which includes this {@link
    * ExecutableSpecification} and those of any overridden/implemented method.
    *
+   * <p>Evaluation stops as soon as the outcome is decided. The throws guards of all the
+   * specifications are evaluated first. If any of them is satisfied, the call is classified by its
+   * expected exceptions alone (see {@link ExpectedOutcomeTable#addPostCheckGenerator}), so the
+   * other guards are not evaluated. Otherwise, for each specification, the guards of the
+   * postconditions are evaluated only if the preconditions are satisfied.
+   *
    * @param args the argument values to test the guard expressions; always includes a receiver (null
    *     for static methods)
    * @return the table with entries for this operation
-   * @see #checkPrestate(Object[], ExpectedOutcomeTable)
    */
   public ExpectedOutcomeTable checkPrestate(Object[] args) {
+    ExecutableSpecification[] specifications = hierarchy;
+    if (specifications == null) {
+      specifications = new ExecutableSpecification[parentList.size() + 1];
+      specifications[0] = this;
+      for (int i = 0; i < parentList.size(); i++) {
+        specifications[i + 1] = parentList.get(i);
+      }
+      hierarchy = specifications;
+    }
+
+    List<List<ThrowsClause>> throwsClauses = new ArrayList<>(specifications.length);
+    boolean exceptionExpected = false;
+    for (ExecutableSpecification specification : specifications) {
+      List<ThrowsClause> clauses = specification.checkGuardThrowsPairs(args);
+      throwsClauses.add(clauses);
+      exceptionExpected |= !clauses.isEmpty();
+    }
+
     ExpectedOutcomeTable table = new ExpectedOutcomeTable();
-    this.checkPrestate(args, table);
-    for (ExecutableSpecification execSpec : parentList) {
-      execSpec.checkPrestate(args, table);
+    for (int i = 0; i < specifications.length; i++) {
+      if (exceptionExpected) {
+        table.add(false, null, throwsClauses.get(i));
+      } else {
+        boolean preconditionCheck = specifications[i].checkPreExpressions(args);
+        // The table ignores the postcondition of a specification whose precondition fails.
+        ExecutableBooleanExpression postCondition =
+            preconditionCheck ? specifications[i].checkGuardPropertyPairs(args) : null;
+        table.add(preconditionCheck, postCondition, throwsClauses.get(i));
+      }
     }
     return table;
   }
 
-  /**
-   * Modifies the given table, adding an {@link ExpectedOutcomeTable} entry for the guard
-   * expressions of this method's local specification recording the following:
-   *
-   * <ol>
-   *   <li>Whether the {@link #preExpressions} fail or are satisfied. See {@link
-   *       randoop.condition.ExecutableSpecification#checkPreExpressions(java.lang.Object[])}.
-   *   <li>A set of {@link ThrowsClause} objects for expected exceptions. See {@link
-   *       randoop.condition.ExecutableSpecification#checkGuardThrowsPairs(java.lang.Object[])}.
-   *   <li>The expected {@link ExecutableBooleanExpression}, if any. See {@link
-   *       randoop.condition.ExecutableSpecification#checkGuardPropertyPairs(java.lang.Object[])}.
-   * </ol>
-   *
-   * @param args the argument values; always includes a receiver (null for static methods)
-   * @param table the table to which the created entry is to be added
-   */
-  private void checkPrestate(Object[] args, ExpectedOutcomeTable table) {
-    boolean preconditionCheck = checkPreExpressions(args);
-    List<ThrowsClause> throwsClauses = checkGuardThrowsPairs(args);
-    ExecutableBooleanExpression postCondition = checkGuardPropertyPairs(args);
-    table.add(preconditionCheck, postCondition, throwsClauses);
-  }
-
   /**
    * Tests the given argument values against the local preconditions, which are the {@link
    * ExecutableBooleanExpression} objects in {@link #preExpressions} in this {@link
@@ -134,14 +150,17 @@ public class ExecutableSpecification {
    * @return the set of exceptions for which the guard expression evaluated to true
    */
   private List<ThrowsClause> checkGuardThrowsPairs(Object[] args) {
-    List<ThrowsClause> throwsClauses = new ArrayList<>();
+    List<ThrowsClause> throwsClauses = null;
     for (GuardThrowsPair pair : guardThrowsPairs) {
       ExecutableBooleanExpression guard = pair.guard;
       if (guard.check(args)) {
+        if (throwsClauses == null) {
+          throwsClauses = new ArrayList<>();
+        }
         throwsClauses.add(pair.throwsClause);
       }
     }
-    return throwsClauses;
+    return (throwsClauses == null) ? Collections.emptyList() : throwsClauses;
   }
 
   /**
@@ -170,6 +189,7 @@ public class ExecutableSpecification {
    */
   void addParent(ExecutableSpecification parentExecSpec) {
     parentList.add(parentExecSpec);
+    hierarchy = null;
   }
 
   /**
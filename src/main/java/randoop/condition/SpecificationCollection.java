@@ -19,6 +19,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.ClassGetName;
 import randoop.compile.SequenceCompiler;
 import randoop.condition.specification.OperationSignature;
@@ -42,8 +44,9 @@ import randoop.util.MultiMap;
  * the {@link randoop.reflection.OperationModel} is created.
  *
  * <p>This class stores the {@link OperationSpecification} objects, and only constructs the
- * corresponding {@link ExecutableSpecification} on demand. This lazy strategy avoids building
- * condition methods for specifications that are not used.
+ * corresponding {@link ExecutableSpecification} on demand. The condition methods are compiled
+ * either individually on demand, or all together ahead of time by {@link #compileAllExpressions},
+ * which is much faster when there are many specifications.
  */
 public class SpecificationCollection {
 
@@ -62,6 +65,12 @@ public class SpecificationCollection {
   /** Compiler for creating conditionMethods. */
   private final SequenceCompiler compiler;
 
+  /**
+   * The condition methods compiled by {@link #compileAllExpressions}, indexed by {@link
+   * BatchExpressionCompiler#key}.
+   */
+  private final Map<String, Method> compiledExpressions = new HashMap<>();
+
   /**
    * Creates a {@link SpecificationCollection} for the given specification map.
    *
@@ -324,6 +333,28 @@ public class SpecificationCollection {
     }
   }
 
+  /**
+   * Compiles the condition methods of all the specifications in this collection in a single
+   * compiler task, so that {@link #getExecutableSpecification} need not compile them one at a time.
+   * Condition methods that do not compile are left to {@link #getExecutableSpecification}, which
+   * reports their errors.
+   *
+   * @param cacheDirectory the directory in which to cache the compiled condition methods, or null
+   *     not to cache them
+   */
+  public void compileAllExpressions(@Nullable Path cacheDirectory) {
+    List<BatchExpressionCompiler.ExpressionMethod> expressions = new ArrayList<>();
+    for (Map.Entry<AccessibleObject, OperationSpecification> entry : specificationMap.entrySet()) {
+      if (entry.getKey() instanceof Executable) {
+        SpecificationTranslator.createTranslator(
+                (Executable) entry.getKey(), entry.getValue(), compiler)
+            .addExpressionMethods(entry.getValue(), expressions);
+      }
+    }
+    compiledExpressions.putAll(
+        BatchExpressionCompiler.compile(expressions, compiler, cacheDirectory));
+  }
+
   /** Cache for {@link #getExecutableSpecification}. */
   private Map<AccessibleObject, ExecutableSpecification> getExecutableSpecificationCache;
 
@@ -342,11 +373,13 @@ public class SpecificationCollection {
    *       randoop.condition.GuardThrowsPair}
    * </ul>
    *
+   * <p>Synchronized, because the operations of different classes are extracted concurrently.
+   *
    * @param executable the reflection object for a constructor or method
    * @return the {@link ExecutableSpecification} for the specifications of the given method or
    *     constructor
    */
-  public ExecutableSpecification getExecutableSpecification(Executable executable) {
+  public synchronized ExecutableSpecification getExecutableSpecification(Executable executable) {
 
     // Check if executable already has an ExecutableSpecification object
     ExecutableSpecification execSpec = getExecutableSpecificationCache.get(executable);
@@ -361,7 +394,7 @@ public class SpecificationCollection {
     } else {
       execSpec =
           SpecificationTranslator.createExecutableSpecification(
-              executable, specification, compiler);
+              executable, specification, compiler, compiledExpressions);
     }
 
     if (executable instanceof Method) {
@@ -3,6 +3,7 @@ package randoop.condition;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +58,12 @@ public class SpecificationTranslator {
   /** The {@link SequenceCompiler} for compiling expression methods. */
   private final SequenceCompiler compiler;
 
+  /**
+   * Expression methods that have already been compiled, indexed by {@link
+   * BatchExpressionCompiler#key}. Other expression methods are compiled individually.
+   */
+  private final Map<String, Method> compiledExpressions;
+
   /**
    * Creates a {@link SpecificationTranslator} object in the given package with the signature
    * strings and variable replacementMap.
@@ -69,6 +76,8 @@ public class SpecificationTranslator {
    *     poststate expression method
    * @param replacementMap the map of expression identifiers to dummy variables
    * @param compiler the {@link SequenceCompiler} for creating expression methods
+   * @param compiledExpressions expression methods that have already been compiled, indexed by
+   *     {@link BatchExpressionCompiler#key}
    */
   private SpecificationTranslator(
       RawSignature prestateExpressionSignature,
@@ -76,13 +85,15 @@ public class SpecificationTranslator {
       RawSignature poststateExpressionSignature,
       String poststateExpressionDeclaration,
       Map<String, String> replacementMap,
-      SequenceCompiler compiler) {
+      SequenceCompiler compiler,
+      Map<String, Method> compiledExpressions) {
     this.prestateExpressionSignature = prestateExpressionSignature;
     this.prestateExpressionDeclaration = prestateExpressionDeclaration;
     this.poststateExpressionSignature = poststateExpressionSignature;
     this.poststateExpressionDeclarations = poststateExpressionDeclaration;
     this.replacementMap = replacementMap;
     this.compiler = compiler;
+    this.compiledExpressions = compiledExpressions;
   }
 
   /**
@@ -97,6 +108,26 @@ public class SpecificationTranslator {
    */
   static SpecificationTranslator createTranslator(
       Executable executable, OperationSpecification specification, SequenceCompiler compiler) {
+    return createTranslator(executable, specification, compiler, Collections.emptyMap());
+  }
+
+  /**
+   * Creates a {@link SpecificationTranslator} object to translate the {@link
+   * OperationSpecification} of {@code executable}.
+   *
+   * @param executable the {@code java.lang.reflect.AccessibleObject} for the operation with {@link
+   *     OperationSpecification} to translate
+   * @param specification the specification to be translated
+   * @param compiler the sequence compiler to use to create expression methods
+   * @param compiledExpressions expression methods that have already been compiled, indexed by
+   *     {@link BatchExpressionCompiler#key}
+   * @return the translator object to convert the specifications for {@code executable}
+   */
+  static SpecificationTranslator createTranslator(
+      Executable executable,
+      OperationSpecification specification,
+      SequenceCompiler compiler,
+      Map<String, Method> compiledExpressions) {
     Identifiers identifiers = specification.getIdentifiers();
 
     // Get expression method signatures.
@@ -126,7 +157,8 @@ public class SpecificationTranslator {
         poststateExpressionSignature,
         poststateExpressionDeclarations,
         replacementMap,
-        compiler);
+        compiler,
+        compiledExpressions);
   }
 
   /**
@@ -246,11 +278,17 @@ public class SpecificationTranslator {
    * @param executable the {@code java.lang.reflect.AccessibleObject} for the operation to translate
    * @param specification the specification to translate
    * @param compiler the sequence compiler to use to create expression methods
+   * @param compiledExpressions expression methods that have already been compiled, indexed by
+   *     {@link BatchExpressionCompiler#key}
    * @return the {@link ExecutableSpecification} for the given specification
    */
   public static ExecutableSpecification createExecutableSpecification(
-      Executable executable, OperationSpecification specification, SequenceCompiler compiler) {
-    SpecificationTranslator st = createTranslator(executable, specification, compiler);
+      Executable executable,
+      OperationSpecification specification,
+      SequenceCompiler compiler,
+      Map<String, Method> compiledExpressions) {
+    SpecificationTranslator st =
+        createTranslator(executable, specification, compiler, compiledExpressions);
     return new ExecutableSpecification(
         st.getGuardExpressions(specification.getPreconditions()),
         st.getReturnConditions(specification.getPostconditions()),
@@ -368,13 +406,12 @@ public class SpecificationTranslator {
    */
   private ExecutableBooleanExpression create(Guard expression) {
     String contractText = Util.replaceWords(expression.getConditionSource(), replacementMap);
-    return new ExecutableBooleanExpression(
+    return create(
         prestateExpressionSignature,
         prestateExpressionDeclaration,
         expression.getConditionSource(),
         contractText,
-        expression.getDescription(),
-        compiler);
+        expression.getDescription());
   }
 
   /**
@@ -388,13 +425,78 @@ public class SpecificationTranslator {
    */
   public ExecutableBooleanExpression create(Property expression) {
     String contractText = Util.replaceWords(expression.getConditionSource(), replacementMap);
-    return new ExecutableBooleanExpression(
+    return create(
         poststateExpressionSignature,
         poststateExpressionDeclarations,
         expression.getConditionSource(),
         contractText,
-        expression.getDescription(),
-        compiler);
+        expression.getDescription());
+  }
+
+  /**
+   * Creates a {@link ExecutableBooleanExpression} object, using an already-compiled expression
+   * method if there is one, and otherwise compiling the expression method.
+   *
+   * @param signature the signature for the expression method
+   * @param declarations the parameter declaration string for the expression method, including
+   *     parameter names and wrapped in parentheses
+   * @param expressionSource the source code for the Java expression
+   * @param contractText the source code for the expression, in the format of {@link
+   *     ExecutableBooleanExpression#getContractSource()}
+   * @param comment the comment describing the expression
+   * @return the {@link ExecutableBooleanExpression} object for the expression
+   */
+  private ExecutableBooleanExpression create(
+      RawSignature signature,
+      String declarations,
+      String expressionSource,
+      String contractText,
+      String comment) {
+    Method expressionMethod =
+        compiledExpressions.get(
+            BatchExpressionCompiler.key(signature, declarations, expressionSource));
+    if (expressionMethod != null) {
+      return new ExecutableBooleanExpression(expressionMethod, comment, contractText);
+    }
+    return new ExecutableBooleanExpression(
+        signature, declarations, expressionSource, contractText, comment, compiler);
+  }
+
+  /**
+   * Adds the expression methods needed to translate the given specification to {@code
+   * expressions}, without compiling them.
+   *
+   * @param specification the specification to be translated
+   * @param expressions the list to which to add the expression methods; side-effected
+   */
+  void addExpressionMethods(
+      OperationSpecification specification,
+      List<BatchExpressionCompiler.ExpressionMethod> expressions) {
+    for (Precondition precondition : specification.getPreconditions()) {
+      expressions.add(prestateExpressionMethod(precondition.getGuard()));
+    }
+    for (Postcondition postcondition : specification.getPostconditions()) {
+      expressions.add(prestateExpressionMethod(postcondition.getGuard()));
+      expressions.add(
+          new BatchExpressionCompiler.ExpressionMethod(
+              poststateExpressionSignature,
+              poststateExpressionDeclarations,
+              postcondition.getProperty().getConditionSource()));
+    }
+    for (ThrowsCondition throwsCondition : specification.getThrowsConditions()) {
+      expressions.add(prestateExpressionMethod(throwsCondition.getGuard()));
+    }
+  }
+
+  /**
+   * Returns the expression method for the given guard, without compiling it.
+   *
+   * @param guard a guard
+   * @return the expression method for {@code guard}
+   */
+  private BatchExpressionCompiler.ExpressionMethod prestateExpressionMethod(Guard guard) {
+    return new BatchExpressionCompiler.ExpressionMethod(
+        prestateExpressionSignature, prestateExpressionDeclaration, guard.getConditionSource());
   }
 
   /**
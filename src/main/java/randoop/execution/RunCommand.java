@@ -31,7 +31,7 @@ public class RunCommand {
    * @return the {@link Status} capturing the outcome of executing the command
    * @throws CommandException if there is an error running the command
    */
-  static Status run(List<String> command, Path workingDirectory, long timeout)
+  public static Status run(List<String> command, Path workingDirectory, long timeout)
       throws CommandException {
 
     String[] args = command.toArray(new String[0]);
@@ -68,6 +68,15 @@ public class TestEnvironment {
     this.timeout = timeout;
   }
 
+  /**
+   * Returns the test execution timeout.
+   *
+   * @return the time in milliseconds that a test is allowed to run before being terminated
+   */
+  long getTimeout() {
+    return timeout;
+  }
+
   /**
    * Runs the named JUnit test class in this environment.
    *
@@ -90,6 +99,17 @@ public class TestEnvironment {
    * @return the base command to run JUnit tests in this environment, without a test class name
    */
   private List<String> commandPrefix() {
+    return javaCommand("org.junit.runner.JUnitCore");
+  }
+
+  /**
+   * Constructs the command to run the given main class in this environment: with the agents, the
+   * memory limit, and the test classpath preceded by the working directory.
+   *
+   * @param mainClass the fully-qualified name of the class whose {@code main} method to run
+   * @return the command to run the main class in this environment, without arguments
+   */
+  List<String> javaCommand(String mainClass) {
     List<String> command = new ArrayList<>();
     command.add("java");
     command.add("-ea");
@@ -108,7 +128,7 @@ public class TestEnvironment {
 
     command.add("-classpath");
     command.add("." + java.io.File.pathSeparator + testClasspath);
-    command.add("org.junit.runner.JUnitCore");
+    command.add(mainClass);
 
     return command;
   }
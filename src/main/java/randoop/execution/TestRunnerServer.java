@@ -0,0 +1,249 @@
+package randoop.execution;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.internal.TextListener;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+/**
+ * The main class of the long-lived JVM in which {@link WarmTestRunner} runs JUnit test classes.
+ *
+ * <p>Reads one request per line from standard input: the directory that contains the compiled test
+ * class, a tab, and the fully-qualified name of the test class, optionally followed by a tab and
+ * {@link #TEXT}. Each test class is loaded, together with the classes it uses, by a new class
+ * loader, so static state does not carry over from one request to the next. For each request,
+ * writes lines that start with {@link #RESPONSE_PREFIX} to standard output, and finally "DONE".
+ * Ordinarily, these are "FAILURE method line" for each test failure, where "line" is the line of
+ * the test method that failed, and "ERROR message" for a failure that cannot be attributed to a
+ * line of a test method; output of the tests themselves is discarded. If the request ends with
+ * {@link #TEXT}, they are "TEXT line" for each line that {@code org.junit.runner.JUnitCore}, and
+ * the tests, would write to standard output.
+ */
+public class TestRunnerServer {
+
+  /** The prefix of each response line, which distinguishes it from any other output. */
+  static final String RESPONSE_PREFIX = "#randoop-test-runner# ";
+
+  /** The response for a failure at a line of a test method. */
+  static final String FAILURE = "FAILURE";
+
+  /** The response for a failure that is not at a line of a test method. */
+  static final String ERROR = "ERROR";
+
+  /** The response for a line of text output, and the request suffix that asks for text output. */
+  static final String TEXT = "TEXT";
+
+  /** The response that ends the responses to a request. */
+  static final String DONE = "DONE";
+
+  /** Prevent instantiation. */
+  private TestRunnerServer() {
+    throw new Error("Do not instantiate");
+  }
+
+  /**
+   * Runs test classes as requested on standard input, until standard input is closed.
+   *
+   * @param args ignored
+   * @throws IOException if there is an error reading a request
+   */
+  public static void main(String[] args) throws IOException {
+    PrintStream responses = System.out;
+    PrintStream discard =
+        new PrintStream(
+            new OutputStream() {
+              @Override
+              public void write(int b) {}
+            });
+    System.setOut(discard);
+    System.setErr(discard);
+
+    URL[] classpath = toURLs(System.getProperty("java.class.path"));
+    BufferedReader requests =
+        new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    String request;
+    while ((request = requests.readLine()) != null) {
+      String[] fields = request.split("\t");
+      if (fields.length < 2
+          || fields.length > 3
+          || (fields.length == 3 && !fields[2].equals(TEXT))) {
+        responses.println(RESPONSE_PREFIX + ERROR + " malformed request: " + request);
+      } else {
+        Path classDirectory = Paths.get(fields[0]);
+        boolean textOutput = fields.length == 3;
+        for (String response : runTestClass(classDirectory, fields[1], classpath, textOutput)) {
+          responses.println(RESPONSE_PREFIX + response);
+        }
+      }
+      responses.println(RESPONSE_PREFIX + DONE);
+      responses.flush();
+    }
+  }
+
+  /**
+   * Runs the given test class, loaded by a new class loader.
+   *
+   * @param classDirectory the directory that contains the class file of the test class
+   * @param testClassName the fully-qualified name of the test class
+   * @param classpath the classpath for the classes that the test class uses
+   * @param textOutput if true, respond with the text output of the run rather than the failures
+   * @return the responses for the failures of the tests, empty if all the tests pass; or the
+   *     responses for the lines of text output
+   */
+  static List<String> runTestClass(
+      Path classDirectory, String testClassName, URL[] classpath, boolean textOutput) {
+    List<String> responses = new ArrayList<>();
+    URL[] urls = new URL[classpath.length + 1];
+    try {
+      urls[0] = classDirectory.toUri().toURL();
+    } catch (MalformedURLException e) {
+      responses.add(ERROR + " " + oneLine(e.toString()));
+      return responses;
+    }
+    System.arraycopy(classpath, 0, urls, 1, classpath.length);
+    try (IsolatingClassLoader loader = new IsolatingClassLoader(urls)) {
+      Class<?> testClass = Class.forName(testClassName, false, loader);
+      if (textOutput) {
+        for (String line : runWithTextOutput(testClass)) {
+          responses.add(TEXT + " " + line);
+        }
+      } else {
+        Result result = new JUnitCore().run(testClass);
+        for (Failure failure : result.getFailures()) {
+          responses.add(describe(failure, testClassName));
+        }
+      }
+    } catch (Throwable e) {
+      responses.add(ERROR + " " + oneLine(e.toString()));
+    }
+    return responses;
+  }
+
+  /**
+   * Runs the given test class, and returns what {@code org.junit.runner.JUnitCore}, and the tests,
+   * would write to standard output.
+   *
+   * @param testClass the test class
+   * @return the lines of the text output of the run
+   * @throws IOException if the output cannot be read
+   */
+  private static List<String> runWithTextOutput(Class<?> testClass) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8.name());
+    PrintStream discard = System.out;
+    System.setOut(out);
+    try {
+      JUnitCore junit = new JUnitCore();
+      junit.addListener(new TextListener(out));
+      junit.run(testClass);
+    } finally {
+      System.setOut(discard);
+    }
+    List<String> lines = new ArrayList<>();
+    BufferedReader reader =
+        new BufferedReader(
+            new StringReader(new String(buffer.toByteArray(), StandardCharsets.UTF_8)));
+    for (String line; (line = reader.readLine()) != null; ) {
+      lines.add(line);
+    }
+    return lines;
+  }
+
+  /**
+   * Returns the response for the given failure: the test method and the line of the test method
+   * that failed, if there is one.
+   *
+   * @param failure a failure of a test of the test class
+   * @param testClassName the fully-qualified name of the test class
+   * @return the response for the failure
+   */
+  static String describe(Failure failure, String testClassName) {
+    Description description = failure.getDescription();
+    String methodName = description.getMethodName();
+    Throwable exception = failure.getException();
+    if (methodName != null && exception != null) {
+      for (StackTraceElement frame : exception.getStackTrace()) {
+        if (frame.getClassName().equals(testClassName)
+            && frame.getMethodName().equals(methodName)
+            && frame.getLineNumber() > 0) {
+          return FAILURE + " " + methodName + " " + frame.getLineNumber();
+        }
+      }
+    }
+    return ERROR + " " + oneLine(failure.toString());
+  }
+
+  /**
+   * Returns the given text on a single line.
+   *
+   * @param text some text
+   * @return the text, with line breaks replaced by spaces
+   */
+  private static String oneLine(String text) {
+    return text.replaceAll("\\R", " ");
+  }
+
+  /**
+   * Converts a classpath to URLs.
+   *
+   * @param classpath a classpath
+   * @return the URLs of the elements of the classpath
+   * @throws MalformedURLException if a classpath element cannot be converted to a URL
+   */
+  static URL[] toURLs(String classpath) throws MalformedURLException {
+    List<URL> urls = new ArrayList<>();
+    for (String element : classpath.split(File.pathSeparator)) {
+      if (!element.isEmpty()) {
+        urls.add(Paths.get(element).toAbsolutePath().toUri().toURL());
+      }
+    }
+    return urls.toArray(new URL[0]);
+  }
+
+  /**
+   * A class loader that loads classes from its own URLs rather than the application class loader,
+   * except for JUnit, which must be shared with the {@link JUnitCore} that runs the tests.
+   */
+  private static class IsolatingClassLoader extends URLClassLoader {
+
+    static {
+      ClassLoader.registerAsParallelCapable();
+    }
+
+    /**
+     * Creates an {@link IsolatingClassLoader}.
+     *
+     * @param urls the URLs from which to load classes
+     */
+    IsolatingClassLoader(URL[] urls) {
+      super(urls, ClassLoader.getSystemClassLoader().getParent());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (name.startsWith("org.junit.")
+          || name.startsWith("junit.")
+          || name.startsWith("org.hamcrest.")) {
+        return TestRunnerServer.class.getClassLoader().loadClass(name);
+      }
+      return super.loadClass(name, resolve);
+    }
+  }
+}
@@ -0,0 +1,272 @@
+package randoop.execution;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.plumelib.util.FilesPlume;
+
+/**
+ * Runs JUnit test classes in a single, long-lived JVM, which is much faster than starting a new JVM
+ * for each run. The JVM runs {@link TestRunnerServer}, which loads each test class, and the classes
+ * it uses, with a new class loader. Unlike runs in new JVMs, runs share JVM-wide state such as
+ * system properties and the working directory.
+ *
+ * <p>The JVM is started on the first run. If a run times out or the JVM exits, the JVM is stopped,
+ * and the next run starts a new one.
+ */
+public class WarmTestRunner implements Closeable {
+
+  /** The failure of a test method, at a line of the test method. */
+  public static class TestFailure {
+
+    /** The name of the failing test method. */
+    public final String methodName;
+
+    /** The 1-based line number, in the source of the test class, of the failing line. */
+    public final int lineNumber;
+
+    /**
+     * Creates a {@link TestFailure}.
+     *
+     * @param methodName the name of the failing test method
+     * @param lineNumber the 1-based line number of the failing line
+     */
+    public TestFailure(String methodName, int lineNumber) {
+      this.methodName = methodName;
+      this.lineNumber = lineNumber;
+    }
+
+    @Override
+    public String toString() {
+      return methodName + ":" + lineNumber;
+    }
+  }
+
+  /**
+   * Marks the end of the output of the JVM in {@link #responses}. It contains a line break, so it
+   * cannot be a response.
+   */
+  private static final String END_OF_OUTPUT = "\n";
+
+  /** The environment in which the JVM runs the tests. */
+  private final TestEnvironment testEnvironment;
+
+  /** The JVM that runs the tests, or null if it has not been started or was stopped. */
+  private volatile @Nullable Process process;
+
+  /** The working directory of the JVM, or null if it has not been started or was stopped. */
+  private @Nullable Path workingDirectory;
+
+  /** The writer of requests to the JVM. */
+  private @Nullable BufferedWriter requests;
+
+  /** The response lines read from the JVM, without their prefix, followed by END_OF_OUTPUT. */
+  private @Nullable BlockingQueue<String> responses;
+
+  /** True if the shutdown hook that stops the JVM has been registered. */
+  private boolean shutdownHookRegistered = false;
+
+  /**
+   * Creates a {@link WarmTestRunner}. Does not start the JVM.
+   *
+   * @param testEnvironment the environment in which to run the tests
+   */
+  public WarmTestRunner(TestEnvironment testEnvironment) {
+    this.testEnvironment = testEnvironment;
+  }
+
+  /**
+   * Runs the named JUnit test class.
+   *
+   * @param testClassName the fully-qualified name of the test class
+   * @param classDirectory the directory that contains the class file of the test class, in a
+   *     package-named subdirectory
+   * @return the failures of the tests, empty if all the tests pass; or null if the test class could
+   *     not be run, a test failed other than at a line of a test method, or the run timed out. The
+   *     caller should then run the test class in a new JVM.
+   */
+  public synchronized @Nullable List<TestFailure> runTest(
+      String testClassName, Path classDirectory) {
+    List<String> results = request(classDirectory.toAbsolutePath() + "\t" + testClassName);
+    if (results == null) {
+      return null;
+    }
+    List<TestFailure> failures = new ArrayList<>();
+    for (String response : results) {
+      String[] fields = response.split(" ", 3);
+      if (fields.length != 3 || !fields[0].equals(TestRunnerServer.FAILURE)) {
+        return null;
+      }
+      failures.add(new TestFailure(fields[1], Integer.parseInt(fields[2])));
+    }
+    return failures;
+  }
+
+  /**
+   * Runs the named JUnit test class, and returns what {@code org.junit.runner.JUnitCore}, and the
+   * tests, write to standard output.
+   *
+   * @param testClassName the fully-qualified name of the test class
+   * @param classDirectory the directory that contains the class file of the test class, in a
+   *     package-named subdirectory
+   * @return the lines of the standard output of the run; or null if the test class could not be
+   *     run or the run timed out. The caller should then run the test class in a new JVM.
+   */
+  public synchronized @Nullable List<String> runTestWithTextOutput(
+      String testClassName, Path classDirectory) {
+    List<String> results =
+        request(
+            classDirectory.toAbsolutePath()
+                + "\t"
+                + testClassName
+                + "\t"
+                + TestRunnerServer.TEXT);
+    if (results == null) {
+      return null;
+    }
+    String prefix = TestRunnerServer.TEXT + " ";
+    List<String> lines = new ArrayList<>(results.size());
+    for (String response : results) {
+      if (!response.startsWith(prefix)) {
+        return null;
+      }
+      lines.add(response.substring(prefix.length()));
+    }
+    return lines;
+  }
+
+  /**
+   * Sends a request to the JVM, starting it if necessary, and returns its responses.
+   *
+   * @param request the request
+   * @return the responses, without the final {@link TestRunnerServer#DONE}; or null if the JVM
+   *     could not be started, or exited or timed out before responding
+   */
+  private @Nullable List<String> request(String request) {
+    if (process == null && !start()) {
+      return null;
+    }
+    long deadline = System.currentTimeMillis() + testEnvironment.getTimeout();
+    try {
+      requests.write(request);
+      requests.newLine();
+      requests.flush();
+
+      List<String> result = new ArrayList<>();
+      while (true) {
+        String response =
+            responses.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        if (response == null || response.equals(END_OF_OUTPUT)) {
+          stop();
+          return null;
+        }
+        if (response.equals(TestRunnerServer.DONE)) {
+          return result;
+        }
+        result.add(response);
+      }
+    } catch (IOException e) {
+      stop();
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      stop();
+      return null;
+    }
+  }
+
+  /** Stops the JVM, if it is running. */
+  @Override
+  public synchronized void close() {
+    stop();
+  }
+
+  /**
+   * Starts the JVM.
+   *
+   * @return true if the JVM was started, false otherwise
+   */
+  private boolean start() {
+    if (!shutdownHookRegistered) {
+      // Does not synchronize, because a run might hold the lock.
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new Thread(
+                  () -> {
+                    Process p = process;
+                    if (p != null) {
+                      p.destroyForcibly();
+                    }
+                  }));
+      shutdownHookRegistered = true;
+    }
+    try {
+      workingDirectory = Files.createTempDirectory("randoop-test-runner");
+      ProcessBuilder builder =
+          new ProcessBuilder(testEnvironment.javaCommand(TestRunnerServer.class.getName()));
+      builder.directory(workingDirectory.toFile());
+      builder.redirectError(workingDirectory.resolve("stderr.txt").toFile());
+      process = builder.start();
+    } catch (IOException e) {
+      stop();
+      return false;
+    }
+    requests =
+        new BufferedWriter(
+            new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+    BlockingQueue<String> responseQueue = new LinkedBlockingQueue<>();
+    responses = responseQueue;
+    BufferedReader output =
+        new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+    Thread reader =
+        new Thread(
+            () -> {
+              try {
+                String line;
+                while ((line = output.readLine()) != null) {
+                  if (line.startsWith(TestRunnerServer.RESPONSE_PREFIX)) {
+                    responseQueue.add(line.substring(TestRunnerServer.RESPONSE_PREFIX.length()));
+                  }
+                }
+              } catch (IOException e) {
+                // The JVM was stopped.
+              }
+              responseQueue.add(END_OF_OUTPUT);
+            },
+            "WarmTestRunner output reader");
+    reader.setDaemon(true);
+    reader.start();
+    return true;
+  }
+
+  /** Stops the JVM, if it is running, and deletes its working directory. */
+  private synchronized void stop() {
+    if (process != null) {
+      process.destroyForcibly();
+      try {
+        process.waitFor(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      process = null;
+    }
+    requests = null;
+    responses = null;
+    if (workingDirectory != null) {
+      FilesPlume.deleteDir(workingDirectory.toFile());
+      workingDirectory = null;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.options.Option;
@@ -19,7 +20,9 @@ import randoop.main.GenInputsAbstract;
 import randoop.operation.TypedOperation;
 import randoop.sequence.ExecutableSequence;
 import randoop.sequence.Sequence;
+import randoop.test.CompilableTestPredicate;
 import randoop.test.TestCheckGenerator;
+import randoop.types.TypeRelationCache;
 import randoop.util.Log;
 import randoop.util.ProgressDisplay;
 import randoop.util.ReflectionExecutor;
@@ -138,6 +141,33 @@ public abstract class AbstractGenerator {
    */
   public Predicate<ExecutableSequence> outputTest;
 
+  /**
+   * If non-null, the sequences that satisfy {@link #outputTest} are output only if they are
+   * compilable. They are checked in batches, which is much faster than checking them one at a time.
+   */
+  private @Nullable CompilableTestPredicate compilableTest = null;
+
+  /** Sequences that satisfy {@link #outputTest} and have not yet been checked by compilableTest. */
+  private final List<ExecutableSequence> uncheckedOutputSeqs = new ArrayList<>();
+
+  /**
+   * If non-null, each regression sequence is passed to this consumer as soon as it is classified,
+   * instead of being stored in {@link #outRegressionSeqs}.
+   */
+  private @Nullable Consumer<ExecutableSequence> regressionSeqConsumer = null;
+
+  /**
+   * If non-null, each error-revealing sequence is passed to this consumer as soon as it is
+   * classified, instead of being stored in {@link #outErrorSeqs}.
+   */
+  private @Nullable Consumer<ExecutableSequence> errorSeqConsumer = null;
+
+  /** The number of regression sequences that were passed to regressionSeqConsumer. */
+  private int numConsumedRegressionSeqs = 0;
+
+  /** The number of error-revealing sequences that were passed to errorSeqConsumer. */
+  private int numConsumedErrorSeqs = 0;
+
   /** Visitor to generate checks for a sequence. */
   protected TestCheckGenerator checkGenerator;
 
@@ -195,6 +225,39 @@ public abstract class AbstractGenerator {
     this.outputTest = outputTest;
   }
 
+  /**
+   * Registers a predicate that determines whether sequences that satisfy the test predicate are
+   * compilable. Unlike a test predicate, it is applied to batches of sequences, so the
+   * classification of an output candidate may be delayed until its batch is full.
+   *
+   * @param compilableTest the predicate that checks whether sequences compile
+   */
+  public void setCompilableTestPredicate(CompilableTestPredicate compilableTest) {
+    if (compilableTest == null) {
+      throw new IllegalArgumentException("compilableTest must be non-null");
+    }
+    this.compilableTest = compilableTest;
+  }
+
+  /**
+   * Registers consumers for the output sequences. Each sequence to be output is passed to a
+   * consumer as soon as it is classified, and this generator does not retain it, so that memory
+   * use does not grow with the number of output sequences. The sequences are not filtered for
+   * subsumption (see {@link #getRegressionSequences}).
+   *
+   * @param regressionSeqConsumer the consumer of regression sequences
+   * @param errorSeqConsumer the consumer of error-revealing sequences
+   */
+  public void setOutputSequenceConsumers(
+      Consumer<ExecutableSequence> regressionSeqConsumer,
+      Consumer<ExecutableSequence> errorSeqConsumer) {
+    if (regressionSeqConsumer == null || errorSeqConsumer == null) {
+      throw new IllegalArgumentException("consumers must be non-null");
+    }
+    this.regressionSeqConsumer = regressionSeqConsumer;
+    this.errorSeqConsumer = errorSeqConsumer;
+  }
+
   /**
    * Registers a visitor with this object for use while executing each generated sequence.
    *
@@ -274,7 +337,7 @@ public abstract class AbstractGenerator {
    * @return the sum of the number of error and regression test sequences for output
    */
   public int numOutputSequences() {
-    return outErrorSeqs.size() + outRegressionSeqs.size();
+    return numErrorSequences() + outRegressionSeqs.size() + numConsumedRegressionSeqs;
   }
 
   /**
@@ -282,8 +345,8 @@ public abstract class AbstractGenerator {
    *
    * @return the number of error test sequences
    */
-  private int numErrorSequences() {
-    return outErrorSeqs.size();
+  int numErrorSequences() {
+    return outErrorSeqs.size() + numConsumedErrorSeqs;
   }
 
   /**
@@ -297,8 +360,6 @@ public abstract class AbstractGenerator {
       throw new Error("Generator not properly initialized - must have a TestCheckGenerator");
     }
 
-    startTime = System.currentTimeMillis();
-
     if (GenInputsAbstract.progressdisplay) {
       progressDisplay = new ProgressDisplay(this, listenerMgr, ProgressDisplay.Mode.MULTILINE);
       progressDisplay.start();
@@ -309,6 +370,47 @@ public abstract class AbstractGenerator {
       listenerMgr.explorationStart();
     }
 
+    classifySequencesUntilStopped();
+
+    if (GenInputsAbstract.progressdisplay && progressDisplay != null) {
+      progressDisplay.display(!GenInputsAbstract.deterministic);
+      progressDisplay.shouldStop = true;
+    }
+
+    if (GenInputsAbstract.progressdisplay) {
+      System.out.println();
+      System.out.println("Normal method executions: " + ReflectionExecutor.normalExecs());
+      System.out.println("Exceptional method executions: " + ReflectionExecutor.excepExecs());
+      if (!GenInputsAbstract.deterministic) {
+        System.out.println();
+        System.out.println(
+            "Average method execution time (normal termination):      "
+                + String.format("%.3g", ReflectionExecutor.normalExecAvgMillis()));
+        System.out.println(
+            "Average method execution time (exceptional termination): "
+                + String.format("%.3g", ReflectionExecutor.excepExecAvgMillis()));
+        System.out.println(
+            "Approximate memory usage "
+                + StringsPlume.abbreviateNumber(SystemPlume.usedMemory(false)));
+        System.out.println("Type relation cache: " + TypeRelationCache.statistics());
+      }
+      System.out.println("Explorer = " + this);
+    }
+
+    // Notify listeners that exploration is ending.
+    if (listenerMgr != null) {
+      listenerMgr.explorationEnd();
+    }
+  }
+
+  /**
+   * Repeatedly generates and classifies sequences until a stopping criterion is met. Unlike {@link
+   * #createAndClassifySequences}, does not start a progress display and does not notify listeners
+   * that exploration is starting or ending.
+   */
+  void classifySequencesUntilStopped() {
+    startTime = System.currentTimeMillis();
+
     while (!shouldStop()) {
 
       // Notify listeners we are about to perform a generation step.
@@ -331,7 +433,8 @@ public abstract class AbstractGenerator {
 
       if (GenInputsAbstract.progressdisplay
           && GenInputsAbstract.progressintervalsteps != -1
-          && num_steps % GenInputsAbstract.progressintervalsteps == 0) {
+          && num_steps % GenInputsAbstract.progressintervalsteps == 0
+          && progressDisplay != null) {
         progressDisplay.display(!GenInputsAbstract.deterministic);
       }
 
@@ -350,20 +453,18 @@ public abstract class AbstractGenerator {
             "%nProblem with sequence:%n%s%n%s%n", eSeq, UtilPlume.stackTraceToString(t));
         throw t;
       }
-      if (test) {
-        // Classify the sequence
-        if (eSeq.hasInvalidBehavior()) {
-          invalidSequenceCount++;
-        } else if (eSeq.hasFailure()) {
-          operationHistory.add(eSeq.getOperation(), OperationOutcome.ERROR_SEQUENCE);
-          num_failing_sequences++;
-          outErrorSeqs.add(eSeq);
-        } else {
-          outRegressionSeqs.add(eSeq);
-          newRegressionTestHook(eSeq.sequence);
-        }
-      } else {
+      if (!test) {
         num_failed_output_test++;
+      } else if (compilableTest == null) {
+        classify(eSeq);
+      } else {
+        uncheckedOutputSeqs.add(eSeq);
+        // Check the batch early if classifying it might reach a stopping criterion.
+        if (uncheckedOutputSeqs.size() >= CompilableTestPredicate.BATCH_SIZE
+            || numOutputSequences() + uncheckedOutputSeqs.size() >= limits.output_limit
+            || (GenInputsAbstract.stop_on_error_test && eSeq.hasFailure())) {
+          classifyUncheckedOutputSequences();
+        }
       }
 
       if (dump_sequences) {
@@ -373,34 +474,53 @@ public abstract class AbstractGenerator {
       }
     }
 
-    if (GenInputsAbstract.progressdisplay && progressDisplay != null) {
-      progressDisplay.display(!GenInputsAbstract.deterministic);
-      progressDisplay.shouldStop = true;
-    }
+    classifyUncheckedOutputSequences();
+  }
 
-    if (GenInputsAbstract.progressdisplay) {
-      System.out.println();
-      System.out.println("Normal method executions: " + ReflectionExecutor.normalExecs());
-      System.out.println("Exceptional method executions: " + ReflectionExecutor.excepExecs());
-      if (!GenInputsAbstract.deterministic) {
-        System.out.println();
-        System.out.println(
-            "Average method execution time (normal termination):      "
-                + String.format("%.3g", ReflectionExecutor.normalExecAvgMillis()));
-        System.out.println(
-            "Average method execution time (exceptional termination): "
-                + String.format("%.3g", ReflectionExecutor.excepExecAvgMillis()));
-        System.out.println(
-            "Approximate memory usage "
-                + StringsPlume.abbreviateNumber(SystemPlume.usedMemory(false)));
+  /**
+   * Classifies a sequence that should be output as invalid, error-revealing, or regression, and
+   * records it accordingly.
+   *
+   * @param eSeq a sequence that satisfies the test predicate
+   */
+  private void classify(ExecutableSequence eSeq) {
+    if (eSeq.hasInvalidBehavior()) {
+      invalidSequenceCount++;
+    } else if (eSeq.hasFailure()) {
+      operationHistory.add(eSeq.getOperation(), OperationOutcome.ERROR_SEQUENCE);
+      num_failing_sequences++;
+      if (errorSeqConsumer == null) {
+        outErrorSeqs.add(eSeq);
+      } else {
+        errorSeqConsumer.accept(eSeq);
+        numConsumedErrorSeqs++;
       }
-      System.out.println("Explorer = " + this);
+    } else {
+      if (regressionSeqConsumer == null) {
+        outRegressionSeqs.add(eSeq);
+      } else {
+        operationHistory.add(eSeq.getOperation(), OperationOutcome.REGRESSION_SEQUENCE);
+        regressionSeqConsumer.accept(eSeq);
+        numConsumedRegressionSeqs++;
+      }
+      newRegressionTestHook(eSeq.sequence);
     }
+  }
 
-    // Notify listeners that exploration is ending.
-    if (listenerMgr != null) {
-      listenerMgr.explorationEnd();
+  /** Checks whether the unchecked output sequences compile, and classifies those that do. */
+  private void classifyUncheckedOutputSequences() {
+    if (compilableTest == null || uncheckedOutputSeqs.isEmpty()) {
+      return;
+    }
+    boolean[] compilable = compilableTest.testAll(uncheckedOutputSeqs);
+    for (int i = 0; i < compilable.length; i++) {
+      if (compilable[i]) {
+        classify(uncheckedOutputSeqs.get(i));
+      } else {
+        num_failed_output_test++;
+      }
     }
+    uncheckedOutputSeqs.clear();
   }
 
   /**
@@ -449,7 +569,7 @@ public abstract class AbstractGenerator {
    * @return the total number of test sequences saved for output
    */
   public int outputSequenceCount() {
-    return outRegressionSeqs.size() + outErrorSeqs.size();
+    return numOutputSequences();
   }
 
   /**
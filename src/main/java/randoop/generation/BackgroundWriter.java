@@ -0,0 +1,182 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hands items from one producer thread to a daemon thread that writes them, through a bounded
+ * queue. The producer waits only while the queue is full; the writer takes the items in batches.
+ *
+ * <p>If writing an item fails, the writer records the first failure and keeps taking items, without
+ * writing them, until {@link #finish()}; the producer sees the failure at its next call. So the
+ * producer never waits forever, whatever goes wrong in the writer. Not thread-safe on the producer
+ * side: {@link #submit} and {@link #finish} must be called from one thread.
+ *
+ * @param <T> the type of the items
+ */
+final class BackgroundWriter<T> {
+
+	/** How long the producer waits for room in the queue before checking on the writer again. */
+	private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+	/** Tells the writer that there are no more items. */
+	private static final Object END = new Object();
+
+	private final BlockingQueue<Object> queue;
+	private final int batchSize;
+	private final Consumer<? super T> write;
+	private final Thread writer;
+	/** The first failure of the writer, or null. */
+	private volatile Throwable failure;
+	/** The largest number of items that were waiting to be written at once. */
+	private int highWater = 0;
+	/** The number of times the producer waited because the queue was full. */
+	private int fullWaits = 0;
+	private boolean finished = false;
+
+	/**
+	 * Creates a writer and starts its thread.
+	 *
+	 * @param threadName the name of the writer thread
+	 * @param capacity the maximum number of items waiting to be written
+	 * @param batchSize the maximum number of items that the writer takes from the queue at once
+	 * @param write writes one item, on the writer thread; may throw any exception
+	 */
+	BackgroundWriter(String threadName, int capacity, int batchSize, Consumer<? super T> write) {
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.batchSize = batchSize;
+		this.write = write;
+		this.writer = new Thread(this::run, threadName);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Hands an item to the writer, waiting while the queue is full.
+	 *
+	 * @param item the item to write
+	 * @throws Error if the writer has failed
+	 */
+	void submit(T item) {
+		checkFailure();
+		if (!queue.offer(item)) {
+			fullWaits++;
+			if (!offer(item)) {
+				checkFailure();
+				throw new Error("The writer thread " + writer.getName() + " stopped");
+			}
+		}
+		highWater = Math.max(highWater, queue.size());
+	}
+
+	/**
+	 * Tells the writer that there are no more items, and waits until it has written the submitted
+	 * ones. Does nothing if called again.
+	 *
+	 * @throws Error if the writer has failed
+	 */
+	void finish() {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		offer(END);
+		boolean interrupted = false;
+		while (writer.isAlive()) {
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		checkFailure();
+	}
+
+	/** The largest number of items that were waiting to be written at once. */
+	int highWater() {
+		return highWater;
+	}
+
+	/** The number of times the producer waited because the queue was full. */
+	int fullWaits() {
+		return fullWaits;
+	}
+
+	/**
+	 * Puts an item in the queue, waiting while it is full and the writer is running.
+	 *
+	 * @param item the item, or {@link #END}
+	 * @return true if the item was queued, false if the writer thread has stopped
+	 */
+	private boolean offer(Object item) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					if (queue.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+				if (!writer.isAlive()) {
+					return false;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/** Throws an error if the writer has failed. */
+	private void checkFailure() {
+		Throwable f = failure;
+		if (f != null) {
+			throw new Error("The writer thread " + writer.getName() + " failed", f);
+		}
+	}
+
+	/** Runs on the writer thread: writes the queued items, in batches, until {@link #END}. */
+	private void run() {
+		List<Object> batch = new ArrayList<>(batchSize);
+		while (true) {
+			try {
+				batch.add(queue.take());
+				queue.drainTo(batch, batchSize - 1);
+			} catch (Throwable e) {
+				recordFailure(e);
+			}
+			for (Object item : batch) {
+				if (item == END) {
+					return;
+				}
+				// After a failure, keep taking items so that the producer does not wait forever
+				if (failure == null) {
+					try {
+						@SuppressWarnings("unchecked")
+						T t = (T) item;
+						write.accept(t);
+					} catch (Throwable e) {
+						recordFailure(e);
+					}
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	private void recordFailure(Throwable e) {
+		if (failure == null) {
+			failure = e;
+		}
+	}
+}
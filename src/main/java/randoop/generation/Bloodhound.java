@@ -20,6 +20,7 @@ import randoop.sequence.Sequence;
 import randoop.types.ClassOrInterfaceType;
 import randoop.util.Randomness;
 import randoop.util.SimpleArrayList;
+import randoop.util.WeightedSampler;
 
 /**
  * Implements the Bloodhound component, as described by the paper "GRT: Program-Analysis-Guided
@@ -47,10 +48,13 @@ public class Bloodhound implements TypedOperationSelector {
   private final CoverageTracker coverageTracker;
 
   /**
-   * Map from methods under test to their weights. These weights are dynamic and depend on branch
-   * coverage.
+   * The methods under test and their weights, in the order of {@link #operationSimpleList}. These
+   * weights are dynamic and depend on branch coverage.
    */
-  private final Map<TypedOperation, Double> methodWeights = new HashMap<>();
+  private final WeightedSampler<TypedOperation> methodWeights;
+
+  /** Map from methods under test to their indices in {@link #methodWeights}. */
+  private final Map<TypedOperation, Integer> methodIndices = new HashMap<>();
 
   /**
    * Map from methods under test to the number of times they have been recently selected by the
@@ -66,10 +70,7 @@ public class Bloodhound implements TypedOperationSelector {
    */
   private final Map<TypedOperation, Integer> methodInvocationCounts = new HashMap<>();
 
-  /**
-   * List of operations, identical to {@link ForwardGenerator}'s operation list. Used for making
-   * random, weighted selections for a method under test.
-   */
+  /** List of operations, identical to {@link ForwardGenerator}'s operation list. */
   private final SimpleArrayList<TypedOperation> operationSimpleList;
 
   /**
@@ -109,12 +110,6 @@ public class Bloodhound implements TypedOperationSelector {
    */
   private int maxSuccM = 1;
 
-  /**
-   * The total weight of all the methods that are under test. This is used by {@link Randomness} to
-   * randomly select an element from a list of weighted elements.
-   */
-  private double totalWeightOfMethodsUnderTest = 0;
-
   /**
    * Initialize Bloodhound. Branch coverage information is initialized and all methods under test
    * are assigned a weight based on the weighting scheme defined by GRT's description of Bloodhound.
@@ -124,6 +119,11 @@ public class Bloodhound implements TypedOperationSelector {
    */
   public Bloodhound(List<TypedOperation> operations, Set<ClassOrInterfaceType> classesUnderTest) {
     this.operationSimpleList = new SimpleArrayList<>(operations);
+    this.methodWeights = new WeightedSampler<>(operations.size());
+    for (TypedOperation operation : operations) {
+      methodIndices.put(operation, methodWeights.size());
+      methodWeights.add(operation, 0.0);
+    }
     this.coverageTracker = new CoverageTracker(classesUnderTest);
 
     // Compute an initial weight for all methods under test. We also initialize the uncovered ratio
@@ -146,9 +146,7 @@ public class Bloodhound implements TypedOperationSelector {
     updateBranchCoverageMaybe();
 
     // Make a random, weighted choice for the next method.
-    TypedOperation selectedOperation =
-        Randomness.randomMemberWeighted(
-            operationSimpleList, methodWeights, totalWeightOfMethodsUnderTest);
+    TypedOperation selectedOperation = Randomness.randomMemberWeighted(methodWeights);
 
     // Update the selected method's selection count and recompute its weight.
     CollectionsPlume.incrementMap(methodSelectionCounts, selectedOperation);
@@ -222,23 +220,21 @@ public class Bloodhound implements TypedOperationSelector {
   private void logMethodWeights() {
     if (GenInputsAbstract.bloodhound_logging) {
       System.out.println("Method name: method weight");
-      for (TypedOperation typedOperation : new TreeSet<>(methodWeights.keySet())) {
-        System.out.println(typedOperation.getName() + ": " + methodWeights.get(typedOperation));
+      for (TypedOperation typedOperation : new TreeSet<>(methodIndices.keySet())) {
+        System.out.println(
+            typedOperation.getName()
+                + ": "
+                + methodWeights.getWeight(methodIndices.get(typedOperation)));
       }
       System.out.println("--------------------------");
     }
   }
 
-  /**
-   * Computes and updates weights in {@code methodWeights} map for all methods under test.
-   * Recomputes the {@code totalWeightOfMethodsUnderTest} to avoid problems with round-off error.
-   */
+  /** Computes and updates weights in {@code methodWeights} for all methods under test. */
   private void updateWeightsForAllOperations() {
-    double totalWeight = 0;
     for (TypedOperation operation : operationSimpleList) {
-      totalWeight += updateWeight(operation);
+      updateWeight(operation);
     }
-    totalWeightOfMethodsUnderTest = totalWeight;
   }
 
   /**
@@ -330,14 +326,8 @@ public class Bloodhound implements TypedOperationSelector {
       wmk = Math.max(val1, val2) * wm0;
     }
 
-    // Retrieve the weight from the methodWeights map if it exists. Otherwise, default to zero.
-    Double existingWeight = methodWeights.getOrDefault(operation, 0.0);
-
-    methodWeights.put(operation, wmk);
-
-    // Update the contribution of this method to the total weight of all methods under test.
-    totalWeightOfMethodsUnderTest -= existingWeight;
-    totalWeightOfMethodsUnderTest += wmk;
+    // This also updates the total weight of all methods under test.
+    methodWeights.setWeight(methodIndices.get(operation), wmk);
 
     return wmk;
   }
@@ -93,6 +93,20 @@ public class ComponentManager {
     gralComponents = new SequenceCollection(seedSet);
   }
 
+  /**
+   * Create a component manager with the same seed sequences, class literals, and package literals
+   * as the given one, but none of its generated sequences. The literals are shared with {@code
+   * other}, so neither manager should be given new literals afterward.
+   *
+   * @param other the component manager whose seeds and literals to use
+   */
+  public ComponentManager(ComponentManager other) {
+    this.gralSeeds = other.gralSeeds;
+    this.gralComponents = new SequenceCollection(other.gralSeeds);
+    this.classLiterals = other.classLiterals;
+    this.packageLiterals = other.packageLiterals;
+  }
+
   /**
    * Returns the number of (non-seed) sequences stored by the manager.
    *
@@ -23,6 +23,7 @@ import randoop.operation.TypedOperation;
 import randoop.reflection.RandoopInstantiationError;
 import randoop.reflection.TypeInstantiator;
 import randoop.sequence.ExecutableSequence;
+import randoop.sequence.PrefixExecutionCache;
 import randoop.sequence.Sequence;
 import randoop.sequence.SequenceExceptionError;
 import randoop.sequence.Statement;
@@ -86,6 +87,30 @@ public class ForwardGenerator extends AbstractGenerator {
    */
   private Set<Object> runtimePrimitivesSeen = new LinkedHashSet<>();
 
+  /**
+   * The runtime values of recently-executed sequences, reused when executing sequences that extend
+   * them. Null if {@link GenInputsAbstract#prefix_cache_size} is 0.
+   */
+  private final @Nullable PrefixExecutionCache prefixCache;
+
+  /**
+   * The pool shared with the other workers of a {@link ParallelGenerator}, or null if this
+   * generator is not a worker.
+   */
+  private @Nullable SharedSequencePool sharedPool = null;
+
+  /** This generator's id among the workers that share {@link #sharedPool}. */
+  private int workerId = 0;
+
+  /** How much of {@link #sharedPool} this generator has already imported. */
+  private int sharedPoolPosition = 0;
+
+  /**
+   * Sequences added to the component manager that have not yet been published to {@link
+   * #sharedPool}. Always empty if {@link #sharedPool} is null.
+   */
+  private List<Sequence> unpublishedSequences = new ArrayList<>();
+
   /**
    * Create a forward generator.
    *
@@ -136,6 +161,10 @@ public class ForwardGenerator extends AbstractGenerator {
 
     this.sideEffectFreeMethods = sideEffectFreeMethods;
     this.instantiator = componentManager.getTypeInstantiator();
+    this.prefixCache =
+        (GenInputsAbstract.prefix_cache_size == 0)
+            ? null
+            : new PrefixExecutionCache(GenInputsAbstract.prefix_cache_size);
 
     initializeRuntimePrimitivesSeen();
 
@@ -185,6 +214,9 @@ public class ForwardGenerator extends AbstractGenerator {
       NormalExecution e = (NormalExecution) es.getResult(0);
       Object runtimeValue = e.getRuntimeValue();
       runtimePrimitivesSeen.add(runtimeValue);
+      if (prefixCache != null) {
+        prefixCache.add(es);
+      }
     }
   }
 
@@ -198,12 +230,16 @@ public class ForwardGenerator extends AbstractGenerator {
 
     long startTime = System.nanoTime();
 
+    if (sharedPool != null && num_steps % GenInputsAbstract.worker_sync_interval == 0) {
+      exchangeWithSharedPool();
+    }
+
     if (componentManager.numGeneratedSequences() % GenInputsAbstract.clear == 0) {
-      componentManager.clearGeneratedSequences();
+      clearGeneratedSequences();
     }
     if (SystemPlume.usedMemory(false) > GenInputsAbstract.clear_memory
         && SystemPlume.usedMemory(true) > GenInputsAbstract.clear_memory) {
-      componentManager.clearGeneratedSequences();
+      clearGeneratedSequences();
     }
 
     ExecutableSequence eSeq = createNewUniqueSequence();
@@ -218,7 +254,7 @@ public class ForwardGenerator extends AbstractGenerator {
     }
 
     if (GenInputsAbstract.dontexecute) {
-      this.componentManager.addGeneratedSequence(eSeq.sequence);
+      addGeneratedSequence(eSeq.sequence);
       long gentime = System.nanoTime() - startTime;
       if (gentime > timeWarningLimit) {
         System.out.printf("Long generation time %d msec for%n", gentime / nanoPerMilli);
@@ -234,14 +270,18 @@ public class ForwardGenerator extends AbstractGenerator {
     // Useful for debugging non-terminating sequences.
     // System.out.printf("step() is considering: %n%s%n%n", eSeq.sequence);
 
-    eSeq.execute(executionVisitor, checkGenerator);
+    eSeq.execute(
+        executionVisitor, checkGenerator, canReusePrefix(eSeq.getOperation()) ? prefixCache : null);
 
     startTime = System.nanoTime(); // reset start time.
 
     determineActiveIndices(eSeq);
 
     if (eSeq.sequence.hasActiveFlags()) {
-      componentManager.addGeneratedSequence(eSeq.sequence);
+      addGeneratedSequence(eSeq.sequence);
+      if (prefixCache != null) {
+        prefixCache.add(eSeq);
+      }
     }
 
     long gentime2 = System.nanoTime() - startTime;
@@ -262,6 +302,90 @@ public class ForwardGenerator extends AbstractGenerator {
     return eSeq;
   }
 
+  /**
+   * Adds a sequence to the component manager. If this generator is a worker of a {@link
+   * ParallelGenerator}, the sequence will also be published to the other workers.
+   *
+   * @param sequence the new component sequence
+   */
+  private void addGeneratedSequence(Sequence sequence) {
+    componentManager.addGeneratedSequence(sequence);
+    if (sharedPool != null) {
+      unpublishedSequences.add(sequence);
+    }
+  }
+
+  /**
+   * Makes this generator a worker that shares component sequences with other workers via the given
+   * pool.
+   *
+   * @param sharedPool the pool shared by all the workers
+   * @param workerId the id of this worker, distinct from the ids of the other workers
+   */
+  void setSharedPool(SharedSequencePool sharedPool, int workerId) {
+    this.sharedPool = sharedPool;
+    this.workerId = workerId;
+  }
+
+  /**
+   * Publishes this generator's new component sequences to {@link #sharedPool}, and adds the
+   * sequences published by the other workers to this generator's component manager.
+   */
+  private void exchangeWithSharedPool() {
+    SharedSequencePool pool = sharedPool;
+    if (pool == null) {
+      return;
+    }
+    if (!unpublishedSequences.isEmpty()) {
+      pool.publish(workerId, unpublishedSequences);
+      unpublishedSequences = new ArrayList<>();
+    }
+    List<Sequence> imported = new ArrayList<>();
+    sharedPoolPosition = pool.importSince(workerId, sharedPoolPosition, imported);
+    for (Sequence sequence : imported) {
+      // A sequence this generator created itself is already in its component manager.
+      if (!allSequences.contains(sequence)) {
+        componentManager.addGeneratedSequence(sequence);
+      }
+    }
+    Log.logPrintf("Imported %d sequences from the shared pool.%n", imported.size());
+  }
+
+  /**
+   * Clears the generated (non-seed) sequences from the component manager, and the runtime values
+   * retained for them.
+   */
+  private void clearGeneratedSequences() {
+    componentManager.clearGeneratedSequences();
+    inputSequenceSelector.clear();
+    if (prefixCache != null) {
+      prefixCache.clear();
+    }
+  }
+
+  /**
+   * Returns true if a sequence whose new statements call the given operation may reuse the cached
+   * runtime values of its component sequences. That is the case if the operation cannot side-effect
+   * those values: it is side-effect-free, or all of its inputs are immutable.
+   *
+   * @param operation the operation of the last statement of a new sequence
+   * @return true if the new sequence may be executed using {@link #prefixCache}
+   */
+  private boolean canReusePrefix(TypedOperation operation) {
+    if (prefixCache == null) {
+      return false;
+    }
+    if (sideEffectFreeMethods.contains(operation)) {
+      return true;
+    }
+    for (Type inputType : operation.getInputTypes()) {
+      if (!inputType.isNonreceiverType()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public LinkedHashSet<Sequence> getAllSequences() {
     return this.allSequences;
@@ -318,7 +442,7 @@ public class ForwardGenerator extends AbstractGenerator {
     }
 
     if (!Value.lastValueSizeOk(seq)) {
-      int i = seq.sequence.statements.size() - 1;
+      int i = seq.sequence.size() - 1;
       Log.logPrintf(
           "Excluding from extension pool due to value too large in last statement %d%n", i);
       Log.logPrintf("  Statement: %s%n", seq.statementToCodeString(i));
@@ -344,7 +468,7 @@ public class ForwardGenerator extends AbstractGenerator {
       // any argument, so Randoop should use some other shorter sequence
       // that produces the value.)
       Sequence stmts = seq.sequence;
-      Statement stmt = stmts.statements.get(i);
+      Statement stmt = stmts.getStatement(i);
       boolean isSideEffectFree =
           stmt.isMethodCall() && sideEffectFreeMethods.contains(stmt.getOperation());
       Log.logPrintf("isSideEffectFree => %s for %s%n", isSideEffectFree, stmt);
@@ -384,7 +508,7 @@ public class ForwardGenerator extends AbstractGenerator {
         }
         if (!looksLikeObjToString && !tooLongString && runtimePrimitivesSeen.add(runtimeValue)) {
           // Have not seen this value before; add it to the component set.
-          componentManager.addGeneratedSequence(Sequence.createSequenceForPrimitive(runtimeValue));
+          addGeneratedSequence(Sequence.createSequenceForPrimitive(runtimeValue));
         }
         continue;
       }
@@ -954,7 +1078,8 @@ public class ForwardGenerator extends AbstractGenerator {
             String.join(
                 ", ",
                 "sideEffectFreeMethods: " + sideEffectFreeMethods.size(),
-                "runtimePrimitivesSeen: " + runtimePrimitivesSeen.size()))
+                "runtimePrimitivesSeen: " + runtimePrimitivesSeen.size()),
+            (prefixCache == null ? "prefixCache: disabled" : prefixCache.toString()))
         + ")";
   }
 }
@@ -1,15 +1,26 @@
 package randoop.generation;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import com.thoughtworks.xstream.XStream;
 
 import randoop.InOutObjectsCollector;
+import randoop.ObjectGraphCloner;
+import randoop.main.GenInputsAbstract.SerializeFormat;
 import randoop.operation.TypedClassOperation;
 import randoop.operation.TypedOperation;
 import randoop.reflection.SingleMethodMatcher;
@@ -18,49 +29,119 @@ import randoop.types.PrimitiveType;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 
+/**
+ * Serializes the inputs and outputs of each successful call to the methods matching any of a list
+ * of patterns, one tuple per call. The tuples of each matching operation go to their own sink, a
+ * subfolder {@code op0}, {@code op1}, ... of the output folder, numbered in the order in which the
+ * operations are first called; at most a given number of tuples is serialized per operation. In a
+ * sink, each input and output position is a column, written by a {@link TupleColumnWriter} in the
+ * chosen {@link SerializeFormat}. At the end of the exploration, the file {@value #INDEX_FILE} of
+ * each sink lists the number of tuples and, for each column, its name, its kind, and its declared
+ * type, and the file {@value #OPERATIONS_FILE} of the output folder lists the sinks.
+ *
+ * <p>The tuples are written by a background thread, so that generation does not wait for the disk.
+ * The generator hands each tuple to a {@link BackgroundWriter} through a bounded queue, and waits
+ * only when the queue is full; the writer takes the tuples in batches. Outputs are copied before
+ * they are queued, since the writer serializes them after the generator has moved on.
+ *
+ * <p>Optionally, only the first tuple with given inputs is serialized for each operation. The
+ * inputs of each tuple are encoded as their columns store them, and the SHA-256 hash of the
+ * encodings is looked up in a set of the hashes of the operation. Repeated inputs are dropped
+ * before their outputs are copied, and counted. The encodings of the inputs that are kept are
+ * written as they are, so deduplication costs no extra serialization.
+ */
 public class InOutMethodSerializer implements IEventListener {
 
-	private Pattern methodPattern;
+	/** The name of the file of a sink that describes its serialized tuples. */
+	static final String INDEX_FILE = "tuples.index";
+
+	/** The name of the file of the output folder that lists the sinks. */
+	static final String OPERATIONS_FILE = "operations.index";
+
+	/** The version of the layout described by the index files. */
+	private static final int FORMAT_VERSION = 2;
+
+	/** The maximum number of tuples waiting to be written. */
+	private static final int QUEUE_CAPACITY = 1024;
+
+	/** The maximum number of tuples that the writer takes from the queue at once. */
+	private static final int BATCH_SIZE = 128;
+
 	private SingleMethodMatcher methodMatcher;
-	private TypedClassOperation operation;
 	private String outputFolder;
 	private XStream xstream;
-	private List<ObjectOutputStream> inOoss;
-	private List<ObjectOutputStream> outOoss;
+	private SerializeFormat format;
+	private int tupleLimit;
+	private boolean deduplicate;
+	private MessageDigest digest;
 	private InOutObjectsCollector inOutCollector;
-	private int inObjs = -1;
-	private int outObjs = -1;
+	/** The sink of each matching operation called so far, in the order of the first calls. */
+	private Map<TypedClassOperation, OperationSink> sinks = new LinkedHashMap<>();
+	/** The operations called so far that match no pattern. */
+	private Set<TypedClassOperation> unmatched = new HashSet<>();
 	private int tuplesGenerated = 0;
-	private boolean first = true;
+	private int duplicatesDropped = 0;
+	private ObjectGraphCloner cloner;
+	/** Writes the tuples; created with the first sink. */
+	private BackgroundWriter<Tuple> writer;
 
-	public InOutMethodSerializer(XStream xstream, Pattern method, String outputFolder, InOutObjectsCollector inOutCollector) {
+	public InOutMethodSerializer(XStream xstream, List<Pattern> methods, String outputFolder, SerializeFormat format,
+			int tupleLimit, boolean deduplicate, InOutObjectsCollector inOutCollector) {
 		this.xstream = xstream;
-		this.methodPattern = method;
-		this.methodMatcher = new SingleMethodMatcher(methodPattern);
+		this.cloner = new ObjectGraphCloner(xstream);
+		this.format = format;
+		this.tupleLimit = tupleLimit;
+		this.deduplicate = deduplicate;
+		try {
+			this.digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new Error("SHA-256 is always available", e);
+		}
+		this.methodMatcher = new SingleMethodMatcher(methods);
 		this.outputFolder = outputFolder;
 		this.inOutCollector = inOutCollector;
 	}
-	
+
 	@Override
-	public void explorationStart() { 
+	public void explorationStart() {
 
 	}
 
 	@Override
 	public void explorationEnd() {
-		closeStream(inOoss);
-		closeStream(outOoss);
-		String op = "";
-		if (operation != null)
-			op = operation.toParsableString();
+		try {
+			if (writer != null)
+				writer.finish();
+		} finally {
+			for (OperationSink sink : sinks.values())
+				sink.close();
+		}
+		for (OperationSink sink : sinks.values()) {
+			sink.writeIndex();
+			System.out.println(String.format(
+					"\nInOutMethodSerializer: Generated %d input/output tuples for %s method.",
+					sink.tuplesGenerated,
+					sink.operation.toParsableString()));
+		}
+		writeOperations();
 		System.out.println(String.format(
-				"\nInOutMethodSerializer: Generated %d input/output tuples for %s method.", 
+				"\nInOutMethodSerializer: Generated %d input/output tuples for %d methods.",
 				tuplesGenerated,
-				op));
+				sinks.size()));
+		if (deduplicate)
+			System.out.println(String.format(
+					"InOutMethodSerializer: Dropped %d input/output tuples with repeated inputs.",
+					duplicatesDropped));
+		System.out.println(String.format(
+				"InOutMethodSerializer: At most %d of %d tuples waited to be written; "
+						+ "generation waited for the writer %d times.",
+				writer == null ? 0 : writer.highWater(),
+				QUEUE_CAPACITY,
+				writer == null ? 0 : writer.fullWaits()));
 	}
 
 	@Override
-	public void generationStepPre() { 
+	public void generationStepPre() {
 
 	}
 
@@ -69,58 +150,92 @@ public class InOutMethodSerializer implements IEventListener {
 		if (s == null || !s.isNormalExecution())
 			return;
 
-		
+
 		TypedOperation lastOp = s.sequence.getStatement(s.sequence.size() - 1).getOperation();
-		if (!(lastOp instanceof TypedClassOperation)) 
+		if (!(lastOp instanceof TypedClassOperation))
 			return;
 		TypedClassOperation typedLastOp = (TypedClassOperation) lastOp;
-		if (!methodMatcher.matches(typedLastOp)) 
+		OperationSink sink = getSink(typedLastOp);
+		if (sink == null || sink.tuplesGenerated >= tupleLimit)
 			return;
-		
+
 		List<Object> inputs = inOutCollector.getInputs();
 		List<Object> outputs = inOutCollector.getOutputs();
-		if (first) {
-			operation = typedLastOp;
-			inObjs = inputs.size();
-			outObjs = outputs.size();
-			inOoss = createStream(inObjs, "in");
-			outOoss = createStream(outObjs, "out");
-			first = false;
+		if (sink.inColumns == null) {
+			sink.inObjs = inputs.size();
+			sink.outObjs = outputs.size();
+			sink.inColumns = sink.createStream(sink.inObjs, "in");
+			sink.outColumns = sink.createStream(sink.outObjs, "out");
+			if (writer == null)
+				writer = new BackgroundWriter<>(
+						"randoop-tuple-writer", QUEUE_CAPACITY, BATCH_SIZE, this::writeTuple);
+		}
+		else
+			consistencyChecks(s, sink, inputs, outputs);
+
+		List<Object> widenedInputs = widenPrimitives(inputs, sink.inColumns);
+		List<byte[]> encodedInputs = null;
+		if (deduplicate) {
+			encodedInputs = encode(widenedInputs, sink.inColumns);
+			if (!sink.inputHashes.add(hash(encodedInputs))) {
+				sink.duplicatesDropped++;
+				duplicatesDropped++;
+				return;
+			}
 		}
-		else 
-			consistencyChecks(s, typedLastOp, inputs, outputs);
-
-		writeObjectsWideningPrimitiveInputs(inputs, 
-				inOoss, 
-				typedLastOp.getInputTypes(), 
-				typedLastOp.getOutputType());
-		writeObjectsWideningPrimitiveInputs(outputs, 
-				outOoss, 
-				typedLastOp.getInputTypes(),
-				typedLastOp.getOutputType());
+		// The inputs were copied before the call; the outputs are the live objects
+		List<Object> outputCopies = new ArrayList<>(outputs.size());
+		for (Object output : outputs)
+			outputCopies.add(cloner.deepCopy(output));
+		writer.submit(new Tuple(sink,
+				widenedInputs,
+				encodedInputs,
+				widenPrimitives(outputCopies, sink.outColumns)));
+		sink.tuplesGenerated++;
 		tuplesGenerated++;
 	}
 
-	private void consistencyChecks(ExecutableSequence s, TypedClassOperation typedLastOp, List<Object> inputs,
+	/**
+	 * Returns the sink of the given operation, creating it on the first call of a matching operation.
+	 * Whether an operation matches is decided once, since matching checks the supertypes of its
+	 * declaring class against every pattern.
+	 *
+	 * @param operation the operation of the last statement of a sequence
+	 * @return the sink of the operation, or null if it matches no pattern
+	 */
+	private OperationSink getSink(TypedClassOperation operation) {
+		OperationSink sink = sinks.get(operation);
+		if (sink != null || unmatched.contains(operation))
+			return sink;
+		if (!methodMatcher.matches(operation)) {
+			unmatched.add(operation);
+			return null;
+		}
+		String folder = Paths.get(outputFolder, "op" + sinks.size()).toString();
+		try {
+			Files.createDirectories(Paths.get(folder));
+		} catch (IOException e) {
+			throw new Error("Cannot create folder: " + folder, e);
+		}
+		sink = new OperationSink(operation, folder);
+		sinks.put(operation, sink);
+		return sink;
+	}
+
+	private void consistencyChecks(ExecutableSequence s, OperationSink sink, List<Object> inputs,
 			List<Object> outputs) {
 		// Consistency checks
-		assert operation.equals(typedLastOp) : 
-			String.format("Serializing inputs/outputs for two different methods not allowed. "
-					+ "\nMatching method 1: %s"
-					+ "\nMatching method 2: %s", 
-					operation.toParsableString(), 
-					typedLastOp.toParsableString());
-		assert inObjs == inputs.size() : 
+		assert sink.inObjs == inputs.size() :
 			String.format("Serializing %d inputs but current operation has %d inputs."
-					+ "\nSequence: ", 
-					inObjs, 
-					inputs.size(), 
+					+ "\nSequence: ",
+					sink.inObjs,
+					inputs.size(),
 					s.toCodeString());
-		assert outObjs == outputs.size() : 
+		assert sink.outObjs == outputs.size() :
 			String.format("Serializing %d outputs but current operation has %d outputs."
-					+ "\nSequence: ", 
-					outObjs, 
-					outputs.size(), 
+					+ "\nSequence: ",
+					sink.outObjs,
+					outputs.size(),
 					s.toCodeString());
 	}
 
@@ -131,67 +246,175 @@ public class InOutMethodSerializer implements IEventListener {
 	public boolean shouldStopGeneration() {
 		return false;
 	}
-	
-	
-	private List<ObjectOutputStream> createStream(int n, String inOut) {
-		List<ObjectOutputStream> loos = new ArrayList<>();
-		for (int k = 0; k < n; k++) {
-			String currFile = outputFolder + "/" + inOut + String.valueOf(k) + ".xml";
-			try {
-				loos.add(xstream.createObjectOutputStream(
-						   new FileOutputStream(currFile)));
-			} catch (IOException e) {
-				throw new Error("Cannot create serial file: " + currFile);
-			}
+
+
+	private List<Object> widenPrimitives(List<Object> objs, List<TupleColumnWriter> columns) {
+		List<Object> widened = new ArrayList<>(objs.size());
+		for (int k = 0; k < objs.size(); k++) {
+			// Randoop might instantiate primitive parameters with values of different types
+			// so we need to convert ('widen') the values to the types defined in the method
+			// before serializing them
+			// Warning: We box all primitive values here
+			widened.add(TypeConversions.widenPrimitiveValueToParameterType(objs.get(k), columns.get(k).type));
 		}
-		return loos;
+		return widened;
 	}
-	
-	private void writeObjects(List<Object> objs, List<ObjectOutputStream> loos) {
+
+	private List<byte[]> encode(List<Object> objs, List<TupleColumnWriter> columns) {
+		List<byte[]> encoded = new ArrayList<>(objs.size());
 		for (int k = 0; k < objs.size(); k++) {
 			try {
-				loos.get(k).writeObject(objs.get(k));	
+				encoded.add(columns.get(k).encode(objs.get(k)));
 			} catch (IOException e) {
-				throw new Error("Cannot serialize object: " + objs.get(k).toString());
+				throw new Error("Cannot serialize object: " + String.valueOf(objs.get(k)), e);
 			}
 		}
+		return encoded;
 	}
-	
-	private void writeObjectsWideningPrimitiveInputs(List<Object> objs, List<ObjectOutputStream> loos, 
-			TypeTuple inTypes, Type outType) {
-		for (int k = 0; k < objs.size(); k++) {
-			Object currObj = objs.get(k);
-			ObjectOutputStream currStream = loos.get(k);
-			Type type = null;
-			if (k < inTypes.size()) 
-				type = inTypes.get(k);
+
+	/** Returns the hash of the given encodings, each preceded by its length so that they cannot merge. */
+	private ByteBuffer hash(List<byte[]> encoded) {
+		for (byte[] bytes : encoded) {
+			digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+			digest.update(bytes);
+		}
+		return ByteBuffer.wrap(digest.digest());
+	}
+
+	private void writeTuple(Tuple tuple) {
+		try {
+			if (tuple.encodedInputs != null)
+				writeEncoded(tuple.inputs, tuple.encodedInputs, tuple.sink.inColumns);
 			else
-				type = outType;
-			// Randoop might instantiate primitive parameters with values of different types
-			// so we need to convert ('widen') the values to the types defined in the method
-			// before serializing them
-			// Warning: We box all primitive values here
-			Object objWithMethodType = TypeConversions.widenPrimitiveValueToParameterType(currObj, type);
-			try {
-				currStream.writeObject(objWithMethodType);	
-			} catch (IOException e) {
-				throw new Error("Cannot serialize object: " + currObj.toString());
-			}
+				writeObjects(tuple.inputs, tuple.sink.inColumns);
+			writeObjects(tuple.outputs, tuple.sink.outColumns);
+		} catch (IOException e) {
+			throw new UncheckedIOException(
+					"Cannot serialize input/output tuples to folder: " + tuple.sink.folder, e);
 		}
 	}
-	
-	private void closeStream(List<ObjectOutputStream> loos) {
-		if (loos != null) {
-			for (ObjectOutputStream oos : loos) {
+
+	private void writeObjects(List<Object> objs, List<TupleColumnWriter> columns) throws IOException {
+		for (int k = 0; k < objs.size(); k++) {
+			columns.get(k).write(objs.get(k));
+		}
+	}
+
+	private void writeEncoded(List<Object> objs, List<byte[]> encoded, List<TupleColumnWriter> columns)
+			throws IOException {
+		for (int k = 0; k < objs.size(); k++) {
+			columns.get(k).writeEncoded(objs.get(k), encoded.get(k));
+		}
+	}
+
+	private void writeOperations() {
+		List<String> lines = new ArrayList<>();
+		lines.add("version " + FORMAT_VERSION);
+		for (OperationSink sink : sinks.values()) {
+			lines.add(Paths.get(sink.folder).getFileName() + " " + sink.tuplesGenerated + " "
+					+ sink.operation.toParsableString());
+		}
+		try {
+			Files.write(Paths.get(outputFolder, OPERATIONS_FILE), lines, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new Error("Cannot write index file in folder: " + outputFolder, e);
+		}
+	}
+
+	/** The columns of the serialized tuples of one operation, in their own folder. */
+	private final class OperationSink {
+		final TypedClassOperation operation;
+		final String folder;
+		List<TupleColumnWriter> inColumns;
+		List<TupleColumnWriter> outColumns;
+		int inObjs = -1;
+		int outObjs = -1;
+		int tuplesGenerated = 0;
+		int duplicatesDropped = 0;
+		/** The hashes of the inputs serialized so far, if deduplicating. */
+		Set<ByteBuffer> inputHashes = new HashSet<>();
+
+		OperationSink(TypedClassOperation operation, String folder) {
+			this.operation = operation;
+			this.folder = folder;
+		}
+
+		List<TupleColumnWriter> createStream(int n, String inOut) {
+			TypeTuple inTypes = operation.getInputTypes();
+			List<TupleColumnWriter> columns = new ArrayList<>();
+			for (int k = 0; k < n; k++) {
+				String name = inOut + String.valueOf(k);
+				// The k-th input or output has the type of the k-th parameter, or of the result
+				Type type = null;
+				if (k < inTypes.size())
+					type = inTypes.get(k);
+				else
+					type = operation.getOutputType();
 				try {
-					oos.close();
+					if (format == SerializeFormat.XML)
+						columns.add(TupleColumnWriter.xml(xstream, folder, name, type));
+					else
+						columns.add(TupleColumnWriter.binary(xstream, folder, name, type));
 				} catch (IOException e) {
-					throw new Error("Cannot close files in folder: " + outputFolder);
+					throw new Error("Cannot create serial file for " + name + " in folder: " + folder, e);
+				}
+			}
+			return columns;
+		}
+
+		void close() {
+			closeStream(inColumns);
+			closeStream(outColumns);
+		}
+
+		private void closeStream(List<TupleColumnWriter> columns) {
+			if (columns != null) {
+				for (TupleColumnWriter column : columns) {
+					try {
+						column.close();
+					} catch (IOException e) {
+						throw new Error("Cannot close files in folder: " + folder, e);
+					}
 				}
 			}
 		}
+
+		void writeIndex() {
+			List<String> lines = new ArrayList<>();
+			lines.add("version " + FORMAT_VERSION);
+			lines.add("format " + format);
+			lines.add("method " + operation.toParsableString());
+			lines.add("tuples " + tuplesGenerated);
+			if (deduplicate)
+				lines.add("duplicates " + duplicatesDropped);
+			List<TupleColumnWriter> columns = new ArrayList<>(inColumns);
+			columns.addAll(outColumns);
+			for (TupleColumnWriter column : columns) {
+				lines.add("column " + column.name + " " + column.kind() + " " + column.type.getBinaryName());
+			}
+			try {
+				Files.write(Paths.get(folder, INDEX_FILE), lines, StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				throw new Error("Cannot write index file in folder: " + folder, e);
+			}
+		}
+	}
+
+	/** The inputs and outputs of one call, widened to the declared types. */
+	private static final class Tuple {
+		final OperationSink sink;
+		final List<Object> inputs;
+		/** The encodings of the inputs, or null if they were not encoded. */
+		final List<byte[]> encodedInputs;
+		final List<Object> outputs;
+
+		Tuple(OperationSink sink, List<Object> inputs, List<byte[]> encodedInputs, List<Object> outputs) {
+			this.sink = sink;
+			this.inputs = inputs;
+			this.encodedInputs = encodedInputs;
+			this.outputs = outputs;
+		}
 	}
-	
 
 }
 
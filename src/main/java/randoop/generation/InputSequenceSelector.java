@@ -12,4 +12,10 @@ public interface InputSequenceSelector {
    * @return the chosen sequence
    */
   Sequence selectInputSequence(SimpleList<Sequence> candidates);
+
+  /**
+   * Discards any state that this selector keeps about previously-seen candidates. Called when the
+   * generated sequences are discarded, so that the selector does not retain them.
+   */
+  default void clear() {}
 }
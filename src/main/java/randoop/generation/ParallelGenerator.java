@@ -0,0 +1,513 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.ExecutionVisitor;
+import randoop.Globals;
+import randoop.main.GenInputsAbstract;
+import randoop.main.RandoopBug;
+import randoop.operation.TypedOperation;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.test.CompilableTestPredicate;
+import randoop.test.TestCheckGenerator;
+import randoop.types.ClassOrInterfaceType;
+import randoop.util.Randomness;
+
+/**
+ * A generator that runs several {@link ForwardGenerator}s ("workers") concurrently, each on its
+ * own thread. Each worker has its own component manager, its own copy of the operations, and its
+ * own random number generator. The workers periodically exchange their new component sequences
+ * through a {@link SharedSequencePool}.
+ *
+ * <p>Before each step, a worker publishes its counts, and checks the limits against the counts
+ * published by all the workers. A worker may take a step only after it claims one of the attempts
+ * allowed by the attempted limit, so the workers never exceed that limit together. The other
+ * limits are checked against counts that may be one step old, so the workers may generate or
+ * output a few more sequences than their limits; the extra output sequences are dropped when the
+ * results are merged.
+ *
+ * <p>When generation ends, the regression and error-revealing sequences of the workers are merged
+ * in worker order, omitting duplicates and the sequences beyond the output limit. Error-revealing
+ * sequences are merged first. The test predicate and the operation history logger are shared by all
+ * the workers, and calls to them are serialized. The test check generator and the execution visitor
+ * are shared without synchronization, so they must be thread-safe.
+ *
+ * @see GenInputsAbstract#workers
+ */
+public class ParallelGenerator extends AbstractGenerator {
+
+  /** The generators that run concurrently. */
+  private final List<ForwardGenerator> workers;
+
+  /** The counts published by the workers; element i is for worker i. */
+  private final List<WorkerCounts> workerCounts;
+
+  /** The number of steps that the workers have claimed, over all the workers. */
+  private final AtomicInteger claimedAttempts = new AtomicInteger();
+
+  /** The index of the worker that takes the next call to {@link #step}. */
+  private int nextStepWorker = 0;
+
+  /** The set of all sequences generated by all the workers. Set when generation ends. */
+  private final LinkedHashSet<Sequence> allSequences = new LinkedHashSet<>();
+
+  /** True if some worker has thrown an exception; makes the other workers stop. */
+  private volatile boolean workerFailed = false;
+
+  /**
+   * Create a parallel generator.
+   *
+   * @param operations list of operations under test
+   * @param sideEffectFreeMethods side-effect-free methods
+   * @param limits limits for generation, after which the generator will stop. The limits on the
+   *     number of sequences apply to the total over all workers.
+   * @param componentManager the seed sequences and literals; each worker uses a copy of it
+   * @param listenerManager manages notifications for listeners
+   * @param classesUnderTest set of classes under test
+   * @param numWorkers the number of concurrent generators
+   */
+  public ParallelGenerator(
+      List<TypedOperation> operations,
+      Set<TypedOperation> sideEffectFreeMethods,
+      GenInputsAbstract.Limits limits,
+      ComponentManager componentManager,
+      RandoopListenerManager listenerManager,
+      Set<ClassOrInterfaceType> classesUnderTest,
+      int numWorkers) {
+    super(operations, limits, componentManager, /*stopper=*/ null, listenerManager);
+    if (numWorkers < 1) {
+      throw new IllegalArgumentException("numWorkers must be positive: " + numWorkers);
+    }
+
+    SharedSequencePool sharedPool = new SharedSequencePool();
+    RandoopListenerManager workerListenerMgr =
+        (listenerManager == null) ? null : new WorkerListenerManager(listenerManager);
+    this.workers = new ArrayList<>(numWorkers);
+    this.workerCounts = new ArrayList<>(numWorkers);
+    for (int i = 0; i < numWorkers; i++) {
+      int workerIndex = i;
+      IStopper stopper = () -> shouldStopWorker(workerIndex);
+      ForwardGenerator worker =
+          new ForwardGenerator(
+              new ArrayList<>(operations),
+              sideEffectFreeMethods,
+              limits,
+              new ComponentManager(componentManager),
+              stopper,
+              workerListenerMgr,
+              classesUnderTest);
+      worker.setSharedPool(sharedPool, i);
+      workers.add(worker);
+      workerCounts.add(new WorkerCounts());
+    }
+    setOperationHistoryLogger(operationHistory);
+  }
+
+  @Override
+  public void setTestPredicate(Predicate<ExecutableSequence> outputTest) {
+    super.setTestPredicate(outputTest);
+    // Some predicates, such as CompilableTestPredicate, are not thread-safe.
+    Predicate<ExecutableSequence> synchronizedTest =
+        eSeq -> {
+          synchronized (outputTest) {
+            return outputTest.test(eSeq);
+          }
+        };
+    for (ForwardGenerator worker : workers) {
+      worker.setTestPredicate(synchronizedTest);
+    }
+  }
+
+  @Override
+  public void setCompilableTestPredicate(CompilableTestPredicate compilableTest) {
+    super.setCompilableTestPredicate(compilableTest);
+    // CompilableTestPredicate.testAll is synchronized, so the workers can share it.
+    for (ForwardGenerator worker : workers) {
+      worker.setCompilableTestPredicate(compilableTest);
+    }
+  }
+
+  @Override
+  public void setExecutionVisitor(ExecutionVisitor executionVisitor) {
+    super.setExecutionVisitor(executionVisitor);
+    for (ForwardGenerator worker : workers) {
+      worker.setExecutionVisitor(executionVisitor);
+    }
+  }
+
+  @Override
+  public void setExecutionVisitor(List<ExecutionVisitor> visitors) {
+    super.setExecutionVisitor(visitors);
+    for (ForwardGenerator worker : workers) {
+      worker.setExecutionVisitor(this.executionVisitor);
+    }
+  }
+
+  @Override
+  public void setTestCheckGenerator(TestCheckGenerator checkGenerator) {
+    super.setTestCheckGenerator(checkGenerator);
+    for (ForwardGenerator worker : workers) {
+      worker.setTestCheckGenerator(checkGenerator);
+    }
+  }
+
+  @Override
+  public void setOperationHistoryLogger(OperationHistoryLogInterface logger) {
+    super.setOperationHistoryLogger(logger);
+    OperationHistoryLogInterface synchronizedLogger = new SynchronizedOperationHistory(logger);
+    for (ForwardGenerator worker : workers) {
+      worker.setOperationHistoryLogger(synchronizedLogger);
+    }
+  }
+
+  /**
+   * Runs the workers until each of them stops, then merges their results into this generator.
+   * While the workers run, periodically updates this generator's counts so that the progress
+   * display reflects all the workers.
+   */
+  @Override
+  void classifySequencesUntilStopped() {
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            workers.size(),
+            runnable -> {
+              Thread thread = new Thread(runnable);
+              thread.setName("randoop-worker-" + thread.getId());
+              return thread;
+            });
+    List<Future<?>> futures = new ArrayList<>(workers.size());
+    for (int i = 0; i < workers.size(); i++) {
+      ForwardGenerator worker = workers.get(i);
+      WorkerCounts counts = workerCounts.get(i);
+      long seed = (long) GenInputsAbstract.randomseed + i;
+      futures.add(
+          executor.submit(
+              () -> {
+                Randomness.setThreadSeed(seed);
+                try {
+                  worker.classifySequencesUntilStopped();
+                } catch (Throwable t) {
+                  workerFailed = true;
+                  throw t;
+                } finally {
+                  // The last steps of the worker may have changed its counts.
+                  counts.publish(worker);
+                  Randomness.clearThreadSeed();
+                }
+              }));
+    }
+    executor.shutdown();
+
+    try {
+      while (!executor.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+        updateCounts();
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+      throw new RandoopBug("Interrupted while waiting for generator workers", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RandoopBug("Generator worker failed", cause);
+    } finally {
+      mergeWorkerResults();
+    }
+  }
+
+  /**
+   * Returns true if a worker should stop. Called on the thread of the worker, before each of its
+   * steps. Publishes the counts of the worker, then checks the limits against the counts published
+   * by all the workers. If the worker may take the step, claims one of the attempts allowed by the
+   * attempted limit.
+   *
+   * @param workerIndex the index of the worker
+   * @return true if the worker should stop generating
+   */
+  private boolean shouldStopWorker(int workerIndex) {
+    workerCounts.get(workerIndex).publish(workers.get(workerIndex));
+    if (workerFailed) {
+      return true;
+    }
+    int generated = 0;
+    int output = 0;
+    int errors = 0;
+    for (WorkerCounts counts : workerCounts) {
+      generated += counts.generatedSequences;
+      output += counts.outputSequences;
+      errors += counts.errorSequences;
+    }
+    if ((generated >= limits.generated_limit)
+        || (output >= limits.output_limit)
+        || (GenInputsAbstract.stop_on_error_test && errors > 0)) {
+      return true;
+    }
+    int attemptLimit = limits.attempted_limit;
+    int claimed = claimedAttempts.getAndUpdate(n -> (n < attemptLimit) ? n + 1 : n);
+    return claimed >= attemptLimit;
+  }
+
+  /** Sets this generator's counts to the totals of the counts published by the workers. */
+  private void updateCounts() {
+    int steps = 0;
+    int nullSteps = 0;
+    int sequencesGenerated = 0;
+    int failingSequences = 0;
+    int invalidSequences = 0;
+    int failedOutputTest = 0;
+    for (WorkerCounts counts : workerCounts) {
+      steps += counts.steps;
+      nullSteps += counts.nullSteps;
+      sequencesGenerated += counts.sequencesGenerated;
+      failingSequences += counts.failingSequences;
+      invalidSequences += counts.invalidSequences;
+      failedOutputTest += counts.failedOutputTest;
+    }
+    num_steps = steps;
+    null_steps = nullSteps;
+    num_sequences_generated = sequencesGenerated;
+    num_failing_sequences = failingSequences;
+    invalidSequenceCount = invalidSequences;
+    num_failed_output_test = failedOutputTest;
+  }
+
+  /**
+   * Merges the output sequences of the workers, in worker order, into this generator's output
+   * sequences. Omits a sequence if an earlier worker output an equal one, and omits the sequences
+   * beyond the output limit, merging the error-revealing sequences first.
+   */
+  private void mergeWorkerResults() {
+    updateCounts();
+    Set<Sequence> regressionSeen = new HashSet<>();
+    Set<Sequence> errorSeen = new HashSet<>();
+    outRegressionSeqs.clear();
+    outErrorSeqs.clear();
+    allSequences.clear();
+    for (ForwardGenerator worker : workers) {
+      mergeOutputSequences(worker.outErrorSeqs, outErrorSeqs, errorSeen);
+    }
+    for (ForwardGenerator worker : workers) {
+      mergeOutputSequences(worker.outRegressionSeqs, outRegressionSeqs, regressionSeen);
+      allSequences.addAll(worker.getAllSequences());
+    }
+  }
+
+  /**
+   * Adds the given sequences to the given output sequences, except those already seen and those
+   * beyond the output limit.
+   *
+   * @param workerSeqs the output sequences of a worker
+   * @param outSeqs the output sequences of this generator; is side-effected
+   * @param seen the sequences of {@code outSeqs}; is side-effected
+   */
+  private void mergeOutputSequences(
+      List<ExecutableSequence> workerSeqs, List<ExecutableSequence> outSeqs, Set<Sequence> seen) {
+    for (ExecutableSequence eSeq : workerSeqs) {
+      if (numOutputSequences() >= limits.output_limit) {
+        return;
+      }
+      if (seen.add(eSeq.sequence)) {
+        outSeqs.add(eSeq);
+      }
+    }
+  }
+
+  /**
+   * Takes a step of the next worker in turn, on the calling thread. Generation does not call this
+   * method, because each worker takes its own steps on its own thread; it must not be called while
+   * the workers run.
+   *
+   * @return the sequence that the worker generated, or null
+   */
+  @Override
+  public @Nullable ExecutableSequence step() {
+    ForwardGenerator worker = workers.get(nextStepWorker);
+    nextStepWorker = (nextStepWorker + 1) % workers.size();
+    return worker.step();
+  }
+
+  @Override
+  public int numGeneratedSequences() {
+    int result = 0;
+    for (WorkerCounts counts : workerCounts) {
+      result += counts.generatedSequences;
+    }
+    return result;
+  }
+
+  @Override
+  public LinkedHashSet<Sequence> getAllSequences() {
+    return allSequences;
+  }
+
+  @Override
+  public void newRegressionTestHook(Sequence sequence) {
+    // Each worker notifies its own operation selector.
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner result =
+        new StringJoiner(
+            ";" + Globals.lineSep + "  ", "ParallelGenerator(" + Globals.lineSep + "  ", ")");
+    for (ForwardGenerator worker : workers) {
+      result.add(worker.toString());
+    }
+    return result.toString();
+  }
+
+  /**
+   * The counts of a worker, as last published by the thread of the worker. Only that thread writes
+   * them; the other workers read them to check the limits, and the thread of the {@link
+   * ParallelGenerator} reads them to report progress.
+   */
+  private static class WorkerCounts {
+
+    /** The number of steps, as in {@link AbstractGenerator#num_steps}. */
+    volatile int steps;
+
+    /** The number of steps that returned null. */
+    volatile int nullSteps;
+
+    /** The number of sequences that the steps returned. */
+    volatile int sequencesGenerated;
+
+    /** The number of failing sequences. */
+    volatile int failingSequences;
+
+    /** The number of invalid sequences. */
+    volatile int invalidSequences;
+
+    /** The number of sequences that failed the output test. */
+    volatile int failedOutputTest;
+
+    /** The number of sequences generated, as in {@link AbstractGenerator#numGeneratedSequences}. */
+    volatile int generatedSequences;
+
+    /** The number of sequences for output. */
+    volatile int outputSequences;
+
+    /** The number of error-revealing sequences for output. */
+    volatile int errorSequences;
+
+    /**
+     * Sets these counts to the current counts of the given worker. Must be called on the thread of
+     * the worker, or after the worker has stopped.
+     *
+     * @param worker the worker whose counts these are
+     */
+    void publish(ForwardGenerator worker) {
+      steps = worker.num_steps;
+      nullSteps = worker.null_steps;
+      sequencesGenerated = worker.num_sequences_generated;
+      failingSequences = worker.num_failing_sequences;
+      invalidSequences = worker.invalidSequenceCount;
+      failedOutputTest = worker.num_failed_output_test;
+      generatedSequences = worker.numGeneratedSequences();
+      outputSequences = worker.numOutputSequences();
+      errorSequences = worker.numErrorSequences();
+    }
+  }
+
+  /**
+   * A listener manager for the workers. It forwards step notifications to the given manager,
+   * serializing them because listeners need not be thread-safe. It does not forward the start and
+   * end of exploration, because the {@link ParallelGenerator} itself reports those once.
+   */
+  private static class WorkerListenerManager extends RandoopListenerManager {
+
+    /** The listener manager of the {@link ParallelGenerator}. */
+    private final RandoopListenerManager delegate;
+
+    /**
+     * Creates a listener manager that forwards to the given one.
+     *
+     * @param delegate the listener manager to forward to
+     */
+    WorkerListenerManager(RandoopListenerManager delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void generationStepPre() {
+      synchronized (delegate) {
+        delegate.generationStepPre();
+      }
+    }
+
+    @Override
+    public void generationStepPost(ExecutableSequence es) {
+      synchronized (delegate) {
+        delegate.generationStepPost(es);
+      }
+    }
+
+    @Override
+    public boolean shouldStopGeneration() {
+      synchronized (delegate) {
+        return delegate.shouldStopGeneration();
+      }
+    }
+
+    @Override
+    public void explorationStart() {
+      // The ParallelGenerator notifies the listeners.
+    }
+
+    @Override
+    public void explorationEnd() {
+      // The ParallelGenerator notifies the listeners.
+    }
+  }
+
+  /** An operation history logger that serializes calls to another logger. */
+  private static class SynchronizedOperationHistory implements OperationHistoryLogInterface {
+
+    /** The logger that records the history. */
+    private final OperationHistoryLogInterface delegate;
+
+    /**
+     * Creates a logger that forwards to the given one.
+     *
+     * @param delegate the logger to forward to
+     */
+    SynchronizedOperationHistory(OperationHistoryLogInterface delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void add(TypedOperation operation, OperationOutcome outcome) {
+      synchronized (delegate) {
+        delegate.add(operation, outcome);
+      }
+    }
+
+    @Override
+    public void outputTable() {
+      synchronized (delegate) {
+        delegate.outputTable();
+      }
+    }
+  }
+}
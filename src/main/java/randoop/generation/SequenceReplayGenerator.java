@@ -0,0 +1,95 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.main.GenInputsAbstract;
+import randoop.operation.TypedOperation;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+
+/**
+ * A generator that, rather than creating new sequences, executes and classifies a given collection
+ * of sequences, once each, in order. Duplicate sequences are executed only once.
+ *
+ * <p>This is used to merge the sequences generated by several Randoop processes into one test
+ * suite: each sequence is re-executed in this process, so its checks and its classification as a
+ * regression or error-revealing test are computed the same way as for any other generated test.
+ */
+public class SequenceReplayGenerator extends AbstractGenerator {
+
+  /** The sequences to execute, without duplicates. */
+  private final List<Sequence> sequences;
+
+  /** The index in {@link #sequences} of the next sequence to execute. */
+  private int nextIndex = 0;
+
+  /** The sequences executed so far. */
+  private final LinkedHashSet<Sequence> allSequences = new LinkedHashSet<>();
+
+  /**
+   * Create a generator that executes the given sequences.
+   *
+   * @param operations list of operations under test
+   * @param sequences the sequences to execute; duplicates are ignored
+   * @param limits limits for generation, after which the generator will stop
+   * @param componentManager the component manager; not used to select inputs
+   * @param listenerManager manages notifications for listeners
+   */
+  public SequenceReplayGenerator(
+      List<TypedOperation> operations,
+      Collection<Sequence> sequences,
+      GenInputsAbstract.Limits limits,
+      ComponentManager componentManager,
+      RandoopListenerManager listenerManager) {
+    super(operations, limits, componentManager, /*stopper=*/ null, listenerManager);
+    this.sequences = new ArrayList<>(new LinkedHashSet<>(sequences));
+  }
+
+  /**
+   * Stops when every sequence has been executed, or when a stopping criterion of {@link
+   * AbstractGenerator} is met.
+   *
+   * @return true iff generation should stop
+   */
+  @Override
+  protected boolean shouldStop() {
+    return nextIndex >= sequences.size() || super.shouldStop();
+  }
+
+  @Override
+  public @Nullable ExecutableSequence step() {
+    if (nextIndex >= sequences.size()) {
+      return null;
+    }
+    Sequence sequence = sequences.get(nextIndex++);
+    allSequences.add(sequence);
+    setCurrentSequence(sequence);
+
+    ExecutableSequence eSeq = new ExecutableSequence(sequence);
+    eSeq.execute(executionVisitor, checkGenerator);
+    return eSeq;
+  }
+
+  @Override
+  public int numGeneratedSequences() {
+    return allSequences.size();
+  }
+
+  @Override
+  public LinkedHashSet<Sequence> getAllSequences() {
+    return allSequences;
+  }
+
+  @Override
+  public void newRegressionTestHook(Sequence sequence) {
+    // No operation selection to update.
+  }
+
+  @Override
+  public String toString() {
+    return "SequenceReplayGenerator(" + nextIndex + " of " + sequences.size() + " sequences)";
+  }
+}
@@ -0,0 +1,66 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.List;
+import randoop.sequence.Sequence;
+
+/**
+ * A pool of component sequences shared by the workers of a {@link ParallelGenerator}. Each worker
+ * keeps its own, unsynchronized {@link ComponentManager}, periodically publishes to this pool the
+ * sequences it added to its component manager, and imports the sequences published by the other
+ * workers.
+ *
+ * <p>The pool is an append-only log. Each worker remembers how much of the log it has already
+ * read, so an import returns only sequences published since that worker's previous import.
+ *
+ * <p>This class is thread-safe.
+ */
+final class SharedSequencePool {
+
+  /** The published sequences, in the order they were published. */
+  private final List<Sequence> sequences = new ArrayList<>();
+
+  /** For each element of {@link #sequences}, the id of the worker that published it. */
+  private final List<Integer> publishers = new ArrayList<>();
+
+  /**
+   * Appends the given sequences to this pool.
+   *
+   * @param workerId the id of the publishing worker
+   * @param newSequences the sequences to publish
+   */
+  synchronized void publish(int workerId, List<Sequence> newSequences) {
+    for (Sequence s : newSequences) {
+      sequences.add(s);
+      publishers.add(workerId);
+    }
+  }
+
+  /**
+   * Returns the sequences published by workers other than the given one, starting at the given
+   * position in the log.
+   *
+   * @param workerId the id of the importing worker; its own sequences are not returned
+   * @param start the position in the log at which to start; the size of the log at the worker's
+   *     previous import
+   * @param result the list to which to add the imported sequences; is side-effected
+   * @return the size of the log, which the worker should pass as {@code start} on its next import
+   */
+  synchronized int importSince(int workerId, int start, List<Sequence> result) {
+    for (int i = start; i < sequences.size(); i++) {
+      if (publishers.get(i) != workerId) {
+        result.add(sequences.get(i));
+      }
+    }
+    return sequences.size();
+  }
+
+  /**
+   * Returns the number of sequences published so far.
+   *
+   * @return the number of sequences in this pool
+   */
+  synchronized int size() {
+    return sequences.size();
+  }
+}
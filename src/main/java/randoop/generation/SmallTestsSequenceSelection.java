@@ -1,19 +1,36 @@
 package randoop.generation;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import randoop.sequence.Sequence;
+import randoop.sequence.SequenceCollection;
+import randoop.util.ListOfLists;
 import randoop.util.Randomness;
 import randoop.util.SimpleList;
+import randoop.util.WeightedSampler;
 
 /**
  * Select input sequences, favoring shorter sequences. This makes Randoop produce smaller JUnit
  * tests.
+ *
+ * <p>The weight of a sequence is the reciprocal of its length. The candidate lists passed to {@link
+ * #selectInputSequence} are mostly views of the lists in a {@link SequenceCollection}, which are
+ * long-lived and only grow. So, rather than recomputing every weight on each selection, this keeps
+ * a {@link WeightedSampler} for each such list, and adds to it only the sequences that were added
+ * to the list since the last selection. The other parts of a candidate list, such as the helper
+ * sequences that the generator builds for a single step, get a sampler that is not kept.
  */
 public class SmallTestsSequenceSelection implements InputSequenceSelector {
 
-  /** Map from a sequence to its weight. */
-  private final Map<Sequence, Double> weightMap = new HashMap<>();
+  /**
+   * Map from a list of the sequences of a type in a {@link SequenceCollection}, compared by
+   * identity, to a sampler of its elements. The elements of a sampler are a prefix of the elements
+   * of its list.
+   */
+  private final Map<SimpleList<Sequence>, WeightedSampler<Sequence>> samplers =
+      new IdentityHashMap<>();
 
   /**
    * Pick a sequence from the candidate list using a weighting that favors shorter sequences.
@@ -23,24 +40,70 @@ public class SmallTestsSequenceSelection implements InputSequenceSelector {
    */
   @Override
   public Sequence selectInputSequence(SimpleList<Sequence> candidates) {
-    double totalWeight = updateWeightMapForCandidates(candidates);
-    return Randomness.randomMemberWeighted(candidates, weightMap, totalWeight);
+    List<WeightedSampler<Sequence>> parts = new ArrayList<>();
+    addSamplers(candidates, parts);
+    return Randomness.randomMemberWeighted(parts);
+  }
+
+  @Override
+  public void clear() {
+    samplers.clear();
   }
 
   /**
-   * Update the weight for any sequence not currently in the map, and compute the total weight.
+   * Adds samplers for the elements of the given list to {@code parts}, in order.
    *
-   * @param candidates the elements to compute a weight for
-   * @return the total weight of all the candidates
+   * @param list a list of sequences
+   * @param parts the samplers that together hold the elements of the candidate list; is
+   *     side-effected
    */
-  private double updateWeightMapForCandidates(SimpleList<Sequence> candidates) {
+  private void addSamplers(SimpleList<Sequence> list, List<WeightedSampler<Sequence>> parts) {
+    if (list instanceof ListOfLists) {
+      for (SimpleList<Sequence> sublist : ((ListOfLists<Sequence>) list).lists) {
+        addSamplers(sublist, parts);
+      }
+    } else if (SequenceCollection.isTypeSequences(list)) {
+      parts.add(updateSampler(list));
+    } else {
+      // Not one of the long-lived lists of a SequenceCollection, so do not cache it.
+      WeightedSampler<Sequence> sampler = new WeightedSampler<>(list.size());
+      for (int i = 0; i < list.size(); i++) {
+        sampler.add(list.get(i), weight(list.get(i)));
+      }
+      parts.add(sampler);
+    }
+  }
 
-    double totalWeight = 0.0;
-    for (int i = 0; i < candidates.size(); i++) {
-      Sequence candidate = candidates.get(i);
-      double weight = weightMap.computeIfAbsent(candidate, (Sequence c) -> 1 / (double) c.size());
-      totalWeight += weight;
+  /**
+   * Returns the sampler for the given list, after adding to it any elements that were added to the
+   * list since the sampler was last updated.
+   *
+   * @param list a list of sequences
+   * @return a sampler of the elements of {@code list}
+   */
+  private WeightedSampler<Sequence> updateSampler(SimpleList<Sequence> list) {
+    WeightedSampler<Sequence> sampler = samplers.get(list);
+    int size = (sampler == null) ? 0 : sampler.size();
+    if (sampler == null
+        || size > list.size()
+        || (size > 0 && sampler.get(size - 1) != list.get(size - 1))) {
+      // The list is new, or it was modified other than by appending.
+      sampler = new WeightedSampler<>(list.size());
+      samplers.put(list, sampler);
     }
-    return totalWeight;
+    for (int i = sampler.size(); i < list.size(); i++) {
+      sampler.add(list.get(i), weight(list.get(i)));
+    }
+    return sampler;
+  }
+
+  /**
+   * Returns the weight of the given sequence, which favors shorter sequences.
+   *
+   * @param sequence a sequence
+   * @return the weight of {@code sequence}
+   */
+  private static double weight(Sequence sequence) {
+    return 1 / (double) sequence.size();
   }
 }
@@ -0,0 +1,376 @@
+package randoop.generation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.binary.BinaryStreamWriter;
+
+import randoop.types.PrimitiveType;
+import randoop.types.Type;
+
+/**
+ * Writes the values at one position (an input or an output) of the serialized input/output tuples
+ * of a method, one value per tuple.
+ *
+ * <p>The binary format of a position named, say, {@code in0} is:
+ *
+ * <ul>
+ *   <li>If its type is a primitive type other than {@code void}: {@code in0.bin}, the values packed
+ *       in big-endian order, with the width of the primitive type (1 byte for {@code boolean} and
+ *       {@code byte}, 2 for {@code char} and {@code short}, 4 for {@code int} and {@code float}, 8
+ *       for {@code long} and {@code double}). The value of tuple i is at offset i * width.
+ *   <li>Otherwise: {@code in0.ref}, each value written with XStream's {@link BinaryStreamWriter}
+ *       as a self-contained record, and {@code in0.idx}, the offset in {@code in0.ref} of the
+ *       record of each tuple, as big-endian longs. The record of tuple i starts at the i-th offset
+ *       and ends at the next offset, or at the end of the file for the last tuple. A record can be
+ *       read with {@code xstream.unmarshal(new BinaryStreamReader(in))}.
+ * </ul>
+ *
+ * The number of tuples, and the name, kind, and type of each position, are in the index file that
+ * {@link InOutMethodSerializer} writes.
+ */
+abstract class TupleColumnWriter implements Closeable {
+
+	/** The size of the buffer of each file. */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** The name of the position, such as "in0". */
+	final String name;
+
+	/** The declared type of the position. */
+	final Type type;
+
+	TupleColumnWriter(String name, Type type) {
+		this.name = name;
+		this.type = type;
+	}
+
+	/**
+	 * Writes the value of the next tuple at this position.
+	 *
+	 * @param value the value, already widened to the declared type of the position
+	 * @throws IOException if the value cannot be written
+	 */
+	abstract void write(Object value) throws IOException;
+
+	/**
+	 * Returns an encoding of the given value, which is the same for values with the same structure.
+	 * May be called from another thread than the one that writes.
+	 *
+	 * @param value the value, already widened to the declared type of the position
+	 * @return the encoding of the value
+	 * @throws IOException if the value cannot be encoded
+	 */
+	abstract byte[] encode(Object value) throws IOException;
+
+	/**
+	 * Writes the value of the next tuple at this position, given its encoding by {@link
+	 * #encode(Object)}. The column stores the encoding, so the value is not serialized again.
+	 *
+	 * @param value the value, already widened to the declared type of the position
+	 * @param encoded the encoding of the value
+	 * @throws IOException if the value cannot be written
+	 */
+	abstract void writeEncoded(Object value, byte[] encoded) throws IOException;
+
+	/**
+	 * Returns the kind of this column, for the index file: "xml", "reference", or the name of a
+	 * primitive type.
+	 *
+	 * @return the kind of this column
+	 */
+	abstract String kind();
+
+	/**
+	 * Creates a column writer for the binary format.
+	 *
+	 * @param xstream the XStream used to encode reference values
+	 * @param folder the folder in which to create the files of the column
+	 * @param name the name of the position, such as "in0"
+	 * @param type the declared type of the position
+	 * @return a column writer
+	 * @throws IOException if a file cannot be created
+	 */
+	static TupleColumnWriter binary(XStream xstream, String folder, String name, Type type)
+			throws IOException {
+		if (type.isPrimitive() && !type.isVoid()) {
+			return new PrimitiveColumnWriter(folder, name, type);
+		}
+		return new ReferenceColumnWriter(xstream, folder, name, type);
+	}
+
+	/**
+	 * Creates a column writer that writes an XStream object stream of XML, {@code <name>.xml}.
+	 *
+	 * @param xstream the XStream used to write XML
+	 * @param folder the folder in which to create the file of the column
+	 * @param name the name of the position, such as "in0"
+	 * @param type the declared type of the position
+	 * @return a column writer
+	 * @throws IOException if the file cannot be created
+	 */
+	static TupleColumnWriter xml(XStream xstream, String folder, String name, Type type)
+			throws IOException {
+		return new XmlColumnWriter(xstream, folder, name, type);
+	}
+
+	/** A file channel written through a direct buffer, which knows its position. */
+	private static final class ChannelOutput implements Closeable {
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private long position = 0;
+
+		ChannelOutput(Path file) throws IOException {
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		/**
+		 * Returns a buffer with at least the given number of bytes remaining, flushing it if needed.
+		 *
+		 * @param bytes the number of bytes to be put, at most BUFFER_SIZE
+		 * @return the buffer
+		 * @throws IOException if the buffer cannot be flushed
+		 */
+		ByteBuffer reserve(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+			position += bytes;
+			return buffer;
+		}
+
+		void write(byte[] bytes) throws IOException {
+			int offset = 0;
+			while (offset < bytes.length) {
+				int n = Math.min(bytes.length - offset, BUFFER_SIZE);
+				reserve(n).put(bytes, offset, n);
+				offset += n;
+			}
+		}
+
+		/** The number of bytes written so far, including those still in the buffer. */
+		long position() {
+			return position;
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/** Writes the values of a primitive type packed, at a fixed width. */
+	private static final class PrimitiveColumnWriter extends TupleColumnWriter {
+
+		private final Class<?> primitiveClass;
+		private final int width;
+		private final ChannelOutput out;
+
+		PrimitiveColumnWriter(String folder, String name, Type type) throws IOException {
+			super(name, type);
+			this.primitiveClass = ((PrimitiveType) type).getRuntimeClass();
+			this.width = widthOf(primitiveClass);
+			this.out = new ChannelOutput(Paths.get(folder, name + ".bin"));
+		}
+
+		@Override
+		void write(Object value) throws IOException {
+			put(out.reserve(width), value);
+		}
+
+		@Override
+		byte[] encode(Object value) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(width);
+			put(buffer, value);
+			return buffer.array();
+		}
+
+		@Override
+		void writeEncoded(Object value, byte[] encoded) throws IOException {
+			out.write(encoded);
+		}
+
+		private void put(ByteBuffer buffer, Object value) throws IOException {
+			if (value == null) {
+				throw new IOException("Null value for primitive type " + type);
+			}
+			if (primitiveClass == boolean.class) {
+				buffer.put((byte) (((Boolean) value) ? 1 : 0));
+			} else if (primitiveClass == char.class) {
+				buffer.putChar((Character) value);
+			} else {
+				Number n = (Number) value;
+				if (primitiveClass == int.class) {
+					buffer.putInt(n.intValue());
+				} else if (primitiveClass == long.class) {
+					buffer.putLong(n.longValue());
+				} else if (primitiveClass == double.class) {
+					buffer.putDouble(n.doubleValue());
+				} else if (primitiveClass == float.class) {
+					buffer.putFloat(n.floatValue());
+				} else if (primitiveClass == short.class) {
+					buffer.putShort(n.shortValue());
+				} else {
+					buffer.put(n.byteValue());
+				}
+			}
+		}
+
+		/**
+		 * Returns the number of bytes of a value of the given primitive type.
+		 *
+		 * @param primitiveClass a primitive type other than {@code void}
+		 * @return the number of bytes of a value of the type
+		 */
+		private static int widthOf(Class<?> primitiveClass) {
+			if (primitiveClass == boolean.class || primitiveClass == byte.class) {
+				return 1;
+			} else if (primitiveClass == char.class || primitiveClass == short.class) {
+				return 2;
+			} else if (primitiveClass == int.class || primitiveClass == float.class) {
+				return 4;
+			} else {
+				return 8;
+			}
+		}
+
+		@Override
+		String kind() {
+			return primitiveClass.getName();
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+
+	/** Writes values as XStream binary records, with an index of the offset of each record. */
+	private static final class ReferenceColumnWriter extends TupleColumnWriter {
+
+		private final XStream xstream;
+		private final ChannelOutput data;
+		private final ChannelOutput index;
+
+		ReferenceColumnWriter(XStream xstream, String folder, String name, Type type)
+				throws IOException {
+			super(name, type);
+			this.xstream = xstream;
+			this.data = new ChannelOutput(Paths.get(folder, name + ".ref"));
+			this.index = new ChannelOutput(Paths.get(folder, name + ".idx"));
+		}
+
+		@Override
+		void write(Object value) throws IOException {
+			writeEncoded(value, encode(value));
+		}
+
+		@Override
+		byte[] encode(Object value) throws IOException {
+			ByteArrayOutputStream record = new ByteArrayOutputStream();
+			BinaryStreamWriter writer = new BinaryStreamWriter(record);
+			xstream.marshal(value, writer);
+			writer.flush();
+			return record.toByteArray();
+		}
+
+		@Override
+		void writeEncoded(Object value, byte[] encoded) throws IOException {
+			index.reserve(8).putLong(data.position());
+			data.write(encoded);
+		}
+
+		@Override
+		String kind() {
+			return "reference";
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				data.close();
+			} finally {
+				index.close();
+			}
+		}
+	}
+
+	/**
+	 * Writes values as an XStream object stream of XML, which {@code
+	 * xstream.createObjectInputStream} reads. Each value is written as its {@code xstream.toXML}
+	 * form, so that a value encoded by {@link #encode(Object)} is written without serializing it
+	 * again.
+	 */
+	private static final class XmlColumnWriter extends TupleColumnWriter {
+
+		private static final byte[] STREAM_START = bytes("<object-stream>\n");
+		private static final byte[] STREAM_END = bytes("</object-stream>\n");
+		private static final byte[] NEWLINE = bytes("\n");
+
+		private final XStream xstream;
+		private final ChannelOutput out;
+
+		XmlColumnWriter(XStream xstream, String folder, String name, Type type) throws IOException {
+			super(name, type);
+			this.xstream = xstream;
+			this.out = new ChannelOutput(Paths.get(folder, name + ".xml"));
+			out.write(STREAM_START);
+		}
+
+		@Override
+		void write(Object value) throws IOException {
+			writeEncoded(value, encode(value));
+		}
+
+		@Override
+		byte[] encode(Object value) throws IOException {
+			return xstream.toXML(value).getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		void writeEncoded(Object value, byte[] encoded) throws IOException {
+			out.write(encoded);
+			out.write(NEWLINE);
+		}
+
+		@Override
+		String kind() {
+			return "xml";
+		}
+
+		private static byte[] bytes(String s) {
+			return s.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				out.write(STREAM_END);
+			} finally {
+				out.close();
+			}
+		}
+	}
+}
@@ -1,9 +1,13 @@
 package randoop.main;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -12,8 +16,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.regex.Pattern;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.BinaryName;
 import org.checkerframework.checker.signature.qual.ClassGetName;
@@ -28,8 +32,10 @@ import org.plumelib.util.EntryReader;
 import org.plumelib.util.FileWriterWithName;
 import randoop.Globals;
 import randoop.reflection.AccessibilityPredicate;
+import randoop.util.ClassFileHeader;
 import randoop.util.Randomness;
 import randoop.util.ReflectionExecutor;
+import randoop.util.Util;
 
 /** Container for Randoop options. They are stored as static variables, not instance variables. */
 @SuppressWarnings("WeakerAccess")
@@ -54,12 +60,43 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("List methods and exit Randoop")
   public static boolean list_methods_and_exit = false;
   
-  @Option("Serialize all input/output tuples for the method matching this pattern. Warning: The pattern must match a single method!")
-  public static Pattern serialize_method = null;
+  /**
+   * Serialize the input/output tuples of the methods matching these patterns. Each matching method
+   * gets its own subfolder of {@code --serialize-folder}, so one run can capture many methods.
+   */
+  @Option("Serialize all input/output tuples for the methods matching this pattern")
+  public static List<Pattern> serialize_method = new ArrayList<>();
+
+  @Option("File containing regular expressions for methods whose input/output tuples to serialize")
+  public static List<Path> serialize_method_file = new ArrayList<>();
 
-  @Option("Serialize input/output tuples for the method matching serialize_method to this folder")
+  @Option("Serialize input/output tuples for the methods matching serialize_method to this folder")
   public static String serialize_folder = "./";
 
+  @Option("Maximum number of input/output tuples to serialize for each method")
+  public static int serialize_tuple_limit = Integer.MAX_VALUE;
+
+  /**
+   * Serialize, for each method, only the first input/output tuple with given inputs. Inputs are
+   * compared by a hash of their serialized form, so inputs with the same structure are repeats.
+   */
+  @Option("Do not serialize input/output tuples whose inputs were already serialized")
+  public static boolean serialize_deduplicate = false;
+
+  @Option("Format of the input/output tuples serialized to serialize_folder: BINARY or XML")
+  public static SerializeFormat serialize_format = SerializeFormat.BINARY;
+
+  /** The possible values of the serialize_format command-line argument. */
+  public enum SerializeFormat {
+    /**
+     * Primitive values packed in one {@code .bin} file per position, and other values as XStream
+     * binary records in a {@code .ref} file with an {@code .idx} file of offsets.
+     */
+    BINARY,
+    /** One XStream object stream of XML per position, as {@code in0.xml}, {@code out0.xml}, ... */
+    XML
+  }
+
   @Option("File that list the test suites to use as seeds")
   public static Path testseeds = null;
   @Option("File that list the test suites to extract literals to be used as seeds")
@@ -292,6 +329,16 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("What to do if a flaky test is generated")
   public static FlakyTestAction flaky_test_behavior = FlakyTestAction.OUTPUT;
 
+  /**
+   * If true, flaky-test filtering runs the regression test classes in a single, long-lived JVM,
+   * loading each test class and the classes it uses with a new class loader. This is much faster
+   * than starting a new JVM for each run of each test class, but the runs share JVM-wide state such
+   * as system properties. A test class that cannot be run this way is run in a new JVM. If false,
+   * every run uses a new JVM.
+   */
+  @Option("Reuse one JVM to run tests during flaky-test filtering")
+  public static boolean reuse_test_jvm = true;
+
   /**
    * How many suspected side-effecting or nondeterministic methods (from the program under test) to
    * print.
@@ -476,6 +523,15 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Terminate Randoop if specification condition is uncompilable")
   public static boolean ignore_condition_compilation_error = false;
 
+  /**
+   * Directory in which to cache the compiled condition methods of specifications. Randoop compiles
+   * the conditions of all the specifications together; if this is set, a later run with the same
+   * specifications and classpath loads the compiled conditions from the cache instead of compiling
+   * them again.
+   */
+  @Option("Directory for caching compiled specification conditions")
+  public static @Nullable Path specifications_cache_dir = null;
+
   /**
    * Make Randoop treat a specification whose execution throws an exception as returning {@code
    * false}. If true, Randoop treats {@code x.f == 22} equivalently to the wordier {@code x != null
@@ -631,6 +687,25 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("A file containing literal values to be used as inputs to methods under test")
   public static List<String> literals_file = new ArrayList<>();
 
+  /**
+   * Directory in which to cache the literals that "--literals-file=CLASSES" reads from class files.
+   * Each class file's literals are cached under a hash of its contents, so a later run reads only
+   * the class files that changed since they were cached.
+   */
+  @Option("Directory for caching literals read from class files")
+  public static @Nullable Path class_literals_cache_dir = null;
+
+  /**
+   * Directory in which to cache the operation model: for each class, the members from which
+   * operations are created, and the declarations of the classes under test. Each entry is cached
+   * under a hash of the options that determine it and of the class files that it depends on, so a
+   * later run extracts again only the classes whose class files, or whose supertypes' class files,
+   * changed since they were cached. If {@code --literals-file=CLASSES} is given and {@code
+   * --class-literals-cache-dir} is not, the literals are cached in this directory too.
+   */
+  @Option("Directory for caching the operation model across runs")
+  public static @Nullable Path operation_model_cache_dir = null;
+
   /**
    * How to use literal values that are specified via the {@code --literals-file} command-line
    * option.
@@ -752,12 +827,37 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Clear the component set when Randoop uses this much memory")
   public static long clear_memory = 4000000000L; // default: 4G
 
+  /**
+   * Number of executed sequences whose runtime values Randoop retains, so that a new test that
+   * extends them need not re-execute them. Zero disables the cache.
+   *
+   * <p>Randoop reuses the retained values only when the statement appended to them cannot
+   * side-effect them: it is a call to a side-effect-free method (see {@code
+   * --side-effect-free-methods}), or all its inputs are primitives, boxed primitives, or strings.
+   * Enabling this option is unsound if the code under test is nondeterministic, if a
+   * side-effect-free method is not actually side-effect-free, or if the values depend on static
+   * state that later statements modify. It also means that coverage information gathered during
+   * execution, such as for {@code --require-covered-classes}, excludes the reused statements.
+   */
+  @Option("Cache the runtime values of this many previously-executed sequences")
+  public static int prefix_cache_size = 0;
+
   ///////////////////////////////////////////////////////////////////
   /** Maximum number of tests to write to each JUnit file. */
   @OptionGroup("Outputting the JUnit tests")
   @Option("Maximum number of tests to write to each JUnit file")
   public static int testsperfile = 500;
 
+  /**
+   * Write each JUnit file as soon as {@code --testsperfile} tests have been generated, rather than
+   * writing all the files after generation ends. Randoop then does not retain the runtime values of
+   * the output tests, which reduces its memory use on long runs, and the files written so far
+   * survive if Randoop is interrupted. Tests whose sequences are subsumed by longer tests are not
+   * omitted from the output.
+   */
+  @Option("Write JUnit files while tests are being generated")
+  public static boolean stream_tests = false;
+
   /** Base name (no ".java" suffix) of the JUnit file containing error-revealing tests */
   @Option("Base name of the JUnit file(s) containing error-revealing tests")
   public static String error_test_basename = "ErrorTest";
@@ -862,6 +962,70 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Store all output to stdout and stderr in the ExecutionOutcome.")
   public static boolean capture_output = false;
 
+  /**
+   * Number of threads that generate tests concurrently. Each thread has its own pool of sequences
+   * and its own random number generator (seeded from {@code --randomseed} and the thread's index);
+   * the threads periodically share the sequences they add to their pools. The generated tests are
+   * merged, in thread order, after generation ends. The limits on the number of tests apply to the
+   * total over all threads.
+   *
+   * <p>Use a value greater than 1 only if the code under test is thread-safe: tests execute
+   * concurrently in a single JVM. A value greater than 1 makes Randoop nondeterministic, and cannot
+   * be combined with {@code --visitor}, {@code --require-covered-classes}, {@code
+   * --serialize-method}, or {@code --selection-log}, which are not thread-safe.
+   */
+  @Option("Number of threads that generate tests concurrently")
+  public static int workers = 1;
+
+  /**
+   * When {@code --workers} is greater than 1, how many generation steps each thread takes between
+   * exchanges of new sequences with the other threads.
+   */
+  @Option("Generation steps between exchanges of sequences among worker threads")
+  public static int worker_sync_interval = 100;
+
+  /**
+   * The number of Randoop processes that generate tests together, each of which is given a
+   * different {@code --shard-index}. The {@code gentests-sharded} command sets this option for each
+   * Randoop process that it starts.
+   */
+  @Unpublicized
+  @Option("Number of Randoop processes that generate tests together")
+  public static int shard_count = 1;
+
+  /**
+   * The index of this Randoop process among the {@code --shard-count} processes that generate tests
+   * together. The process uses {@code --randomseed} plus this index as its random seed.
+   */
+  @Unpublicized
+  @Option("Index, starting at 0, of this process among those that generate tests together")
+  public static int shard_index = 0;
+
+  /**
+   * When {@code --shard-count} is more than 1, split the methods and constructors under test into
+   * that many disjoint subsets, and call only those in subset {@code --shard-index}. Otherwise, all
+   * the processes call all the methods and constructors under test, each with its own random seed.
+   */
+  @Option("Give each of the processes run by gentests-sharded a disjoint subset of the methods")
+  public static boolean shard_operations = false;
+
+  /**
+   * If non-null, write the generated regression and error-revealing sequences to this file, in the
+   * format read by {@link randoop.sequence.SequenceFiles}, instead of outputting JUnit tests. The
+   * {@code gentests-sharded} command sets this option for each Randoop process that it starts.
+   */
+  @Unpublicized
+  @Option("Write generated sequences to the given file instead of outputting JUnit tests")
+  public static @Nullable Path sequence_output_file = null;
+
+  /**
+   * If non-empty, do not generate new sequences. Instead, execute and classify the sequences in
+   * these files (written by {@code --sequence-output-file}), and output the resulting tests.
+   */
+  @Unpublicized
+  @Option("Execute and classify the sequences in the given file instead of generating new ones")
+  public static List<Path> sequence_input_file = new ArrayList<>();
+
   /**
    * The random seed to use in the generation process. You do not need to provide this option to
    * make Randoop deterministic, because Randoop is deterministic by default. It is recommended to
@@ -961,6 +1125,66 @@ public abstract class GenInputsAbstract extends CommandHandler {
       throw new RandoopUsageError("--null-ratio must be between 0 and 1, inclusive.");
     }
 
+    if (workers < 1) {
+      throw new RandoopUsageError("--workers must be at least 1 but was " + workers);
+    }
+
+    if (worker_sync_interval < 1) {
+      throw new RandoopUsageError(
+          "--worker-sync-interval must be at least 1 but was " + worker_sync_interval);
+    }
+
+    if (shard_count < 1) {
+      throw new RandoopUsageError("--shard-count must be at least 1 but was " + shard_count);
+    }
+
+    if (shard_index < 0 || shard_index >= shard_count) {
+      throw new RandoopUsageError(
+          String.format(
+              "--shard-index must be between 0 and %d but was %d", shard_count - 1, shard_index));
+    }
+
+    if (stream_tests && workers > 1) {
+      throw new RandoopUsageError("Invalid parameter combination: --stream-tests with --workers");
+    }
+
+    if (stream_tests && sequence_output_file != null) {
+      throw new RandoopUsageError(
+          "Invalid parameter combination: --stream-tests with --sequence-output-file");
+    }
+
+    if (!sequence_input_file.isEmpty() && workers > 1) {
+      throw new RandoopUsageError(
+          "Invalid parameter combination: --sequence-input-file with --workers");
+    }
+
+    if (workers > 1) {
+      if (deterministic) {
+        throw new RandoopUsageError(
+            "Invalid parameter combination: --deterministic with --workers");
+      }
+      if (!visitor.isEmpty()) {
+        throw new RandoopUsageError("Invalid parameter combination: --visitor with --workers");
+      }
+      if (require_covered_classes != null) {
+        throw new RandoopUsageError(
+            "Invalid parameter combination: --require-covered-classes with --workers");
+      }
+      if (!serialize_method.isEmpty() || !serialize_method_file.isEmpty()) {
+        throw new RandoopUsageError(
+            "Invalid parameter combination: --serialize-method with --workers");
+      }
+      if (selection_log != null) {
+        throw new RandoopUsageError(
+            "Invalid parameter combination: --selection-log with --workers");
+      }
+    }
+
+    if (prefix_cache_size < 0) {
+      throw new RandoopUsageError(
+          "--prefix-cache-size must be non-negative but was " + prefix_cache_size);
+    }
+
     if (maxsize <= 0) {
       throw new RandoopUsageError(
           "Maximum sequence size --maxsize must be greater than zero but was " + maxsize);
@@ -1053,8 +1277,15 @@ public abstract class GenInputsAbstract extends CommandHandler {
   public static Set<@ClassGetName String> getClassnamesFromArgs(
       AccessibilityPredicate accessibility) {
     Set<@ClassGetName String> classnames = getClassNamesFromFile(classlist);
-    for (Path jarFile : testjar) {
-      classnames.addAll(getClassnamesFromJarFile(jarFile, accessibility));
+    // The jar files are read concurrently; the classes in them are loaded one at a time, in order.
+    List<List<@ClassGetName String>> jarCandidates =
+        Util.mapConcurrently(
+            testjar,
+            jarFile -> getCandidateClassnamesFromJarFile(jarFile, accessibility),
+            "randoop-jar-reader");
+    for (int i = 0; i < testjar.size(); i++) {
+      classnames.addAll(
+          loadClassnamesFromJarFile(testjar.get(i), jarCandidates.get(i), accessibility));
     }
     for (String packageName : test_package) {
       classnames.addAll(getClassnamesFromPackage(packageName, accessibility));
@@ -1089,85 +1320,145 @@ public abstract class GenInputsAbstract extends CommandHandler {
    */
   public static Set<@ClassGetName String> getClassnamesFromJarFile(
       Path jarFile, AccessibilityPredicate accessibility) {
-    try {
+    return loadClassnamesFromJarFile(
+        jarFile, getCandidateClassnamesFromJarFile(jarFile, accessibility), accessibility);
+  }
+
+  /**
+   * Returns the names of the classes in a jar file that might be accessible, in sorted order:
+   * those that are not omitted and whose class files have access flags that the accessibility
+   * predicate does not reject. Does not load any class.
+   *
+   * @param jarFile the jar file from which to read classes
+   * @param accessibility the accessibility predicate
+   * @return the names of the classes in the jar file that might be accessible
+   */
+  private static List<@ClassGetName String> getCandidateClassnamesFromJarFile(
+      Path jarFile, AccessibilityPredicate accessibility) {
+    try (FileSystem jar = FileSystems.newFileSystem(jarFile, (ClassLoader) null);
+        Stream<Path> entries = Files.walk(jar.getPath("/"))) {
       Set<@ClassGetName String> classNames = new TreeSet<>();
-      ZipInputStream zip = new ZipInputStream(new FileInputStream(jarFile.toString()));
-      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
-        if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
-          // This ZipEntry represents a class. Now, what class does it represent?
-          String classFileName = entry.getName();
-          @SuppressWarnings("signature") // string manipulation: convert filename to class name
-          @InternalForm String ifClassName =
-              classFileName.substring(0, classFileName.length() - ".class".length());
-          @ClassGetName String className = Signatures.internalFormToClassGetName(ifClassName);
-          if (shouldOmitClass(className)) {
-            continue;
-          }
-          Class<?> c;
-          try {
-            c = Class.forName(className);
-          } catch (ClassNotFoundException e) {
-            throw new RandoopUsageError(
-                String.format(
-                    "%s was read from %s but was not found on classpath."
-                        + "  Ensure that %s is on the classpath.  Classpath:%n%s",
-                    className, jarFile, jarFile, ReflectionPlume.classpathToString()));
-          } catch (UnsatisfiedLinkError e) {
-            // This happens when an old classfile refers to a class that has been removed from the
-            // JDK, such as one in java.awt.*.
-            System.out.printf(
-                "Ignoring %s which was read from %s but could not be loaded: %s%n",
-                className, jarFile, e);
-            continue;
-          } catch (ExceptionInInitializerError e) {
+      List<Path> classFiles =
+          entries
+              .filter(entry -> entry.toString().endsWith(".class") && Files.isRegularFile(entry))
+              .collect(Collectors.toList());
+      for (Path classFile : classFiles) {
+        // This entry represents a class. Now, what class does it represent?
+        String classFileName = classFile.toString().substring(1); // remove the leading "/"
+        @SuppressWarnings("signature") // string manipulation: convert filename to class name
+        @InternalForm String ifClassName =
+            classFileName.substring(0, classFileName.length() - ".class".length());
+        @ClassGetName String className = Signatures.internalFormToClassGetName(ifClassName);
+        if (!shouldOmitClass(className) && mayBeAccessible(classFile, className, accessibility)) {
+          classNames.add(className);
+        }
+      }
+      return new ArrayList<>(classNames);
+    } catch (IOException e) {
+      String message =
+          String.format("Error while reading jar file %s: %s%n", jarFile, e.getMessage());
+      throw new RandoopUsageError(message, e);
+    }
+  }
+
+  /**
+   * Determines whether a class might be accessible, from the access flags in its class file.
+   * Returns false for a module descriptor, which is not a class.
+   *
+   * @param classFile the class file of the class
+   * @param classname the name of the class
+   * @param accessibility the accessibility predicate
+   * @return false if the class is not accessible, true if it might be
+   */
+  private static boolean mayBeAccessible(
+      Path classFile, String classname, AccessibilityPredicate accessibility) {
+    int accessFlags;
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(classFile))) {
+      accessFlags = ClassFileHeader.readAccessFlags(in);
+    } catch (IOException e) {
+      // Loading the class reports the problem, if there is one.
+      return true;
+    }
+    if ((accessFlags & ClassFileHeader.ACC_MODULE) != 0) {
+      return false;
+    }
+    int lastDot = classname.lastIndexOf('.');
+    String packageName = (lastDot == -1) ? "" : classname.substring(0, lastDot);
+    return accessibility.mayBeAccessible(accessFlags, packageName);
+  }
+
+  /**
+   * Loads the given classes from a jar file, and returns the names of those that are accessible.
+   *
+   * @param jarFile the jar file from which the class names were read
+   * @param classnames the names of classes in the jar file, as returned by {@link
+   *     #getCandidateClassnamesFromJarFile}
+   * @param accessibility the accessibility predicate
+   * @return the names of the accessible classes, of those that can be loaded
+   */
+  private static Set<@ClassGetName String> loadClassnamesFromJarFile(
+      Path jarFile, List<@ClassGetName String> classnames, AccessibilityPredicate accessibility) {
+    Set<@ClassGetName String> classNames = new TreeSet<>();
+    for (@ClassGetName String className : classnames) {
+      Class<?> c;
+      try {
+        c = Class.forName(className);
+      } catch (ClassNotFoundException e) {
+        throw new RandoopUsageError(
+            String.format(
+                "%s was read from %s but was not found on classpath."
+                    + "  Ensure that %s is on the classpath.  Classpath:%n%s",
+                className, jarFile, jarFile, ReflectionPlume.classpathToString()));
+      } catch (UnsatisfiedLinkError e) {
+        // This happens when an old classfile refers to a class that has been removed from the
+        // JDK, such as one in java.awt.*.
+        System.out.printf(
+            "Ignoring %s which was read from %s but could not be loaded: %s%n",
+            className, jarFile, e);
+        continue;
+      } catch (ExceptionInInitializerError e) {
+        System.out.printf(
+            "Ignoring %s which was read from %s but could not be initialized: %s%n",
+            className, jarFile, e);
+        continue;
+      } catch (NoClassDefFoundError e) {
+        String eMsg = e.getMessage();
+        if (eMsg.startsWith("Could not initialize class ")) {
+          if (eMsg.endsWith(": " + className)) {
             System.out.printf(
                 "Ignoring %s which was read from %s but could not be initialized: %s%n",
                 className, jarFile, e);
             continue;
-          } catch (NoClassDefFoundError e) {
-            String eMsg = e.getMessage();
-            if (eMsg.startsWith("Could not initialize class ")) {
-              if (eMsg.endsWith(": " + className)) {
-                System.out.printf(
-                    "Ignoring %s which was read from %s but could not be initialized: %s%n",
-                    className, jarFile, e);
-                continue;
-              } else {
-                System.out.printf(
-                    "Ignoring %s which was read from %s but a class could not be initialized: %s%n",
-                    className, jarFile, e);
-                continue;
-              }
-            }
-            if (className.equals(e.getMessage())) {
-              System.out.printf(
-                  "Ignoring %s which was read from %s but could not be loaded: %s%n",
-                  className, jarFile, e);
-              continue;
-            } else {
-              System.out.printf(
-                  "Ignoring %s which was read from %s but a class could not be loaded: %s%n",
-                  className, jarFile, e);
-              continue;
-            }
-          } catch (Error e) {
-            // An example is: "java.lang.Error: FileMonitor not implemented for Linux"
+          } else {
             System.out.printf(
-                "Ignoring %s which was read from %s but could not be loaded: %s%n",
+                "Ignoring %s which was read from %s but a class could not be initialized: %s%n",
                 className, jarFile, e);
             continue;
           }
-          if (accessibility.isAccessible(c)) {
-            classNames.add(className);
-          }
         }
+        if (className.equals(e.getMessage())) {
+          System.out.printf(
+              "Ignoring %s which was read from %s but could not be loaded: %s%n",
+              className, jarFile, e);
+          continue;
+        } else {
+          System.out.printf(
+              "Ignoring %s which was read from %s but a class could not be loaded: %s%n",
+              className, jarFile, e);
+          continue;
+        }
+      } catch (Error e) {
+        // An example is: "java.lang.Error: FileMonitor not implemented for Linux"
+        System.out.printf(
+            "Ignoring %s which was read from %s but could not be loaded: %s%n",
+            className, jarFile, e);
+        continue;
+      }
+      if (accessibility.isAccessible(c)) {
+        classNames.add(className);
       }
-      return classNames;
-    } catch (IOException e) {
-      String message =
-          String.format("Error while reading jar file %s: %s%n", jarFile, e.getMessage());
-      throw new RandoopUsageError(message, e);
     }
+    return classNames;
   }
 
   /**
@@ -1180,14 +1471,43 @@ public abstract class GenInputsAbstract extends CommandHandler {
    */
   private static List<@ClassGetName String> getClassnamesFromPackage(
       String packageName, AccessibilityPredicate accessibility) {
-    List<@ClassGetName String> classnames = new ArrayList<>();
-
+    List<File> locations = new ArrayList<>();
     for (String path : Globals.getClassPath().split(File.pathSeparator)) {
       File location = new File(path);
-      if (location.isFile() && location.getName().endsWith(".jar")) {
-        classnames.addAll(getClassesWithPackageFromJar(location, packageName, accessibility));
-      } else if (location.isDirectory()) {
-        classnames.addAll(getClassesWithPackageFromDirectory(location, packageName, accessibility));
+      if ((location.isFile() && location.getName().endsWith(".jar")) || location.isDirectory()) {
+        locations.add(location);
+      }
+    }
+
+    // The classpath elements are read concurrently; the classes in them are loaded one at a time,
+    // in order.
+    List<List<@ClassGetName String>> candidates =
+        Util.mapConcurrently(
+            locations,
+            location ->
+                location.isDirectory()
+                    ? getClassesWithPackageFromDirectory(location, packageName, accessibility)
+                    : getClassesWithPackageFromJar(location, packageName, accessibility),
+            "randoop-classpath-reader");
+    List<@ClassGetName String> classnames = new ArrayList<>();
+    for (int i = 0; i < locations.size(); i++) {
+      File location = locations.get(i);
+      for (@ClassGetName String classname : candidates.get(i)) {
+        Class<?> classFromPackage;
+        try {
+          classFromPackage = Class.forName(classname);
+        } catch (ClassNotFoundException e) {
+          throw new RandoopClassNameError(
+              classname,
+              String.format(
+                  location.isDirectory()
+                      ? "Cannot load class found in directory %s"
+                      : "Cannot load class found in %s",
+                  location.getAbsolutePath()));
+        }
+        if (accessibility.isAccessible(classFromPackage)) {
+          classnames.add(classname);
+        }
       }
     }
 
@@ -1195,70 +1515,69 @@ public abstract class GenInputsAbstract extends CommandHandler {
   }
 
   /**
-   * Given a directory on the CLASSPATH, returns classes in the given package. These classes are
-   * found in a subdirectory of the given directory, whose name depends on the given package.
+   * Given a directory on the CLASSPATH, returns classes in the given package that might be
+   * accessible. These classes are found in a subdirectory of the given directory, whose name
+   * depends on the given package. Does not load any class.
    *
    * @param directory a directory on the CLASSPATH
    * @param packageName a package name
    * @param accessibility the accessibility predicate
-   * @return classes with the given package
+   * @return classes with the given package that might be accessible
    */
   private static List<@ClassGetName String> getClassesWithPackageFromDirectory(
       File directory, String packageName, AccessibilityPredicate accessibility) {
     String packageNameAsFile = packageName.replace(".", File.separator);
     // This directory contains the .class files.
     File packageDirectory = directory.toPath().resolve(packageNameAsFile).toFile();
+    List<@ClassGetName String> classnames = new ArrayList<>();
     if (packageDirectory.exists() && packageDirectory.isDirectory()) {
-      List<@ClassGetName String> classnames = new ArrayList<>();
       for (File file :
           packageDirectory.listFiles(f -> f.isFile() && f.getName().endsWith(".class"))) {
 
         String relativePath = directory.toPath().relativize(file.toPath()).toString();
         String classname = Signatures.classfilenameToBinaryName(relativePath);
-        try {
-          Class<?> classFromPackage = Class.forName(classname);
-          if (accessibility.isAccessible(classFromPackage)) {
-            classnames.add(classname);
-          }
-        } catch (ClassNotFoundException e) {
-          throw new RandoopClassNameError(
-              classname,
-              String.format(
-                  "Cannot load class found in directory %s", directory.getAbsolutePath()));
+        if (mayBeAccessible(file.toPath(), classname, accessibility)) {
+          classnames.add(classname);
         }
       }
-      return classnames;
     }
-    return new ArrayList<>();
+    return classnames;
   }
 
   /**
-   * Returns classes with the given package in the given jar file.
+   * Returns classes with the given package in the given jar file that might be accessible. Does
+   * not load any class.
    *
    * @param jarFile a jar file containing classes
    * @param packageName a package name
    * @param accessibility the accessibility predicate
-   * @return classes in package {@code packageName} in the given jar file
+   * @return classes in package {@code packageName} in the given jar file that might be accessible
    */
   private static List<@ClassGetName String> getClassesWithPackageFromJar(
       File jarFile, String packageName, AccessibilityPredicate accessibility) {
     List<@ClassGetName String> classnames = new ArrayList<>();
-    String classname = ""; // Declared here to be able to use variable in catch block
-    try (ZipInputStream zip = new ZipInputStream(new FileInputStream(jarFile.toString()))) {
-      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
-        if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
-          classname =
+    try (FileSystem jar = FileSystems.newFileSystem(jarFile.toPath(), (ClassLoader) null)) {
+      // Classes in subpackages are in subdirectories, which are not listed.
+      Path packageDirectory = jar.getPath("/" + packageName.replace('.', '/'));
+      if (!Files.isDirectory(packageDirectory)) {
+        return classnames;
+      }
+      try (Stream<Path> entries = Files.list(packageDirectory)) {
+        List<Path> classFiles =
+            entries
+                .filter(entry -> entry.toString().endsWith(".class") && Files.isRegularFile(entry))
+                .sorted()
+                .collect(Collectors.toList());
+        for (Path classFile : classFiles) {
+          @ClassGetName String classname =
               Signatures.binaryNameToClassGetName(
-                  Signatures.classfilenameToBinaryName(entry.getName()));
-          if (classname.startsWith(packageName)
-              // no following "." means the class is not in a subpackage.
-              && !classname.substring(packageName.length() + 1).contains(".")
-              && accessibility.isAccessible(Class.forName(classname))) {
+                  Signatures.classfilenameToBinaryName(classFile.toString().substring(1)));
+          if (mayBeAccessible(classFile, classname, accessibility)) {
             classnames.add(classname);
           }
         }
       }
-    } catch (FileNotFoundException e) {
+    } catch (NoSuchFileException e) {
       throw new RandoopUsageError(
           String.format(
               "Cannot find .jar file %s specified in classpath: %s",
@@ -1266,9 +1585,6 @@ public abstract class GenInputsAbstract extends CommandHandler {
     } catch (IOException e) {
       throw new RandoopUsageError(
           String.format("Cannot read .jar file: %s", jarFile.getAbsolutePath()));
-    } catch (ClassNotFoundException e) {
-      throw new RandoopClassNameError(
-          classname, String.format("Cannot load class found in %s", jarFile.getAbsolutePath()));
     }
     return classnames;
   }
@@ -30,6 +30,10 @@ import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -62,6 +66,7 @@ import randoop.output.JavaFileWriter;
 import randoop.output.MinimizerWriter;
 import randoop.output.NameGenerator;
 import randoop.output.RandoopOutputException;
+import randoop.output.StreamingTestWriter;
 import randoop.reflection.AccessibilityPredicate;
 import randoop.reflection.DefaultReflectionPredicate;
 import randoop.reflection.OmitMethodsPredicate;
@@ -74,6 +79,7 @@ import randoop.sequence.ExecutableSequence;
 import randoop.sequence.Sequence;
 import randoop.sequence.SequenceExceptionError;
 import randoop.sequence.SequenceExecutionException;
+import randoop.sequence.SequenceFiles;
 import randoop.sequence.Statement;
 import randoop.test.CompilableTestPredicate;
 import randoop.test.ContractCheckingGenerator;
@@ -96,7 +102,6 @@ import randoop.util.MultiMap;
 import randoop.util.Randomness;
 import randoop.util.RandoopLoggingError;
 import randoop.util.ReflectionExecutor;
-import randoop.util.SimpleList;
 import randoop.util.predicate.AlwaysFalse;
 
 /** Test generation. */
@@ -195,7 +200,7 @@ public class GenTests extends GenInputsAbstract {
 
     checkOptionsValid();
 
-    Randomness.setSeed(randomseed);
+    Randomness.setSeed((long) randomseed + shard_index);
 
     // java.security.Policy policy = java.security.Policy.getPolicy();
 
@@ -259,6 +264,10 @@ public class GenTests extends GenInputsAbstract {
       omit_methods.addAll(readPatterns(omitMethodsFile));
     }
 
+    for (Path serializeMethodFile : GenInputsAbstract.serialize_method_file) {
+      GenInputsAbstract.serialize_method.addAll(readPatterns(serializeMethodFile));
+    }
+
     for (Path omitClassesFile : GenInputsAbstract.omit_classes_file) {
       omit_classes.addAll(readPatterns(omitClassesFile));
     }
@@ -298,6 +307,9 @@ public class GenTests extends GenInputsAbstract {
     SpecificationCollection operationSpecifications = null;
     try {
       operationSpecifications = SpecificationCollection.create(GenInputsAbstract.specifications);
+      if (operationSpecifications != null) {
+        operationSpecifications.compileAllExpressions(GenInputsAbstract.specifications_cache_dir);
+      }
     } catch (RandoopSpecificationError e) {
       System.out.println("Error in specifications: " + e.getMessage());
       System.exit(1);
@@ -393,6 +405,19 @@ public class GenTests extends GenInputsAbstract {
 
     }
 
+    if (GenInputsAbstract.shard_operations && GenInputsAbstract.shard_count > 1) {
+      operations = operationsInShard(operations);
+      if (GenInputsAbstract.progressdisplay) {
+        System.out.printf(
+            "Shard %d of %d: %d members%n",
+            GenInputsAbstract.shard_index, GenInputsAbstract.shard_count, operations.size());
+      }
+      if (operations.isEmpty()) {
+        writeSequenceOutputFile(Collections.emptyList());
+        return true;
+      }
+    }
+
     /*
      * Initialize components:
      * <ul>
@@ -422,26 +447,54 @@ public class GenTests extends GenInputsAbstract {
 
     // Serialize generated objects
    	InOutObjectsCollector inOutCollector = null;
-    if (GenInputsAbstract.serialize_method != null) {
+    if (!GenInputsAbstract.serialize_method.isEmpty()) {
     	XStream xstream = new XStream();
     	inOutCollector = new InOutObjectsCollector(xstream);
     	listenerMgr.addListener(new InOutMethodSerializer(xstream, 
     			GenInputsAbstract.serialize_method, 
     			GenInputsAbstract.serialize_folder, 
+    			GenInputsAbstract.serialize_format, 
+    			GenInputsAbstract.serialize_tuple_limit, 
+    			GenInputsAbstract.serialize_deduplicate, 
     			inOutCollector));
     }
     
     /*
      * Create the generator for this session.
      */
-    AbstractGenerator explorer =
-        new ForwardGenerator(
-            operations,
-            sideEffectFreeMethods,
-            new GenInputsAbstract.Limits(),
-            componentMgr,
-            listenerMgr,
-            classesUnderTest);
+    AbstractGenerator explorer;
+    if (!GenInputsAbstract.sequence_input_file.isEmpty()) {
+      List<Sequence> inputSequences = new ArrayList<>();
+      for (Path sequenceFile : GenInputsAbstract.sequence_input_file) {
+        inputSequences.addAll(SequenceFiles.read(sequenceFile));
+      }
+      explorer =
+          new SequenceReplayGenerator(
+              operations,
+              inputSequences,
+              new GenInputsAbstract.Limits(),
+              componentMgr,
+              listenerMgr);
+    } else if (GenInputsAbstract.workers > 1) {
+      explorer =
+          new ParallelGenerator(
+              operations,
+              sideEffectFreeMethods,
+              new GenInputsAbstract.Limits(),
+              componentMgr,
+              listenerMgr,
+              classesUnderTest,
+              GenInputsAbstract.workers);
+    } else {
+      explorer =
+          new ForwardGenerator(
+              operations,
+              sideEffectFreeMethods,
+              new GenInputsAbstract.Limits(),
+              componentMgr,
+              listenerMgr,
+              classesUnderTest);
+    }
     
     // log setup.
     operationModel.log();
@@ -487,9 +540,13 @@ public class GenTests extends GenInputsAbstract {
         createTestOutputPredicate(
             excludeSet,
             operationModel.getCoveredClassesGoal(),
-            GenInputsAbstract.require_classname_in_test);
+            GenInputsAbstract.require_classname_in_test,
+            false);
 
     explorer.setTestPredicate(isOutputTest);
+    if (GenInputsAbstract.check_compilable && !GenInputsAbstract.dont_output_tests) {
+      explorer.setCompilableTestPredicate(createCompilableTestPredicate());
+    }
 
     /*
      * Setup visitors
@@ -513,7 +570,7 @@ public class GenTests extends GenInputsAbstract {
       }
     }
     
-    if (GenInputsAbstract.serialize_method != null) 
+    if (!GenInputsAbstract.serialize_method.isEmpty()) 
     	visitors.add(inOutCollector);
     
     explorer.setExecutionVisitor(visitors);
@@ -530,6 +587,31 @@ public class GenTests extends GenInputsAbstract {
       componentMgr.log();
     }
 
+    // With --stream-tests, the test files are written while tests are being generated.
+    StreamingTestWriter errorTestWriter = null;
+    StreamingTestWriter regressionTestWriter = null;
+    FailingAssertionCommentWriter streamingRegressionCodeWriter = null;
+    if (GenInputsAbstract.stream_tests && !GenInputsAbstract.dont_output_tests) {
+      JUnitCreator junitCreator = createJUnitCreator();
+      JavaFileWriter javaFileWriter = new JavaFileWriter(junit_output_dir);
+      streamingRegressionCodeWriter = createRegressionTestCodeWriter(javaFileWriter, classpath);
+      errorTestWriter =
+          new StreamingTestWriter(
+              junitCreator,
+              createErrorTestCodeWriter(javaFileWriter),
+              GenInputsAbstract.error_test_basename,
+              "Error-revealing",
+              testsperfile);
+      regressionTestWriter =
+          new StreamingTestWriter(
+              junitCreator,
+              streamingRegressionCodeWriter,
+              GenInputsAbstract.regression_test_basename,
+              "Regression",
+              testsperfile);
+      explorer.setOutputSequenceConsumers(regressionTestWriter, errorTestWriter);
+    }
+
     // Generate tests
     try {
       explorer.createAndClassifySequences();
@@ -551,58 +633,68 @@ public class GenTests extends GenInputsAbstract {
     }
 
     // post generation
+    if (GenInputsAbstract.sequence_output_file != null) {
+      List<Sequence> outputSequences = new ArrayList<>();
+      for (ExecutableSequence eSeq : explorer.getRegressionSequences()) {
+        outputSequences.add(eSeq.sequence);
+      }
+      for (ExecutableSequence eSeq : explorer.getErrorTestSequences()) {
+        outputSequences.add(eSeq.sequence);
+      }
+      writeSequenceOutputFile(outputSequences);
+      return true;
+    }
+
     if (GenInputsAbstract.dont_output_tests) {
       return true;
     }
 
-    JUnitCreator junitCreator =
-        JUnitCreator.getTestCreator(
-            junit_package_name,
-            beforeAllFixtureBody,
-            afterAllFixtureBody,
-            beforeEachFixtureBody,
-            afterEachFixtureBody);
+    JUnitCreator junitCreator = createJUnitCreator();
 
     JavaFileWriter javaFileWriter = new JavaFileWriter(junit_output_dir);
 
     if (!GenInputsAbstract.no_error_revealing_tests) {
-      CodeWriter codeWriter = javaFileWriter;
-      if (GenInputsAbstract.minimize_error_test || GenInputsAbstract.stop_on_error_test) {
-        codeWriter = new MinimizerWriter(javaFileWriter);
+      if (errorTestWriter != null) {
+        closeStreamingTestWriter(errorTestWriter, "Error-revealing");
+      } else {
+        writeTestFiles(
+            junitCreator,
+            explorer.getErrorTestSequences(),
+            createErrorTestCodeWriter(javaFileWriter),
+            GenInputsAbstract.error_test_basename,
+            "Error-revealing");
       }
-      writeTestFiles(
-          junitCreator,
-          explorer.getErrorTestSequences(),
-          codeWriter,
-          GenInputsAbstract.error_test_basename,
-          "Error-revealing");
     }
 
     if (!GenInputsAbstract.no_regression_tests) {
-      final TestEnvironment testEnvironment =
-          new TestEnvironment(convertClasspathToAbsolute(classpath));
-      String agentPathString = MethodReplacements.getAgentPath();
-      String agentArgs = MethodReplacements.getAgentArgs();
-      if (agentPathString != null && !agentPathString.isEmpty()) {
-        Path agentPath = Paths.get(agentPathString);
-        testEnvironment.setReplaceCallAgent(agentPath, agentArgs);
-      }
-
-      List<ExecutableSequence> regressionSequences = explorer.getRegressionSequences();
+      List<ExecutableSequence> regressionSequences;
+      FailingAssertionCommentWriter codeWriter;
+      if (regressionTestWriter != null) {
+        closeStreamingTestWriter(regressionTestWriter, "Regression");
+        // Finding flaky methods needs only the sequences, not their runtime values.
+        regressionSequences = new ArrayList<>();
+        for (Sequence sequence : regressionTestWriter.getSequences()) {
+          regressionSequences.add(new ExecutableSequence(sequence));
+        }
+        codeWriter = streamingRegressionCodeWriter;
+      } else {
+        regressionSequences = explorer.getRegressionSequences();
 
-      if (GenInputsAbstract.progressdisplay) {
-        System.out.printf(
-            "%nAbout to look for failing assertions in %d regression sequences.%n",
-            regressionSequences.size());
+        if (GenInputsAbstract.progressdisplay) {
+          System.out.printf(
+              "%nAbout to look for failing assertions in %d regression sequences.%n",
+              regressionSequences.size());
+        }
+        codeWriter = createRegressionTestCodeWriter(javaFileWriter, classpath);
+        writeTestFiles(
+            junitCreator,
+            regressionSequences,
+            codeWriter,
+            GenInputsAbstract.regression_test_basename,
+            "Regression");
       }
-      FailingAssertionCommentWriter codeWriter =
-          new FailingAssertionCommentWriter(testEnvironment, javaFileWriter);
-      writeTestFiles(
-          junitCreator,
-          regressionSequences,
-          codeWriter,
-          GenInputsAbstract.regression_test_basename,
-          "Regression");
+
+      codeWriter.close();
 
       // TODO: We don't rerun Error Test Sequences, so we do not know whether they are flaky.
       if (GenInputsAbstract.progressdisplay) {
@@ -637,6 +729,72 @@ public class GenTests extends GenInputsAbstract {
     return true;
   }
 
+  /**
+   * Creates the {@link JUnitCreator} for the test classes of this run.
+   *
+   * @return the {@link JUnitCreator} for the test classes
+   */
+  private JUnitCreator createJUnitCreator() {
+    return JUnitCreator.getTestCreator(
+        junit_package_name,
+        beforeAllFixtureBody,
+        afterAllFixtureBody,
+        beforeEachFixtureBody,
+        afterEachFixtureBody);
+  }
+
+  /**
+   * Creates the {@link CodeWriter} for error-revealing test classes, which minimizes them if
+   * requested.
+   *
+   * @param javaFileWriter the writer of Java files
+   * @return the {@link CodeWriter} for error-revealing test classes
+   */
+  private static CodeWriter createErrorTestCodeWriter(JavaFileWriter javaFileWriter) {
+    if (GenInputsAbstract.minimize_error_test || GenInputsAbstract.stop_on_error_test) {
+      return new MinimizerWriter(javaFileWriter);
+    }
+    return javaFileWriter;
+  }
+
+  /**
+   * Creates the {@link CodeWriter} for regression test classes, which comments out assertions that
+   * fail when the tests are run.
+   *
+   * @param javaFileWriter the writer of Java files
+   * @param classpath the classpath for running the tests
+   * @return the {@link CodeWriter} for regression test classes
+   */
+  private FailingAssertionCommentWriter createRegressionTestCodeWriter(
+      JavaFileWriter javaFileWriter, String classpath) {
+    final TestEnvironment testEnvironment =
+        new TestEnvironment(convertClasspathToAbsolute(classpath));
+    String agentPathString = MethodReplacements.getAgentPath();
+    String agentArgs = MethodReplacements.getAgentArgs();
+    if (agentPathString != null && !agentPathString.isEmpty()) {
+      Path agentPath = Paths.get(agentPathString);
+      testEnvironment.setReplaceCallAgent(agentPath, agentArgs);
+    }
+    return new FailingAssertionCommentWriter(testEnvironment, javaFileWriter);
+  }
+
+  /**
+   * Writes the remaining test classes of a {@link StreamingTestWriter}. Exits if they cannot be
+   * written.
+   *
+   * @param testWriter the writer to close
+   * @param testKind a {@code String} indicating the kind of tests for error messages
+   */
+  private static void closeStreamingTestWriter(StreamingTestWriter testWriter, String testKind) {
+    try {
+      testWriter.close();
+    } catch (RandoopOutputException e) {
+      System.out.printf("%nError writing %s tests%n", testKind.toLowerCase());
+      e.printStackTrace(System.out);
+      System.exit(1);
+    }
+  }
+
   /**
    * Read side-effect-free methods from the default JDK side-effect-free method list, and from a
    * user-provided method list if provided.
@@ -798,8 +956,7 @@ public class GenTests extends GenInputsAbstract {
       }
 
       // 2. Count up calls that appear in assertions over the final value.
-      SimpleList<Statement> statements = es.sequence.statements;
-      Statement lastStatement = statements.get(statements.size() - 1);
+      Statement lastStatement = es.sequence.getStatement(es.sequence.size() - 1);
       Type lastValueType = lastStatement.getOutputType();
       for (TypedClassOperation tco : assertableSideEffectFreeMethods.getValues(lastValueType)) {
         numSequencesUsedIn.merge(tco, 1, Integer::sum);
@@ -818,9 +975,8 @@ public class GenTests extends GenInputsAbstract {
   private Set<TypedClassOperation> getOperationsInSequence(ExecutableSequence es) {
     HashSet<TypedClassOperation> ops = new HashSet<>();
 
-    SimpleList<Statement> statements = es.sequence.statements;
-    for (int i = 0; i < statements.size(); i++) {
-      TypedOperation to = statements.get(i).getOperation();
+    for (int i = 0; i < es.sequence.size(); i++) {
+      TypedOperation to = es.sequence.getStatement(i).getOperation();
       if (to.isMethodCall()) {
         ops.add((TypedClassOperation) to);
       }
@@ -851,6 +1007,48 @@ public class GenTests extends GenInputsAbstract {
     return StringsPlume.join(File.pathSeparator, abspaths);
   }
 
+  /**
+   * Returns the operations in shard {@link GenInputsAbstract#shard_index} of {@link
+   * GenInputsAbstract#shard_count}. The shards partition the operations round-robin, so that each
+   * shard gets operations from every class under test.
+   *
+   * @param operations all the operations under test
+   * @return the operations in the shard to use
+   */
+  private static List<TypedOperation> operationsInShard(List<TypedOperation> operations) {
+    List<TypedOperation> result = new ArrayList<>();
+    for (int i = GenInputsAbstract.shard_index;
+        i < operations.size();
+        i += GenInputsAbstract.shard_count) {
+      result.add(operations.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Writes the given sequences to {@link GenInputsAbstract#sequence_output_file}, if it is
+   * non-null.
+   *
+   * @param sequences the generated sequences to write
+   */
+  private static void writeSequenceOutputFile(List<Sequence> sequences) {
+    if (GenInputsAbstract.sequence_output_file == null) {
+      return;
+    }
+    int written;
+    try {
+      written = SequenceFiles.write(sequences, GenInputsAbstract.sequence_output_file);
+    } catch (IOException e) {
+      throw new RandoopBug(
+          "Error writing sequences to " + GenInputsAbstract.sequence_output_file, e);
+    }
+    if (GenInputsAbstract.progressdisplay) {
+      System.out.printf(
+          "Wrote %d of %d sequences to %s%n",
+          written, sequences.size(), GenInputsAbstract.sequence_output_file);
+    }
+  }
+
   /**
    * Creates the test classes for the test sequences using the {@link JUnitCreator} and then writes
    * the files using the {@link CodeWriter}. Writes the test suite if {@link
@@ -889,22 +1087,48 @@ public class GenTests extends GenInputsAbstract {
       // Test class names are classNamePrefix, followed by an integer in 0..numFiles-1.
       int numFiles = (numTests - 1) / testsperfile + 1;
 
-      NameGenerator methodNameGenerator = new NameGenerator(TEST_METHOD_NAME_PREFIX, 1, numTests);
-
-      for (int i = 0; i < numFiles; i++) {
-        List<ExecutableSequence> partition =
-            testSequences.subList(i * testsperfile, Math.min((i + 1) * testsperfile, numTests));
-        String testClassName = classNamePrefix + i;
-        testClasses.add(testClassName);
-        CompilationUnit classAST =
-            junitCreator.createTestClass(testClassName, methodNameGenerator, partition);
-        String classSource = classAST.toString();
-        Path testFile =
-            codeWriter.writeClassCode(
-                GenInputsAbstract.junit_package_name, testClassName, classSource);
-        if (GenInputsAbstract.progressdisplay) {
-          System.out.printf("Created file %s%n", testFile.toAbsolutePath());
+      // The test classes are created and printed concurrently, but written in order.
+      List<Future<String>> classSources = new ArrayList<>(numFiles);
+      ExecutorService executor =
+          Executors.newFixedThreadPool(
+              Math.min(numFiles, Runtime.getRuntime().availableProcessors()),
+              runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setName("randoop-writer-" + thread.getId());
+                thread.setDaemon(true);
+                return thread;
+              });
+      try {
+        for (int i = 0; i < numFiles; i++) {
+          int firstTest = i * testsperfile;
+          List<ExecutableSequence> partition =
+              testSequences.subList(firstTest, Math.min(firstTest + testsperfile, numTests));
+          String testClassName = classNamePrefix + i;
+          testClasses.add(testClassName);
+          // Number the methods as if the classes were created one after another.
+          NameGenerator methodNameGenerator =
+              new NameGenerator(TEST_METHOD_NAME_PREFIX, firstTest + 1, numTests);
+          classSources.add(
+              executor.submit(
+                  () -> {
+                    CompilationUnit classAST =
+                        junitCreator.createTestClass(testClassName, methodNameGenerator, partition);
+                    return classAST.toString();
+                  }));
+        }
+
+        for (int i = 0; i < numFiles; i++) {
+          Path testFile =
+              codeWriter.writeClassCode(
+                  GenInputsAbstract.junit_package_name,
+                  testClasses.get(i),
+                  getClassSource(classSources.get(i)));
+          if (GenInputsAbstract.progressdisplay) {
+            System.out.printf("Created file %s%n", testFile.toAbsolutePath());
+          }
         }
+      } finally {
+        executor.shutdownNow();
       }
 
       // Create and write suite or driver class.
@@ -938,6 +1162,31 @@ public class GenTests extends GenInputsAbstract {
     }
   }
 
+  /**
+   * Returns the source text of a test class that is being created concurrently, waiting for it if
+   * necessary.
+   *
+   * @param classSource the computation of the source text of the test class
+   * @return the source text of the test class
+   */
+  private static String getClassSource(Future<String> classSource) {
+    try {
+      return classSource.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RandoopBug("Interrupted while creating test classes", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RandoopBug("Failed to create a test class", cause);
+    }
+  }
+
   /**
    * Create fixture code from {@link GenInputsAbstract#junit_after_all}, {@link
    * GenInputsAbstract#junit_after_each}, {@link GenInputsAbstract#junit_before_all}, and {@link
@@ -1131,8 +1380,8 @@ public class GenTests extends GenInputsAbstract {
         }
         // Once flaky sequence found, collect the operations executed
         if (flakySequenceFound) {
-          for (int i = 0; i < sequence.statements.size(); i++) {
-            Operation operation = sequence.statements.get(i).getOperation();
+          for (int i = 0; i < sequence.size(); i++) {
+            Operation operation = sequence.getStatement(i).getOperation();
             if (!operation.isNonreceivingValue()) {
               executedOperationTrace.add(operation.toString());
             }
@@ -1168,6 +1417,27 @@ public class GenTests extends GenInputsAbstract {
    */
   public Predicate<ExecutableSequence> createTestOutputPredicate(
       Set<Sequence> excludeSet, Set<Class<?>> coveredClasses, Pattern includePattern) {
+    return createTestOutputPredicate(
+        excludeSet, coveredClasses, includePattern, GenInputsAbstract.check_compilable);
+  }
+
+  /**
+   * Builds the test predicate that determines whether a particular sequence will be included in the
+   * output based on command-line arguments. A true result means the test is a candidate for output.
+   *
+   * @param excludeSet the set of sequences to exclude
+   * @param coveredClasses the list of classes to test for coverage
+   * @param includePattern the pattern for method name inclusion
+   * @param checkCompilable if true, the predicate also checks that the sequence is compilable. A
+   *     generator can instead check sequences in batches, which is faster; see {@link
+   *     AbstractGenerator#setCompilableTestPredicate}.
+   * @return the predicate
+   */
+  public Predicate<ExecutableSequence> createTestOutputPredicate(
+      Set<Sequence> excludeSet,
+      Set<Class<?>> coveredClasses,
+      Pattern includePattern,
+      boolean checkCompilable) {
     if (GenInputsAbstract.dont_output_tests) {
       return new AlwaysFalse<>();
     }
@@ -1198,20 +1468,22 @@ public class GenTests extends GenInputsAbstract {
 
     Predicate<ExecutableSequence> isOutputTest = baseTest.and(checkTest);
 
-    if (GenInputsAbstract.check_compilable) {
-      JUnitCreator junitCreator =
-          JUnitCreator.getTestCreator(
-              junit_package_name,
-              beforeAllFixtureBody,
-              afterAllFixtureBody,
-              beforeEachFixtureBody,
-              afterEachFixtureBody);
-      isOutputTest = isOutputTest.and(new CompilableTestPredicate(junitCreator, this));
+    if (checkCompilable) {
+      isOutputTest = isOutputTest.and(createCompilableTestPredicate());
     }
 
     return isOutputTest;
   }
 
+  /**
+   * Creates the predicate that determines whether a sequence is compilable.
+   *
+   * @return the predicate
+   */
+  private CompilableTestPredicate createCompilableTestPredicate() {
+    return new CompilableTestPredicate(createJUnitCreator(), this);
+  }
+
   /**
    * Creates the test check generator for this run based on the command-line arguments. The goal of
    * the generator is to produce all appropriate checks for each sequence it is applied to.
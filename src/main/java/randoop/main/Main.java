@@ -22,6 +22,7 @@ public class Main {
     handlers.add(new GenTests());
     handlers.add(new Help());
     handlers.add(new Minimize());
+    handlers.add(new ShardedGenTests());
   }
 
   // The main method simply calls nonStaticMain.
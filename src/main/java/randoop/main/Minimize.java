@@ -40,8 +40,10 @@ import com.github.javaparser.ast.visitor.CloneVisitor;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -58,6 +60,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -65,6 +69,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecuteResultHandler;
 import org.apache.commons.exec.DefaultExecutor;
@@ -72,10 +78,17 @@ import org.apache.commons.exec.ExecuteWatchdog;
 import org.apache.commons.exec.PumpStreamHandler;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.options.Option;
 import org.plumelib.options.OptionGroup;
 import org.plumelib.options.Options;
+import org.plumelib.util.FilesPlume;
 import randoop.Globals;
+import randoop.compile.SequenceCompiler;
+import randoop.execution.RunCommand;
+import randoop.execution.TestEnvironment;
+import randoop.execution.TestRunnerServer;
+import randoop.execution.WarmTestRunner;
 import randoop.output.ClassRenamingVisitor;
 import randoop.output.ClassTypeNameSimplifyVisitor;
 import randoop.output.ClassTypeVisitor;
@@ -104,6 +117,11 @@ import randoop.output.PrimitiveAndWrappedTypeVarNameCollector;
  * suite, the algorithm tries a different replacement. If no replacement allows the output test
  * suite to fail in the same way as the original test suite, the algorithm adds back the original
  * version of the current statement and continues.
+ *
+ * <p>Each candidate test suite is compiled in memory and run by a {@link WarmTestRunner}, rather
+ * than by new {@code javac} and {@code java} processes. The replacements for a statement are
+ * checked concurrently, and the first replacement, in the order above, that is correct is used, so
+ * the result is the same as if they were checked one at a time.
  */
 public class Minimize extends CommandHandler {
 
@@ -334,25 +352,23 @@ public class Minimize extends CommandHandler {
       return false;
     }
 
-    // expectedOutput is a map from method name to failure stack trace with
-    // line numbers removed.
-    String runResult = runJavaFile(minimizedFile, classPath, packageName, timeoutLimit);
-    Map<String, String> expectedOutput = normalizeJUnitOutput(runResult);
+    try (CandidateChecker checker =
+        new CandidateChecker(minimizedFile, classPath, packageName, timeoutLimit)) {
+      String runResult = checker.run(new String(Files.readAllBytes(minimizedFile), UTF_8));
+      if (runResult == null) {
+        System.err.println("Error when compiling file " + file + " in memory. Aborting.");
+        return false;
+      }
+      // expectedOutput is a map from method name to failure stack trace with
+      // line numbers removed.
+      Map<String, String> expectedOutput = normalizeJUnitOutput(runResult);
 
-    // Minimize the Java test suite.
-    minimizeTestSuite(
-        compilationUnit, packageName, minimizedFile, classPath, expectedOutput, timeoutLimit);
+      // Minimize the Java test suite.
+      minimizeTestSuite(compilationUnit, checker, expectedOutput);
 
-    // Cleanup: simplify type names and sort the import statements.
-    compilationUnit =
-        simplifyTypeNames(
-            compilationUnit,
-            packageName,
-            minimizedFile,
-            classPath,
-            expectedOutput,
-            timeoutLimit,
-            verboseOutput);
+      // Cleanup: simplify type names and sort the import statements.
+      compilationUnit = simplifyTypeNames(compilationUnit, checker, expectedOutput, verboseOutput);
+    }
 
     writeToFile(compilationUnit, minimizedFile);
 
@@ -369,20 +385,14 @@ public class Minimize extends CommandHandler {
    * Visit and minimize every JUnit test method within a compilation unit.
    *
    * @param compilationUnit the compilation unit to minimize; is modified by side effect
-   * @param packageName the package that the Java file is in
-   * @param file the Java file that is being minimized; is modified by side effect
-   * @param classpath classpath used to compile and run the Java file
+   * @param checker the checker of candidate minimizations of the Java file
    * @param expectedOutput expected JUnit output when the Java file is compiled and run
-   * @param timeoutLimit number of seconds allowed for the whole test suite to run
-   * @throws IOException thrown if minimized method can't be written to file
+   * @throws IOException thrown if a candidate minimization cannot be checked
    */
   private static void minimizeTestSuite(
       CompilationUnit compilationUnit,
-      String packageName,
-      Path file,
-      String classpath,
-      Map<String, String> expectedOutput,
-      int timeoutLimit)
+      CandidateChecker checker,
+      Map<String, String> expectedOutput)
       throws IOException {
     System.out.println("Minimizing test suite.");
 
@@ -396,14 +406,7 @@ public class Minimize extends CommandHandler {
 
           // Minimize the method only if it is a JUnit test method.
           if (isTestMethod(method)) {
-            minimizeMethod(
-                method,
-                compilationUnit,
-                packageName,
-                file,
-                classpath,
-                expectedOutput,
-                timeoutLimit);
+            minimizeMethod(method, compilationUnit, checker, expectedOutput);
             printProgress(++numberOfMinimizedTests, numberOfTestMethods, method.getName());
           }
         }
@@ -435,21 +438,15 @@ public class Minimize extends CommandHandler {
    * @param method the method to minimize; is modified by side effect
    * @param compilationUnit compilation unit for the Java file that we are minimizing; is modified
    *     by side effect
-   * @param packageName the package that the Java file is in
-   * @param file the Java file that is being minimized; is modified by side effect
-   * @param classpath classpath needed to compile and run the Java file
+   * @param checker the checker of candidate minimizations of the Java file
    * @param expectedOutput expected output from running the JUnit test suite
-   * @param timeoutLimit number of seconds allowed for the whole test suite to run
-   * @throws IOException thrown if write to file fails
+   * @throws IOException thrown if a candidate minimization cannot be checked
    */
   private static void minimizeMethod(
       MethodDeclaration method,
       CompilationUnit compilationUnit,
-      String packageName,
-      Path file,
-      String classpath,
-      Map<String, String> expectedOutput,
-      int timeoutLimit)
+      CandidateChecker checker,
+      Map<String, String> expectedOutput)
       throws IOException {
     Optional<BlockStmt> oBlockStmt = method.getBody();
     if (!oBlockStmt.isPresent()) {
@@ -478,44 +475,42 @@ public class Minimize extends CommandHandler {
 
       // Obtain a list of possible replacements for the current statement.
       List<Statement> replacements = getStatementReplacements(currStmt, primitiveValues);
-      boolean replacementFound = false;
-      boolean replacementIsNull = false;
 
+      // The source code of the Java file with each replacement.
+      List<String> candidates = new ArrayList<>(replacements.size());
       for (Statement stmt : replacements) {
         // Add replacement statement to the method's body.
         // If stmt is null, don't add anything since null represents removal of the statement.
         if (stmt != null) {
           statements.add(i, stmt);
         }
-
-        // Write, compile, and run the new Java file.
-        writeToFile(compilationUnit, file);
-        if (checkCorrectlyMinimized(file, classpath, packageName, expectedOutput, timeoutLimit)) {
-          // No compilation or runtime issues, obtained output is the same as the expected output.
-          // Use simplification of this statement and continue with next statement.
-          replacementFound = true;
-          replacementIsNull = (stmt == null);
-
-          // Assertions are never simplified, only removed. If currStmt is an assertion, then stmt
-          // is null.
-          storeValueFromAssertion(currStmt, primitiveValues, primitiveAndWrappedTypes);
-          break; // break replacement loop; continue statements loop.
-        } else {
-          // Issue encountered, remove the faulty replacement.
-          if (stmt != null) {
-            statements.remove(i);
-          }
+        candidates.add(compilationUnit.toString());
+        if (stmt != null) {
+          statements.remove(i);
         }
       }
 
-      if (!replacementFound) {
+      // Find the first replacement with no compilation or runtime issues, whose output is the
+      // same as the expected output.
+      int correct = checker.firstCorrect(candidates, expectedOutput);
+      if (correct < 0) {
         // No correct simplification found. Add back the original statement to the list of
         // statements.
         statements.add(i, currStmt);
-      } else if (replacementIsNull) {
-        for (Comment oc : orphanComments) {
-          parent.removeOrphanComment(oc);
+      } else {
+        // Use simplification of this statement and continue with next statement.
+        Statement stmt = replacements.get(correct);
+        if (stmt != null) {
+          statements.add(i, stmt);
+        } else {
+          for (Comment oc : orphanComments) {
+            parent.removeOrphanComment(oc);
+          }
         }
+
+        // Assertions are never simplified, only removed. If currStmt is an assertion, then stmt
+        // is null.
+        storeValueFromAssertion(currStmt, primitiveValues, primitiveAndWrappedTypes);
       }
     }
   }
@@ -880,22 +875,16 @@ public class Minimize extends CommandHandler {
    *
    * @param compilationUnit compilation unit containing an AST for a Java file, the compilation unit
    *     will be modified if a correct minimization of the method is found
-   * @param packageName the package that the Java file is in
-   * @param file the Java file to simplify; is modified by side effect
-   * @param classpath classpath needed to compile and run the Java file
+   * @param checker the checker of candidate minimizations of the Java file
    * @param expectedOutput expected standard output from running the JUnit test suite
-   * @param timeoutLimit number of seconds allowed for the whole test suite to run
    * @param verboseOutput whether or not to output information about minimization status
    * @return {@code CompilationUnit} with fully-qualified type names simplified to simple type names
-   * @throws IOException thrown if write to file fails
+   * @throws IOException thrown if a candidate simplification cannot be checked
    */
   private static CompilationUnit simplifyTypeNames(
       CompilationUnit compilationUnit,
-      String packageName,
-      Path file,
-      String classpath,
+      CandidateChecker checker,
       Map<String, String> expectedOutput,
-      int timeoutLimit,
       boolean verboseOutput)
       throws IOException {
     if (verboseOutput) {
@@ -928,8 +917,7 @@ public class Minimize extends CommandHandler {
       new FieldAccessTypeNameSimplifyVisitor().visit(compUnitWithSimpleTypeNames, type);
 
       // Check that the simplification is correct.
-      writeToFile(compUnitWithSimpleTypeNames, file);
-      if (checkCorrectlyMinimized(file, classpath, packageName, expectedOutput, timeoutLimit)) {
+      if (checker.isCorrect(compUnitWithSimpleTypeNames.toString(), expectedOutput)) {
         result = compUnitWithSimpleTypeNames;
       }
     }
@@ -939,37 +927,6 @@ public class Minimize extends CommandHandler {
     return result;
   }
 
-  /**
-   * Check if a Java file has been correctly minimized. The file should not have compilation errors
-   * or run-time errors. The file should fail in the same way as the original file.
-   *
-   * @param file the file being checked
-   * @param classpath classpath needed to compile/run the Java file
-   * @param packageName the package that the Java file is in
-   * @param expectedOutput expected output of running the JUnit test suite
-   * @param timeoutLimit number of seconds allowed for the whole test suite to run
-   * @return true if there are no compilation and no run-time errors and the output is equal to the
-   *     expected output
-   */
-  private static boolean checkCorrectlyMinimized(
-      Path file,
-      String classpath,
-      String packageName,
-      Map<String, String> expectedOutput,
-      int timeoutLimit) {
-
-    Outputs compilationOutput = compileJavaFile(file, classpath, packageName, timeoutLimit);
-    if (compilationOutput.isFailure()) {
-      return false;
-    }
-
-    // Run the Java file and get the standard output.
-    String runResult = runJavaFile(file, classpath, packageName, timeoutLimit);
-
-    // Compare the standard output with the expected output.
-    return expectedOutput.equals(normalizeJUnitOutput(runResult));
-  }
-
   /**
    * Compile a Java file and return the compilation exit value.
    *
@@ -997,44 +954,6 @@ public class Minimize extends CommandHandler {
     return runProcess(command, executionDir, timeoutLimit);
   }
 
-  /**
-   * Run a Java file and return the standard output.
-   *
-   * @param file the file to be compiled and executed
-   * @param userClassPath dependencies and complete classpath to compile and run the Java program
-   * @param packageName the package that the Java file is in
-   * @param timeoutLimit number of seconds allowed for the Java program to run
-   * @return standard output from running the Java file
-   */
-  private static String runJavaFile(
-      Path file, String userClassPath, String packageName, int timeoutLimit) {
-    // Obtain directory to carry out compilation and execution step.
-    Path executionDir = getExecutionDirectory(file, packageName);
-
-    // Directory path for the classpath.
-    String dirPath = ".";
-    if (file.getParent() != null) {
-      dirPath += PATH_SEPARATOR + file.getParent();
-    }
-
-    // Classpath for running the Java file.
-    String classpath = dirPath;
-    if (userClassPath != null) {
-      classpath += PATH_SEPARATOR + userClassPath;
-    }
-
-    // Fully-qualified classname.
-    String fqClassName = FilenameUtils.getBaseName(file.toString());
-    if (packageName != null) {
-      fqClassName = packageName + "." + fqClassName;
-    }
-
-    String command = "java -classpath " + classpath + " org.junit.runner.JUnitCore " + fqClassName;
-
-    // Run the specified Java file and return the standard output.
-    return runProcess(command, executionDir, timeoutLimit).stdout;
-  }
-
   /**
    * Get directory to execute command in, given file path and package name. Returns a {@code Path}
    * pointing to the directory that the Java file should be executed in.
@@ -1155,7 +1074,7 @@ public class Minimize extends CommandHandler {
    * @return a map from method name to the method's failure stack trace. The stack trace will not
    *     contain any line numbers.
    */
-  private static Map<String, String> normalizeJUnitOutput(String input) {
+  static Map<String, String> normalizeJUnitOutput(String input) {
     BufferedReader bufReader = new BufferedReader(new StringReader(input));
 
     String methodName = null;
@@ -1188,6 +1107,10 @@ public class Minimize extends CommandHandler {
           resultMap.put(methodName, result.toString());
           break;
         } else if (methodName != null) {
+          line = removeFrameLocation(line);
+          if (isTestRunnerFrame(line)) {
+            continue;
+          }
           // Look for a left-parentheses which marks the position
           // where a line number will appear.
           int lParenIndex = line.indexOf('(');
@@ -1206,6 +1129,41 @@ public class Minimize extends CommandHandler {
     return resultMap;
   }
 
+  /**
+   * Removes the class loader and module that JDK 9 and later print before the class of a stack
+   * frame, as in {@code at app//p.C.m(C.java:1)} or {@code at java.base/java.lang.Thread.run(...)}.
+   * They depend on how the test was run, not on the failure.
+   *
+   * @param line a line of a stack trace
+   * @return the line without the class loader and module of its frame, if any
+   */
+  static String removeFrameLocation(String line) {
+    int atIndex = line.indexOf("at ");
+    if (atIndex < 0 || !line.substring(0, atIndex).trim().isEmpty()) {
+      return line;
+    }
+    int classStart = atIndex + "at ".length();
+    int lParenIndex = line.indexOf('(', classStart);
+    int slashIndex = line.lastIndexOf('/', lParenIndex < 0 ? line.length() : lParenIndex);
+    if (slashIndex < classStart) {
+      return line;
+    }
+    return line.substring(0, classStart) + line.substring(slashIndex + 1);
+  }
+
+  /**
+   * Returns true if the given line of a stack trace is a frame of the code that runs JUnit. Such
+   * frames differ between a new JVM and a {@link WarmTestRunner}, but not between runs of either.
+   *
+   * @param line a line of a stack trace, as returned by {@link #removeFrameLocation}
+   * @return true if the line is a frame of the code that runs JUnit
+   */
+  private static boolean isTestRunnerFrame(String line) {
+    String frame = line.trim();
+    return frame.startsWith("at org.junit.runner.JUnitCore.")
+        || frame.startsWith("at " + TestRunnerServer.class.getName() + ".");
+  }
+
   /**
    * Write a compilation unit to a Java file.
    *
@@ -1377,6 +1335,222 @@ public class Minimize extends CommandHandler {
     }
   }
 
+  /**
+   * Checks whether candidate versions of the Java file being minimized fail in the same way as the
+   * original. Each candidate is compiled in memory and run by a {@link WarmTestRunner}; there is a
+   * compiler and a runner for each candidate that can be checked concurrently. A candidate that the
+   * runner cannot run is run in a new JVM.
+   */
+  private static class CandidateChecker implements Closeable {
+
+    /** The maximum number of candidates that are checked concurrently. */
+    private static final int MAX_CONCURRENT_CHECKS = 4;
+
+    /** A compiler and a runner, which check one candidate at a time. */
+    private static class Worker {
+
+      /** The compiler of candidates. */
+      final SequenceCompiler compiler;
+
+      /** The runner of compiled candidates. */
+      final WarmTestRunner runner;
+
+      /**
+       * Creates a {@link Worker}.
+       *
+       * @param compiler the compiler of candidates
+       * @param runner the runner of compiled candidates
+       */
+      Worker(SequenceCompiler compiler, WarmTestRunner runner) {
+        this.compiler = compiler;
+        this.runner = runner;
+      }
+    }
+
+    /** The simple name of the class in the Java file. */
+    private final String className;
+
+    /** The fully-qualified name of the class in the Java file. */
+    private final String fqClassName;
+
+    /** The environment in which the candidates run. */
+    private final TestEnvironment testEnvironment;
+
+    /** All the workers. */
+    private final List<Worker> allWorkers = new ArrayList<>();
+
+    /** The workers that are not checking a candidate. */
+    private final BlockingQueue<Worker> idleWorkers;
+
+    /** The executor of concurrent checks. */
+    private final ExecutorService executor;
+
+    /**
+     * Creates a {@link CandidateChecker}. Does not start any JVM.
+     *
+     * @param file the Java file that is being minimized
+     * @param classpath classpath needed to compile and run the Java file, or null
+     * @param packageName the package that the Java file is in, or null
+     * @param timeoutLimit number of seconds allowed for the whole test suite to run
+     */
+    CandidateChecker(Path file, String classpath, String packageName, int timeoutLimit) {
+      className = FilenameUtils.getBaseName(file.toString());
+      fqClassName = packageName == null ? className : packageName + "." + className;
+
+      // Like the javac and java commands in the execution directory, which is the current
+      // directory for a file in the default package.
+      Path executionDir = getExecutionDirectory(file, packageName);
+      String compileClasspath =
+          (executionDir == null ? Paths.get("") : executionDir).toAbsolutePath().toString();
+      if (classpath != null) {
+        compileClasspath += PATH_SEPARATOR + classpath;
+      }
+      String runClasspath = compileClasspath;
+      if (file.getParent() != null) {
+        runClasspath += PATH_SEPARATOR + file.getParent().toAbsolutePath();
+      }
+      // Randoop's classpath, for the runner.
+      runClasspath += PATH_SEPARATOR + Globals.getClassPath();
+      testEnvironment = new TestEnvironment(runClasspath);
+      testEnvironment.setTimeout(timeoutLimit * 1000L);
+
+      int numWorkers = Math.min(MAX_CONCURRENT_CHECKS, Runtime.getRuntime().availableProcessors());
+      idleWorkers = new ArrayBlockingQueue<>(numWorkers);
+      for (int i = 0; i < numWorkers; i++) {
+        Worker worker =
+            new Worker(
+                new SequenceCompiler(Arrays.asList("-classpath", compileClasspath)),
+                new WarmTestRunner(testEnvironment));
+        allWorkers.add(worker);
+        idleWorkers.add(worker);
+      }
+      executor =
+          Executors.newFixedThreadPool(
+              numWorkers,
+              runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setName("randoop-minimizer-" + thread.getId());
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+
+    /**
+     * Checks the given candidates concurrently, and returns the index of the first one that fails
+     * in the same way as the original Java file.
+     *
+     * @param candidates the source code of the candidates
+     * @param expectedOutput expected output from running the JUnit test suite
+     * @return the index of the first correct candidate, or -1 if none is correct
+     * @throws IOException if a candidate cannot be checked
+     */
+    int firstCorrect(List<String> candidates, Map<String, String> expectedOutput)
+        throws IOException {
+      List<Future<Boolean>> results = new ArrayList<>(candidates.size());
+      try {
+        for (String candidate : candidates) {
+          results.add(executor.submit(() -> isCorrect(candidate, expectedOutput)));
+        }
+        for (int i = 0; i < results.size(); i++) {
+          if (results.get(i).get()) {
+            return i;
+          }
+        }
+        return -1;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Minimization process was interrupted.");
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        throw new RandoopBug("Error when checking a minimization", cause);
+      } finally {
+        // Later candidates are not needed.
+        for (Future<Boolean> result : results) {
+          result.cancel(false);
+        }
+      }
+    }
+
+    /**
+     * Returns true if the given candidate compiles and fails in the same way as the original Java
+     * file.
+     *
+     * @param candidate the source code of the candidate
+     * @param expectedOutput expected output from running the JUnit test suite
+     * @return true if there are no compilation and no run-time errors and the output is equal to
+     *     the expected output
+     * @throws IOException if the candidate cannot be checked
+     */
+    boolean isCorrect(String candidate, Map<String, String> expectedOutput) throws IOException {
+      String output = run(candidate);
+      return output != null && expectedOutput.equals(normalizeJUnitOutput(output));
+    }
+
+    /**
+     * Compiles and runs the given candidate.
+     *
+     * @param candidate the source code of the candidate
+     * @return the standard output from running the candidate, or null if it does not compile
+     * @throws IOException if the candidate cannot be checked
+     */
+    @Nullable String run(String candidate) throws IOException {
+      Worker worker;
+      try {
+        worker = idleWorkers.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Minimization process was interrupted.");
+      }
+      try {
+        Path classDirectory = Files.createTempDirectory("minimize" + className);
+        try {
+          DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+          if (!worker.compiler.compileAll(
+              Collections.singletonMap(className, candidate), classDirectory, diagnostics)) {
+            return null;
+          }
+          List<String> lines = worker.runner.runTestWithTextOutput(fqClassName, classDirectory);
+          if (lines == null) {
+            lines = runInNewJvm(classDirectory);
+          }
+          return String.join(Globals.lineSep, lines);
+        } finally {
+          FilesPlume.deleteDir(classDirectory.toFile());
+        }
+      } finally {
+        idleWorkers.add(worker);
+      }
+    }
+
+    /**
+     * Runs the compiled candidate in a new JVM.
+     *
+     * @param classDirectory the directory that contains the class file of the candidate
+     * @return the standard output from running the candidate; empty if it timed out
+     */
+    private List<String> runInNewJvm(Path classDirectory) {
+      RunCommand.Status status;
+      try {
+        status = testEnvironment.runTest(fqClassName, classDirectory);
+      } catch (RunCommand.CommandException e) {
+        return Collections.emptyList();
+      }
+      return status.timedOut ? Collections.<String>emptyList() : status.standardOutputLines;
+    }
+
+    /** Stops the checks and the runners. */
+    @Override
+    public void close() {
+      executor.shutdownNow();
+      for (Worker worker : allWorkers) {
+        worker.runner.close();
+      }
+    }
+  }
+
   /**
    * Calculate the length of a file, by number of lines.
    *
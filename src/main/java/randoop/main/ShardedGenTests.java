@@ -0,0 +1,259 @@
+package randoop.main;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.exec.ExecuteWatchdog;
+import org.plumelib.options.Option;
+import org.plumelib.options.OptionGroup;
+import org.plumelib.options.Options;
+import org.plumelib.util.StringsPlume;
+import randoop.execution.RunCommand;
+import randoop.execution.RunCommand.CommandException;
+import randoop.execution.RunCommand.Status;
+import randoop.sequence.SequenceFiles;
+
+/**
+ * Handler for Randoop's {@code gentests-sharded} command. It generates tests using several Randoop
+ * processes at once, which is useful when the code under test is not thread-safe and so cannot be
+ * tested with {@code --workers}.
+ *
+ * <p>Each process runs {@code gentests} with the given options, plus a different {@code
+ * --shard-index}, which gives it a different random seed and (with {@code --shard-operations}) a
+ * disjoint subset of the methods and constructors under test. Each process writes the sequences of
+ * the tests it generated to a file. Then this process re-executes the sequences from all the
+ * files, omitting duplicates, and outputs them as one test suite, exactly as {@code gentests}
+ * would.
+ */
+public class ShardedGenTests extends CommandHandler {
+
+  /** The number of Randoop processes that generate tests. */
+  @OptionGroup("Sharded test generation")
+  @Option("Number of Randoop processes that generate tests concurrently")
+  public static int processes = Runtime.getRuntime().availableProcessors();
+
+  /** The maximum number of seconds that each process may run; 0 means no limit. */
+  @Option("Timeout, in seconds, for each process that generates tests; 0 means none")
+  public static int process_timeout = 0;
+
+  /** Create the handler for Randoop's {@code gentests-sharded} command. */
+  ShardedGenTests() {
+    super(
+        "gentests-sharded",
+        "Generates unit tests using several Randoop processes.",
+        "gentests-sharded OPTIONS",
+        "Any option of `gentests' may be given; it is passed to each process.",
+        "Runs `gentests' in several processes at once, each with a different random seed, and"
+            + " merges their tests, omitting duplicates, into one test suite.",
+        null,
+        "The same as for `gentests'.",
+        "The same as for `gentests'.",
+        "java randoop.main.Main gentests-sharded --processes=4 --shard-operations"
+            + " --testclass=java.util.TreeSet",
+        new Options(ShardedGenTests.class));
+  }
+
+  @Override
+  public boolean handle(String[] args) {
+    List<String> ownArgs = new ArrayList<>();
+    List<String> gentestsArgs = new ArrayList<>();
+    splitArguments(args, ownArgs, gentestsArgs);
+    try {
+      String[] nonargs = foptions.parse(ownArgs.toArray(new String[0]));
+      if (nonargs.length > 0) {
+        throw new RandoopCommandError("Unrecognized arguments: " + Arrays.toString(nonargs));
+      }
+    } catch (Options.ArgException ae) {
+      throw new RandoopCommandError(ae.getMessage());
+    }
+    if (processes < 1) {
+      throw new RandoopUsageError("--processes must be at least 1 but was " + processes);
+    }
+    if (process_timeout < 0) {
+      throw new RandoopUsageError(
+          "--process-timeout must be non-negative but was " + process_timeout);
+    }
+
+    Path shardDirectory;
+    try {
+      shardDirectory = Files.createTempDirectory("randoop-shards");
+    } catch (IOException e) {
+      throw new RandoopBug("Cannot create directory for sequence files", e);
+    }
+    List<Path> sequenceFiles = new ArrayList<>(processes);
+    for (int i = 0; i < processes; i++) {
+      sequenceFiles.add(shardDirectory.resolve("shard-" + i + ".txt"));
+    }
+
+    try {
+      if (!runShards(gentestsArgs, sequenceFiles)) {
+        return false;
+      }
+
+      return new GenTests().handle(mergeArguments(gentestsArgs, sequenceFiles));
+    } finally {
+      for (Path sequenceFile : sequenceFiles) {
+        sequenceFile.toFile().delete();
+      }
+      shardDirectory.toFile().delete();
+    }
+  }
+
+  /**
+   * Returns the arguments of the {@code gentests} command that merges the shards in this process.
+   *
+   * <p>Replaying does not need the generation time limit, and it is not compatible with multiple
+   * worker threads. The limits on the number of sequences given by the user apply to each shard,
+   * not to the merged test suite, so the merge gets limits that cover every sequence of every
+   * shard. These explicit limits also keep {@code --time-limit=0} a valid combination; later
+   * arguments override earlier ones.
+   *
+   * @param gentestsArgs the arguments that were passed to each shard
+   * @param sequenceFiles the files to which the shards wrote their sequences
+   * @return the arguments of the merging {@code gentests} command
+   */
+  static String[] mergeArguments(List<String> gentestsArgs, List<Path> sequenceFiles) {
+    int sequenceCount = 0;
+    for (Path sequenceFile : sequenceFiles) {
+      try {
+        sequenceCount += SequenceFiles.count(sequenceFile);
+      } catch (IOException e) {
+        throw new RandoopBug("Cannot read sequence file " + sequenceFile, e);
+      }
+    }
+    int limit = Math.max(1, sequenceCount);
+
+    List<String> mergeArgs = new ArrayList<>(gentestsArgs);
+    mergeArgs.add("--time-limit=0");
+    mergeArgs.add("--attempted-limit=" + limit);
+    mergeArgs.add("--generated-limit=" + limit);
+    mergeArgs.add("--output-limit=" + limit);
+    mergeArgs.add("--workers=1");
+    for (Path sequenceFile : sequenceFiles) {
+      mergeArgs.add("--sequence-input-file=" + sequenceFile);
+    }
+    return mergeArgs.toArray(new String[0]);
+  }
+
+  /**
+   * Separates the options of this command from those to pass to {@code gentests}.
+   *
+   * @param args the command-line arguments
+   * @param ownArgs the list to which to add the options of this command; is side-effected
+   * @param gentestsArgs the list to which to add the other arguments; is side-effected
+   */
+  private static void splitArguments(
+      String[] args, List<String> ownArgs, List<String> gentestsArgs) {
+    List<String> ownOptions = Arrays.asList("--processes", "--process-timeout");
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      String name = arg.contains("=") ? arg.substring(0, arg.indexOf('=')) : arg;
+      if (!ownOptions.contains(name)) {
+        gentestsArgs.add(arg);
+        continue;
+      }
+      ownArgs.add(arg);
+      // The value may be given as a separate argument.
+      if (!arg.contains("=") && i + 1 < args.length) {
+        ownArgs.add(args[++i]);
+      }
+    }
+  }
+
+  /**
+   * Runs {@link #processes} Randoop processes concurrently. Process {@code i} writes the sequences
+   * it generates to {@code sequenceFiles.get(i)}.
+   *
+   * @param gentestsArgs the arguments to pass to {@code gentests}
+   * @param sequenceFiles the files to which the processes write their sequences
+   * @return true if every process succeeded, false otherwise
+   */
+  private static boolean runShards(List<String> gentestsArgs, List<Path> sequenceFiles) {
+    List<String> commandPrefix = new ArrayList<>();
+    commandPrefix.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    commandPrefix.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+    commandPrefix.add("-classpath");
+    commandPrefix.add(System.getProperty("java.class.path"));
+    commandPrefix.add(Main.class.getName());
+    commandPrefix.add("gentests");
+    commandPrefix.addAll(gentestsArgs);
+
+    Path workingDirectory = Paths.get("").toAbsolutePath();
+    long timeout =
+        (process_timeout == 0) ? ExecuteWatchdog.INFINITE_TIMEOUT : process_timeout * 1000L;
+
+    if (GenInputsAbstract.progressdisplay) {
+      System.out.printf("Starting %d Randoop processes.%n", processes);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(processes);
+    List<Future<Status>> futures = new ArrayList<>(processes);
+    for (int i = 0; i < processes; i++) {
+      List<String> command = new ArrayList<>(commandPrefix);
+      command.add("--shard-count=" + processes);
+      command.add("--shard-index=" + i);
+      command.add("--sequence-output-file=" + sequenceFiles.get(i));
+      int shardIndex = i;
+      futures.add(
+          executor.submit(() -> runShard(shardIndex, command, workingDirectory, timeout)));
+    }
+    executor.shutdown();
+
+    boolean success = true;
+    for (int i = 0; i < processes; i++) {
+      Status status;
+      try {
+        status = futures.get(i).get();
+      } catch (InterruptedException e) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+        throw new RandoopBug("Interrupted while waiting for Randoop processes", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new RandoopBug("Error waiting for Randoop process " + i, e.getCause());
+      }
+      if (status.exitStatus != 0 || status.timedOut) {
+        // Show the output of only the first failure; the others are often the same.
+        if (success) {
+          System.out.printf(
+              "Randoop process %d failed (exit status %d%s). Its output:%n%s%n%s%n",
+              i,
+              status.exitStatus,
+              status.timedOut ? ", timed out" : "",
+              StringsPlume.joinLines(status.standardOutputLines),
+              StringsPlume.joinLines(status.errorOutputLines));
+        }
+        success = false;
+      }
+    }
+    return success;
+  }
+
+  /**
+   * Runs one Randoop process.
+   *
+   * @param shardIndex the index of the process, for diagnostics
+   * @param command the command that runs the process
+   * @param workingDirectory the working directory for the process
+   * @param timeout the timeout in milliseconds for the process
+   * @return the status of the process
+   */
+  private static Status runShard(
+      int shardIndex, List<String> command, Path workingDirectory, long timeout) {
+    try {
+      return RunCommand.run(command, workingDirectory, timeout);
+    } catch (CommandException e) {
+      throw new RandoopBug("Error running Randoop process " + shardIndex, e);
+    }
+  }
+}
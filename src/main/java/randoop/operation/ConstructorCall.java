@@ -1,9 +1,11 @@
 package randoop.operation;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import randoop.ExceptionalExecution;
 import randoop.ExecutionOutcome;
 import randoop.reflection.ReflectionPredicate;
@@ -12,6 +14,7 @@ import randoop.types.ClassOrInterfaceType;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.util.ConstructorReflectionCode;
+import randoop.util.MethodHandleReflectionCode;
 import randoop.util.ReflectionExecutor;
 import randoop.util.Util;
 
@@ -27,6 +30,16 @@ public final class ConstructorCall extends CallableOperation {
 
   private final Constructor<?> constructor;
 
+  /**
+   * A method handle for {@link #constructor}, created on first execution; see {@link
+   * MethodHandleReflectionCode#spreadHandle(Constructor)}. Null before the first execution, or if
+   * no handle can be created.
+   */
+  private @Nullable MethodHandle constructorHandle;
+
+  /** True if a method handle has been requested for {@link #constructor}. */
+  private boolean constructorHandleCreated = false;
+
   // Cached values (for improved performance). Their values
   // are computed upon the first invocation of the respective
   // getter method.
@@ -174,12 +187,31 @@ public final class ConstructorCall extends CallableOperation {
         return new ExceptionalExecution(new NullPointerException(message), 0);
       }
     }
+    MethodHandle handle = getConstructorHandle();
+    if (handle != null && MethodHandleReflectionCode.canInvoke(constructor, statementInput)) {
+      return ReflectionExecutor.executeReflectionCode(
+          new MethodHandleReflectionCode(constructor, handle, statementInput));
+    }
+
     ConstructorReflectionCode code =
         new ConstructorReflectionCode(this.constructor, statementInput);
 
     return ReflectionExecutor.executeReflectionCode(code);
   }
 
+  /**
+   * Returns the method handle for {@link #constructor}, creating it on the first call.
+   *
+   * @return the method handle for the constructor of this call, or null if none can be created
+   */
+  private @Nullable MethodHandle getConstructorHandle() {
+    if (!constructorHandleCreated) {
+      constructorHandle = MethodHandleReflectionCode.spreadHandle(constructor);
+      constructorHandleCreated = true;
+    }
+    return constructorHandle;
+  }
+
   /**
    * {@inheritDoc}
    *
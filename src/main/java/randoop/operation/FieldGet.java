@@ -34,6 +34,15 @@ public class FieldGet extends CallableOperation {
     this.field = field;
   }
 
+  /**
+   * Returns the field of this operation.
+   *
+   * @return the {@link AccessibleField} object of this operation
+   */
+  public AccessibleField getField() {
+    return field;
+  }
+
   /**
    * Performs computation of getting value of field or capturing thrown exceptions. Exceptions
    * should only be NullPointerException, which happens when input is null but field is an instance
@@ -40,6 +40,15 @@ public class FieldSet extends CallableOperation {
     this.field = field;
   }
 
+  /**
+   * Returns the field of this operation.
+   *
+   * @return the {@link AccessibleField} object of this operation
+   */
+  public AccessibleField getField() {
+    return field;
+  }
+
   /**
    * Sets the value of the field given the inputs. Should the action raise an exception, those are
    * captured and returned as an {@link ExecutionOutcome}. Exceptions should only be {@link
@@ -1,10 +1,12 @@
 package randoop.operation;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.StringsPlume;
 import randoop.ExceptionalExecution;
 import randoop.ExecutionOutcome;
@@ -14,6 +16,7 @@ import randoop.sequence.Variable;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.util.Log;
+import randoop.util.MethodHandleReflectionCode;
 import randoop.util.MethodReflectionCode;
 import randoop.util.ReflectionExecutor;
 
@@ -39,6 +42,16 @@ public final class MethodCall extends CallableOperation {
   private final Method method;
   private final boolean isStatic;
 
+  /**
+   * A method handle for {@link #method}, created on first execution; see {@link
+   * MethodHandleReflectionCode#spreadHandle(Method)}. Null before the first execution, or if no
+   * handle can be created.
+   */
+  private @Nullable MethodHandle methodHandle;
+
+  /** True if a method handle has been requested for {@link #method}. */
+  private boolean methodHandleCreated = false;
+
   /**
    * getMethod returns Method object of this MethodCall.
    *
@@ -154,6 +167,20 @@ public final class MethodCall extends CallableOperation {
 
     Log.logPrintf("MethodCall.execute: this = %s%n", this);
 
+    MethodHandle handle = getMethodHandle();
+    if (handle != null && MethodHandleReflectionCode.canInvoke(method, input)) {
+      if (Log.isLoggingOn()) {
+        int paramsStartIndex = isStatic() ? 0 : 1;
+        for (int i = paramsStartIndex; i < input.length; i++) {
+          Log.logPrintf(
+              "  Param %d = %s%n",
+              i - paramsStartIndex, StringsPlume.toStringAndClass(input[i]));
+        }
+      }
+      return ReflectionExecutor.executeReflectionCode(
+          new MethodHandleReflectionCode(method, handle, input));
+    }
+
     Object receiver = null;
     int paramsLength = input.length;
     int paramsStartIndex = 0;
@@ -176,6 +203,19 @@ public final class MethodCall extends CallableOperation {
     return ReflectionExecutor.executeReflectionCode(code);
   }
 
+  /**
+   * Returns the method handle for {@link #method}, creating it on the first call.
+   *
+   * @return the method handle for the method of this call, or null if none can be created
+   */
+  private @Nullable MethodHandle getMethodHandle() {
+    if (!methodHandleCreated) {
+      methodHandle = MethodHandleReflectionCode.spreadHandle(method);
+      methodHandleCreated = true;
+    }
+    return methodHandle;
+  }
+
   /**
    * {@inheritDoc}
    *
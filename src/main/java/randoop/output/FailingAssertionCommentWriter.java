@@ -9,6 +9,7 @@ import static randoop.reflection.SignatureParser.ID_STRING;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -18,11 +19,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.FilesPlume;
 import org.plumelib.util.StringsPlume;
 import randoop.Globals;
 import randoop.compile.FileCompiler;
 import randoop.execution.TestEnvironment;
+import randoop.execution.WarmTestRunner;
+import randoop.execution.WarmTestRunner.TestFailure;
 import randoop.generation.AbstractGenerator;
 import randoop.main.GenInputsAbstract;
 import randoop.main.GenTests;
@@ -45,8 +49,14 @@ import randoop.main.RandoopUsageError;
  *
  * Creates a clean temporary directory for each compilation/run of a test class to avoid state
  * effects due to files in the working directory.
+ *
+ * <p>By default (see {@link GenInputsAbstract#reuse_test_jvm}), the tests are run by a {@link
+ * WarmTestRunner}, which reports failures directly rather than as JUnit text output. If it cannot
+ * run a test class, or reports a failure that is not at a line of a test method, the test class is
+ * run in a new JVM. Each run still runs all the tests of the class, because a test may depend on
+ * side effects of earlier tests.
  */
-public class FailingAssertionCommentWriter implements CodeWriter {
+public class FailingAssertionCommentWriter implements CodeWriter, AutoCloseable {
 
   /**
    * A pattern matching the JUnit4 message indicating the total count of failures. Capturing group 1
@@ -83,6 +93,9 @@ public class FailingAssertionCommentWriter implements CodeWriter {
   /** Method names for flaky tests (e.g., "test005"). */
   private final HashSet<String> flakyTestNames = new HashSet<>();
 
+  /** Runs the tests in a long-lived JVM, or null to run each test class in a new JVM. */
+  private final @Nullable WarmTestRunner warmTestRunner;
+
   /**
    * Create a {@link FailingAssertionCommentWriter}.
    *
@@ -93,6 +106,16 @@ public class FailingAssertionCommentWriter implements CodeWriter {
       TestEnvironment testEnvironment, JavaFileWriter javaFileWriter) {
     this.testEnvironment = testEnvironment;
     this.javaFileWriter = javaFileWriter;
+    this.warmTestRunner =
+        GenInputsAbstract.reuse_test_jvm ? new WarmTestRunner(testEnvironment) : null;
+  }
+
+  /** Stops the JVM that runs the tests, if any. */
+  @Override
+  public void close() {
+    if (warmTestRunner != null) {
+      warmTestRunner.close();
+    }
   }
 
   /**
@@ -144,6 +167,21 @@ public class FailingAssertionCommentWriter implements CodeWriter {
 
         // Run tests
 
+        if (warmTestRunner != null) {
+          List<TestFailure> failures =
+              warmTestRunner.runTest(qualifiedClassname, workingDirectory);
+          if (failures != null && areTestMethodFailures(failures)) {
+            if (failures.isEmpty()) {
+              passing = true;
+            } else {
+              classSource =
+                  commentFailures(packageName, classname, classSource, failures, flakyTestNames);
+            }
+            continue;
+          }
+          // Otherwise, run the tests in a new JVM, whose output explains any problem.
+        }
+
         Status status;
         try {
           status = testEnvironment.runTest(qualifiedClassname, workingDirectory);
@@ -294,10 +332,7 @@ public class FailingAssertionCommentWriter implements CodeWriter {
 
     // Then, read the rest of the file to find each failure.
 
-    // Split Java code text so that we can match the line number for the assertion with the code.
-    // Use same line break as used to write test class file.
-    String[] javaCodeLines = javaCode.split(Globals.lineSep);
-
+    List<TestFailure> failures = new ArrayList<>(totalFailures);
     for (int failureCount = 0; failureCount < totalFailures; failureCount++) {
       // Read until beginning of failure
       Match failureHeaderMatch = readUntilMatch(lineIterator, FAILURE_HEADER_PATTERN);
@@ -321,8 +356,6 @@ public class FailingAssertionCommentWriter implements CodeWriter {
         }
       }
 
-      flakyTests.add(methodName);
-
       // Search for the stacktrace entry corresponding to the test method, and capture the line
       // number.
       Pattern linePattern =
@@ -344,13 +377,47 @@ public class FailingAssertionCommentWriter implements CodeWriter {
         throw e;
       }
 
+      failures.add(new TestFailure(methodName, Integer.parseInt(failureLineMatch.group)));
+    }
+
+    return commentFailures(packageName, classname, javaCode, failures, flakyTests);
+  }
+
+  /**
+   * Comments out the lines of the given test failures.
+   *
+   * @param packageName the package name of the test class
+   * @param classname the simple (unqualified) name of the test class
+   * @param javaCode the source code for the test class; each assertion must be on its own line
+   * @param failures the failures from running the tests of {@code javaCode}
+   * @param flakyTests names of flaky tests, e.g. "test005". This is an output parameter that is
+   *     augmented by this method.
+   * @return the class source edited so that failing assertions are replaced by comments
+   * @throws RandoopBug if the line of a failure is not in {@code javaCode}
+   */
+  private String commentFailures(
+      String packageName,
+      String classname,
+      String javaCode,
+      List<TestFailure> failures,
+      HashSet<String> flakyTests) {
+    assert !Objects.equals(packageName, "");
+
+    // Split Java code text so that we can match the line number for the assertion with the code.
+    // Use same line break as used to write test class file.
+    String[] javaCodeLines = javaCode.split(Globals.lineSep);
+
+    for (TestFailure failure : failures) {
+      String methodName = failure.methodName;
+      flakyTests.add(methodName);
+
       // lineNumber is 1-based, not 0-based
-      int lineNumber = Integer.parseInt(failureLineMatch.group);
+      int lineNumber = failure.lineNumber;
       if (lineNumber < 1 || lineNumber > javaCodeLines.length) {
         throw new RandoopBug(
             String.format(
                 "Line number %d read from JUnit is out of range [1,%d]: %s",
-                lineNumber, javaCodeLines.length, failureLineMatch.line));
+                lineNumber, javaCodeLines.length, failure));
       }
 
       if (GenInputsAbstract.flaky_test_behavior == FlakyTestAction.HALT) {
@@ -397,6 +464,21 @@ public class FailingAssertionCommentWriter implements CodeWriter {
     return StringsPlume.joinLines(javaCodeLines);
   }
 
+  /**
+   * Returns true if each of the given failures is of a Randoop-generated test method.
+   *
+   * @param failures the failures from running a test class
+   * @return true if each failure is of a Randoop-generated test method
+   */
+  private static boolean areTestMethodFailures(List<TestFailure> failures) {
+    for (TestFailure failure : failures) {
+      if (!failure.methodName.matches(GenTests.TEST_METHOD_NAME_PREFIX + "\\d+")) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Return the number of JUnit failures, parsed from the JUnit output.
    *
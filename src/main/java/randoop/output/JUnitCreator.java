@@ -36,11 +36,12 @@ import com.github.javaparser.ast.stmt.TryStmt;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.ReferenceType;
 import com.github.javaparser.ast.type.VoidType;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import randoop.Globals;
 import randoop.main.GenTests;
 import randoop.sequence.ExecutableSequence;
@@ -49,15 +50,9 @@ import randoop.sequence.ExecutableSequence;
 @SuppressWarnings("deprecation") // TODO: fix. "new ClassOrInterfaceType()" does not handle generics
 public class JUnitCreator {
 
-  /** An instance of a Java parser. */
-  static JavaParser javaParser = new JavaParser();
-
-  /** The "public" modifier. */
-  private final NodeList<Modifier> PUBLIC = new NodeList<>(Modifier.publicModifier());
-
-  /** The "public" and "static" modifiers. */
-  private final NodeList<Modifier> PUBLIC_STATIC =
-      new NodeList<>(Modifier.publicModifier(), Modifier.staticModifier());
+  /** A Java parser for each thread; a parser may not be used by two threads at once. */
+  private static final ThreadLocal<JavaParser> javaParser =
+      ThreadLocal.withInitial(JavaParser::new);
 
   /** The package name. May be null, but may not be the empty string. */
   private final String packageName;
@@ -67,7 +62,7 @@ public class JUnitCreator {
    * generate lists of method names for a class. Each test method is named TEST_METHOD_NAME_PREFIX+i
    * for some integer i.
    */
-  private Map<String, Integer> classMethodCounts;
+  private final Map<String, Integer> classMethodCounts;
 
   /** The Java text for BeforeAll method of generated test class. */
   private BlockStmt beforeAllBody = null;
@@ -128,10 +123,29 @@ public class JUnitCreator {
     return junitCreator;
   }
 
+  /**
+   * Returns a new list containing the "public" modifier. A list of modifiers can belong to only one
+   * declaration.
+   *
+   * @return a new list containing the "public" modifier
+   */
+  private static NodeList<Modifier> publicModifiers() {
+    return new NodeList<>(Modifier.publicModifier());
+  }
+
+  /**
+   * Returns a new list containing the "public" and "static" modifiers.
+   *
+   * @return a new list containing the "public" and "static" modifiers
+   */
+  private static NodeList<Modifier> publicStaticModifiers() {
+    return new NodeList<>(Modifier.publicModifier(), Modifier.staticModifier());
+  }
+
   private JUnitCreator(String packageName) {
     assert !Objects.equals(packageName, "");
     this.packageName = packageName;
-    this.classMethodCounts = new LinkedHashMap<>();
+    this.classMethodCounts = new ConcurrentHashMap<>();
   }
 
   /**
@@ -180,7 +194,24 @@ public class JUnitCreator {
    */
   public CompilationUnit createTestClass(
       String testClassName, NameGenerator methodNameGen, List<ExecutableSequence> sequences) {
-    this.classMethodCounts.put(testClassName, sequences.size());
+    List<MethodDeclaration> testMethods = new ArrayList<>(sequences.size());
+    for (ExecutableSequence eseq : sequences) {
+      testMethods.add(createTestMethod(testClassName, methodNameGen.next(), eseq));
+    }
+    return createTestClass(testClassName, testMethods);
+  }
+
+  /**
+   * Create a test class from test methods that were created by {@link #createTestMethod}.
+   *
+   * @param testClassName the class name
+   * @param testMethods the test methods, which were created for a class named {@code
+   *     testClassName}
+   * @return the CompilationUnit for a test class
+   */
+  public CompilationUnit createTestClass(
+      String testClassName, List<MethodDeclaration> testMethods) {
+    this.classMethodCounts.put(testClassName, testMethods.size());
 
     CompilationUnit compilationUnit = new CompilationUnit();
     if (packageName != null) {
@@ -207,7 +238,7 @@ public class JUnitCreator {
 
     // class declaration
     ClassOrInterfaceDeclaration classDeclaration =
-        new ClassOrInterfaceDeclaration(PUBLIC, false, testClassName);
+        new ClassOrInterfaceDeclaration(publicModifiers(), false, testClassName);
     NodeList<AnnotationExpr> annotations =
         new NodeList<>(
             new SingleMemberAnnotationExpr(
@@ -225,45 +256,44 @@ public class JUnitCreator {
     //         new NodeList<AnnotationExpr>(PrimitiveType.forClass(PrimitiveType.booleanType())),
     //         new NodeList<VariableDeclarator>(debugVariable));
     BodyDeclaration<?> debugField =
-        javaParser.parseBodyDeclaration("public static boolean debug=false;").getResult().get();
+        javaParser
+            .get()
+            .parseBodyDeclaration("public static boolean debug=false;")
+            .getResult()
+            .get();
 
     bodyDeclarations.add(debugField);
 
     if (beforeAllBody != null) {
       MethodDeclaration fixture =
-          createFixture(BEFORE_ALL, PUBLIC_STATIC, BEFORE_ALL_METHOD, beforeAllBody);
+          createFixture(BEFORE_ALL, publicStaticModifiers(), BEFORE_ALL_METHOD, beforeAllBody);
       if (fixture != null) {
         bodyDeclarations.add(fixture);
       }
     }
     if (afterAllBody != null) {
       MethodDeclaration fixture =
-          createFixture(AFTER_ALL, PUBLIC_STATIC, AFTER_ALL_METHOD, afterAllBody);
+          createFixture(AFTER_ALL, publicStaticModifiers(), AFTER_ALL_METHOD, afterAllBody);
       if (fixture != null) {
         bodyDeclarations.add(fixture);
       }
     }
     if (beforeEachBody != null) {
       MethodDeclaration fixture =
-          createFixture(BEFORE_EACH, PUBLIC, BEFORE_EACH_METHOD, beforeEachBody);
+          createFixture(BEFORE_EACH, publicModifiers(), BEFORE_EACH_METHOD, beforeEachBody);
       if (fixture != null) {
         bodyDeclarations.add(fixture);
       }
     }
     if (afterEachBody != null) {
       MethodDeclaration fixture =
-          createFixture(AFTER_EACH, PUBLIC, AFTER_EACH_METHOD, afterEachBody);
+          createFixture(AFTER_EACH, publicModifiers(), AFTER_EACH_METHOD, afterEachBody);
       if (fixture != null) {
         bodyDeclarations.add(fixture);
       }
     }
 
-    for (ExecutableSequence eseq : sequences) {
-      MethodDeclaration testMethod = createTestMethod(testClassName, methodNameGen.next(), eseq);
-      if (testMethod != null) {
-        bodyDeclarations.add(testMethod);
-      }
-    }
+    bodyDeclarations.addAll(testMethods);
     classDeclaration.setMembers(bodyDeclarations);
     NodeList<TypeDeclaration<?>> types = new NodeList<>(classDeclaration);
     compilationUnit.setTypes(types);
@@ -279,9 +309,9 @@ public class JUnitCreator {
    * @param testSequence the {@link ExecutableSequence} test sequence
    * @return the {@code String} for the test method
    */
-  private MethodDeclaration createTestMethod(
+  public MethodDeclaration createTestMethod(
       String className, String methodName, ExecutableSequence testSequence) {
-    MethodDeclaration method = new MethodDeclaration(PUBLIC, new VoidType(), methodName);
+    MethodDeclaration method = new MethodDeclaration(publicModifiers(), new VoidType(), methodName);
     NodeList<AnnotationExpr> annotations =
         new NodeList<>(new MarkerAnnotationExpr(new Name("Test")));
     method.setAnnotations(annotations);
@@ -304,7 +334,7 @@ public class JUnitCreator {
     // TODO make sequence generate list of JavaParser statements
     String sequenceBlockString = "{ " + testSequence.toCodeString() + " }";
     // try {
-    BlockStmt sequenceBlock = javaParser.parseBlock(sequenceBlockString).getResult().get();
+    BlockStmt sequenceBlock = javaParser.get().parseBlock(sequenceBlockString).getResult().get();
     statements.addAll(sequenceBlock.getStatements());
     // }
     // catch (ParseException e) {
@@ -342,7 +372,8 @@ public class JUnitCreator {
     NodeList<AnnotationExpr> annotations =
         new NodeList<>(new MarkerAnnotationExpr(new Name(annotation)));
     method.setAnnotations(annotations);
-    method.setBody(body);
+    // A node has only one parent, so each fixture gets its own copy of the body.
+    method.setBody(body.clone());
     return method;
   }
 
@@ -364,7 +395,7 @@ public class JUnitCreator {
     compilationUnit.setImports(imports);
 
     ClassOrInterfaceDeclaration suiteClass =
-        new ClassOrInterfaceDeclaration(PUBLIC, false, suiteClassName);
+        new ClassOrInterfaceDeclaration(publicModifiers(), false, suiteClassName);
     NodeList<AnnotationExpr> annotations = new NodeList<>();
     annotations.add(
         new SingleMemberAnnotationExpr(new Name("RunWith"), new NameExpr("Suite.class")));
@@ -391,12 +422,30 @@ public class JUnitCreator {
    */
   public String createTestDriver(
       String driverName, Iterable<String> testClassNames, int numMethods) {
+    return createTestDriver(
+        driverName,
+        testClassNames,
+        new NameGenerator(GenTests.TEST_METHOD_NAME_PREFIX, 1, numMethods));
+  }
+
+  /**
+   * Create non-reflective test driver as a main class.
+   *
+   * @param driverName the name for the driver class
+   * @param testClassNames the names of the test classes in the suite
+   * @param methodNameGen a generator of the names of the test methods, in order; it must be
+   *     equivalent to the generator that named the methods when the test classes were created
+   * @return the test driver class as a {@code String}
+   */
+  public String createTestDriver(
+      String driverName, Iterable<String> testClassNames, NameGenerator methodNameGen) {
     CompilationUnit compilationUnit = new CompilationUnit();
     if (packageName != null) {
       compilationUnit.setPackageDeclaration(new PackageDeclaration(new Name(packageName)));
     }
 
-    MethodDeclaration mainMethod = new MethodDeclaration(PUBLIC_STATIC, new VoidType(), "main");
+    MethodDeclaration mainMethod =
+        new MethodDeclaration(publicStaticModifiers(), new VoidType(), "main");
     NodeList<Parameter> parameters = new NodeList<>();
     @SuppressWarnings("deprecation") // new ClassOrInterfaceType does not handle generics
     Parameter parameter = new Parameter(new ClassOrInterfaceType("String"), "args");
@@ -410,12 +459,14 @@ public class JUnitCreator {
 
     String failureVariableName = "hadFailure";
     Statement hadFailureDecl =
-        javaParser.parseStatement("boolean " + failureVariableName + " = false;").getResult().get();
+        javaParser
+            .get()
+            .parseStatement("boolean " + failureVariableName + " = false;")
+            .getResult()
+            .get();
     bodyStatements.add(hadFailureDecl);
 
     NameGenerator instanceNameGen = new NameGenerator("t");
-    NameGenerator methodNameGen =
-        new NameGenerator(GenTests.TEST_METHOD_NAME_PREFIX, 1, numMethods);
     for (String testClass : testClassNames) {
       if (beforeAllBody != null) {
         bodyStatements.add(
@@ -511,7 +562,7 @@ public class JUnitCreator {
     NodeList<BodyDeclaration<?>> bodyDeclarations = new NodeList<>(mainMethod);
 
     ClassOrInterfaceDeclaration driverClass =
-        new ClassOrInterfaceDeclaration(PUBLIC, false, driverName);
+        new ClassOrInterfaceDeclaration(publicModifiers(), false, driverName);
     driverClass.setMembers(bodyDeclarations);
 
     NodeList<TypeDeclaration<?>> types = new NodeList<>(driverClass);
@@ -529,6 +580,6 @@ public class JUnitCreator {
       blockText.append(line).append(Globals.lineSep);
     }
     blockText.append(Globals.lineSep).append("}");
-    return javaParser.parseBlock(blockText.toString()).getResult().get();
+    return javaParser.get().parseBlock(blockText.toString()).getResult().get();
   }
 }
@@ -0,0 +1,177 @@
+package randoop.output;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import randoop.main.GenInputsAbstract;
+import randoop.main.GenTests;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+
+/**
+ * Writes JUnit test classes while tests are still being generated. Each test is converted to a test
+ * method as soon as it is accepted, so the {@link ExecutableSequence}, with its runtime values,
+ * need not be retained. Every {@code testsPerFile} tests, the current test class is written. {@link
+ * #close} writes the last test class and the suite or driver class.
+ *
+ * <p>The classes are the same as those that {@link GenTests} writes after generation, except that
+ * the tests are in the order they were generated, sequences that are subsumed by later tests are
+ * not omitted, and the numbers in the test method names are not 0-padded: the number of tests is
+ * not known until generation ends.
+ */
+public class StreamingTestWriter implements Consumer<ExecutableSequence> {
+
+  /** The {@link JUnitCreator} that creates the test classes. */
+  private final JUnitCreator junitCreator;
+
+  /** The {@link CodeWriter} that writes the test classes. */
+  private final CodeWriter codeWriter;
+
+  /** The prefix of the names of the test classes. */
+  private final String classNamePrefix;
+
+  /** The kind of tests, for progress messages. */
+  private final String testKind;
+
+  /** The maximum number of tests in each test class. */
+  private final int testsPerFile;
+
+  /** The generator of test method names. */
+  private final NameGenerator methodNameGenerator;
+
+  /** The test methods of the current test class, which has not been written yet. */
+  private final List<MethodDeclaration> testMethods = new ArrayList<>();
+
+  /** The names of the test classes that have been written. */
+  private final List<String> testClasses = new ArrayList<>();
+
+  /** The sequences of all the tests, in test-number order. */
+  private final List<Sequence> sequences = new ArrayList<>();
+
+  /** True if {@link #close} has been called. */
+  private boolean closed = false;
+
+  /**
+   * Creates a {@link StreamingTestWriter}.
+   *
+   * @param junitCreator the {@link JUnitCreator} to create the test class source
+   * @param codeWriter the {@link CodeWriter} to output the test classes
+   * @param classNamePrefix the prefix for the class names
+   * @param testKind a {@code String} indicating the kind of tests for logging and error messages
+   * @param testsPerFile the maximum number of tests in each test class
+   */
+  public StreamingTestWriter(
+      JUnitCreator junitCreator,
+      CodeWriter codeWriter,
+      String classNamePrefix,
+      String testKind,
+      int testsPerFile) {
+    this.junitCreator = junitCreator;
+    this.codeWriter = codeWriter;
+    this.classNamePrefix = classNamePrefix;
+    this.testKind = testKind;
+    this.testsPerFile = testsPerFile;
+    this.methodNameGenerator = new NameGenerator(GenTests.TEST_METHOD_NAME_PREFIX, 1, 0);
+  }
+
+  /**
+   * Adds a test for the given sequence to the current test class, and writes the class if it is
+   * full.
+   *
+   * @param eseq the sequence of the test
+   */
+  @Override
+  public synchronized void accept(ExecutableSequence eseq) {
+    if (closed) {
+      throw new IllegalStateException("StreamingTestWriter is closed");
+    }
+    String testClassName = classNamePrefix + testClasses.size();
+    testMethods.add(
+        junitCreator.createTestMethod(testClassName, methodNameGenerator.next(), eseq));
+    sequences.add(eseq.sequence);
+    if (testMethods.size() == testsPerFile) {
+      try {
+        writeTestClass();
+      } catch (RandoopOutputException e) {
+        System.out.printf("%nError writing %s tests%n", testKind.toLowerCase());
+        e.printStackTrace(System.out);
+        System.exit(1);
+      }
+    }
+  }
+
+  /**
+   * Writes the last test class, if it has any tests, and the suite or driver class. Writes nothing
+   * if there were no tests.
+   *
+   * @throws RandoopOutputException if there is an error while writing the code
+   */
+  public synchronized void close() throws RandoopOutputException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (!testMethods.isEmpty()) {
+      writeTestClass();
+    }
+    if (testClasses.isEmpty()) {
+      if (GenInputsAbstract.progressdisplay) {
+        System.out.printf("%nNo " + testKind.toLowerCase() + " tests to output.%n");
+      }
+      return;
+    }
+
+    String driverName;
+    String classSource;
+    if (GenInputsAbstract.junit_reflection_allowed) {
+      driverName = classNamePrefix;
+      classSource = junitCreator.createTestSuite(driverName, testClasses);
+    } else {
+      driverName = classNamePrefix + "Driver";
+      classSource =
+          junitCreator.createTestDriver(
+              driverName,
+              testClasses,
+              new NameGenerator(GenTests.TEST_METHOD_NAME_PREFIX, 1, 0));
+    }
+    Path suiteFile =
+        codeWriter.writeUnmodifiedClassCode(
+            GenInputsAbstract.junit_package_name, driverName, classSource);
+    if (GenInputsAbstract.progressdisplay) {
+      System.out.printf("Created file %s%n", suiteFile.toAbsolutePath());
+      System.out.printf("Wrote %d %s JUnit tests.%n", sequences.size(), testKind.toLowerCase());
+    }
+  }
+
+  /**
+   * Returns the sequences of the tests that have been added, in test-number order: the sequence of
+   * the test named "test5" is at index 4.
+   *
+   * @return the sequences of the tests
+   */
+  public synchronized List<Sequence> getSequences() {
+    return Collections.unmodifiableList(new ArrayList<>(sequences));
+  }
+
+  /**
+   * Writes the current test class and starts a new one.
+   *
+   * @throws RandoopOutputException if there is an error while writing the code
+   */
+  private void writeTestClass() throws RandoopOutputException {
+    String testClassName = classNamePrefix + testClasses.size();
+    CompilationUnit classAST = junitCreator.createTestClass(testClassName, testMethods);
+    testMethods.clear();
+    testClasses.add(testClassName);
+    Path testFile =
+        codeWriter.writeClassCode(
+            GenInputsAbstract.junit_package_name, testClassName, classAST.toString());
+    if (GenInputsAbstract.progressdisplay) {
+      System.out.printf("Created file %s%n", testFile.toAbsolutePath());
+    }
+  }
+}
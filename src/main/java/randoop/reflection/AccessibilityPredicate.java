@@ -42,6 +42,24 @@ public abstract class AccessibilityPredicate {
    */
   public abstract boolean isAccessible(Field f);
 
+  /**
+   * Determines whether this AccessibilityPredicate might consider a class accessible, given only
+   * the access flags in its class file and its package. Returns false only if the class is not
+   * accessible, so that a class for which it returns false need not be loaded.
+   *
+   * <p>The class file of a member class does not record whether the class is private or protected:
+   * its access flags are public if the class is public or protected, and package-private otherwise.
+   *
+   * @param accessFlags the access flags in the class file, as read by {@link
+   *     randoop.util.ClassFileHeader#readAccessFlags}
+   * @param packageName the name of the package of the class; the empty string for the unnamed
+   *     package
+   * @return false if the class is not accessible, true if it might be
+   */
+  public boolean mayBeAccessible(int accessFlags, String packageName) {
+    return true;
+  }
+
   /** AnyAccessibilityPredicate is a {@link AccessibilityPredicate} that always returns true. */
   private static class AnyAccessibilityPredicate extends AccessibilityPredicate {
 
@@ -118,6 +136,16 @@ public abstract class AccessibilityPredicate {
       return isAccessible(f.getModifiers() & Modifier.fieldModifiers());
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return false if the class file is not public, true otherwise
+     */
+    @Override
+    public boolean mayBeAccessible(int accessFlags, String packageName) {
+      return isAccessible(accessFlags);
+    }
+
     /*
      * Checks whether the provided modifiers indicate public bit is set.
      */
@@ -197,6 +225,17 @@ public abstract class AccessibilityPredicate {
       return isAccessible(mods, f.getDeclaringClass().getPackage());
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return false if the class file is not public and the class is not in {@code packageName},
+     *     true otherwise
+     */
+    @Override
+    public boolean mayBeAccessible(int accessFlags, String packageName) {
+      return Modifier.isPublic(accessFlags) || this.packageName.equals(packageName);
+    }
+
     /**
      * Test accessibility as indicated by the modifier bit string and/or package.
      *
@@ -1,8 +1,10 @@
 package randoop.reflection;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import randoop.operation.NonreceiverTerm;
 import randoop.operation.TypedOperation;
 import randoop.sequence.Sequence;
@@ -21,14 +23,30 @@ public class ClassLiteralExtractor extends DefaultClassVisitor {
 
   private MultiMap<ClassOrInterfaceType, Sequence> literalMap;
 
+  /** The directory in which the constants of class files are cached, or null not to cache them. */
+  private final @Nullable Path cacheDirectory;
+
   public ClassLiteralExtractor(MultiMap<ClassOrInterfaceType, Sequence> literalMap) {
+    this(literalMap, null);
+  }
+
+  /**
+   * Creates a {@link ClassLiteralExtractor} that caches the constants it reads from class files.
+   *
+   * @param literalMap the map to which to add a sequence for each literal
+   * @param cacheDirectory the directory in which the constants of class files are cached, or null
+   *     not to cache them
+   */
+  public ClassLiteralExtractor(
+      MultiMap<ClassOrInterfaceType, Sequence> literalMap, @Nullable Path cacheDirectory) {
     this.literalMap = literalMap;
+    this.cacheDirectory = cacheDirectory;
   }
 
   @Override
   public void visitBefore(Class<?> c) {
     Collection<ClassFileConstants.ConstantSet> constList =
-        Collections.singletonList(ClassFileConstants.getConstants(c.getName()));
+        Collections.singletonList(ClassFileConstants.getConstants(c.getName(), cacheDirectory));
     MultiMap<Class<?>, NonreceiverTerm> constantMap = ClassFileConstants.toMap(constList);
     for (Class<?> constantClass : constantMap.keySet()) {
       ClassOrInterfaceType constantType = ClassOrInterfaceType.forClass(constantClass);
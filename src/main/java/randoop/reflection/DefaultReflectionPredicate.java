@@ -46,6 +46,11 @@ public class DefaultReflectionPredicate implements ReflectionPredicate {
     return !c.isAnonymousClass();
   }
 
+  @Override
+  public String toString() {
+    return "DefaultReflectionPredicate: " + omitFields;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -0,0 +1,138 @@
+package randoop.reflection;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.checker.signature.qual.ClassGetName;
+
+/**
+ * Signatures of members and enum constants: strings that identify them exactly, including the
+ * parameter types of overloaded methods and constructors, and from which they can be looked up
+ * again. Used by {@link OperationModelCache} and by {@link randoop.sequence.SequenceFiles}.
+ */
+public final class MemberSignatures {
+  private MemberSignatures() {
+    throw new IllegalStateException("no instance");
+  }
+
+  /**
+   * Returns the signature of a member, in the format that {@link #member} reads: the kind of the
+   * member, the name of its declaring class, and its name and parameter types, separated by
+   * spaces.
+   *
+   * @param member a constructor, method, or field
+   * @return the signature of the member
+   */
+  public static String signature(Member member) {
+    StringBuilder sb = new StringBuilder();
+    if (member instanceof Constructor) {
+      sb.append("constructor ").append(member.getDeclaringClass().getName());
+      appendNames(sb, ((Constructor<?>) member).getParameterTypes());
+    } else if (member instanceof Method) {
+      sb.append("method ").append(member.getDeclaringClass().getName());
+      sb.append(' ').append(member.getName());
+      appendNames(sb, ((Method) member).getParameterTypes());
+    } else {
+      sb.append("field ").append(member.getDeclaringClass().getName());
+      sb.append(' ').append(member.getName());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the signature of an enum constant, in the format that {@link #enumConstant} reads.
+   *
+   * @param e an enum constant
+   * @return the signature of the enum constant
+   */
+  public static String signature(Enum<?> e) {
+    return "enum " + e.getDeclaringClass().getName() + " " + e.name();
+  }
+
+  /**
+   * Returns the member that a signature by {@link #signature(Member)} denotes.
+   *
+   * @param signature the signature of a constructor, method, or field
+   * @return the member
+   * @throws ReflectiveOperationException if the member does not exist
+   */
+  public static Member member(String signature) throws ReflectiveOperationException {
+    String[] parts = signature.split(" ");
+    Class<?> c = classForName(parts[1]);
+    switch (parts[0]) {
+      case "constructor":
+        return c.getDeclaredConstructor(classesForNames(parts, 2));
+      case "method":
+        return c.getDeclaredMethod(parts[2], classesForNames(parts, 3));
+      case "field":
+        return c.getDeclaredField(parts[2]);
+      default:
+        throw new ReflectiveOperationException("Not a member signature: " + signature);
+    }
+  }
+
+  /**
+   * Returns the enum constant that a signature by {@link #signature(Enum)} denotes, or null if the
+   * signature is not that of an enum constant.
+   *
+   * @param signature a signature
+   * @return the enum constant, or null if {@code signature} is not that of an enum constant
+   * @throws ReflectiveOperationException if the enum constant does not exist
+   */
+  public static @Nullable Enum<?> enumConstant(String signature)
+      throws ReflectiveOperationException {
+    String[] parts = signature.split(" ");
+    if (!parts[0].equals("enum")) {
+      return null;
+    }
+    Class<?> c = classForName(parts[1]);
+    for (Object constant : c.getEnumConstants()) {
+      if (((Enum<?>) constant).name().equals(parts[2])) {
+        return (Enum<?>) constant;
+      }
+    }
+    throw new NoSuchFieldException("No enum constant " + signature);
+  }
+
+  /**
+   * Returns the class with the given name.
+   *
+   * @param name the name of a class or primitive type, as returned by {@link Class#getName}
+   * @return the class
+   * @throws ClassNotFoundException if there is no such class
+   */
+  @SuppressWarnings("signature") // written from Class.getName()
+  public static Class<?> classForName(String name) throws ClassNotFoundException {
+    return TypeNames.getTypeForName((@ClassGetName String) name);
+  }
+
+  /**
+   * Returns the classes whose names are the given strings, from the given index on.
+   *
+   * @param names the names, as returned by {@link Class#getName}
+   * @param start the index of the first name
+   * @return the classes
+   * @throws ClassNotFoundException if a class does not exist
+   */
+  private static Class<?>[] classesForNames(String[] names, int start)
+      throws ClassNotFoundException {
+    Class<?>[] result = new Class<?>[names.length - start];
+    for (int i = start; i < names.length; i++) {
+      result[i - start] = classForName(names[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Appends the names of the given classes, each preceded by a space.
+   *
+   * @param sb the builder to which to append
+   * @param classes the classes
+   */
+  private static void appendNames(StringBuilder sb, Class<?>[] classes) {
+    for (Class<?> c : classes) {
+      sb.append(' ').append(c.getName());
+    }
+  }
+}
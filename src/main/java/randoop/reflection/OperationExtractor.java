@@ -2,12 +2,14 @@ package randoop.reflection;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.TreeSet;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.CollectionsPlume;
 import org.plumelib.util.StringsPlume;
 import randoop.condition.ExecutableSpecification;
@@ -56,6 +58,12 @@ public class OperationExtractor extends DefaultClassVisitor {
   /** The specifications (pre/post/throws-conditions). */
   private final SpecificationCollection operationSpecifications;
 
+  /**
+   * If non-null, the signatures, in the format of {@link MemberSignatures#signature}, of the
+   * members from which operations were added.
+   */
+  private @Nullable List<String> addedMembers = null;
+
   /**
    * Returns the operations in the class that satisfy the given predicates.
    *
@@ -396,26 +404,49 @@ public class OperationExtractor extends DefaultClassVisitor {
     if (!reflectionPredicate.test(constructor)) {
       return;
     }
+    TypedClassOperation operation = constructorOperation(constructor);
+    if (!omitPredicate.shouldOmit(operation)) {
+      addConstructorOperation(constructor, operation);
+    }
+  }
+
+  /**
+   * Returns the operation for the given constructor.
+   *
+   * @param constructor a constructor of {@link #classType}
+   * @return the operation for the constructor
+   */
+  private TypedClassOperation constructorOperation(Constructor<?> constructor) {
     TypedClassOperation operation = instantiateTypes(TypedOperation.forConstructor(constructor));
     if (debug) {
       Log.logPrintf(
           "OperationExtractor.visit: operation=%s for constructor %s%n", operation, constructor);
     }
     checkSubTypes(operation);
-    if (!omitPredicate.shouldOmit(operation)) {
-      if (operationSpecifications != null) {
-        ExecutableSpecification execSpec =
-            operationSpecifications.getExecutableSpecification(constructor);
-        if (!execSpec.isEmpty()) {
-          operation.setExecutableSpecification(execSpec);
-        }
-      }
-      if (debug) {
-        Log.logPrintln(
-            "OperationExtractor.visit: add operation " + StringsPlume.toStringAndClass(operation));
+    return operation;
+  }
+
+  /**
+   * Adds the operation for a constructor that satisfies the predicates.
+   *
+   * @param constructor the constructor
+   * @param operation the operation for the constructor
+   */
+  private void addConstructorOperation(
+      Constructor<?> constructor, TypedClassOperation operation) {
+    if (operationSpecifications != null) {
+      ExecutableSpecification execSpec =
+          operationSpecifications.getExecutableSpecification(constructor);
+      if (!execSpec.isEmpty()) {
+        operation.setExecutableSpecification(execSpec);
       }
-      operations.add(operation);
     }
+    if (debug) {
+      Log.logPrintln(
+          "OperationExtractor.visit: add operation " + StringsPlume.toStringAndClass(operation));
+    }
+    operations.add(operation);
+    recordMember(constructor);
   }
 
   /**
@@ -435,6 +466,26 @@ public class OperationExtractor extends DefaultClassVisitor {
     if (!reflectionPredicate.test(method)) {
       return;
     }
+    TypedClassOperation operation = methodOperation(method);
+
+    // The declaring type of the method is not necessarily the classType, but may want to omit
+    // method in classType. So, create operation with the classType as declaring type for omit
+    // search.
+    if (omitPredicate.shouldOmit(operation.getOperationForType(classType))) {
+      Log.logPrintln("omitPreditate omits " + operation.getOperationForType(classType));
+      return;
+    }
+
+    addMethodOperation(method, operation);
+  }
+
+  /**
+   * Returns the operation for the given method.
+   *
+   * @param method a method of {@link #classType}
+   * @return the operation for the method
+   */
+  private TypedClassOperation methodOperation(Method method) {
     TypedClassOperation operation = instantiateTypes(TypedOperation.forMethod(method));
     if (debug) {
       Log.logPrintln("OperationExtractor.visit: operation=" + operation);
@@ -453,15 +504,16 @@ public class OperationExtractor extends DefaultClassVisitor {
         }
       }
     }
+    return operation;
+  }
 
-    // The declaring type of the method is not necessarily the classType, but may want to omit
-    // method in classType. So, create operation with the classType as declaring type for omit
-    // search.
-    if (omitPredicate.shouldOmit(operation.getOperationForType(classType))) {
-      Log.logPrintln("omitPreditate omits " + operation.getOperationForType(classType));
-      return;
-    }
-
+  /**
+   * Adds the operation for a method that satisfies the predicates.
+   *
+   * @param method the method
+   * @param operation the operation for the method
+   */
+  private void addMethodOperation(Method method, TypedClassOperation operation) {
     if (operationSpecifications != null) {
       ExecutableSpecification execSpec = operationSpecifications.getExecutableSpecification(method);
       if (!execSpec.isEmpty()) {
@@ -472,6 +524,7 @@ public class OperationExtractor extends DefaultClassVisitor {
       Log.logPrintln("OperationExtractor.visit: add operation " + operation);
     }
     operations.add(operation);
+    recordMember(method);
   }
 
   /**
@@ -490,7 +543,15 @@ public class OperationExtractor extends DefaultClassVisitor {
     if (!reflectionPredicate.test(field)) {
       return;
     }
+    addFieldOperations(field);
+  }
 
+  /**
+   * Adds the operations for a field that satisfies the reflection predicate.
+   *
+   * @param field the field
+   */
+  private void addFieldOperations(Field field) {
     ClassOrInterfaceType declaringType = ClassOrInterfaceType.forClass(field.getDeclaringClass());
 
     int mods = field.getModifiers() & Modifier.fieldModifiers();
@@ -513,6 +574,7 @@ public class OperationExtractor extends DefaultClassVisitor {
     checkSubTypes(getter);
     if (getter != null) {
       operations.add(getter);
+      recordMember(field);
     }
     if (!Modifier.isFinal(mods)) {
       TypedClassOperation operation =
@@ -536,6 +598,49 @@ public class OperationExtractor extends DefaultClassVisitor {
     TypedClassOperation operation =
         new TypedClassOperation(op, enumType, new TypeTuple(), enumType);
     operations.add(operation);
+    if (addedMembers != null) {
+      addedMembers.add(MemberSignatures.signature(e));
+    }
+  }
+
+  /**
+   * Makes this extractor record the members from which it adds operations, so that {@link
+   * #addAcceptedMember} can add the same operations without testing the predicates.
+   *
+   * @param addedMembers the list to which to add the signature of each member, in the format of
+   *     {@link MemberSignatures#signature}
+   */
+  void recordAddedMembers(List<String> addedMembers) {
+    this.addedMembers = addedMembers;
+  }
+
+  /**
+   * Records a member from which operations were added, if this extractor records them.
+   *
+   * @param member the member
+   */
+  private void recordMember(Member member) {
+    if (addedMembers != null) {
+      addedMembers.add(MemberSignatures.signature(member));
+    }
+  }
+
+  /**
+   * Adds the operations of a member that this extractor recorded in an earlier run with the same
+   * predicates, without testing the predicates again.
+   *
+   * @param member a constructor, method, or field that {@link #recordAddedMembers} recorded
+   */
+  void addAcceptedMember(Member member) {
+    if (member instanceof Constructor) {
+      Constructor<?> constructor = (Constructor<?>) member;
+      addConstructorOperation(constructor, constructorOperation(constructor));
+    } else if (member instanceof Method) {
+      Method method = (Method) member;
+      addMethodOperation(method, methodOperation(method));
+    } else {
+      addFieldOperations((Field) member);
+    }
   }
 
   /**
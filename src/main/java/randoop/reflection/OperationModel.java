@@ -12,11 +12,14 @@ import java.io.PrintWriter;
 import java.io.Writer;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -25,9 +28,12 @@ import java.util.TreeSet;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.ClassGetName;
+import org.plumelib.util.ClassDeterministic;
 import org.plumelib.util.EntryReader;
 import org.plumelib.util.UtilPlume;
+import randoop.CheckRep;
 import randoop.Globals;
+import randoop.TestValue;
 import randoop.condition.SpecificationCollection;
 import randoop.contract.CompareToAntiSymmetric;
 import randoop.contract.CompareToEquals;
@@ -57,6 +63,7 @@ import randoop.types.ClassOrInterfaceType;
 import randoop.types.Type;
 import randoop.util.Log;
 import randoop.util.MultiMap;
+import randoop.util.Util;
 
 /**
  * {@code OperationModel} represents the information context from which tests are generated. The
@@ -160,17 +167,28 @@ public class OperationModel {
     // for debugging only
     model.omitMethods = omitMethods;
 
+    model.omitMethodsPredicate = new OmitMethodsPredicate(omitMethods);
+
+    @Nullable OperationModelCache cache =
+        (GenInputsAbstract.operation_model_cache_dir == null)
+            ? null
+            : new OperationModelCache(
+                GenInputsAbstract.operation_model_cache_dir,
+                accessibility,
+                reflectionPredicate,
+                model.omitMethodsPredicate);
+
     model.addClassTypes(
         accessibility,
         reflectionPredicate,
         classnames,
         coveredClassesGoalNames,
         errorHandler,
-        literalsFileList);
-
-    model.omitMethodsPredicate = new OmitMethodsPredicate(omitMethods);
+        literalsFileList,
+        cache);
 
-    model.addOperationsFromClasses(accessibility, reflectionPredicate, operationSpecifications);
+    model.addOperationsFromClasses(
+        accessibility, reflectionPredicate, operationSpecifications, cache);
     model.operations.addAll(
         model.getOperationsFromFile(
             GenInputsAbstract.methodlist, accessibility, reflectionPredicate));
@@ -424,7 +442,8 @@ public class OperationModel {
   }
 
   /**
-   * Returns the set of input types that occur as parameters in classes under test.
+   * Returns the set of input types that occur as parameters in classes under test. A class whose
+   * declarations were read from the {@code --operation-model-cache-dir} contributes no input types.
    *
    * @return the set of input types that occur in classes under test
    * @see TypeExtractor
@@ -560,6 +579,7 @@ public class OperationModel {
    *     heuristic
    * @param errorHandler the handler for bad class names
    * @param literalsFileList the list of literals file names
+   * @param cache the cache of the declarations of the classes, or null
    */
   private void addClassTypes(
       AccessibilityPredicate accessibility,
@@ -567,18 +587,13 @@ public class OperationModel {
       Set<@ClassGetName String> classnames,
       Set<@ClassGetName String> coveredClassesGoalNames,
       ClassNameErrorHandler errorHandler,
-      List<String> literalsFileList) {
-    ReflectionManager mgr = new ReflectionManager(accessibility);
-    mgr.add(new DeclarationExtractor(this.classTypes, reflectionPredicate));
-    mgr.add(new TypeExtractor(this.inputTypes, accessibility));
-    mgr.add(new TestValueExtractor(this.annotatedTestValues));
-    mgr.add(new CheckRepExtractor(this.contracts));
-    if (literalsFileList.contains("CLASSES")) {
-      mgr.add(new ClassLiteralExtractor(this.classLiteralMap));
-    }
+      List<String> literalsFileList,
+      @Nullable OperationModelCache cache) {
+    boolean extractLiterals = literalsFileList.contains("CLASSES");
 
-    // Collect classes under test
-    int succeeded = 0;
+    // Collect classes under test.  The classes, and their member classes, are initialized one at a
+    // time; then they are visited concurrently, and the declarations of each are added in order.
+    List<Class<?>> classesToVisit = new ArrayList<>();
     for (String classname : classnames) {
       Class<?> c;
       try {
@@ -608,18 +623,41 @@ public class OperationModel {
               c, hasAccessibleStaticMethod ? "; will use its static methods" : "");
         }
         if (classIsAccessible || hasAccessibleStaticMethod) {
-          try {
-            mgr.apply(c);
-            succeeded++;
-          } catch (Throwable e) {
-            System.out.printf(
-                "Cannot get methods for %s specified via --testclass or --classlist due to"
-                    + " exception:%n%s%n",
-                c.getName(), UtilPlume.stackTraceToString(e));
-          }
+          classesToVisit.add(c);
         }
       }
     }
+    // Visiting a class initializes its member classes, by reading static fields and enum constants.
+    // Initialize them here, in a deterministic order, so that no static initializer runs
+    // concurrently with another.
+    for (Class<?> c : classesToVisit) {
+      initializeMemberClasses(c);
+    }
+    List<ClassDeclarations> declarations =
+        Util.mapConcurrently(
+            classesToVisit,
+            c ->
+                new ClassDeclarations(
+                    c, accessibility, reflectionPredicate, extractLiterals, cache),
+            "randoop-model");
+    int succeeded = 0;
+    for (ClassDeclarations classDeclarations : declarations) {
+      // Add the declarations even if visiting the class failed part way, as the visitors did.
+      classTypes.addAll(classDeclarations.classTypes);
+      inputTypes.addAll(classDeclarations.inputTypes);
+      annotatedTestValues.addAll(classDeclarations.annotatedTestValues);
+      contracts.addAll(classDeclarations.contracts);
+      classLiteralMap.addAll(classDeclarations.classLiteralMap);
+      if (classDeclarations.exception == null) {
+        succeeded++;
+      } else {
+        System.out.printf(
+            "Cannot get methods for %s specified via --testclass or --classlist due to"
+                + " exception:%n%s%n",
+            classDeclarations.c.getName(),
+            UtilPlume.stackTraceToString(classDeclarations.exception));
+      }
+    }
     if (GenInputsAbstract.progressdisplay) {
       if (succeeded == classnames.size()) {
         System.out.printf("%nWill try to generate tests for %d classes.%n", succeeded);
@@ -639,6 +677,194 @@ public class OperationModel {
     }
   }
 
+  /**
+   * Initializes the member classes of the given class, recursively, in declaration order. A member
+   * class whose initialization fails is skipped; the failure is reported when the class is visited.
+   *
+   * @param c a class, which is already initialized
+   */
+  private static void initializeMemberClasses(Class<?> c) {
+    Class<?>[] memberClasses;
+    try {
+      memberClasses = ClassDeterministic.getDeclaredClasses(c);
+    } catch (Throwable e) {
+      return;
+    }
+    for (Class<?> memberClass : memberClasses) {
+      try {
+        Class.forName(memberClass.getName(), true, memberClass.getClassLoader());
+      } catch (Throwable e) {
+        continue;
+      }
+      initializeMemberClasses(memberClass);
+    }
+  }
+
+  /** The declarations that the visitors of {@link #addClassTypes} collect from one class. */
+  private static class ClassDeclarations {
+
+    /** The visited class. */
+    final Class<?> c;
+
+    /** The class types declared by the class. */
+    final Set<ClassOrInterfaceType> classTypes = new TreeSet<>();
+
+    /** The input types of the members of the class. */
+    final Set<Type> inputTypes = new TreeSet<>();
+
+    /** The sequences for the {@code @TestValue} fields of the class. */
+    final Set<Sequence> annotatedTestValues = new LinkedHashSet<>();
+
+    /** The {@code @CheckRep} contracts of the class. */
+    final ContractSet contracts = new ContractSet();
+
+    /** The sequences for the literals in the class file. */
+    final MultiMap<ClassOrInterfaceType, Sequence> classLiteralMap = new MultiMap<>();
+
+    /** The exception thrown while visiting the class, or null if visiting it succeeded. */
+    final @Nullable Throwable exception;
+
+    /**
+     * Visits the given class, collecting its declarations into new collections. If the cache holds
+     * the declarations of the class, reads them from the cache instead; the input types of the
+     * class are not cached, so they are collected only when the class is visited.
+     *
+     * @param c the class to visit
+     * @param accessibility the accessibility predicate
+     * @param reflectionPredicate the predicate to determine which reflection objects are used
+     * @param extractLiterals if true, collect the literals in the class file
+     * @param cache the cache of the declarations of the classes, or null
+     */
+    ClassDeclarations(
+        Class<?> c,
+        AccessibilityPredicate accessibility,
+        ReflectionPredicate reflectionPredicate,
+        boolean extractLiterals,
+        @Nullable OperationModelCache cache) {
+      this.c = c;
+      Throwable thrown = null;
+      try {
+        List<String> cached = (cache == null) ? null : cache.readDeclarations(c);
+        if (cached != null && readCached(cached)) {
+          Log.logPrintf("Read the declarations of %s from the cache%n", c.getName());
+        } else {
+          List<String> declarations = new ArrayList<>();
+          ReflectionManager mgr = new ReflectionManager(accessibility);
+          mgr.add(new DeclarationExtractor(classTypes, reflectionPredicate));
+          mgr.add(new TypeExtractor(inputTypes, accessibility));
+          mgr.add(new TestValueExtractor(annotatedTestValues));
+          mgr.add(new CheckRepExtractor(contracts));
+          if (cache != null) {
+            mgr.add(new AnnotatedMemberRecorder(declarations));
+          }
+          try {
+            mgr.apply(c);
+          } catch (Throwable e) {
+            thrown = e;
+          }
+          if (cache != null && thrown == null) {
+            for (ClassOrInterfaceType classType : classTypes) {
+              declarations.add("type " + classType.getRuntimeClass().getName());
+            }
+            cache.writeDeclarations(c, declarations);
+          }
+        }
+        if (extractLiterals && thrown == null) {
+          new ClassLiteralExtractor(classLiteralMap, literalsCacheDirectory()).visitBefore(c);
+        }
+      } catch (Throwable e) {
+        thrown = e;
+      }
+      this.exception = thrown;
+    }
+
+    /**
+     * Reads the declarations of the class from the lines of a cache entry. Reads nothing if some
+     * declaration no longer exists.
+     *
+     * @param cached the lines of the cache entry of the class
+     * @return true if the declarations were read, false if some declaration no longer exists
+     */
+    private boolean readCached(List<String> cached) {
+      List<Class<?>> types = new ArrayList<>();
+      List<Method> checkReps = new ArrayList<>();
+      List<Field> testValues = new ArrayList<>();
+      try {
+        for (String line : cached) {
+          if (line.startsWith("type ")) {
+            types.add(MemberSignatures.classForName(line.substring("type ".length())));
+          } else if (line.startsWith("checkrep ")) {
+            checkReps.add((Method) MemberSignatures.member(line.substring("checkrep ".length())));
+          } else if (line.startsWith("testvalue ")) {
+            testValues.add((Field) MemberSignatures.member(line.substring("testvalue ".length())));
+          } else {
+            return false;
+          }
+        }
+      } catch (ReflectiveOperationException | ClassCastException e) {
+        return false;
+      }
+      for (Class<?> type : types) {
+        classTypes.add(ClassOrInterfaceType.forClass(type));
+      }
+      CheckRepExtractor checkRepExtractor = new CheckRepExtractor(contracts);
+      for (Method m : checkReps) {
+        checkRepExtractor.visit(m);
+      }
+      TestValueExtractor testValueExtractor = new TestValueExtractor(annotatedTestValues);
+      for (Field f : testValues) {
+        testValueExtractor.visit(f);
+      }
+      return true;
+    }
+
+    /**
+     * Returns the directory in which to cache the literals of class files: the one given by {@code
+     * --class-literals-cache-dir}, or else the one given by {@code --operation-model-cache-dir}.
+     *
+     * @return the directory in which to cache the literals, or null if they are not cached
+     */
+    private static @Nullable Path literalsCacheDirectory() {
+      return (GenInputsAbstract.class_literals_cache_dir != null)
+          ? GenInputsAbstract.class_literals_cache_dir
+          : GenInputsAbstract.operation_model_cache_dir;
+    }
+  }
+
+  /**
+   * Records the annotated members that the {@link CheckRepExtractor} and {@link
+   * TestValueExtractor} of the same {@link ReflectionManager} visit, as lines of a declarations
+   * entry of {@link OperationModelCache}.
+   */
+  private static class AnnotatedMemberRecorder extends DefaultClassVisitor {
+
+    /** The lines of the declarations entry. */
+    private final List<String> declarations;
+
+    /**
+     * Creates a visitor that records annotated members.
+     *
+     * @param declarations the list to which to add a line for each annotated member
+     */
+    AnnotatedMemberRecorder(List<String> declarations) {
+      this.declarations = declarations;
+    }
+
+    @Override
+    public void visit(Method m) {
+      if (m.getAnnotation(CheckRep.class) != null) {
+        declarations.add("checkrep " + MemberSignatures.signature(m));
+      }
+    }
+
+    @Override
+    public void visit(Field f) {
+      if (f.getAnnotation(TestValue.class) != null) {
+        declarations.add("testvalue " + MemberSignatures.signature(f));
+      }
+    }
+  }
+
   /**
    * Returns the class whose name is {@code classname}. A wrapper around Class.forName.
    *
@@ -669,31 +895,128 @@ public class OperationModel {
    * @param reflectionPredicate the reflection predicate
    * @param operationSpecifications the collection of {@link
    *     randoop.condition.specification.OperationSpecification}
+   * @param cache the cache of the operations of the classes, or null
    */
   private void addOperationsFromClasses(
       AccessibilityPredicate accessibility,
       ReflectionPredicate reflectionPredicate,
-      SpecificationCollection operationSpecifications) {
+      SpecificationCollection operationSpecifications,
+      @Nullable OperationModelCache cache) {
+    // The operations of the classes are extracted concurrently, and added in order.
+    List<ClassOperations> allClassOperations =
+        Util.mapConcurrently(
+            new ArrayList<>(classTypes),
+            classType ->
+                new ClassOperations(
+                    classType,
+                    reflectionPredicate,
+                    omitMethodsPredicate,
+                    accessibility,
+                    operationSpecifications,
+                    cache),
+            "randoop-model");
     Iterator<ClassOrInterfaceType> itor = classTypes.iterator();
-    while (itor.hasNext()) {
+    for (ClassOperations oneClassOperations : allClassOperations) {
       ClassOrInterfaceType classType = itor.next();
+      if (oneClassOperations.exception == null) {
+        operations.addAll(oneClassOperations.operations);
+      } else {
+        // TODO: What is an example of this?  Should an error be raised, rather than this
+        // easy-to-overlook output?
+        System.out.printf(
+            "Removing %s from the classes under test due to problem extracting operations:%n%s%n",
+            classType, UtilPlume.stackTraceToString(oneClassOperations.exception));
+        itor.remove();
+      }
+    }
+  }
+
+  /** The operations that {@link #addOperationsFromClasses} extracts from one class. */
+  private static class ClassOperations {
+
+    /** The operations of the class; empty if extracting them failed. */
+    final Collection<TypedOperation> operations;
+
+    /** The exception thrown while extracting the operations, or null if extracting succeeded. */
+    final @Nullable Throwable exception;
+
+    /**
+     * Extracts the operations of the given class. If the cache holds the members from which the
+     * operations of the class were created, creates the operations from those members instead.
+     *
+     * @param classType the class
+     * @param reflectionPredicate the reflection predicate
+     * @param omitMethodsPredicate the predicate for methods that should not be used
+     * @param accessibility the accessibility predicate
+     * @param operationSpecifications the specifications of the operations
+     * @param cache the cache of the operations of the classes, or null
+     */
+    ClassOperations(
+        ClassOrInterfaceType classType,
+        ReflectionPredicate reflectionPredicate,
+        OmitMethodsPredicate omitMethodsPredicate,
+        AccessibilityPredicate accessibility,
+        SpecificationCollection operationSpecifications,
+        @Nullable OperationModelCache cache) {
+      Collection<TypedOperation> extracted = Collections.emptyList();
+      Throwable thrown = null;
       try {
-        Collection<TypedOperation> oneClassOperations =
-            OperationExtractor.operations(
+        Class<?> c = classType.getRuntimeClass();
+        OperationExtractor extractor =
+            new OperationExtractor(
                 classType,
                 reflectionPredicate,
                 omitMethodsPredicate,
                 accessibility,
                 operationSpecifications);
-        operations.addAll(oneClassOperations);
+        List<String> cached = (cache == null) ? null : cache.readOperations(c);
+        if (cached != null && addCached(extractor, cached)) {
+          Log.logPrintf("Read the operations of %s from the cache%n", c.getName());
+        } else {
+          List<String> members = new ArrayList<>();
+          if (cache != null) {
+            extractor.recordAddedMembers(members);
+          }
+          new ReflectionManager(accessibility).apply(extractor, c);
+          if (cache != null) {
+            cache.writeOperations(c, members);
+          }
+        }
+        extracted = new ArrayList<>(extractor.getOperations());
       } catch (Throwable e) {
-        // TODO: What is an example of this?  Should an error be raised, rather than this
-        // easy-to-overlook output?
-        System.out.printf(
-            "Removing %s from the classes under test due to problem extracting operations:%n%s%n",
-            classType, UtilPlume.stackTraceToString(e));
-        itor.remove();
+        thrown = e;
+      }
+      this.operations = extracted;
+      this.exception = thrown;
+    }
+
+    /**
+     * Adds to the extractor the operations of the members in a cache entry. Adds nothing if some
+     * member no longer exists.
+     *
+     * @param extractor the extractor for the class of the cache entry
+     * @param cached the lines of the cache entry, as written by {@link
+     *     OperationModelCache#writeOperations}
+     * @return true if the operations were added, false if some member no longer exists
+     */
+    private static boolean addCached(OperationExtractor extractor, List<String> cached) {
+      List<Object> members = new ArrayList<>();
+      try {
+        for (String signature : cached) {
+          Enum<?> e = MemberSignatures.enumConstant(signature);
+          members.add((e != null) ? e : MemberSignatures.member(signature));
+        }
+      } catch (ReflectiveOperationException e) {
+        return false;
+      }
+      for (Object member : members) {
+        if (member instanceof Enum) {
+          extractor.visit((Enum<?>) member);
+        } else {
+          extractor.addAcceptedMember((Member) member);
+        }
       }
+      return true;
     }
   }
 
@@ -0,0 +1,421 @@
+package randoop.reflection;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.util.Log;
+
+/**
+ * A cache, in a directory, of what {@link OperationModel} extracts from each class under test, so
+ * that a later run with the same options need not extract it again. There are two kinds of entry:
+ *
+ * <ul>
+ *   <li>The operations of a class: the signatures of the constructors, methods, fields, and enum
+ *       constants that satisfied the predicates and from which operations were created. A later
+ *       run creates the operations from these members without visiting the other members of the
+ *       class and without testing the predicates, including the omit-methods patterns.
+ *   <li>The declarations of a class under test: the class types that it declares, and its
+ *       {@code @CheckRep} methods and {@code @TestValue} fields. (The literals of a class are
+ *       cached by {@link randoop.util.ClassFileConstants}.)
+ * </ul>
+ *
+ * <p>An entry is keyed by a hash of the options that determine it, and of the class files that it
+ * depends on: the class files of the class, of its supertypes, and of the types in the signatures
+ * of their members, plus those of its member classes for the declarations. So when some class files
+ * on the classpath change, only the entries of the classes that depend on them are extracted again.
+ * The class files of the JDK are identified by the Java version instead of being read.
+ *
+ * <p>Thread-safe: the entries of different classes may be read and written concurrently.
+ */
+final class OperationModelCache {
+
+  /** The version of the format of the entries; change it when the format changes. */
+  private static final int CACHE_VERSION = 1;
+
+  /** The directory of the cache. */
+  private final Path directory;
+
+  /** A hash of the options that determine the entries. */
+  private final String optionsHash;
+
+  /**
+   * The hash of the class file of each class whose class file has been read, or the empty string
+   * if its class file cannot be read.
+   */
+  private final Map<Class<?>, String> classFileHashes = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a cache in the given directory, for models created with the given predicates. Each
+   * predicate is identified by its {@code toString()}, so a predicate whose {@code toString()}
+   * differs from run to run never hits the cache.
+   *
+   * @param directory the directory of the cache; created when the first entry is written
+   * @param accessibility the accessibility predicate of the model
+   * @param reflectionPredicate the reflection predicate of the model
+   * @param omitMethodsPredicate the predicate for the methods that the model omits
+   */
+  OperationModelCache(
+      Path directory,
+      AccessibilityPredicate accessibility,
+      ReflectionPredicate reflectionPredicate,
+      OmitMethodsPredicate omitMethodsPredicate) {
+    this.directory = directory;
+    this.optionsHash =
+        hash(
+            Arrays.asList(
+                String.valueOf(CACHE_VERSION),
+                System.getProperty("java.version"),
+                accessibility.toString(),
+                reflectionPredicate.toString(),
+                omitMethodsPredicate.toString()));
+  }
+
+  /**
+   * Returns the cached signatures of the members from which the operations of the given class were
+   * created.
+   *
+   * @param c a class
+   * @return the signatures of the members, or null if they are not cached
+   */
+  @Nullable List<String> readOperations(Class<?> c) {
+    return read(operationsKey(c));
+  }
+
+  /**
+   * Caches the signatures of the members from which the operations of the given class were
+   * created.
+   *
+   * @param c a class
+   * @param members the signatures of the members
+   */
+  void writeOperations(Class<?> c, List<String> members) {
+    write(operationsKey(c), members);
+  }
+
+  /**
+   * Returns the cached declarations of the given class under test.
+   *
+   * @param c a class under test
+   * @return the declarations, in the format of {@link #writeDeclarations}, or null if they are not
+   *     cached
+   */
+  @Nullable List<String> readDeclarations(Class<?> c) {
+    return read(declarationsKey(c));
+  }
+
+  /**
+   * Caches the declarations of the given class under test.
+   *
+   * @param c a class under test
+   * @param declarations the declarations: lines of the form "type CLASSNAME", and the signatures
+   *     of the {@code @CheckRep} methods and {@code @TestValue} fields
+   */
+  void writeDeclarations(Class<?> c, List<String> declarations) {
+    write(declarationsKey(c), declarations);
+  }
+
+  /**
+   * Returns the key of the operations entry of the given class.
+   *
+   * @param c a class
+   * @return the key, or null if the entry cannot be cached
+   */
+  private @Nullable String operationsKey(Class<?> c) {
+    Map<String, Class<?>> dependencies = new TreeMap<>();
+    addDependencies(c, dependencies);
+    return key("operations", dependencies);
+  }
+
+  /**
+   * Returns the key of the declarations entry of the given class.
+   *
+   * @param c a class under test
+   * @return the key, or null if the entry cannot be cached
+   */
+  private @Nullable String declarationsKey(Class<?> c) {
+    Map<String, Class<?>> dependencies = new TreeMap<>();
+    addDeclarationDependencies(c, dependencies);
+    return key("declarations", dependencies);
+  }
+
+  /**
+   * Adds the classes on which the declarations of the given class depend: the classes on which its
+   * operations depend, and those on which the declarations of its member classes depend.
+   *
+   * @param c a class
+   * @param dependencies the classes, by name; is side-effected
+   */
+  private static void addDeclarationDependencies(Class<?> c, Map<String, Class<?>> dependencies) {
+    addDependencies(c, dependencies);
+    for (Class<?> memberClass : c.getDeclaredClasses()) {
+      addDeclarationDependencies(memberClass, dependencies);
+    }
+  }
+
+  /**
+   * Adds the classes on which the operations of the given class depend: the class, its supertypes,
+   * the classes of its enum constants, and the types in the signatures of the members of all of
+   * these.
+   *
+   * @param c a class
+   * @param dependencies the classes, by name; is side-effected
+   */
+  private static void addDependencies(Class<?> c, Map<String, Class<?>> dependencies) {
+    List<Class<?>> types = new ArrayList<>();
+    addSupertypes(c, types, new HashSet<>());
+    if (c.isEnum()) {
+      for (Object constant : c.getEnumConstants()) {
+        types.add(constant.getClass());
+      }
+    }
+    Set<TypeVariable<?>> visited = new HashSet<>();
+    for (Class<?> type : types) {
+      dependencies.put(type.getName(), type);
+      for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+        for (Type parameterType : constructor.getGenericParameterTypes()) {
+          addTypeDependencies(parameterType, dependencies, visited);
+        }
+      }
+      for (Method method : type.getDeclaredMethods()) {
+        addTypeDependencies(method.getGenericReturnType(), dependencies, visited);
+        for (Type parameterType : method.getGenericParameterTypes()) {
+          addTypeDependencies(parameterType, dependencies, visited);
+        }
+      }
+      for (Field field : type.getDeclaredFields()) {
+        addTypeDependencies(field.getGenericType(), dependencies, visited);
+      }
+    }
+  }
+
+  /**
+   * Adds the given class and its supertypes, each once.
+   *
+   * @param c a class
+   * @param types the list to which to add the types; is side-effected
+   * @param seen the types that have been added; is side-effected
+   */
+  private static void addSupertypes(Class<?> c, List<Class<?>> types, Set<Class<?>> seen) {
+    if (c == null || !seen.add(c)) {
+      return;
+    }
+    types.add(c);
+    addSupertypes(c.getSuperclass(), types, seen);
+    for (Class<?> iface : c.getInterfaces()) {
+      addSupertypes(iface, types, seen);
+    }
+  }
+
+  /**
+   * Adds the classes that occur in the given type.
+   *
+   * @param type a type
+   * @param dependencies the classes, by name; is side-effected
+   * @param visited the type variables whose bounds have been visited; is side-effected
+   */
+  private static void addTypeDependencies(
+      Type type, Map<String, Class<?>> dependencies, Set<TypeVariable<?>> visited) {
+    if (type instanceof Class) {
+      Class<?> c = (Class<?>) type;
+      while (c.isArray()) {
+        c = c.getComponentType();
+      }
+      if (!c.isPrimitive()) {
+        dependencies.put(c.getName(), c);
+      }
+    } else if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      addTypeDependencies(parameterizedType.getRawType(), dependencies, visited);
+      if (parameterizedType.getOwnerType() != null) {
+        addTypeDependencies(parameterizedType.getOwnerType(), dependencies, visited);
+      }
+      for (Type argument : parameterizedType.getActualTypeArguments()) {
+        addTypeDependencies(argument, dependencies, visited);
+      }
+    } else if (type instanceof GenericArrayType) {
+      addTypeDependencies(
+          ((GenericArrayType) type).getGenericComponentType(), dependencies, visited);
+    } else if (type instanceof WildcardType) {
+      WildcardType wildcardType = (WildcardType) type;
+      for (Type bound : wildcardType.getUpperBounds()) {
+        addTypeDependencies(bound, dependencies, visited);
+      }
+      for (Type bound : wildcardType.getLowerBounds()) {
+        addTypeDependencies(bound, dependencies, visited);
+      }
+    } else if (type instanceof TypeVariable) {
+      TypeVariable<?> typeVariable = (TypeVariable<?>) type;
+      if (visited.add(typeVariable)) {
+        for (Type bound : typeVariable.getBounds()) {
+          addTypeDependencies(bound, dependencies, visited);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the key of an entry: a hash of the options and of the class files of the given classes.
+   *
+   * @param kind the kind of the entry
+   * @param dependencies the classes on which the entry depends, by name
+   * @return the key, or null if the class file of some dependency cannot be read
+   */
+  private @Nullable String key(String kind, Map<String, Class<?>> dependencies) {
+    List<String> parts = new ArrayList<>();
+    parts.add(optionsHash);
+    parts.add(kind);
+    for (Map.Entry<String, Class<?>> entry : dependencies.entrySet()) {
+      String classFileHash = classFileHashes.computeIfAbsent(entry.getValue(), this::hashClassFile);
+      if (classFileHash.isEmpty()) {
+        return null;
+      }
+      parts.add(entry.getKey());
+      parts.add(classFileHash);
+    }
+    return hash(parts) + "." + kind;
+  }
+
+  /**
+   * Returns a hash of the class file of the given class. The class files of the JDK's bootstrap
+   * classes are not read, since the options hash includes the Java version.
+   *
+   * @param c a class
+   * @return the hash of the class file, or the empty string if it cannot be read
+   */
+  private String hashClassFile(Class<?> c) {
+    ClassLoader loader = c.getClassLoader();
+    if (loader == null) {
+      return "bootstrap";
+    }
+    String resource = c.getName().replace('.', '/') + ".class";
+    try (InputStream in = loader.getResourceAsStream(resource)) {
+      if (in == null) {
+        return "";
+      }
+      MessageDigest digest = newDigest();
+      byte[] buffer = new byte[8192];
+      for (int n; (n = in.read(buffer)) != -1; ) {
+        digest.update(buffer, 0, n);
+      }
+      return toHex(digest.digest());
+    } catch (IOException e) {
+      return "";
+    }
+  }
+
+  /**
+   * Returns the lines of the entry with the given key.
+   *
+   * @param key the key of an entry, or null
+   * @return the lines of the entry, or null if there is no such entry or it cannot be read
+   */
+  private @Nullable List<String> read(@Nullable String key) {
+    if (key == null) {
+      return null;
+    }
+    Path file = directory.resolve(key);
+    if (!Files.exists(file)) {
+      return null;
+    }
+    try {
+      return Files.readAllLines(file, UTF_8);
+    } catch (IOException e) {
+      // Extract the class again, and replace the unreadable entry.
+      return null;
+    }
+  }
+
+  /**
+   * Writes the entry with the given key. Does nothing if the key is null or the entry cannot be
+   * written.
+   *
+   * @param key the key of the entry, or null
+   * @param lines the lines of the entry
+   */
+  private void write(@Nullable String key, List<String> lines) {
+    if (key == null) {
+      return;
+    }
+    try {
+      Files.createDirectories(directory);
+      Path temp = Files.createTempFile(directory, "model", ".tmp");
+      try {
+        Files.write(temp, lines, UTF_8);
+        Files.move(temp, directory.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      Log.logPrintf("Unable to write operation model cache entry %s: %s%n", key, e);
+    }
+  }
+
+  /**
+   * Returns a hash of the given strings.
+   *
+   * @param parts the strings
+   * @return the hash, as a hexadecimal string
+   */
+  private static String hash(List<String> parts) {
+    MessageDigest digest = newDigest();
+    for (String part : parts) {
+      byte[] bytes = part.getBytes(UTF_8);
+      digest.update((byte) (bytes.length >>> 24));
+      digest.update((byte) (bytes.length >>> 16));
+      digest.update((byte) (bytes.length >>> 8));
+      digest.update((byte) bytes.length);
+      digest.update(bytes);
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Returns a new SHA-256 digest.
+   *
+   * @return a new SHA-256 digest
+   */
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new Error("SHA-256 is always available", e);
+    }
+  }
+
+  /**
+   * Returns the given bytes as a hexadecimal string.
+   *
+   * @param bytes the bytes
+   * @return the hexadecimal string
+   */
+  private static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder();
+    for (byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+}
@@ -1,5 +1,6 @@
 package randoop.reflection;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
 import randoop.operation.TypedClassOperation;
@@ -9,6 +10,10 @@ public class SingleMethodMatcher extends OmitMethodsPredicate {
 	public SingleMethodMatcher(Pattern matcher) {
 		super(matcher);
 	}
+
+	public SingleMethodMatcher(List<Pattern> matchers) {
+		super(matchers);
+	}
 	
 	public boolean matches(final TypedClassOperation operation) {
 		return shouldOmit(operation);
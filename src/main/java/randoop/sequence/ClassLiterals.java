@@ -1,11 +1,11 @@
 package randoop.sequence;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import randoop.types.ClassOrInterfaceType;
 import randoop.types.JavaTypes;
 import randoop.types.Type;
@@ -29,8 +29,9 @@ public class ClassLiterals extends MappedSequences<ClassOrInterfaceType> {
     super.addSequence(key, seq);
   }
 
+  // Concurrent because generator threads (see --workers) share the class literals.
   private static final Map<ClassOrInterfaceType, Set<ClassOrInterfaceType>> hashedSuperClasses =
-      new LinkedHashMap<>();
+      new ConcurrentHashMap<>();
 
   @Override
   public SimpleList<Sequence> getSequences(ClassOrInterfaceType key, Type desiredType) {
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.StringJoiner;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import randoop.ExceptionalExecution;
 import randoop.ExecutionOutcome;
 import randoop.ExecutionVisitor;
@@ -33,8 +34,8 @@ import randoop.util.ProgressDisplay;
 /**
  * An ExecutableSequence wraps a {@link Sequence} with functionality for executing the sequence, via
  * methods {@link #execute(ExecutionVisitor, TestCheckGenerator)} and {@link
- * #execute(ExecutionVisitor, TestCheckGenerator, boolean)}. It also lets the client add {@link
- * Check}s that check expected behaviors of the execution.
+ * #execute(ExecutionVisitor, TestCheckGenerator, PrefixExecutionCache)}. It also lets the client
+ * add {@link Check}s that check expected behaviors of the execution.
  *
  * <p>An ExecutableSequence augments a sequence with three additional pieces of data:
  *
@@ -223,7 +224,7 @@ public class ExecutableSequence {
   /**
    * Executes sequence, stopping on exceptions.
    *
-   * @see #execute(ExecutionVisitor, TestCheckGenerator, boolean)
+   * @see #execute(ExecutionVisitor, TestCheckGenerator, boolean, PrefixExecutionCache)
    * @param visitor the {@link ExecutionVisitor} that collects checks from results
    * @param gen the check generator for tests
    */
@@ -233,7 +234,25 @@ public class ExecutableSequence {
     // One is innocuous:  java.lang.OutOfMemoryError due to creation of a very large object --
     // repeated executions evenutally exhaust memory.  Two others are odd: failures in
     // sun.reflect.DelegatingMethodAccessorImpl.invoke called by java.lang.reflect.Method.invoke.
-    execute(visitor, gen, true);
+    execute(visitor, gen, true, null);
+  }
+
+  /**
+   * Executes sequence, stopping on exceptions, and reusing the cached outcomes of component
+   * sequences rather than re-executing them. The caller must ensure that the runtime values in the
+   * cache cannot be side-effected by the statements of this sequence that follow its components;
+   * see {@link PrefixExecutionCache}.
+   *
+   * @see #execute(ExecutionVisitor, TestCheckGenerator, boolean, PrefixExecutionCache)
+   * @param visitor the {@link ExecutionVisitor} that collects checks from results
+   * @param gen the check generator for tests
+   * @param prefixCache the cache of component outcomes to reuse; if null, execute every statement
+   */
+  public void execute(
+      ExecutionVisitor visitor,
+      TestCheckGenerator gen,
+      @Nullable PrefixExecutionCache prefixCache) {
+    execute(visitor, gen, true, prefixCache);
   }
 
   /**
@@ -271,11 +290,17 @@ public class ExecutableSequence {
    * @param visitor the {@code ExecutionVisitor}
    * @param gen the initial check generator, which this augments then uses
    * @param ignoreException if true, ignore exceptions thrown before the last statement
+   * @param prefixCache if non-null, statements of cached component sequences are not executed;
+   *     their cached outcomes are used instead
    * @throws Error if execution of the sequence throws an exception and {@code
    *     ignoreException==false}
    */
   @SuppressWarnings("SameParameterValue")
-  private void execute(ExecutionVisitor visitor, TestCheckGenerator gen, boolean ignoreException) {
+  private void execute(
+      ExecutionVisitor visitor,
+      TestCheckGenerator gen,
+      boolean ignoreException,
+      @Nullable PrefixExecutionCache prefixCache) {
 
     long startTime = System.nanoTime();
     try { // try statement for timing
@@ -284,6 +309,13 @@ public class ExecutableSequence {
 
       this.reset();
 
+      // Execution, checks, and output all access the statements many times.
+      sequence.flatten();
+
+      // Outcomes of statements that need not be executed, or null.
+      ExecutionOutcome[] cachedOutcomes =
+          (prefixCache == null) ? null : prefixCache.lookupPrefix(this);
+
       for (int i = 0; i < this.sequence.size(); i++) {
 
         Object[] inputValues = getRuntimeInputs(executionResults.outcomes, sequence.getInputs(i));
@@ -304,7 +336,11 @@ public class ExecutableSequence {
         }
 
         visitor.visitBeforeStatement(this, i);
-        executeStatement(sequence, executionResults.outcomes, i, inputValues);
+        if (cachedOutcomes != null && cachedOutcomes[i] != null) {
+          executionResults.outcomes.set(i, cachedOutcomes[i]);
+        } else {
+          executeStatement(sequence, executionResults.outcomes, i, inputValues);
+        }
 
         // make sure statement executed
         ExecutionOutcome statementResult = getResult(i);
@@ -401,17 +437,29 @@ public class ExecutableSequence {
       Sequence s, List<ExecutionOutcome> outcome, int index, Object[] inputVariables) {
     Statement statement = s.getStatement(index);
 
+    if (!GenInputsAbstract.capture_output) {
+      // No need to synchronize: concurrent generators (see --workers) may execute statements in
+      // parallel.
+      ExecutionOutcome r;
+      try {
+        r = statement.execute(inputVariables);
+      } catch (SequenceExecutionException e) {
+        throw new SequenceExecutionException("Problem while executing " + statement, e);
+      }
+      assert r != null;
+      outcome.set(index, r);
+      return;
+    }
+
     // Capture any output Synchronize with ProgressDisplay so that
     // we don't capture its output as well.
     synchronized (ProgressDisplay.print_synchro) {
       PrintStream orig_out = System.out;
       PrintStream orig_err = System.err;
-      if (GenInputsAbstract.capture_output) {
-        System.out.flush();
-        System.err.flush();
-        System.setOut(output_buffer_stream);
-        System.setErr(output_buffer_stream);
-      }
+      System.out.flush();
+      System.err.flush();
+      System.setOut(output_buffer_stream);
+      System.setErr(output_buffer_stream);
 
       // assert ((statement.isMethodCall() && !statement.isStatic()) ?
       // inputVariables[0] != null : true);
@@ -422,19 +470,15 @@ public class ExecutableSequence {
       } catch (SequenceExecutionException e) {
         throw new SequenceExecutionException("Problem while executing " + statement, e);
       } finally {
-        if (GenInputsAbstract.capture_output) {
-          System.setOut(orig_out);
-          System.setErr(orig_err);
-        }
+        System.setOut(orig_out);
+        System.setErr(orig_err);
       }
       assert r != null;
-      if (GenInputsAbstract.capture_output) {
-        output_buffer_stream.flush();
-        @SuppressWarnings("DefaultCharset") // JDK 8 version does not accept UTF_8 argument
-        String output_buffer_string = output_buffer.toString();
-        r.set_output(output_buffer_string);
-        output_buffer.reset();
-      }
+      output_buffer_stream.flush();
+      @SuppressWarnings("DefaultCharset") // JDK 8 version does not accept UTF_8 argument
+      String output_buffer_string = output_buffer.toString();
+      r.set_output(output_buffer_string);
+      output_buffer.reset();
       outcome.set(index, r);
     }
   }
@@ -40,11 +40,14 @@ public class MappedSequences<K> {
    * Returns the set of sequences (as a list) that are associated with the given key and create
    * values of the desiredType.
    *
+   * <p>Synchronized because the generator workers share the literal maps, and a query updates the
+   * type index of the {@link SequenceCollection} it reads.
+   *
    * @param key the key value
    * @param desiredType the query type
    * @return the list of sequences for the key and query type
    */
-  public SimpleList<Sequence> getSequences(K key, Type desiredType) {
+  public synchronized SimpleList<Sequence> getSequences(K key, Type desiredType) {
     if (key == null) {
       throw new IllegalArgumentException("key is null");
     }
@@ -0,0 +1,190 @@
+package randoop.sequence;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.ExecutionOutcome;
+import randoop.NormalExecution;
+
+/**
+ * A bounded cache of the execution outcomes (and thus the runtime values) of recently-executed
+ * sequences, keyed by {@link Sequence} identity. When a new sequence is formed by concatenating
+ * cached component sequences and appending a statement, {@link ExecutableSequence} can reuse the
+ * cached outcomes for the component statements instead of re-executing them, so that only the new
+ * statements actually run.
+ *
+ * <p>Reusing runtime values is sound only if they have not been mutated since they were cached.
+ * This class does not check that; it is the responsibility of the client to pass a cache to {@link
+ * ExecutableSequence#execute(randoop.ExecutionVisitor, randoop.test.TestCheckGenerator,
+ * PrefixExecutionCache)} only when the statements after the prefix cannot side-effect the prefix
+ * values, for example because they are calls to side-effect-free methods.
+ *
+ * <p>The cache is least-recently-used: when it is full, adding a new entry evicts the entry that
+ * was least recently added or looked up.
+ */
+public final class PrefixExecutionCache {
+
+  /** The maximum number of sequences whose outcomes are retained. */
+  private final int capacity;
+
+  /** Maps a sequence (compared by identity) to the outcomes of its statements, in order. */
+  private final LinkedHashMap<Key, ExecutionOutcome[]> outcomes;
+
+  /** Number of component sequences whose outcomes were found in the cache. */
+  private long hits = 0;
+
+  /** Number of component sequences whose outcomes were not found in the cache. */
+  private long misses = 0;
+
+  /**
+   * Creates a cache that retains the outcomes of at most {@code capacity} sequences.
+   *
+   * @param capacity the maximum number of cached sequences; must be positive
+   */
+  public PrefixExecutionCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.outcomes =
+        new LinkedHashMap<Key, ExecutionOutcome[]>(16, 0.75f, /*accessOrder=*/ true) {
+          private static final long serialVersionUID = 20261017L;
+
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, ExecutionOutcome[]> eldest) {
+            return size() > PrefixExecutionCache.this.capacity;
+          }
+        };
+  }
+
+  /**
+   * Records the outcomes of the most recent execution of the given sequence. Does nothing unless
+   * every statement of the sequence executed normally.
+   *
+   * @param eseq an executed sequence
+   */
+  public void add(ExecutableSequence eseq) {
+    int size = eseq.size();
+    ExecutionOutcome[] results = new ExecutionOutcome[size];
+    for (int i = 0; i < size; i++) {
+      ExecutionOutcome result = eseq.getResult(i);
+      if (!(result instanceof NormalExecution)) {
+        return;
+      }
+      results[i] = result;
+    }
+    outcomes.put(new Key(eseq.sequence), results);
+  }
+
+  /**
+   * Returns the cached outcomes for the prefix of the given sequence that consists of its component
+   * sequences. The result has one element per statement of {@code eseq}; an element is null if that
+   * statement must be executed. Returns null if no component is cached, or if the components cannot
+   * safely share cached values (because the same component occurs more than once).
+   *
+   * @param eseq the sequence about to be executed
+   * @return the reusable outcomes for the statements of {@code eseq}, or null if there are none
+   */
+  @Nullable ExecutionOutcome[] lookupPrefix(ExecutableSequence eseq) {
+    List<Sequence> components = eseq.componentSequences;
+    if (components.isEmpty()) {
+      return null;
+    }
+    // If a component occurs twice, each occurrence needs its own runtime values.
+    IdentityHashMap<Sequence, Boolean> seen = new IdentityHashMap<>();
+    for (Sequence component : components) {
+      if (seen.put(component, Boolean.TRUE) != null) {
+        return null;
+      }
+    }
+
+    ExecutionOutcome[] result = new ExecutionOutcome[eseq.size()];
+    boolean found = false;
+    int offset = 0;
+    for (Sequence component : components) {
+      int componentSize = component.size();
+      // The last statement of eseq is new, so it is never part of the prefix.
+      if (offset + componentSize >= eseq.size()) {
+        return null;
+      }
+      ExecutionOutcome[] cached = outcomes.get(new Key(component));
+      if (cached == null) {
+        misses++;
+      } else {
+        hits++;
+        System.arraycopy(cached, 0, result, offset, componentSize);
+        found = true;
+      }
+      offset += componentSize;
+    }
+    return found ? result : null;
+  }
+
+  /** Removes all entries from this cache. The hit and miss counts are retained. */
+  public void clear() {
+    outcomes.clear();
+  }
+
+  /**
+   * Returns the number of component sequences whose outcomes were reused.
+   *
+   * @return the number of cache hits
+   */
+  public long hits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of component sequences that had to be re-executed.
+   *
+   * @return the number of cache misses
+   */
+  public long misses() {
+    return misses;
+  }
+
+  /**
+   * Returns the fraction of component lookups that were hits, or 0 if there have been no lookups.
+   *
+   * @return the hit ratio of this cache
+   */
+  public double hitRatio() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : ((double) hits) / lookups;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "PrefixExecutionCache(size: %d/%d, hits: %d, misses: %d, hit ratio: %.3f)",
+        outcomes.size(), capacity, hits, misses, hitRatio());
+  }
+
+  /** Wraps a sequence so that it is compared by identity rather than structurally. */
+  private static final class Key {
+    /** The wrapped sequence. */
+    private final Sequence sequence;
+
+    /**
+     * Creates a key for the given sequence.
+     *
+     * @param sequence the sequence
+     */
+    Key(Sequence sequence) {
+      this.sequence = sequence;
+    }
+
+    @Override
+    @SuppressWarnings("ReferenceEquality")
+    public boolean equals(Object obj) {
+      return obj instanceof Key && ((Key) obj).sequence == this.sequence;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(sequence);
+    }
+  }
+}
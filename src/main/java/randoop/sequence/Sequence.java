@@ -8,6 +8,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.dataflow.qual.Pure;
 import org.checkerframework.dataflow.qual.SideEffectFree;
 import org.plumelib.util.CollectionsPlume;
@@ -21,6 +22,8 @@ import randoop.operation.TypedOperation;
 import randoop.types.JavaTypes;
 import randoop.types.NonParameterizedType;
 import randoop.types.Type;
+import randoop.types.TypeRelationCache;
+import randoop.util.FlatList;
 import randoop.util.ListOfLists;
 import randoop.util.Log;
 import randoop.util.OneMoreElementList;
@@ -37,9 +40,19 @@ import randoop.util.SimpleList;
  */
 public final class Sequence {
 
-  /** The list of statements. */
+  /**
+   * The list of statements. Its structure mirrors how this sequence was built from other sequences
+   * (see {@link SimpleList}), so accessing a statement may take time proportional to the depth of
+   * that structure. Within this class, use {@link #statementList()} instead.
+   */
   public final SimpleList<Statement> statements;
 
+  /**
+   * The same statements as {@link #statements}, in a flat array; or null if {@link #flatten()} has
+   * not been called. Concurrent calls to {@code flatten} may each set it, to equal lists.
+   */
+  private @Nullable FlatList<Statement> flatStatements = null;
+
   /**
    * The variables that are inputs or output for the last statement of this sequence: first the
    * return variable if any (ie, if the operation is non-void), then the input variables. These hold
@@ -164,7 +177,7 @@ public final class Sequence {
     Statement statement = new Statement(operation, indexList);
     int newNetSize = operation.isNonreceivingValue() ? this.savedNetSize : this.savedNetSize + 1;
     return new Sequence(
-        new OneMoreElementList<>(this.statements, statement),
+        new OneMoreElementList<>(statementList(), statement),
         this.savedHashCode + statement.hashCode(),
         newNetSize);
   }
@@ -207,11 +220,36 @@ public final class Sequence {
     for (Sequence c : sequences) {
       newHashCode += c.savedHashCode;
       newNetSize += c.savedNetSize;
-      statements1.add(c.statements);
+      statements1.add(c.statementList());
     }
     return new Sequence(new ListOfLists<>(statements1), newHashCode, newNetSize);
   }
 
+  /**
+   * Stores the statements of this sequence in a flat array, so that each later access to a
+   * statement takes constant time. Sequences built from this one by {@link #extend} or {@link
+   * #concatenate} use the flat array as well, and can share it when they are flattened in turn.
+   *
+   * <p>This is worthwhile for a sequence that is about to be executed, or that is added to the pool
+   * of sequences from which new ones are built, because its statements will be accessed many
+   * times. Calling this more than once has no further effect.
+   */
+  public void flatten() {
+    if (flatStatements == null) {
+      flatStatements = FlatList.of(statements);
+    }
+  }
+
+  /**
+   * Returns the statements of this sequence, preferring the flat list if there is one.
+   *
+   * @return the statements of this sequence
+   */
+  private SimpleList<Statement> statementList() {
+    FlatList<Statement> flat = flatStatements;
+    return (flat == null) ? statements : flat;
+  }
+
   /**
    * The statement for the statement at the given index.
    *
@@ -229,7 +267,7 @@ public final class Sequence {
    */
   @Pure
   public final int size() {
-    return statements.size();
+    return statementList().size();
   }
 
   /**
@@ -269,7 +307,7 @@ public final class Sequence {
    * @return the variable assigned to by the last statement of this sequence
    */
   public Variable getLastVariable() {
-    return new Variable(this, this.statements.size() - 1);
+    return new Variable(this, statementList().size() - 1);
   }
 
   /**
@@ -281,7 +319,7 @@ public final class Sequence {
   @SuppressWarnings("ReferenceEquality")
   public Statement getCreatingStatement(Variable value) {
     if (value.sequence != this) throw new IllegalArgumentException("value.owner != this");
-    return statements.get(value.index);
+    return statementList().get(value.index);
   }
 
   /**
@@ -293,7 +331,7 @@ public final class Sequence {
   public List<Variable> getInputs(int statementIndex) {
     return CollectionsPlume.mapList(
         (RelativeNegativeIndex relIndex) -> getVariableForInput(statementIndex, relIndex),
-        this.statements.get(statementIndex).inputs);
+        statementList().get(statementIndex).inputs);
   }
 
   /**
@@ -442,9 +480,9 @@ public final class Sequence {
     this.lastStatementTypes = new ArrayList<>();
     this.lastStatementVariables = new ArrayList<>();
 
-    if (!this.statements.isEmpty()) {
-      int lastStatementIndex = this.statements.size() - 1;
-      Statement lastStatement = this.statements.get(lastStatementIndex);
+    if (!statementList().isEmpty()) {
+      int lastStatementIndex = statementList().size() - 1;
+      Statement lastStatement = statementList().get(lastStatementIndex);
 
       // Process return value
       if (!lastStatement.getOutputType().isVoid()) {
@@ -487,9 +525,9 @@ public final class Sequence {
       throw new RuntimeException("statements == null");
     }
 
-    for (int si = 0; si < this.statements.size(); si++) {
+    for (int si = 0; si < statementList().size(); si++) {
 
-      Statement statementWithInputs = this.statements.get(si);
+      Statement statementWithInputs = statementList().get(si);
 
       // No nulls.
       if (statementWithInputs == null) {
@@ -518,7 +556,7 @@ public final class Sequence {
           throw new IllegalStateException();
         }
         Type newRefConstraint =
-            statements.get(si + statementWithInputs.inputs.get(i).index).getOutputType();
+            statementList().get(si + statementWithInputs.inputs.get(i).index).getOutputType();
         if (newRefConstraint == null) {
           throw new IllegalStateException();
         }
@@ -556,12 +594,12 @@ public final class Sequence {
       verifyNotEqual("size", other);
       return false;
     }
-    for (int i = 0; i < this.statements.size(); i++) {
-      Statement thisStatement = this.statements.get(i);
-      Statement otherStatement = other.statements.get(i);
+    for (int i = 0; i < statementList().size(); i++) {
+      Statement thisStatement = statementList().get(i);
+      Statement otherStatement = other.statementList().get(i);
       if (GenInputsAbstract.debug_checks) {
-        assert this.statements.get(i) == thisStatement;
-        assert other.statements.get(i) == otherStatement;
+        assert statementList().get(i) == thisStatement;
+        assert other.statementList().get(i) == otherStatement;
       }
       if (!thisStatement.equals(otherStatement)) {
         verifyNotEqual("statement index " + i, other);
@@ -639,7 +677,7 @@ public final class Sequence {
    */
   private SimpleList<Statement> getStatementsWithInputs() {
     // The list is constructed unmodifiable so we can just return it.
-    return this.statements;
+    return statementList();
   }
 
   /**
@@ -671,9 +709,9 @@ public final class Sequence {
   public List<Variable> allVariablesForTypeLastStatement(Type type, boolean onlyReceivers) {
     List<Variable> possibleVars = new ArrayList<>(this.lastStatementVariables.size());
     for (Variable i : this.lastStatementVariables) {
-      Statement s = statements.get(i.index);
+      Statement s = statementList().get(i.index);
       Type outputType = s.getOutputType();
-      if (type.isAssignableFrom(outputType)
+      if (TypeRelationCache.isAssignable(type, outputType)
           && !(onlyReceivers && outputType.isNonreceiverType())
           && !(onlyReceivers && getCreatingStatement(i).isNonreceivingInitialization())) {
         possibleVars.add(i);
@@ -693,7 +731,7 @@ public final class Sequence {
   public Variable randomVariableForTypeLastStatement(Type type, boolean onlyReceivers) {
     List<Variable> possibleVars = allVariablesForTypeLastStatement(type, onlyReceivers);
     if (possibleVars.isEmpty()) {
-      Statement lastStatement = this.statements.get(this.statements.size() - 1);
+      Statement lastStatement = statementList().get(statementList().size() - 1);
       throw new RandoopBug(
           String.format(
               "In rVFTLS, no candidates for %svariable with input type %s from statement %s",
@@ -720,10 +758,10 @@ public final class Sequence {
     }
     List<Integer> possibleIndices = new ArrayList<>();
     for (int i = 0; i < size(); i++) {
-      Statement s = statements.get(i);
+      Statement s = statementList().get(i);
       if (isActive(i)) {
         Type outputType = s.getOutputType();
-        if (type.isAssignableFrom(outputType)
+        if (TypeRelationCache.isAssignable(type, outputType)
             && !(onlyReceivers && outputType.isNonreceiverType())) {
           possibleIndices.add(i);
         }
@@ -780,7 +818,7 @@ public final class Sequence {
                 + inputVariables;
         throw new IllegalArgumentException(msg);
       }
-      Type newRefConstraint = statements.get(inputVariables.get(i).index).getOutputType();
+      Type newRefConstraint = statementList().get(inputVariables.get(i).index).getOutputType();
       if (newRefConstraint == null) {
         String msg =
             "newRefConstraint == null for"
@@ -821,7 +859,7 @@ public final class Sequence {
   public List<Integer> getInputsAsAbsoluteIndices(int i) {
     return CollectionsPlume.mapList(
         (RelativeNegativeIndex relIndex) -> getVariableForInput(i, relIndex).index,
-        this.statements.get(i).inputs);
+        statementList().get(i).inputs);
   }
 
   /**
@@ -1087,8 +1125,8 @@ public final class Sequence {
    * @return true if any statement has operation with matching declaring class, false otherwise
    */
   public boolean hasUseOfMatchingClass(Pattern classNames) {
-    for (int i = 0; i < statements.size(); i++) {
-      Type declaringType = statements.get(i).getDeclaringClass();
+    for (int i = 0; i < statementList().size(); i++) {
+      Type declaringType = statementList().get(i).getDeclaringClass();
       if (declaringType != null && classNames.matcher(declaringType.getBinaryName()).matches()) {
         return true;
       }
@@ -1153,7 +1191,7 @@ public final class Sequence {
    * @return the last operation of this sequence
    */
   public TypedOperation getOperation() {
-    return this.statements.get(this.statements.size() - 1).getOperation();
+    return statementList().get(statementList().size() - 1).getOperation();
   }
 
   /**
@@ -52,6 +52,27 @@ public class SequenceCollection {
   /** Number of sequences in the collection: sum of sizes of all values in sequenceMap. */
   private int sequenceCount = 0;
 
+  /**
+   * The class of the values of {@link #sequenceMap}. Such a list lives as long as the collection
+   * and only grows, so the lists returned by {@link #getSequencesForType} are views of it.
+   */
+  private static class TypeSequences extends SimpleArrayList<Sequence> {
+    private static final long serialVersionUID = 20240601;
+  }
+
+  /**
+   * Returns true if the given list is the list of the sequences of one type in some {@code
+   * SequenceCollection}: one of the parts of a list returned by {@link #getSequencesForType}. Such
+   * a list lives as long as its collection, and sequences are only appended to it. Other parts are
+   * built for a single query.
+   *
+   * @param list a list of sequences
+   * @return true if {@code list} is the list of the sequences of a type in a collection
+   */
+  public static boolean isTypeSequences(SimpleList<Sequence> list) {
+    return list instanceof TypeSequences;
+  }
+
   private void checkRep() {
     if (!GenInputsAbstract.debug_checks) {
       return;
@@ -178,7 +199,7 @@ public class SequenceCollection {
    */
   private void updateCompatibleMap(Sequence sequence, Type type) {
     SimpleArrayList<Sequence> set =
-        this.sequenceMap.computeIfAbsent(type, __ -> new SimpleArrayList<>());
+        this.sequenceMap.computeIfAbsent(type, __ -> new TypeSequences());
     Log.logPrintf(
         "Adding sequence #%d of type %s of length %d%n", set.size() + 1, type, sequence.size());
     boolean added = set.add(sequence);
@@ -0,0 +1,461 @@
+package randoop.sequence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.Globals;
+import randoop.field.AccessibleField;
+import randoop.operation.CallableOperation;
+import randoop.operation.ConstructorCall;
+import randoop.operation.EnumConstant;
+import randoop.operation.FieldGet;
+import randoop.operation.FieldSet;
+import randoop.operation.MethodCall;
+import randoop.operation.NonreceiverTerm;
+import randoop.operation.OperationParseException;
+import randoop.operation.TypedClassOperation;
+import randoop.operation.TypedOperation;
+import randoop.reflection.MemberSignatures;
+import randoop.types.ArrayType;
+import randoop.types.ClassOrInterfaceType;
+import randoop.types.GenericClassType;
+import randoop.types.InstantiatedType;
+import randoop.types.NonParameterizedType;
+import randoop.types.ReferenceArgument;
+import randoop.types.ReferenceType;
+import randoop.types.Type;
+import randoop.types.TypeArgument;
+import randoop.types.TypeTuple;
+import randoop.util.Log;
+import randoop.util.RecordListReader;
+
+/**
+ * Reads and writes files of sequences, such as the files that the {@code gentests-sharded} command
+ * uses to collect the sequences generated by each of its JVMs.
+ *
+ * <p>A file is a list of records in the format read by {@link RecordListReader}. Each line of a
+ * record is a statement of one sequence: the kind of its operation, the indices of its inputs, the
+ * declaring type, input types, and output type of its operation, and a description of the
+ * operation, separated by spaces. A "-" stands for no inputs, no input types, no declaring type,
+ * or no description. For example, the sequence {@code p.C c = new p.C(); c.add(3);} is:
+ *
+ * <pre>START SEQUENCE
+ * ConstructorCall - p.C - p.C constructor p.C
+ * NonreceiverTerm - - - int int:3
+ * MethodCall 0,1 p.C p.C;int p.C method p.C add int
+ * END SEQUENCE</pre>
+ *
+ * <p>Methods, constructors, fields, and enum constants are described by their {@link
+ * MemberSignatures signatures}, which include the parameter types, so an overloaded method is read
+ * back exactly. A type is written as its {@link Class#getName() class name}, followed by its type
+ * arguments in angle brackets if it is parameterized, and by {@code []} for each array dimension.
+ *
+ * <p>Each written operation is read back before it is written, and a sequence with an operation
+ * that is not read back equal to itself is not written. Such operations include those with
+ * wildcard or type-variable types, and those of kinds that are only created during generation.
+ * Executable specifications of operations are not written.
+ */
+public final class SequenceFiles {
+  private SequenceFiles() {
+    throw new IllegalStateException("no instance");
+  }
+
+  /** The record type of a sequence in a file. */
+  private static final String RECORD_TYPE = "SEQUENCE";
+
+  /** Stands for an empty field of a statement line. */
+  private static final String NONE = "-";
+
+  /**
+   * Writes the given sequences to the given file, replacing its contents. Does not write a sequence
+   * that has an operation that cannot be read back exactly; see the class documentation.
+   *
+   * @param sequences the sequences to write
+   * @param file the file to write
+   * @return the number of sequences written
+   * @throws IOException if the file cannot be written
+   */
+  public static int write(Collection<Sequence> sequences, Path file) throws IOException {
+    // The description of each operation seen so far, or null if it cannot be read back exactly.
+    Map<TypedOperation, @Nullable String> descriptions = new HashMap<>();
+    int written = 0;
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      for (Sequence sequence : sequences) {
+        String record = toRecord(sequence, descriptions);
+        if (record == null) {
+          Log.logPrintf("Not writing sequence with an unwritable operation:%n%s%n", sequence);
+          continue;
+        }
+        writer.write(record);
+        written++;
+      }
+    }
+    return written;
+  }
+
+  /**
+   * Reads the sequences in the given file.
+   *
+   * @param file a file written by {@link #write}
+   * @return the sequences in the file, in order
+   * @throws IllegalArgumentException if the file is not a list of sequence records, or if a
+   *     sequence cannot be parsed
+   */
+  public static List<Sequence> read(Path file) {
+    List<Sequence> sequences = new ArrayList<>();
+    RecordListReader reader =
+        new RecordListReader(
+            RECORD_TYPE,
+            statements -> {
+              try {
+                sequences.add(fromRecord(statements));
+              } catch (OperationParseException e) {
+                throw new IllegalArgumentException(
+                    "Bad sequence in " + file + ": " + e.getMessage(), e);
+              }
+            });
+    reader.parse(file);
+    return sequences;
+  }
+
+  /**
+   * Returns the number of sequences in the given file, without parsing them.
+   *
+   * @param file a file written by {@link #write}
+   * @return the number of sequences in the file
+   * @throws IOException if the file cannot be read
+   */
+  public static int count(Path file) throws IOException {
+    String start = "START " + RECORD_TYPE;
+    int count = 0;
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      if (line.trim().equals(start)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the record of a sequence, including its start and end lines.
+   *
+   * @param sequence a sequence
+   * @param descriptions the descriptions of the operations seen so far, or null for those that
+   *     cannot be read back exactly; is side-effected
+   * @return the record, or null if some operation of the sequence cannot be read back exactly
+   */
+  private static @Nullable String toRecord(
+      Sequence sequence, Map<TypedOperation, @Nullable String> descriptions) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("START ").append(RECORD_TYPE).append(Globals.lineSep);
+    for (int i = 0; i < sequence.size(); i++) {
+      TypedOperation operation = sequence.getStatement(i).getOperation();
+      String description;
+      if (descriptions.containsKey(operation)) {
+        description = descriptions.get(operation);
+      } else {
+        description = checkedDescription(operation);
+        descriptions.put(operation, description);
+      }
+      if (description == null) {
+        return null;
+      }
+      StringJoiner inputs = new StringJoiner(",");
+      for (int index : sequence.getInputsAsAbsoluteIndices(i)) {
+        inputs.add(Integer.toString(index));
+      }
+      String kind = operation.getOperation().getClass().getSimpleName();
+      sb.append(kind).append(' ').append(orNone(inputs.toString())).append(' ');
+      sb.append(description).append(Globals.lineSep);
+    }
+    sb.append("END ").append(RECORD_TYPE).append(Globals.lineSep);
+    return sb.toString();
+  }
+
+  /**
+   * Returns the sequence whose statements are the lines of a record.
+   *
+   * @param statements the lines of a record written by {@link #toRecord}, without its start and
+   *     end lines
+   * @return the sequence
+   * @throws OperationParseException if a statement cannot be parsed
+   */
+  private static Sequence fromRecord(List<String> statements) throws OperationParseException {
+    Sequence sequence = new Sequence();
+    for (String statement : statements) {
+      String[] parts = statement.split(" ", 3);
+      if (parts.length < 3) {
+        throw new OperationParseException("Bad statement: " + statement);
+      }
+      List<Variable> inputs = new ArrayList<>();
+      if (!parts[1].equals(NONE)) {
+        try {
+          for (String index : parts[1].split(",")) {
+            inputs.add(sequence.getVariable(Integer.parseInt(index)));
+          }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+          throw new OperationParseException("Bad inputs in statement: " + statement);
+        }
+      }
+      sequence = sequence.extend(parse(parts[0], parts[2]), inputs);
+    }
+    return sequence;
+  }
+
+  /**
+   * Returns the description of an operation, if it is read back as the same operation.
+   *
+   * @param operation an operation
+   * @return the description of the operation, or null if it cannot be read back exactly
+   */
+  private static @Nullable String checkedDescription(TypedOperation operation) {
+    String description = description(operation);
+    if (description == null) {
+      return null;
+    }
+    String kind = operation.getOperation().getClass().getSimpleName();
+    try {
+      if (!parse(kind, description).equals(operation)) {
+        return null;
+      }
+    } catch (OperationParseException e) {
+      return null;
+    }
+    return description;
+  }
+
+  /**
+   * Returns the description of an operation: its declaring type, input types, output type, and the
+   * description of its {@link CallableOperation}, separated by spaces.
+   *
+   * @param operation an operation
+   * @return the description of the operation, or null if it cannot be described
+   */
+  private static @Nullable String description(TypedOperation operation) {
+    CallableOperation callable = operation.getOperation();
+    String member;
+    if (callable instanceof MethodCall) {
+      member = MemberSignatures.signature(((MethodCall) callable).getMethod());
+    } else if (callable instanceof ConstructorCall) {
+      member = MemberSignatures.signature(((ConstructorCall) callable).getConstructor());
+    } else if (callable instanceof FieldGet) {
+      member = MemberSignatures.signature(((FieldGet) callable).getField().getRawField());
+    } else if (callable instanceof FieldSet) {
+      member = MemberSignatures.signature(((FieldSet) callable).getField().getRawField());
+    } else if (callable instanceof EnumConstant) {
+      member = MemberSignatures.signature(((EnumConstant) callable).value());
+    } else if (callable instanceof NonreceiverTerm) {
+      member = operation.toParsableString();
+    } else {
+      member = NONE;
+    }
+
+    String declaringType = NONE;
+    if (operation instanceof TypedClassOperation) {
+      declaringType = typeName(((TypedClassOperation) operation).getDeclaringType());
+    }
+    StringJoiner inputTypes = new StringJoiner(";");
+    for (Type inputType : operation.getInputTypes()) {
+      String inputTypeName = typeName(inputType);
+      if (inputTypeName == null) {
+        return null;
+      }
+      inputTypes.add(inputTypeName);
+    }
+    String outputType = typeName(operation.getOutputType());
+    if (declaringType == null || outputType == null) {
+      return null;
+    }
+    return String.join(" ", declaringType, orNone(inputTypes.toString()), outputType, member);
+  }
+
+  /**
+   * Returns the operation that a description by {@link #description} denotes.
+   *
+   * @param kind the simple name of the class of the {@link CallableOperation}
+   * @param description the description of the operation
+   * @return the operation
+   * @throws OperationParseException if the description cannot be parsed, or if its members or
+   *     types do not exist
+   */
+  private static TypedOperation parse(String kind, String description)
+      throws OperationParseException {
+    String[] parts = description.split(" ", 4);
+    if (parts.length < 4) {
+      throw new OperationParseException("Bad description of " + kind + ": " + description);
+    }
+    try {
+      List<Type> inputList = new ArrayList<>();
+      if (!parts[1].equals(NONE)) {
+        for (String inputType : parts[1].split(";")) {
+          inputList.add(forTypeName(inputType));
+        }
+      }
+      TypeTuple inputTypes = new TypeTuple(inputList);
+      Type outputType = forTypeName(parts[2]);
+      String member = parts[3];
+
+      switch (kind) {
+        case "NonreceiverTerm":
+          return NonreceiverTerm.parse(member);
+        case "InitializedArrayCreation":
+          return TypedOperation.createInitializedArrayCreation(
+              (ArrayType) outputType, inputList.size());
+        case "ArrayCreation":
+          return TypedOperation.createArrayCreation((ArrayType) outputType);
+        case "UncheckedCast":
+          return TypedOperation.createCast(inputList.get(0), outputType);
+        case "ArrayElementSet":
+          return TypedOperation.createArrayElementAssignment((ArrayType) inputList.get(0));
+        default:
+          break;
+      }
+
+      ClassOrInterfaceType declaringType = (ClassOrInterfaceType) forTypeName(parts[0]);
+      CallableOperation callable;
+      switch (kind) {
+        case "MethodCall":
+          callable = new MethodCall((Method) MemberSignatures.member(member));
+          break;
+        case "ConstructorCall":
+          callable = new ConstructorCall((Constructor<?>) MemberSignatures.member(member));
+          break;
+        case "FieldGet":
+          callable =
+              new FieldGet(
+                  new AccessibleField((Field) MemberSignatures.member(member), declaringType));
+          break;
+        case "FieldSet":
+          callable =
+              new FieldSet(
+                  new AccessibleField((Field) MemberSignatures.member(member), declaringType));
+          break;
+        case "EnumConstant":
+          Enum<?> value = MemberSignatures.enumConstant(member);
+          if (value == null) {
+            throw new OperationParseException("Not an enum constant: " + member);
+          }
+          callable = new EnumConstant(value);
+          break;
+        default:
+          throw new OperationParseException("Unknown kind of operation: " + kind);
+      }
+      return new TypedClassOperation(callable, declaringType, inputTypes, outputType);
+    } catch (ReflectiveOperationException
+        | ClassCastException
+        | IllegalArgumentException
+        | IndexOutOfBoundsException e) {
+      throw new OperationParseException(
+          "Cannot read " + kind + " " + description + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the name of a type in a file: its class name, followed by its type arguments in angle
+   * brackets if it is parameterized, and by {@code []} for each array dimension.
+   *
+   * @param type a type
+   * @return the name of the type, or null if the type has no name in a file (such as a wildcard
+   *     or type variable, or a type with one as a type argument)
+   */
+  private static @Nullable String typeName(Type type) {
+    if (type.isArray()) {
+      String componentName = typeName(((ArrayType) type).getComponentType());
+      return (componentName == null) ? null : componentName + "[]";
+    }
+    if (type instanceof InstantiatedType) {
+      StringJoiner arguments = new StringJoiner(",", "<", ">");
+      for (TypeArgument argument : ((InstantiatedType) type).getTypeArguments()) {
+        if (!(argument instanceof ReferenceArgument)) {
+          return null;
+        }
+        String argumentName = typeName(((ReferenceArgument) argument).getReferenceType());
+        if (argumentName == null) {
+          return null;
+        }
+        arguments.add(argumentName);
+      }
+      return type.getRuntimeClass().getName() + arguments;
+    }
+    if (type.isPrimitive()
+        || type.isVoid()
+        || type instanceof NonParameterizedType
+        || type instanceof GenericClassType) {
+      return type.getRuntimeClass().getName();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the type with the given name, as written by {@link #typeName}.
+   *
+   * @param name the name of a type
+   * @return the type
+   * @throws ClassNotFoundException if a class in the name does not exist
+   */
+  private static Type forTypeName(String name) throws ClassNotFoundException {
+    int[] position = {0};
+    Type type = forTypeName(name, position);
+    if (position[0] != name.length()) {
+      throw new IllegalArgumentException("Bad type name: " + name);
+    }
+    return type;
+  }
+
+  /**
+   * Returns the type whose name starts at the given position of a string, and advances the
+   * position past the name.
+   *
+   * @param text a string that contains a type name
+   * @param position the position of the type name in {@code text}; is side-effected
+   * @return the type
+   * @throws ClassNotFoundException if a class in the name does not exist
+   */
+  @SuppressWarnings("signature") // written from Class.getName()
+  private static Type forTypeName(String text, int[] position) throws ClassNotFoundException {
+    int start = position[0];
+    while (position[0] < text.length() && "<>,[".indexOf(text.charAt(position[0])) < 0) {
+      position[0]++;
+    }
+    Type type = Type.forName(text.substring(start, position[0]));
+    if (text.startsWith("<", position[0])) {
+      List<ReferenceType> arguments = new ArrayList<>();
+      do {
+        position[0]++;
+        arguments.add((ReferenceType) forTypeName(text, position));
+      } while (text.startsWith(",", position[0]));
+      if (!text.startsWith(">", position[0])) {
+        throw new IllegalArgumentException("Bad type name: " + text);
+      }
+      position[0]++;
+      type = ((GenericClassType) type).instantiate(arguments);
+    }
+    while (text.startsWith("[]", position[0])) {
+      position[0] += 2;
+      type = ArrayType.ofComponentType(type);
+    }
+    return type;
+  }
+
+  /**
+   * Returns the given field of a line, or {@link #NONE} if it is empty.
+   *
+   * @param field a field of a statement line
+   * @return {@code field}, or {@link #NONE} if {@code field} is empty
+   */
+  private static String orNone(String field) {
+    return field.isEmpty() ? NONE : field;
+  }
+}
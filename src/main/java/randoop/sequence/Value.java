@@ -1,6 +1,7 @@
 package randoop.sequence;
 
 import java.lang.reflect.Array;
+import java.util.Collections;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.regex.Pattern;
@@ -175,7 +176,9 @@ public class Value {
   }
 
   /** Used to increase performance of stringLengthOk method. */
-  private static Map<String, Boolean> escapedStringLengthOkCached = new WeakHashMap<>();
+  // Synchronized because several generator threads may use it (see --workers).
+  private static Map<String, Boolean> escapedStringLengthOkCached =
+      Collections.synchronizedMap(new WeakHashMap<>());
 
   /**
    * Returns true if the given string, when quoted for inclusion in a Java program, is no longer
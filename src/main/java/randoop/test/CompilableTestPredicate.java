@@ -3,10 +3,12 @@ package randoop.test;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.PackageDeclaration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import randoop.compile.SequenceCompiler;
 import randoop.main.GenTests;
 import randoop.output.JUnitCreator;
@@ -16,8 +18,17 @@ import randoop.util.Log;
 
 /**
  * {@code TestPredicate} that returns true if the given {@link ExecutableSequence} is compilable.
+ *
+ * <p>Compiling one test class per sequence is slow. {@link #testAll} checks many sequences at once:
+ * it compiles them as the methods of a single test class, and only when that class does not
+ * compile does it bisect the sequences to find the ones that do not compile. No class files are
+ * written to disk.
  */
 public class CompilableTestPredicate implements Predicate<ExecutableSequence> {
+
+  /** The number of sequences that a generator should accumulate before calling {@link #testAll}. */
+  public static final int BATCH_SIZE = 50;
+
   /** The compiler for sequence code. */
   private final SequenceCompiler compiler;
 
@@ -33,17 +44,17 @@ public class CompilableTestPredicate implements Predicate<ExecutableSequence> {
   /** The name generator for test method names. */
   private final NameGenerator methodNameGenerator;
 
-  /** The {@link GenTests} instance that created this predicate. */
-  private final GenTests genTests;
+  /** The {@link GenTests} instance that created this predicate, or null if there is none. */
+  private final @Nullable GenTests genTests;
 
   /**
    * Creates a predicate using the given {@link JUnitCreator} to construct the test class for each
    * sequence.
    *
    * @param junitCreator the {@link JUnitCreator} for this Randoop run
-   * @param genTests the {@link GenTests} instance to report compilation failures
+   * @param genTests the {@link GenTests} instance to report compilation failures, or null
    */
-  public CompilableTestPredicate(JUnitCreator junitCreator, GenTests genTests) {
+  public CompilableTestPredicate(JUnitCreator junitCreator, @Nullable GenTests genTests) {
     List<String> compilerOptions = new ArrayList<>();
     // only need to know an error exists:
     compilerOptions.add("-Xmaxerrs");
@@ -72,19 +83,55 @@ public class CompilableTestPredicate implements Predicate<ExecutableSequence> {
    */
   @Override
   public boolean test(ExecutableSequence eseq) {
+    return testAll(Collections.singletonList(eseq))[0];
+  }
+
+  /**
+   * Indicates which of the given sequences are compilable. Compiles all the sequences together, and
+   * compiles smaller groups of them only if that fails.
+   *
+   * @param sequences the sequences to check
+   * @return an array whose i-th element is true if the i-th sequence can be compiled
+   */
+  public synchronized boolean[] testAll(List<ExecutableSequence> sequences) {
+    boolean[] result = new boolean[sequences.size()];
+    if (!sequences.isEmpty()) {
+      testRange(sequences, 0, sequences.size(), result);
+    }
+    return result;
+  }
+
+  /**
+   * Determines which of the sequences in {@code sequences[from, to)} are compilable, and sets the
+   * corresponding elements of {@code result}. If all of them compile together, performs just one
+   * compilation; otherwise, checks each half separately.
+   *
+   * @param sequences the sequences to check
+   * @param from the index of the first sequence to check, inclusive
+   * @param to the index of the last sequence to check, exclusive
+   * @param result the array in which to record which sequences are compilable
+   */
+  private void testRange(List<ExecutableSequence> sequences, int from, int to, boolean[] result) {
     String testClassName = classNameGenerator.next();
-    List<ExecutableSequence> sequences = Collections.singletonList(eseq);
     CompilationUnit source =
-        junitCreator.createTestClass(testClassName, methodNameGenerator, sequences);
+        junitCreator.createTestClass(
+            testClassName, methodNameGenerator, sequences.subList(from, to));
     Optional<PackageDeclaration> oPkg = source.getPackageDeclaration();
     String packageName = oPkg.isPresent() ? oPkg.get().getName().toString() : null;
-    boolean result = testSource(testClassName, source, packageName);
-    if (!result) {
-      genTests.incrementSequenceCompileFailureCount();
+    if (testSource(testClassName, source, packageName)) {
+      Arrays.fill(result, from, to, true);
+    } else if (to - from == 1) {
+      if (genTests != null) {
+        genTests.incrementSequenceCompileFailureCount();
+      }
       Log.logPrintf(
-          "%nCompilableTestPredicate => false for%n%nsequence =%n%s%nsource =%n%s%n", eseq, source);
+          "%nCompilableTestPredicate => false for%n%nsequence =%n%s%nsource =%n%s%n",
+          sequences.get(from), source);
+    } else {
+      int middle = (from + to) / 2;
+      testRange(sequences, from, middle, result);
+      testRange(sequences, middle, to, result);
     }
-    return result;
   }
 
   /**
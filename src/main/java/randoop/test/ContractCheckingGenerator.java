@@ -17,6 +17,7 @@ import randoop.types.InstantiatedType;
 import randoop.types.ReferenceType;
 import randoop.types.Substitution;
 import randoop.types.Type;
+import randoop.types.TypeRelationCache;
 import randoop.types.TypeTuple;
 import randoop.util.TupleSet;
 
@@ -210,7 +211,7 @@ public final class ContractCheckingGenerator extends TestCheckGenerator {
         } else { // have generic input type, and non-class value
           return false;
         }
-      } else if (!inputType.isAssignableFrom(valueType)) {
+      } else if (!TypeRelationCache.isAssignable(inputType, valueType)) {
         return false;
       }
       i++;
@@ -39,6 +39,19 @@ public class ContractSet {
     contractList.add(contract);
   }
 
+  /**
+   * Adds all the contracts of the given set to this set.
+   *
+   * @param contracts the contracts to add
+   */
+  public void addAll(ContractSet contracts) {
+    for (List<ObjectContract> contractList : contracts.contractMap) {
+      for (ObjectContract contract : contractList) {
+        add(contract);
+      }
+    }
+  }
+
   public boolean isEmpty() {
     return contractMap.isEmpty();
   }
@@ -26,6 +26,12 @@ public class ArrayType extends ReferenceType {
   /** The runtime type for this array. */
   private final Class<?> runtimeClass;
 
+  /** True if this is the representative of its type chosen by {@link TypeInterner}. */
+  private volatile boolean canonical = false;
+
+  /** The hash code of this type, if it is canonical and the hash code has been computed; else 0. */
+  private int cachedHashCode = 0;
+
   /**
    * Creates an {@code ArrayType} with the given component type and runtime class.
    *
@@ -49,7 +55,7 @@ public class ArrayType extends ReferenceType {
     }
 
     Type componentType = Type.forClass(arrayClass.getComponentType());
-    return new ArrayType(componentType, arrayClass);
+    return TypeInterner.intern(new ArrayType(componentType, arrayClass));
   }
 
   /**
@@ -87,8 +93,9 @@ public class ArrayType extends ReferenceType {
     if (componentType instanceof TypeVariable) {
       return new ArrayType(componentType, Array.newInstance(Object.class, 0).getClass());
     }
-    return new ArrayType(
-        componentType, Array.newInstance(componentType.getRuntimeClass(), 0).getClass());
+    return TypeInterner.intern(
+        new ArrayType(
+            componentType, Array.newInstance(componentType.getRuntimeClass(), 0).getClass()));
   }
 
   @Override
@@ -100,12 +107,38 @@ public class ArrayType extends ReferenceType {
       return false;
     }
     ArrayType t = (ArrayType) obj;
+    if (canonical && t.canonical) {
+      // Distinct canonical types are unequal.
+      return false;
+    }
     return componentType.equals(t.componentType) && runtimeClass.equals(t.runtimeClass);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(componentType, runtimeClass);
+    if (!canonical) {
+      return Objects.hash(componentType, runtimeClass);
+    }
+    int result = cachedHashCode;
+    if (result == 0) {
+      result = Objects.hash(componentType, runtimeClass);
+      cachedHashCode = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns true if this is the representative of its type chosen by {@link TypeInterner}.
+   *
+   * @return true if this type is canonical
+   */
+  boolean isCanonical() {
+    return canonical;
+  }
+
+  /** Marks this type as the representative of its type. Called only by {@link TypeInterner}. */
+  void setCanonical() {
+    canonical = true;
   }
 
   @Override
@@ -340,11 +340,21 @@ public abstract class ClassOrInterfaceType extends ReferenceType {
   public abstract ClassOrInterfaceType getSuperclass();
 
   /**
-   * Return the set of all of the supertypes of this type.
+   * Return the set of all of the supertypes of this type. The result is cached by {@link
+   * TypeRelationCache}.
    *
-   * @return the set of all supertypes of this type
+   * @return the set of all supertypes of this type; the result is unmodifiable
    */
   public Collection<ClassOrInterfaceType> getSuperTypes() {
+    return TypeRelationCache.getSuperTypes(this);
+  }
+
+  /**
+   * Computes the set of all of the supertypes of this type, without using the cache for this type.
+   *
+   * @return the set of all supertypes of this type
+   */
+  Collection<ClassOrInterfaceType> computeSuperTypes() {
     Collection<ClassOrInterfaceType> supertypes = new ArrayList<>();
     if (this.isObject()) {
       return supertypes;
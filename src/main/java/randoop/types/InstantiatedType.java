@@ -23,6 +23,12 @@ public class InstantiatedType extends ParameterizedType {
   /** The type arguments for this class. */
   private final List<TypeArgument> argumentList;
 
+  /** True if this is the representative of its type chosen by {@link TypeInterner}. */
+  private volatile boolean canonical = false;
+
+  /** The hash code of this type, if it is canonical and the hash code has been computed; else 0. */
+  private int cachedHashCode = 0;
+
   /**
    * Create a parameterized type from the generic class type.
    *
@@ -54,13 +60,39 @@ public class InstantiatedType extends ParameterizedType {
       return false;
     }
     InstantiatedType other = (InstantiatedType) obj;
+    if (canonical && other.canonical) {
+      // Distinct canonical types are unequal.
+      return false;
+    }
     return genericType.equals(other.getGenericClassType())
         && argumentList.equals(other.argumentList);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(genericType, argumentList);
+    if (!canonical) {
+      return Objects.hash(genericType, argumentList);
+    }
+    int result = cachedHashCode;
+    if (result == 0) {
+      result = Objects.hash(genericType, argumentList);
+      cachedHashCode = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns true if this is the representative of its type chosen by {@link TypeInterner}.
+   *
+   * @return true if this type is canonical
+   */
+  boolean isCanonical() {
+    return canonical;
+  }
+
+  /** Marks this type as the representative of its type. Called only by {@link TypeInterner}. */
+  void setCanonical() {
+    canonical = true;
   }
 
   @Override
@@ -68,8 +100,9 @@ public class InstantiatedType extends ParameterizedType {
     List<TypeArgument> argumentList =
         CollectionsPlume.mapList(
             (TypeArgument argument) -> argument.substitute(substitution), this.argumentList);
-    return (InstantiatedType)
-        substitute(substitution, new InstantiatedType(genericType, argumentList));
+    return TypeInterner.intern(
+        (InstantiatedType)
+            substitute(substitution, new InstantiatedType(genericType, argumentList)));
   }
 
   /**
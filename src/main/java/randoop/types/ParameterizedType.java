@@ -1,9 +1,9 @@
 package randoop.types;
 
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.plumelib.util.CollectionsPlume;
 
@@ -17,8 +17,11 @@ import org.plumelib.util.CollectionsPlume;
  */
 public abstract class ParameterizedType extends ClassOrInterfaceType {
 
-  /** A cache of all ParameterizedTypes that have been created. */
-  private static final Map<Class<?>, GenericClassType> cache = new HashMap<>();
+  /**
+   * A cache of all ParameterizedTypes that have been created. Concurrent because several generator
+   * threads may create types (see {@code --workers}).
+   */
+  private static final Map<Class<?>, GenericClassType> cache = new ConcurrentHashMap<>();
 
   /**
    * Creates a {@link GenericClassType} for the given reflective {@link Class} object.
@@ -38,7 +41,10 @@ public abstract class ParameterizedType extends ClassOrInterfaceType {
     GenericClassType cached = cache.get(typeClass);
     if (cached == null) {
       cached = new GenericClassType(typeClass);
-      cache.put(typeClass, cached);
+      GenericClassType previous = cache.putIfAbsent(typeClass, cached);
+      if (previous != null) {
+        cached = previous;
+      }
     }
     return cached;
   }
@@ -67,7 +73,7 @@ public abstract class ParameterizedType extends ClassOrInterfaceType {
     // rawtype, and then instantiate with the arguments collected from the
     // java.lang.reflect.ParameterizedType interface.
     GenericClassType genericClass = ParameterizedType.forClass((Class<?>) rawType);
-    return new InstantiatedType(genericClass, typeArguments);
+    return TypeInterner.intern(new InstantiatedType(genericClass, typeArguments));
   }
 
   @Override
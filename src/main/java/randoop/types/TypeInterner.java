@@ -0,0 +1,114 @@
+package randoop.types;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonicalizes parameterized and array types, so that structurally equal types that Randoop
+ * creates over and over (by substitution, by instantiating generic classes, and by converting
+ * reflective types) are represented by a single object. Canonical types compare by identity first,
+ * and a canonical type caches its hash code, so that the maps and sets keyed on types that Randoop
+ * uses throughout generation do less work.
+ *
+ * <p>Only types that are effectively immutable and whose {@link Type#equals} is exact are interned:
+ * those with no type variables, wildcards, or capture variables, and no nested classes. (The
+ * equality of an {@link InstantiatedType} ignores its enclosing type, which is set after
+ * construction.) Other types are returned unchanged.
+ *
+ * <p>The table is shared by all threads.
+ */
+final class TypeInterner {
+
+  private TypeInterner() {
+    throw new IllegalStateException("no instance");
+  }
+
+  /** Map from a type to its canonical representative. */
+  private static final Map<Type, Type> canonical = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the canonical representative of the given parameterized type, or the type itself if it
+   * cannot be interned.
+   *
+   * @param type a parameterized type
+   * @return a type equal to {@code type}, which is canonical if {@code type} can be interned
+   */
+  static InstantiatedType intern(InstantiatedType type) {
+    if (type.isCanonical() || !isInternable(type)) {
+      return type;
+    }
+    Type previous = canonical.putIfAbsent(type, type);
+    if (previous == null) {
+      type.setCanonical();
+      return type;
+    }
+    return (InstantiatedType) previous;
+  }
+
+  /**
+   * Returns the canonical representative of the given array type, or the type itself if it cannot
+   * be interned.
+   *
+   * @param type an array type
+   * @return a type equal to {@code type}, which is canonical if {@code type} can be interned
+   */
+  static ArrayType intern(ArrayType type) {
+    if (type.isCanonical() || !isInternable(type)) {
+      return type;
+    }
+    Type previous = canonical.putIfAbsent(type, type);
+    if (previous == null) {
+      type.setCanonical();
+      return type;
+    }
+    return (ArrayType) previous;
+  }
+
+  /**
+   * Returns the number of canonical types.
+   *
+   * @return the number of canonical types
+   */
+  static int size() {
+    return canonical.size();
+  }
+
+  /**
+   * Returns true if the given type may be interned.
+   *
+   * @param type a type
+   * @return true if {@code type} has no type variables, wildcards, capture variables, or nested
+   *     classes
+   */
+  private static boolean isInternable(Type type) {
+    return !type.isGeneric() && !type.hasCaptureVariable() && hasNoNestedClass(type);
+  }
+
+  /**
+   * Returns true if no class in the structure of the given type is a nested class.
+   *
+   * @param type a type with no type variables or wildcards
+   * @return true if {@code type} does not mention a nested class
+   */
+  private static boolean hasNoNestedClass(Type type) {
+    if (type.isPrimitive()) {
+      return true;
+    }
+    if (type.isArray()) {
+      return hasNoNestedClass(((ArrayType) type).getComponentType());
+    }
+    if (!(type instanceof ClassOrInterfaceType)
+        || type.getRuntimeClass().getEnclosingClass() != null) {
+      return false;
+    }
+    if (type instanceof InstantiatedType) {
+      for (TypeArgument argument : ((InstantiatedType) type).getTypeArguments()) {
+        if (!(argument instanceof ReferenceArgument)
+            || !hasNoNestedClass(((ReferenceArgument) argument).getReferenceType())) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,186 @@
+package randoop.types;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the results of {@link Type#isAssignableFrom} and {@link
+ * ClassOrInterfaceType#getSuperTypes}, which Randoop computes over and over for the same types
+ * during generation. Both computations recurse through the type hierarchy and perform
+ * substitutions, which is expensive for parameterized types.
+ *
+ * <p>Only types without type variables, wildcards, or capture variables are cached; for such types,
+ * the relations do not change, and {@link Type#equals} is structural. The caches are shared by all
+ * threads. Each is bounded: when it reaches its maximum size, it is emptied.
+ *
+ * <p>The caches count hits and misses, which {@link #statistics()} reports.
+ */
+public final class TypeRelationCache {
+
+  private TypeRelationCache() {
+    throw new IllegalStateException("no instance");
+  }
+
+  /** The maximum number of pairs of types whose assignability is cached. */
+  private static final int MAX_ASSIGNABLE_ENTRIES = 1 << 17;
+
+  /** The maximum number of types whose supertypes are cached. */
+  private static final int MAX_SUPERTYPES_ENTRIES = 1 << 14;
+
+  /**
+   * Map from a target type to a map from a source type to whether the target is assignable from
+   * the source.
+   */
+  private static final Map<Type, Map<Type, Boolean>> assignable = new ConcurrentHashMap<>();
+
+  /** The number of entries in the maps of {@link #assignable}, approximately. */
+  private static final AtomicInteger assignableSize = new AtomicInteger();
+
+  /** Map from a type to the (unmodifiable) result of {@code getSuperTypes} for it. */
+  private static final Map<ClassOrInterfaceType, Collection<ClassOrInterfaceType>> superTypes =
+      new ConcurrentHashMap<>();
+
+  /** The number of calls to {@link #isAssignable} that were answered from the cache. */
+  private static final AtomicLong assignableHits = new AtomicLong();
+
+  /** The number of calls to {@link #isAssignable} that were computed and then cached. */
+  private static final AtomicLong assignableMisses = new AtomicLong();
+
+  /** The number of calls to {@link #getSuperTypes} that were answered from the cache. */
+  private static final AtomicLong superTypesHits = new AtomicLong();
+
+  /** The number of calls to {@link #getSuperTypes} that were computed and then cached. */
+  private static final AtomicLong superTypesMisses = new AtomicLong();
+
+  /**
+   * Returns {@code target.isAssignableFrom(source)}, using a cached result if there is one.
+   *
+   * @param target the type to be assigned to
+   * @param source the type of the value to assign
+   * @return true if {@code target} is assignable from {@code source}
+   */
+  public static boolean isAssignable(Type target, Type source) {
+    if (!isCacheable(target) || !isCacheable(source)) {
+      return target.isAssignableFrom(source);
+    }
+    Map<Type, Boolean> row = assignable.get(target);
+    if (row != null) {
+      Boolean cached = row.get(source);
+      if (cached != null) {
+        assignableHits.incrementAndGet();
+        return cached;
+      }
+    }
+    assignableMisses.incrementAndGet();
+    boolean result = target.isAssignableFrom(source);
+    if (assignableSize.incrementAndGet() > MAX_ASSIGNABLE_ENTRIES) {
+      assignable.clear();
+      assignableSize.set(0);
+    }
+    assignable.computeIfAbsent(target, __ -> new ConcurrentHashMap<>()).put(source, result);
+    return result;
+  }
+
+  /**
+   * Returns the supertypes of the given type, using a cached result if there is one. Called by
+   * {@link ClassOrInterfaceType#getSuperTypes()}.
+   *
+   * @param type a class or interface type
+   * @return all the supertypes of {@code type}; the result is unmodifiable
+   */
+  static Collection<ClassOrInterfaceType> getSuperTypes(ClassOrInterfaceType type) {
+    if (!isCacheable(type)) {
+      return Collections.unmodifiableCollection(type.computeSuperTypes());
+    }
+    Collection<ClassOrInterfaceType> cached = superTypes.get(type);
+    if (cached != null) {
+      superTypesHits.incrementAndGet();
+      return cached;
+    }
+    superTypesMisses.incrementAndGet();
+    // Not computeIfAbsent, because computing the supertypes recursively uses this cache.
+    Collection<ClassOrInterfaceType> result =
+        Collections.unmodifiableList(new ArrayList<>(type.computeSuperTypes()));
+    if (superTypes.size() >= MAX_SUPERTYPES_ENTRIES) {
+      superTypes.clear();
+    }
+    superTypes.put(type, result);
+    return result;
+  }
+
+  /**
+   * Returns true if the relations of the given type may be cached.
+   *
+   * @param type a type
+   * @return true if {@code type} has no type variables, wildcards, or capture variables
+   */
+  private static boolean isCacheable(Type type) {
+    return !type.isGeneric() && !type.hasCaptureVariable();
+  }
+
+  /** Empties the caches and resets the hit and miss counts. */
+  public static void clear() {
+    assignable.clear();
+    assignableSize.set(0);
+    superTypes.clear();
+    assignableHits.set(0);
+    assignableMisses.set(0);
+    superTypesHits.set(0);
+    superTypesMisses.set(0);
+  }
+
+  /**
+   * Returns the number of calls to {@link #isAssignable} that were answered from the cache.
+   *
+   * @return the number of cache hits for assignability
+   */
+  public static long assignableHits() {
+    return assignableHits.get();
+  }
+
+  /**
+   * Returns the number of calls to {@link #isAssignable} that had to be computed.
+   *
+   * @return the number of cache misses for assignability
+   */
+  public static long assignableMisses() {
+    return assignableMisses.get();
+  }
+
+  /**
+   * Returns the number of calls to {@link ClassOrInterfaceType#getSuperTypes} that were answered
+   * from the cache.
+   *
+   * @return the number of cache hits for supertypes
+   */
+  public static long superTypesHits() {
+    return superTypesHits.get();
+  }
+
+  /**
+   * Returns the number of calls to {@link ClassOrInterfaceType#getSuperTypes} that had to be
+   * computed.
+   *
+   * @return the number of cache misses for supertypes
+   */
+  public static long superTypesMisses() {
+    return superTypesMisses.get();
+  }
+
+  /**
+   * Returns a description of the hit and miss counts of the caches.
+   *
+   * @return a description of the hit and miss counts of the caches
+   */
+  public static String statistics() {
+    return String.format(
+        "isAssignableFrom: %d hits, %d misses; getSuperTypes: %d hits, %d misses",
+        assignableHits.get(), assignableMisses.get(), superTypesHits.get(), superTypesMisses.get());
+  }
+}
@@ -1,7 +1,20 @@
 package randoop.util;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
@@ -34,6 +47,7 @@ import org.apache.bcel.generic.Instruction;
 import org.apache.bcel.generic.InstructionList;
 import org.apache.bcel.generic.MethodGen;
 import org.apache.bcel.util.ClassPath;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.ClassGetName;
 import randoop.operation.NonreceiverTerm;
 import randoop.reflection.TypeNames;
@@ -63,6 +77,9 @@ public class ClassFileConstants {
   static short s = 32000;
   static char c = 'a';
 
+  /** The version of the format of cached constant sets; change it when the format changes. */
+  private static final int CACHE_VERSION = 1;
+
   public static class ConstantSet {
     public @ClassGetName String classname;
     public Set<Integer> ints = new TreeSet<>();
@@ -136,13 +153,83 @@ public class ClassFileConstants {
    * @see #getConstants(String)
    */
   public static ConstantSet getConstants(String classname, ConstantSet result) {
+    return getConstants(classname, readClassFile(classname), result);
+  }
+
+  /**
+   * Returns all the constants found in the given class, using the given cache directory. The cache
+   * is keyed by a hash of the class file, so only the classes whose bytecode changed since they
+   * were cached are read again.
+   *
+   * @param classname the name of the type
+   * @param cacheDirectory the directory in which constant sets are cached, or null not to cache
+   *     them
+   * @return the set of constants of the given type
+   */
+  public static ConstantSet getConstants(String classname, @Nullable Path cacheDirectory) {
+    if (cacheDirectory == null) {
+      return getConstants(classname);
+    }
+    byte[] classfile = readClassFile(classname);
+    Path cached = cacheDirectory.resolve(hash(classfile) + ".constants");
+    if (Files.exists(cached)) {
+      try {
+        return readConstantSet(cached);
+      } catch (IOException e) {
+        // Read the class file, and replace the unreadable cache entry.
+      }
+    }
+    ConstantSet result = getConstants(classname, classfile, new ConstantSet());
+    try {
+      Files.createDirectories(cacheDirectory);
+      Path temp = Files.createTempFile(cacheDirectory, "constants", ".tmp");
+      try {
+        writeConstantSet(result, temp);
+        Files.move(temp, cached, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      Log.logPrintf("Unable to cache the constants of %s: %s%n", classname, e);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the contents of the class file of the given class, from the classpath.
+   *
+   * @param classname the name of the type
+   * @return the contents of the class file
+   */
+  private static byte[] readClassFile(String classname) {
+    String classfileBase = classname.replace('.', '/');
+    try (InputStream is = ClassPath.SYSTEM_CLASS_PATH.getInputStream(classfileBase, ".class")) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      for (int n; (n = is.read(buffer)) != -1; ) {
+        bytes.write(buffer, 0, n);
+      }
+      return bytes.toByteArray();
+    } catch (java.io.IOException e) {
+      throw new Error("IOException while reading '" + classname + "': " + e.getMessage());
+    }
+  }
+
+  /**
+   * Adds all the constants found in the given class file into the given ConstantSet, and returns
+   * it.
+   *
+   * @param classname the name of the type
+   * @param classfile the contents of the class file of the type
+   * @param result the set of constants to which constants are added
+   * @return the set of constants with new constants of given type added
+   */
+  private static ConstantSet getConstants(String classname, byte[] classfile, ConstantSet result) {
 
     ClassParser cp;
     JavaClass jc;
     try {
-      String classfileBase = classname.replace('.', '/');
-      InputStream is = ClassPath.SYSTEM_CLASS_PATH.getInputStream(classfileBase, ".class");
-      cp = new ClassParser(is, classname);
+      cp = new ClassParser(new ByteArrayInputStream(classfile), classname);
       jc = cp.parse();
     } catch (java.io.IOException e) {
       throw new Error("IOException while reading '" + classname + "': " + e.getMessage());
@@ -616,6 +703,133 @@ public class ClassFileConstants {
     return result;
   }
 
+  /**
+   * Returns a hash of the given class file and of the version of the cache format.
+   *
+   * @param classfile the contents of a class file
+   * @return the hash, as a hexadecimal string
+   */
+  private static String hash(byte[] classfile) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new Error("SHA-256 is always available", e);
+    }
+    digest.update((byte) CACHE_VERSION);
+    digest.update(classfile);
+    StringBuilder sb = new StringBuilder();
+    for (byte b : digest.digest()) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Writes the given constant set to the given file.
+   *
+   * @param constantSet the constant set to write
+   * @param file the file to write
+   * @throws IOException if the file cannot be written
+   */
+  private static void writeConstantSet(ConstantSet constantSet, Path file) throws IOException {
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      writeString(out, constantSet.classname);
+      out.writeInt(constantSet.ints.size());
+      for (int x : constantSet.ints) {
+        out.writeInt(x);
+      }
+      out.writeInt(constantSet.longs.size());
+      for (long x : constantSet.longs) {
+        out.writeLong(x);
+      }
+      out.writeInt(constantSet.floats.size());
+      for (float x : constantSet.floats) {
+        out.writeFloat(x);
+      }
+      out.writeInt(constantSet.doubles.size());
+      for (double x : constantSet.doubles) {
+        out.writeDouble(x);
+      }
+      out.writeInt(constantSet.strings.size());
+      for (String x : constantSet.strings) {
+        writeString(out, x);
+      }
+      out.writeInt(constantSet.classes.size());
+      for (Class<?> x : constantSet.classes) {
+        writeString(out, x.getName());
+      }
+    }
+  }
+
+  /**
+   * Reads a constant set that {@link #writeConstantSet} wrote.
+   *
+   * @param file the file to read
+   * @return the constant set
+   * @throws IOException if the file cannot be read
+   */
+  private static ConstantSet readConstantSet(Path file) throws IOException {
+    ConstantSet result = new ConstantSet();
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      @SuppressWarnings("signature") // written from a @ClassGetName String
+      @ClassGetName String classname = readString(in);
+      result.classname = classname;
+      for (int i = in.readInt(); i > 0; i--) {
+        result.ints.add(in.readInt());
+      }
+      for (int i = in.readInt(); i > 0; i--) {
+        result.longs.add(in.readLong());
+      }
+      for (int i = in.readInt(); i > 0; i--) {
+        result.floats.add(in.readFloat());
+      }
+      for (int i = in.readInt(); i > 0; i--) {
+        result.doubles.add(in.readDouble());
+      }
+      for (int i = in.readInt(); i > 0; i--) {
+        result.strings.add(readString(in));
+      }
+      for (int i = in.readInt(); i > 0; i--) {
+        String name = readString(in);
+        try {
+          result.classes.add(Class.forName(name));
+        } catch (ClassNotFoundException e) {
+          throw new IOException("Cannot load cached class literal " + name, e);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Writes a string of any length. ({@link DataOutputStream#writeUTF} is limited to 65535 bytes.)
+   *
+   * @param out the stream to write to
+   * @param s the string to write
+   * @throws IOException if the string cannot be written
+   */
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = s.getBytes(UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a string that {@link #writeString} wrote.
+   *
+   * @param in the stream to read from
+   * @return the string
+   * @throws IOException if the string cannot be read
+   */
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
   /**
    * Convert a collection of ConstantSets to the format expected by GenTest.addClassLiterals.
    *
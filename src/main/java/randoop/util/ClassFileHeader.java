@@ -0,0 +1,91 @@
+package randoop.util;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the access flags of a class from its class file, without loading the class. Only the
+ * beginning of the class file, up to and including the access flags, is read: the magic number, the
+ * version, and the constant pool, whose entries are skipped.
+ */
+public final class ClassFileHeader {
+
+  /** The magic number at the start of every class file. */
+  private static final int MAGIC = 0xCAFEBABE;
+
+  /** The access flag of a module descriptor, {@code module-info.class}. */
+  public static final int ACC_MODULE = 0x8000;
+
+  private ClassFileHeader() {
+    throw new IllegalStateException("no instance");
+  }
+
+  /**
+   * Returns the access flags of the class whose class file is the given stream. The flags use the
+   * bits of {@link java.lang.reflect.Modifier}, plus {@link #ACC_MODULE}. For a member class, they
+   * are public if the class is public or protected, and package-private otherwise.
+   *
+   * @param classFile the contents of a class file; not closed by this method
+   * @return the access flags of the class
+   * @throws IOException if the stream cannot be read or is not a class file
+   */
+  public static int readAccessFlags(InputStream classFile) throws IOException {
+    DataInputStream in = new DataInputStream(classFile);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a class file");
+    }
+    skip(in, 4); // minor_version, major_version
+    int constantPoolCount = in.readUnsignedShort();
+    for (int i = 1; i < constantPoolCount; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1: // Utf8
+          skip(in, in.readUnsignedShort());
+          break;
+        case 7: // Class
+        case 8: // String
+        case 16: // MethodType
+        case 19: // Module
+        case 20: // Package
+          skip(in, 2);
+          break;
+        case 15: // MethodHandle
+          skip(in, 3);
+          break;
+        case 3: // Integer
+        case 4: // Float
+        case 9: // Fieldref
+        case 10: // Methodref
+        case 11: // InterfaceMethodref
+        case 12: // NameAndType
+        case 17: // Dynamic
+        case 18: // InvokeDynamic
+          skip(in, 4);
+          break;
+        case 5: // Long
+        case 6: // Double
+          skip(in, 8);
+          i++; // takes two entries of the constant pool
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+    return in.readUnsignedShort();
+  }
+
+  /**
+   * Skips exactly the given number of bytes of the given stream.
+   *
+   * @param in the stream
+   * @param n the number of bytes to skip
+   * @throws IOException if the stream cannot be read, or ends before n bytes
+   */
+  private static void skip(DataInputStream in, int n) throws IOException {
+    if (in.skipBytes(n) != n) {
+      throw new EOFException();
+    }
+  }
+}
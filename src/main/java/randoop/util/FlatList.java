@@ -0,0 +1,189 @@
+package randoop.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An immutable list stored in a flat array, so that {@link #get} takes constant time regardless of
+ * how the list was built. By contrast, {@code get} on a {@link ListOfLists} or {@link
+ * OneMoreElementList} recurses through the lists from which it was built.
+ *
+ * <p>A FlatList shares its array with the FlatLists from which it was extended, where possible. If
+ * list {@code a} has {@code n} elements and a longer list {@code b} is built by {@link #of} from a
+ * list whose first {@code n} elements are {@code a}, then the first such {@code b} writes its other
+ * elements into the unused part of {@code a}'s array, rather than copying {@code a}'s elements.
+ * Other such lists copy them, because each slot of an array is written at most once.
+ */
+public final class FlatList<E> implements SimpleList<E>, Serializable {
+
+  private static final long serialVersionUID = 20240501;
+
+  /** The empty list. */
+  private static final FlatList<?> EMPTY = new FlatList<>(new Store(0), 0);
+
+  /** An array that may be shared by several FlatLists, each of which uses a prefix of it. */
+  private static final class Store implements Serializable {
+
+    private static final long serialVersionUID = 20240501;
+
+    /** The elements. Those at or beyond {@link #used} have not been written. */
+    final Object[] elements;
+
+    /** The number of elements that have been written. It only increases. */
+    final AtomicInteger used = new AtomicInteger();
+
+    /**
+     * Creates an empty store.
+     *
+     * @param capacity the length of the array
+     */
+    Store(int capacity) {
+      this.elements = new Object[capacity];
+    }
+  }
+
+  /** The array that holds the elements of this list, as a prefix. */
+  private final Store store;
+
+  /** The number of elements in this list. */
+  private final int size;
+
+  /**
+   * Creates a list of the first {@code size} elements of the given store.
+   *
+   * @param store the array
+   * @param size the number of elements, which have already been written to {@code store}
+   */
+  private FlatList(Store store, int size) {
+    this.store = store;
+    this.size = size;
+  }
+
+  /**
+   * Returns a FlatList with the same elements as the given list. Takes time linear in the number of
+   * elements that are not in a FlatList that is a prefix of {@code list}.
+   *
+   * @param <E> the type of the elements
+   * @param list a list
+   * @return a FlatList with the elements of {@code list}
+   */
+  @SuppressWarnings("unchecked") // the empty list has any element type
+  public static <E> FlatList<E> of(SimpleList<E> list) {
+    if (list instanceof FlatList) {
+      return (FlatList<E>) list;
+    }
+    // Find the longest prefix of the list that is already flat.
+    SimpleList<E> prefix = list;
+    while (true) {
+      if (prefix instanceof OneMoreElementList) {
+        prefix = ((OneMoreElementList<E>) prefix).list;
+      } else if (prefix instanceof ListOfLists && !((ListOfLists<E>) prefix).lists.isEmpty()) {
+        prefix = ((ListOfLists<E>) prefix).lists.get(0);
+      } else {
+        break;
+      }
+    }
+    FlatList<E> base = (prefix instanceof FlatList) ? (FlatList<E>) prefix : (FlatList<E>) EMPTY;
+    int newSize = list.size();
+    if (newSize == base.size) {
+      return base;
+    }
+
+    Store store = base.store;
+    if (newSize > store.elements.length || !store.used.compareAndSet(base.size, newSize)) {
+      // Leave room for a list that extends this one.
+      store = new Store(newSize + (newSize >> 2) + 1);
+      System.arraycopy(base.store.elements, 0, store.elements, 0, base.size);
+      store.used.set(newSize);
+    }
+    copyInto(list, base.size, store.elements, base.size);
+    return new FlatList<>(store, newSize);
+  }
+
+  /**
+   * Copies the elements of the given list, from index {@code start} on, into the given array.
+   * Recurses through the structure of the list once, rather than once per element.
+   *
+   * @param <E> the type of the elements
+   * @param list the list to copy from
+   * @param start the index of the first element to copy
+   * @param dest the array to copy to
+   * @param destPos the index in {@code dest} of the first element to copy
+   */
+  private static <E> void copyInto(SimpleList<E> list, int start, Object[] dest, int destPos) {
+    if (start >= list.size()) {
+      return;
+    }
+    if (list instanceof FlatList) {
+      FlatList<E> flat = (FlatList<E>) list;
+      System.arraycopy(flat.store.elements, start, dest, destPos, flat.size - start);
+    } else if (list instanceof OneMoreElementList) {
+      OneMoreElementList<E> oneMore = (OneMoreElementList<E>) list;
+      copyInto(oneMore.list, start, dest, destPos);
+      dest[destPos + oneMore.size - 1 - start] = oneMore.lastElement;
+    } else if (list instanceof ListOfLists) {
+      int offset = 0;
+      for (SimpleList<E> sublist : ((ListOfLists<E>) list).lists) {
+        int sublistSize = sublist.size();
+        if (start < offset + sublistSize) {
+          int from = Math.max(start - offset, 0);
+          copyInto(sublist, from, dest, destPos + offset + from - start);
+        }
+        offset += sublistSize;
+      }
+    } else {
+      for (int i = start; i < list.size(); i++) {
+        dest[destPos + i - start] = list.get(i);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // only elements of type E are written to the store
+  public E get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("No such element: " + index);
+    }
+    return (E) store.elements[index];
+  }
+
+  /**
+   * Returns the prefix of this list that ends with the given index, which shares this list's array.
+   *
+   * @param index the index into this list
+   * @return the prefix of this list whose last element is at {@code index}
+   */
+  @Override
+  public SimpleList<E> getSublist(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("No such index: " + index);
+    }
+    return (index == size - 1) ? this : new FlatList<>(store, index + 1);
+  }
+
+  @Override
+  public List<E> toJDKList() {
+    List<E> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(get(i));
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toJDKList().toString();
+  }
+}
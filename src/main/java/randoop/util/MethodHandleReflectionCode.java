@@ -0,0 +1,201 @@
+package randoop.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Wraps a method handle for a method or constructor together with its arguments, ready for
+ * execution. Can be run only once.
+ *
+ * <p>This is a faster alternative to {@link MethodReflectionCode} and {@link
+ * ConstructorReflectionCode}: a method handle does no access check, and does not wrap exceptions,
+ * on each call. A handle is created by {@link #spreadHandle(Method)} or {@link
+ * #spreadHandle(Constructor)}, which are expensive, so clients should create one handle per method
+ * or constructor and reuse it.
+ *
+ * <p>The outcome of a call is the same as for reflection, provided that {@link #canInvoke} returns
+ * true for the arguments. Otherwise, reflection would throw an {@code IllegalArgumentException},
+ * which indicates a bug in Randoop; the client should use reflection in that case, to report the
+ * bug.
+ */
+public final class MethodHandleReflectionCode extends ReflectionCode {
+
+  /** The lookup used to create method handles for methods and constructors that are accessible. */
+  private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+  /** The type of every handle returned by {@code spreadHandle}. */
+  private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+  /** The method or constructor to be called. */
+  private final Executable member;
+
+  /** The handle for {@link #member}, created by {@code spreadHandle}. */
+  private final MethodHandle handle;
+
+  /**
+   * The arguments that the method or constructor is applied to. For an instance method, the first
+   * element is the receiver.
+   */
+  private final Object[] inputs;
+
+  /**
+   * Create a new MethodHandleReflectionCode to represent a method or constructor invocation.
+   *
+   * @param member the method or constructor to be called
+   * @param handle the handle for {@code member}, created by {@code spreadHandle}
+   * @param inputs the arguments that the method or constructor is applied to. For an instance
+   *     method, the first element is the receiver.
+   */
+  public MethodHandleReflectionCode(Executable member, MethodHandle handle, Object[] inputs) {
+    this.member = member;
+    this.handle = handle;
+    this.inputs = inputs;
+  }
+
+  /**
+   * Returns a handle for the given method that takes all the inputs, including the receiver of an
+   * instance method, as one {@code Object[]}, and returns an {@code Object} (null for a void
+   * method).
+   *
+   * @param method the method, which must be accessible
+   * @return a handle for the method, or null if none can be created
+   */
+  public static @Nullable MethodHandle spreadHandle(Method method) {
+    try {
+      return spread(lookup.unreflect(method));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      Log.logPrintf("no method handle for %s: %s%n", method, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns a handle for the given constructor that takes all the inputs as one {@code Object[]},
+   * and returns the new object.
+   *
+   * @param constructor the constructor, which must be accessible
+   * @return a handle for the constructor, or null if none can be created
+   */
+  public static @Nullable MethodHandle spreadHandle(Constructor<?> constructor) {
+    // Reflection reports an attempt to instantiate an abstract class as a Randoop bug.
+    if (Modifier.isAbstract(constructor.getDeclaringClass().getModifiers())) {
+      return null;
+    }
+    try {
+      return spread(lookup.unreflectConstructor(constructor));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      Log.logPrintf("no method handle for %s: %s%n", constructor, e);
+      return null;
+    }
+  }
+
+  /**
+   * Adapts the given handle to type {@link #SPREAD_TYPE}.
+   *
+   * @param handle a handle for a method or constructor
+   * @return a handle that takes the arguments of {@code handle} as an array
+   */
+  private static MethodHandle spread(MethodHandle handle) {
+    // Pass varargs as an array, as Method.invoke does.
+    MethodHandle fixed = handle.asFixedArity();
+    return fixed.asSpreader(Object[].class, fixed.type().parameterCount()).asType(SPREAD_TYPE);
+  }
+
+  /**
+   * Returns true if calling the given method or constructor on the given inputs has the same
+   * outcome through a method handle as through reflection. That is the case if reflection would
+   * not reject the inputs: there is the right number of them, and each is a value of the
+   * corresponding parameter type.
+   *
+   * @param member a method or constructor
+   * @param inputs the arguments. For an instance method, the first element is the receiver.
+   * @return true if a method handle may be used to call {@code member} on {@code inputs}
+   */
+  public static boolean canInvoke(Executable member, Object[] inputs) {
+    int offset = 0;
+    if (member instanceof Method && !Modifier.isStatic(member.getModifiers())) {
+      if (inputs.length == 0) {
+        return false;
+      }
+      // A null receiver yields a NullPointerException either way.
+      if (inputs[0] != null && !member.getDeclaringClass().isInstance(inputs[0])) {
+        return false;
+      }
+      offset = 1;
+    }
+    Class<?>[] parameterTypes = member.getParameterTypes();
+    if (inputs.length != parameterTypes.length + offset) {
+      return false;
+    }
+    for (int i = 0; i < parameterTypes.length; i++) {
+      if (!isValueOf(parameterTypes[i], inputs[i + offset])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if reflection accepts the given value for a parameter of the given type.
+   *
+   * @param type a parameter type
+   * @param value an argument
+   * @return true if {@code value} may be passed for a parameter of type {@code type}
+   */
+  private static boolean isValueOf(Class<?> type, Object value) {
+    if (!type.isPrimitive()) {
+      return value == null || type.isInstance(value);
+    }
+    if (value == null) {
+      return false;
+    }
+    Class<?> valueClass = value.getClass();
+    // Unboxing, possibly followed by a widening primitive conversion (JLS 5.1.2).
+    switch (type.getName()) {
+      case "boolean":
+        return valueClass == Boolean.class;
+      case "char":
+        return valueClass == Character.class;
+      case "byte":
+        return valueClass == Byte.class;
+      case "short":
+        return valueClass == Short.class || valueClass == Byte.class;
+      case "int":
+        return valueClass == Integer.class
+            || isValueOf(short.class, value)
+            || isValueOf(char.class, value);
+      case "long":
+        return valueClass == Long.class || isValueOf(int.class, value);
+      case "float":
+        return valueClass == Float.class || isValueOf(long.class, value);
+      case "double":
+        return valueClass == Double.class || isValueOf(float.class, value);
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public void runReflectionCodeRaw() {
+    Log.logPrintf("runReflectionCodeRaw: %s%n", member);
+    try {
+      this.retval = (Object) handle.invokeExact(inputs);
+    } catch (Throwable e) {
+      // Unlike reflection, a method handle does not wrap an exception thrown by the underlying
+      // method or constructor.
+      this.exceptionThrown = e;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Call to " + member + ", args: " + Arrays.toString(inputs) + status();
+  }
+}
@@ -2,6 +2,7 @@ package randoop.util;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -27,10 +28,27 @@ public final class Randomness {
   public static final long DEFAULT_SEED = 0;
 
   /**
-   * The random generator that makes random choices. (Developer note: do not declare new Random
-   * objects; use this one instead).
+   * The random generator that makes random choices, unless the current thread has its own stream.
+   * (Developer note: do not declare new Random objects; use {@link #random()} instead).
    */
-  private static Random random = new Random(DEFAULT_SEED);
+  private static final Random globalRandom = new Random(DEFAULT_SEED);
+
+  /**
+   * A per-thread random generator, used instead of {@link #globalRandom} by threads that have
+   * called {@link #setThreadSeed}. This lets concurrent generators each make a reproducible
+   * sequence of random choices.
+   */
+  private static final ThreadLocal<Random> threadRandom = new ThreadLocal<>();
+
+  /**
+   * Returns the random generator for the current thread.
+   *
+   * @return the current thread's random generator if it has one, otherwise the global one
+   */
+  private static Random random() {
+    Random result = threadRandom.get();
+    return (result == null) ? globalRandom : result;
+  }
 
   /**
    * Sets the seed of this random number generator.
@@ -38,16 +56,32 @@ public final class Randomness {
    * @param seed the initial seed
    */
   public static void setSeed(long seed) {
-    random.setSeed(seed);
+    globalRandom.setSeed(seed);
     totalCallsToRandom = 0;
     logSelection("[Random object]", "setSeed", seed);
   }
 
+  /**
+   * Gives the current thread its own random number generator, with the given seed. Until {@link
+   * #clearThreadSeed} is called, random choices made on the current thread use that generator and
+   * do not affect, and are not affected by, choices made on other threads.
+   *
+   * @param seed the initial seed for the current thread's generator
+   */
+  public static void setThreadSeed(long seed) {
+    threadRandom.set(new Random(seed));
+  }
+
+  /** Makes the current thread use the global random number generator again. */
+  public static void clearThreadSeed() {
+    threadRandom.remove();
+  }
+
   /** Number of calls to the underlying Random instance that this wraps. */
   private static int totalCallsToRandom = 0;
 
   /**
-   * Call this before every use of Randomness.random.
+   * Call this before every use of random().
    *
    * @param caller the name of the method that called Randomness.random
    */
@@ -66,7 +100,7 @@ public final class Randomness {
    */
   public static int nextRandomInt(int i) {
     incrementCallsToRandom("nextRandomInt");
-    int value = Randomness.random.nextInt(i);
+    int value = random().nextInt(i);
     logSelection(value, "nextRandomInt", i);
     return value;
   }
@@ -152,7 +186,7 @@ public final class Randomness {
 
     // Select a random point in interval and find its corresponding element.
     incrementCallsToRandom("randomMemberWeighted(SimpleList)");
-    double chosenPoint = Randomness.random.nextDouble() * totalWeight;
+    double chosenPoint = random().nextDouble() * totalWeight;
     if (GenInputsAbstract.selection_log != null) {
       try {
         GenInputsAbstract.selection_log.write(String.format("chosenPoint = %s%n", chosenPoint));
@@ -178,6 +212,72 @@ public final class Randomness {
     throw new RandoopBug("Unable to select random member");
   }
 
+  /**
+   * Randomly selects an element from a weighted distribution of elements, in time logarithmic in
+   * the number of elements. An element with a weight of zero will never be selected.
+   *
+   * @param <T> the type of the elements
+   * @param sampler the elements to select from, with their weights
+   * @return a randomly selected element from {@code sampler}
+   */
+  public static <T> T randomMemberWeighted(WeightedSampler<T> sampler) {
+    return randomMemberWeighted(Collections.singletonList(sampler));
+  }
+
+  /**
+   * Randomly selects an element from a weighted distribution of elements that is split across
+   * several samplers, as if they were concatenated into one. The time is logarithmic in the number
+   * of elements, and linear in the number of samplers.
+   *
+   * @param <T> the type of the elements
+   * @param samplers the elements to select from, with their weights
+   * @return a randomly selected element from one of the {@code samplers}
+   */
+  public static <T> T randomMemberWeighted(List<WeightedSampler<T>> samplers) {
+    double[] totalWeights = new double[samplers.size()];
+    double totalWeight = 0.0;
+    int lastPositive = -1;
+    for (int i = 0; i < samplers.size(); i++) {
+      totalWeights[i] = samplers.get(i).totalWeight();
+      totalWeight += totalWeights[i];
+      if (totalWeights[i] > 0) {
+        lastPositive = i;
+      }
+    }
+    if (lastPositive == -1) {
+      throw new IllegalArgumentException("Empty list");
+    }
+
+    // Select a random point in interval and find its corresponding element.
+    incrementCallsToRandom("randomMemberWeighted(WeightedSampler)");
+    double chosenPoint = random().nextDouble() * totalWeight;
+    if (GenInputsAbstract.selection_log != null) {
+      try {
+        GenInputsAbstract.selection_log.write(String.format("chosenPoint = %s%n", chosenPoint));
+      } catch (IOException e) {
+        throw new Error("Problem writing to selection-log", e);
+      }
+    }
+
+    // If round-off error puts the point past the end, the last sampler with positive weight is
+    // chosen, and it chooses its last element with positive weight.
+    int samplerIndex = 0;
+    double remaining = chosenPoint;
+    for (int i = 0; i < totalWeights.length; i++) {
+      if (totalWeights[i] > 0) {
+        samplerIndex = i;
+        if (remaining < totalWeights[i] || i == lastPositive) {
+          break;
+        }
+        remaining -= totalWeights[i];
+      }
+    }
+    WeightedSampler<T> sampler = samplers.get(samplerIndex);
+    int index = sampler.indexAt(remaining);
+    logSelection(index, "randomMemberWeighted", sampler);
+    return sampler.get(index);
+  }
+
   /**
    * Return a random member of the set, selected uniformly at random.
    *
@@ -205,7 +305,7 @@ public final class Randomness {
     }
     double falseProb = 1 - trueProb;
     incrementCallsToRandom("weightedCoinFlip");
-    boolean result = Randomness.random.nextDouble() >= falseProb;
+    boolean result = random().nextDouble() >= falseProb;
     logSelection(result, "weightedCoinFlip", trueProb);
     return result;
   }
@@ -230,7 +330,7 @@ public final class Randomness {
     }
     double falseProbNormalized = falseProb / totalProb;
     incrementCallsToRandom("randomBoolFromDistribution");
-    boolean result = Randomness.random.nextDouble() >= falseProbNormalized;
+    boolean result = random().nextDouble() >= falseProbNormalized;
     logSelection(result, "randomBoolFromDistribution", falseProb + ", " + trueProb);
     return result;
   }
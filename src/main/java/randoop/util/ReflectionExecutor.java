@@ -28,8 +28,9 @@ public final class ReflectionExecutor {
    *
    * <p>Use this option if Randoop does not terminate, which is usually due to execution of code
    * under test that results in an infinite loop or that waits for user input. The downside of this
-   * option is a BIG (order-of-magnitude) decrease in generation speed. The tests are not run in
-   * parallel, merely in isolation.
+   * option is a decrease in generation speed, because each call is handed off to another thread.
+   * That thread is reused from call to call, and is replaced only when a call times out. The tests
+   * are not run in parallel, merely in isolation.
    */
   @OptionGroup("Threading")
   @Option("Execute each test in a separate thread, with timeout")
@@ -45,32 +46,33 @@ public final class ReflectionExecutor {
   @Option("Maximum number of milliseconds a test may run. Only meaningful with --usethreads")
   public static int call_timeout = CALL_TIMEOUT_DEFAULT;
 
-  // Execution statistics.
+  // Execution statistics.  Guarded by the ReflectionExecutor class, because several generator
+  // threads may execute code at the same time (see --workers).
   private static long normal_exec_duration = 0;
   private static int normal_exec_count = 0;
   private static long excep_exec_duration = 0;
   private static int excep_exec_count = 0;
 
-  public static void resetStatistics() {
+  public static synchronized void resetStatistics() {
     normal_exec_duration = 0;
     normal_exec_count = 0;
     excep_exec_duration = 0;
     excep_exec_count = 0;
   }
 
-  public static int normalExecs() {
+  public static synchronized int normalExecs() {
     return normal_exec_count;
   }
 
-  public static int excepExecs() {
+  public static synchronized int excepExecs() {
     return excep_exec_count;
   }
 
-  public static double normalExecAvgMillis() {
+  public static synchronized double normalExecAvgMillis() {
     return ((normal_exec_duration / (double) normal_exec_count) / Math.pow(10, 6));
   }
 
-  public static double excepExecAvgMillis() {
+  public static synchronized double excepExecAvgMillis() {
     return ((excep_exec_duration / (double) excep_exec_count) / Math.pow(10, 6));
   }
 
@@ -96,24 +98,50 @@ public final class ReflectionExecutor {
     long duration = System.nanoTime() - start;
 
     if (code.getExceptionThrown() != null) {
-      // Add duration to running sum for exceptional execution.
-      excep_exec_duration += duration;
-      assert excep_exec_duration > 0; // check no overflow.
-      excep_exec_count++;
+      recordExceptionalExecution(duration);
       // System.out.println("exceptional execution: " + code);
       return new ExceptionalExecution(code.getExceptionThrown(), duration);
     } else {
-      // Add duration to running sum for normal execution.
-      normal_exec_duration += duration;
-      assert normal_exec_duration > 0; // check no overflow.
-      normal_exec_count++;
+      recordNormalExecution(duration);
       // System.out.println("normal execution: " + code);
       return new NormalExecution(code.getReturnValue(), duration);
     }
   }
 
   /**
-   * Executes code.runReflectionCode() in its own thread.
+   * Adds a normal execution to the execution statistics.
+   *
+   * @param duration the execution time, in nanoseconds
+   */
+  private static synchronized void recordNormalExecution(long duration) {
+    // Add duration to running sum for normal execution.
+    normal_exec_duration += duration;
+    assert normal_exec_duration > 0; // check no overflow.
+    normal_exec_count++;
+  }
+
+  /**
+   * Adds an exceptional execution to the execution statistics.
+   *
+   * @param duration the execution time, in nanoseconds
+   */
+  private static synchronized void recordExceptionalExecution(long duration) {
+    // Add duration to running sum for exceptional execution.
+    excep_exec_duration += duration;
+    assert excep_exec_duration > 0; // check no overflow.
+    excep_exec_count++;
+  }
+
+  /**
+   * The thread on which the current thread runs code, when {@link #usethreads} is true. Each thread
+   * that executes code, such as each generator thread (see {@code --workers}), has its own runner
+   * thread, which it reuses until a call times out.
+   */
+  private static final ThreadLocal<RunnerThread> runnerThread = new ThreadLocal<>();
+
+  /**
+   * Executes code.runReflectionCode() in a separate thread. The thread is reused for subsequent
+   * calls, unless this call times out, in which case the thread is stopped.
    *
    * @param code the {@link ReflectionCode} to be executed
    * @throws TimeoutExceededException if execution times out
@@ -122,25 +150,28 @@ public final class ReflectionExecutor {
   private static void executeReflectionCodeThreaded(ReflectionCode code)
       throws TimeoutExceededException {
 
-    RunnerThread runnerThread = new RunnerThread(null);
-    runnerThread.setup(code);
+    RunnerThread runner = runnerThread.get();
+    if (runner == null) {
+      runner = new RunnerThread(null);
+      runner.start();
+      runnerThread.set(runner);
+    }
 
     try {
 
-      // Start the test.
-      runnerThread.start();
-
-      // If test doesn't finish in time, suspend it.
-      runnerThread.join(call_timeout);
+      // Run the test.  If it doesn't finish in time, stop it.
+      boolean finished = runner.runWithTimeout(code, call_timeout);
 
-      if (!runnerThread.runFinished) {
-        Log.logPrintf("Exceeded timeout: aborting execution of call: %s%n", runnerThread.getCode());
+      if (!finished) {
+        Log.logPrintf("Exceeded timeout: aborting execution of call: %s%n", code);
         // TODO: is it possible to log the test being executed?
         // (Maybe not here, but it has been previously logged.)
 
+        // Stopping the runner leaves it unusable, so the next call will create a new one.
+        runnerThread.remove();
         // We use this deprecated method because it's the only way to
         // stop a thread no matter what it's doing.
-        runnerThread.stop();
+        runner.stop();
 
         throw new TimeoutExceededException();
       }
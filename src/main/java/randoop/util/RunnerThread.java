@@ -1,23 +1,31 @@
 package randoop.util;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A long-lived thread that runs {@link ReflectionCode} on behalf of another thread, which waits for
+ * it with a timeout. A runner thread executes one call after another, so that a new thread is
+ * needed only when a call times out and its runner thread has to be stopped.
+ */
 public class RunnerThread extends Thread {
 
-  // Fields assigned when calling setup(..)
-  private ReflectionCode code;
+  /** Guards the fields below, and signals changes to them. */
+  private final Object lock = new Object();
 
-  // Fields assigned when calling run()
-  boolean runFinished;
+  /** The code to run next, or that is running. Null when this thread is idle. */
+  private @Nullable ReflectionCode code;
 
-  // The state of the thread.
-  private NextCallMustBe state;
+  /** The code that is being, or was most recently, run. */
+  private @Nullable ReflectionCode lastCode;
 
-  private enum NextCallMustBe {
-    SETUP,
-    RUN
-  }
+  /** True if the most recent code has finished running, normally or by throwing. */
+  private boolean runDone;
+
+  /** True if the most recent code has finished running without throwing. */
+  boolean runFinished;
 
   /**
-   * Create a new runner thread.
+   * Create a new runner thread. The caller must start it.
    *
    * @param threadGroup the group for this thread
    */
@@ -25,28 +33,74 @@ public class RunnerThread extends Thread {
     super(threadGroup, "randoop.util.RunnerThread");
     this.code = null;
     this.runFinished = false;
-    this.state = NextCallMustBe.SETUP;
+    // An idle runner thread must not keep the JVM alive.
+    this.setDaemon(true);
     this.setUncaughtExceptionHandler(RandoopUncaughtRunnerThreadExceptionHandler.getHandler());
   }
 
-  public void setup(ReflectionCode code) {
-    if (state != NextCallMustBe.SETUP) throw new IllegalStateException();
+  /**
+   * Runs the given code on this thread, and waits for it to finish.
+   *
+   * @param code the code to run
+   * @param timeoutMillis how long to wait for the code to finish, in milliseconds
+   * @return true if the code finished without throwing an exception, false if it threw an
+   *     exception or has not finished within the timeout
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  boolean runWithTimeout(ReflectionCode code, long timeoutMillis) throws InterruptedException {
     if (code == null) throw new IllegalArgumentException("code cannot be null.");
-    this.code = code;
-    this.state = NextCallMustBe.RUN;
+    long deadline = System.nanoTime() + timeoutMillis * 1000000L;
+    synchronized (lock) {
+      if (this.code != null) throw new IllegalStateException();
+      this.code = code;
+      this.lastCode = code;
+      this.runDone = false;
+      this.runFinished = false;
+      lock.notifyAll();
+      while (!runDone) {
+        long remainingMillis = (deadline - System.nanoTime()) / 1000000L;
+        if (remainingMillis <= 0) {
+          return false;
+        }
+        lock.wait(remainingMillis);
+      }
+      return runFinished;
+    }
   }
 
   @Override
   public final void run() {
-    if (state != NextCallMustBe.RUN) throw new IllegalStateException();
-    runFinished = false;
-    executeReflectionCode();
-    runFinished = true;
-    this.state = NextCallMustBe.SETUP;
-  }
-
-  private void executeReflectionCode() throws ReflectionCode.ReflectionCodeException {
-    code.runReflectionCode();
+    while (true) {
+      ReflectionCode next;
+      synchronized (lock) {
+        while (code == null) {
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        next = code;
+      }
+      // Do not let an interrupt from a previous call affect this one.
+      Thread.interrupted();
+      boolean finished = false;
+      try {
+        next.runReflectionCode();
+        finished = true;
+      } catch (ThreadDeath e) {
+        // This thread was stopped because the code timed out.
+        throw e;
+      } catch (Throwable e) {
+        // Reported to the waiting thread as an unfinished run.
+      }
+      synchronized (lock) {
+        code = null;
+        runFinished = finished;
+        runDone = true;
+        lock.notifyAll();
+      }
+    }
   }
 
   /**
@@ -55,6 +109,8 @@ public class RunnerThread extends Thread {
    * @return the ReflectionCode that is being, or was, run
    */
   public ReflectionCode getCode() {
-    return code;
+    synchronized (lock) {
+      return lastCode;
+    }
   }
 }
@@ -10,6 +10,7 @@ import java.util.List;
  *   <li>{@link SimpleArrayList}: a typical list is stored as an array list.
  *   <li>{@link ListOfLists}: a list that only stores pointers to its constituent sub-lists.
  *   <li>{@link OneMoreElementList}: stores a SimpleList plus one additional final element.
+ *   <li>{@link FlatList}: stores the elements of another SimpleList in an array, for fast access.
  * </ul>
  *
  * <p>IMPLEMENTATION NOTE
@@ -59,7 +60,8 @@ public interface SimpleList<E> {
    * element.
    *
    * <p>The result is always an existing SimpleList, the smallest one that contains the index.
-   * Currently, it is always a {@link SimpleArrayList}.
+   * Currently, it is always a {@link SimpleArrayList}, {@link OneMoreElementList}, or {@link
+   * FlatList}.
    *
    * @param index the index into this list
    * @return the sublist containing this index
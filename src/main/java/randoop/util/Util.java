@@ -1,10 +1,18 @@
 package randoop.util;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.plumelib.util.StringsPlume;
 import randoop.Globals;
+import randoop.main.RandoopBug;
 
 /** Helpers for assertions, and stuff... */
 public final class Util {
@@ -171,4 +179,61 @@ public final class Util {
     b.append(text.substring(position));
     return b.toString();
   }
+
+  /**
+   * Applies the given function to each of the given elements, concurrently, and returns the results
+   * in the order of the elements. Runs on the calling thread if there is at most one element, or
+   * if logging is on, so that the log is in order.
+   *
+   * @param <T> the type of the elements
+   * @param <R> the type of the results
+   * @param elements the elements
+   * @param function the function
+   * @param threadName the prefix of the names of the threads
+   * @return the result for each element, in order
+   */
+  public static <T, R> List<R> mapConcurrently(
+      List<T> elements, Function<T, R> function, String threadName) {
+    List<R> results = new ArrayList<>(elements.size());
+    int numThreads = Math.min(elements.size(), Runtime.getRuntime().availableProcessors());
+    if (numThreads <= 1 || Log.isLoggingOn()) {
+      for (T element : elements) {
+        results.add(function.apply(element));
+      }
+      return results;
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            numThreads,
+            runnable -> {
+              Thread thread = new Thread(runnable);
+              thread.setName(threadName + "-" + thread.getId());
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<R>> futures = new ArrayList<>(elements.size());
+      for (T element : elements) {
+        futures.add(executor.submit(() -> function.apply(element)));
+      }
+      for (Future<R> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RandoopBug("Interrupted while running " + threadName + " tasks", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RandoopBug("Failure in " + threadName + " task", cause);
+    } finally {
+      executor.shutdownNow();
+    }
+    return results;
+  }
 }
@@ -0,0 +1,235 @@
+package randoop.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A list of elements, each with a non-negative weight, that supports weighted random selection in
+ * time logarithmic in the number of elements. To select an element, use {@link
+ * Randomness#randomMemberWeighted(WeightedSampler)}.
+ *
+ * <p>The weights are stored in a Fenwick tree (also called a binary indexed tree), so appending an
+ * element, changing a weight, computing the total weight, and finding the element at a given point
+ * of the cumulative distribution each take O(log n) time. By contrast, {@link
+ * Randomness#randomMemberWeighted(SimpleList, java.util.Map, double)} takes O(n) time per
+ * selection.
+ *
+ * <p>Elements are ordered by insertion, and an element is selected for a point {@code x} in the
+ * same way as by a linear scan: it is the first element whose cumulative weight exceeds {@code x}.
+ */
+public final class WeightedSampler<T> {
+
+  /** The elements, in insertion order. */
+  private final List<T> elements;
+
+  /** The weight of each element. Entries at or beyond {@code elements.size()} are zero. */
+  private double[] weights;
+
+  /**
+   * The Fenwick tree, indexed from 1: {@code tree[i]} is the sum of the weights of the elements at
+   * indices {@code i - (i & -i)} through {@code i - 1}. Its length is one more than the length of
+   * {@link #weights}, which is a power of 2.
+   */
+  private double[] tree;
+
+  /**
+   * The number of calls to {@link #setWeight} since the tree was last recomputed from {@link
+   * #weights}. The tree is recomputed periodically, so that round-off error from repeated updates
+   * does not accumulate.
+   */
+  private int updatesSinceRebuild = 0;
+
+  /** Creates an empty sampler. */
+  public WeightedSampler() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty sampler.
+   *
+   * @param expectedSize the expected number of elements
+   */
+  public WeightedSampler(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(1, expectedSize - 1)) << 1;
+    this.elements = new ArrayList<>(capacity);
+    this.weights = new double[capacity];
+    this.tree = new double[capacity + 1];
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    return elements.size();
+  }
+
+  /**
+   * Returns true if this contains no elements.
+   *
+   * @return true if this contains no elements
+   */
+  public boolean isEmpty() {
+    return elements.isEmpty();
+  }
+
+  /**
+   * Returns the element at the given index.
+   *
+   * @param index an index, in insertion order
+   * @return the element at {@code index}
+   */
+  public T get(int index) {
+    return elements.get(index);
+  }
+
+  /**
+   * Returns the weight of the element at the given index.
+   *
+   * @param index an index, in insertion order
+   * @return the weight of the element at {@code index}
+   */
+  public double getWeight(int index) {
+    checkIndex(index);
+    return weights[index];
+  }
+
+  /**
+   * Appends an element.
+   *
+   * @param element the element to add
+   * @param weight its weight, which must be non-negative and finite
+   */
+  public void add(T element, double weight) {
+    checkWeight(weight);
+    if (elements.size() == weights.length) {
+      weights = Arrays.copyOf(weights, weights.length * 2);
+      rebuild();
+    }
+    int index = elements.size();
+    elements.add(element);
+    weights[index] = weight;
+    addToTree(index, weight);
+  }
+
+  /**
+   * Changes the weight of the element at the given index.
+   *
+   * @param index an index, in insertion order
+   * @param weight the new weight, which must be non-negative and finite
+   */
+  public void setWeight(int index, double weight) {
+    checkIndex(index);
+    checkWeight(weight);
+    double delta = weight - weights[index];
+    weights[index] = weight;
+    if (++updatesSinceRebuild > elements.size()) {
+      rebuild();
+    } else {
+      addToTree(index, delta);
+    }
+  }
+
+  /**
+   * Returns the sum of the weights of all the elements.
+   *
+   * @return the total weight
+   */
+  public double totalWeight() {
+    double sum = 0;
+    for (int i = elements.size(); i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the index of the first element whose cumulative weight (the sum of its weight and the
+   * weights of all elements before it) exceeds the given point. An element with weight zero is
+   * never returned.
+   *
+   * @param point a value in {@code [0, totalWeight())}
+   * @return the index of the element at {@code point} of the cumulative distribution
+   * @throws IllegalArgumentException if the total weight is zero
+   */
+  public int indexAt(double point) {
+    int capacity = weights.length;
+    int index = 0;
+    double remaining = point;
+    for (int step = capacity; step > 0; step >>= 1) {
+      int next = index + step;
+      if (next <= capacity && tree[next] <= remaining) {
+        index = next;
+        remaining -= tree[next];
+      }
+    }
+    // Round-off error can make the search stop at an element of weight zero, or past the last
+    // element.  Then choose the nearest element of positive weight, preferring a later one, as a
+    // linear scan would.
+    for (int i = index; i < elements.size(); i++) {
+      if (weights[i] > 0) {
+        return i;
+      }
+    }
+    for (int i = Math.min(index, elements.size()) - 1; i >= 0; i--) {
+      if (weights[i] > 0) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("No element has positive weight");
+  }
+
+  /**
+   * Adds {@code delta} to the weight of the element at {@code index} in the tree.
+   *
+   * @param index an index, in insertion order
+   * @param delta the amount to add
+   */
+  private void addToTree(int index, double delta) {
+    for (int i = index + 1; i < tree.length; i += i & -i) {
+      tree[i] += delta;
+    }
+  }
+
+  /** Recomputes {@link #tree} from {@link #weights}, in linear time. */
+  private void rebuild() {
+    tree = new double[weights.length + 1];
+    for (int i = 1; i < tree.length; i++) {
+      tree[i] += weights[i - 1];
+      int parent = i + (i & -i);
+      if (parent < tree.length) {
+        tree[parent] += tree[i];
+      }
+    }
+    updatesSinceRebuild = 0;
+  }
+
+  /**
+   * Throws an exception if the given index is not the index of an element.
+   *
+   * @param index an index
+   */
+  private void checkIndex(int index) {
+    if (index < 0 || index >= elements.size()) {
+      throw new IndexOutOfBoundsException("index " + index + ", size " + elements.size());
+    }
+  }
+
+  /**
+   * Throws an exception if the given weight is negative or not finite.
+   *
+   * @param weight a weight
+   */
+  private static void checkWeight(double weight) {
+    if (!(weight >= 0) || Double.isInfinite(weight)) {
+      throw new IllegalArgumentException("Weight should be non-negative and finite: " + weight);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "WeightedSampler(" + elements.size() + " elements, total weight " + totalWeight() + ")";
+  }
+}
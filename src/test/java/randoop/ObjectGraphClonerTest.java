@@ -0,0 +1,123 @@
+package randoop;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.thoughtworks.xstream.XStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ObjectGraphClonerTest {
+
+  private final XStream xstream = new XStream();
+
+  private final ObjectGraphCloner cloner = new ObjectGraphCloner(xstream);
+
+  static class Node {
+    final int value;
+    Node next;
+    transient String label;
+
+    Node(int value) {
+      this.value = value;
+    }
+  }
+
+  static class Holder {
+    Object[] objects;
+    int[] ints;
+    List<Node> list = new ArrayList<>();
+    Map<String, Node> map = new HashMap<>();
+    TimeUnit unit = TimeUnit.SECONDS;
+  }
+
+  /**
+   * Asserts that the copy serializes to the same XML as the original, which is what an XStream
+   * round trip guarantees.
+   *
+   * @param original the original object
+   * @param copy the copy
+   */
+  private void assertSameXml(Object original, Object copy) {
+    assertEquals(xstream.toXML(original), xstream.toXML(copy));
+  }
+
+  @Test
+  public void testImmutables() {
+    assertNull(cloner.deepCopy(null));
+    String s = "a string";
+    assertSame(s, cloner.deepCopy(s));
+    Integer i = 123456;
+    assertSame(i, cloner.deepCopy(i));
+    assertSame(TimeUnit.DAYS, cloner.deepCopy(TimeUnit.DAYS));
+  }
+
+  @Test
+  public void testCycleAndSharing() {
+    Node a = new Node(1);
+    Node b = new Node(2);
+    a.next = b;
+    b.next = a;
+    a.label = "a";
+    Holder holder = new Holder();
+    holder.objects = new Object[] {a, b, a, "x"};
+    holder.ints = new int[] {1, 2, 3};
+    holder.list.add(a);
+    holder.map.put("b", b);
+
+    Holder copy = (Holder) cloner.deepCopy(holder);
+    assertSameXml(holder, copy);
+    Node copyA = (Node) copy.objects[0];
+    Node copyB = (Node) copy.objects[1];
+    assertNotSame(a, copyA);
+    assertSame(copyA, copyB.next);
+    assertSame(copyB, copyA.next);
+    assertSame(copyA, copy.objects[2]);
+    assertSame(copyA, copy.list.get(0));
+    assertSame(copyB, copy.map.get("b"));
+    assertEquals(1, copyA.value);
+    assertNotSame(holder.ints, copy.ints);
+    assertArrayEquals(holder.ints, copy.ints);
+    assertSame(TimeUnit.SECONDS, copy.unit);
+
+    // The copy does not change when the original does.
+    a.next = null;
+    holder.ints[0] = 42;
+    holder.list.clear();
+    assertSame(copyB, copyA.next);
+    assertEquals(1, copy.ints[0]);
+    assertEquals(1, copy.list.size());
+  }
+
+  @Test
+  public void testSelfContainingList() {
+    List<Object> list = new ArrayList<>();
+    list.add(list);
+    @SuppressWarnings("unchecked")
+    List<Object> copy = (List<Object>) cloner.deepCopy(list);
+    assertNotSame(list, copy);
+    assertSame(copy, copy.get(0));
+  }
+
+  @Test
+  public void testLambdaFallsBackToXStream() {
+    TreeSet<String> set =
+        new TreeSet<>((Comparator<String> & Serializable) (x, y) -> y.compareTo(x));
+    set.add("a");
+    set.add("b");
+    @SuppressWarnings("unchecked")
+    TreeSet<String> copy = (TreeSet<String>) cloner.deepCopy(set);
+    assertNotSame(set, copy);
+    assertEquals("b", copy.first());
+  }
+}
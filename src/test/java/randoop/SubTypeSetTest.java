@@ -0,0 +1,81 @@
+package randoop;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+
+public class SubTypeSetTest {
+
+  private final Type integerType = Type.forClass(Integer.class);
+  private final Type numberType = Type.forClass(Number.class);
+  private final Type longType = Type.forClass(Long.class);
+  private final Type stringType = Type.forClass(String.class);
+
+  @Test
+  public void testMatchesInInsertionOrder() {
+    SubTypeSet set = new SubTypeSet(false);
+    set.add(stringType);
+    set.add(integerType);
+    set.add(numberType);
+    assertEquals(
+        Arrays.asList(stringType, integerType, numberType),
+        new ArrayList<>(set.getMatches(JavaTypes.OBJECT_TYPE)));
+    assertEquals(
+        Arrays.asList(integerType, numberType), new ArrayList<>(set.getMatches(numberType)));
+    assertEquals(Collections.emptySet(), set.getMatches(longType));
+  }
+
+  @Test
+  public void testAddAfterQuery() {
+    SubTypeSet set = new SubTypeSet(false);
+    set.add(integerType);
+    assertEquals(Arrays.asList(integerType), new ArrayList<>(set.getMatches(numberType)));
+    set.add(stringType);
+    set.add(longType);
+    assertEquals(
+        Arrays.asList(integerType, longType), new ArrayList<>(set.getMatches(numberType)));
+    assertEquals(3, set.size());
+  }
+
+  @Test
+  public void testSetsAreIndependent() {
+    SubTypeSet first = new SubTypeSet(false);
+    first.add(integerType);
+    first.getMatches(numberType);
+    SubTypeSet second = new SubTypeSet(false);
+    second.add(longType);
+    assertEquals(Arrays.asList(longType), new ArrayList<>(second.getMatches(numberType)));
+    assertEquals(Arrays.asList(integerType), new ArrayList<>(first.getMatches(numberType)));
+  }
+
+  @Test
+  public void testUndo() {
+    SubTypeSet set = new SubTypeSet(true);
+    set.add(integerType);
+    set.mark();
+    set.getMatches(numberType);
+    set.add(longType);
+    set.undoLastStep();
+    assertEquals(1, set.size());
+    assertEquals(Arrays.asList(integerType), new ArrayList<>(set.getMatches(numberType)));
+  }
+
+  @Test
+  public void testAddAgainAfterUndo() {
+    SubTypeSet set = new SubTypeSet(true);
+    set.mark();
+    set.add(longType);
+    set.getMatches(numberType);
+    set.undoLastStep();
+    assertEquals(Collections.emptySet(), set.getMatches(numberType));
+    set.add(longType);
+    set.add(integerType);
+    assertEquals(
+        Arrays.asList(longType, integerType), new ArrayList<>(set.getMatches(numberType)));
+  }
+}
@@ -0,0 +1,129 @@
+package randoop.condition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.plumelib.util.FilesPlume;
+import randoop.compile.SequenceCompiler;
+import randoop.reflection.RawSignature;
+
+public class BatchExpressionCompilerTest {
+
+  private static final RawSignature STRING_SIGNATURE =
+      new RawSignature(null, "ClassName", "test", new Class<?>[] {String.class});
+
+  private static final RawSignature INT_SIGNATURE =
+      new RawSignature("randoop.condition", "ClassName", "test", new Class<?>[] {int.class});
+
+  private static final BatchExpressionCompiler.ExpressionMethod LONG_STRING =
+      new BatchExpressionCompiler.ExpressionMethod(
+          STRING_SIGNATURE, "(String s)", "s.length() > 2");
+
+  private static final BatchExpressionCompiler.ExpressionMethod POSITIVE =
+      new BatchExpressionCompiler.ExpressionMethod(INT_SIGNATURE, "(int i)", "i > 0");
+
+  private static final BatchExpressionCompiler.ExpressionMethod WRONG_IDENTIFIER =
+      new BatchExpressionCompiler.ExpressionMethod(
+          STRING_SIGNATURE, "(String s)", "t.length() > 2");
+
+  private static boolean invoke(Method method, Object arg)
+      throws IllegalAccessException, InvocationTargetException {
+    return (boolean) method.invoke(null, arg);
+  }
+
+  @Test
+  public void testCompileTogether()
+      throws IllegalAccessException, InvocationTargetException {
+    Map<String, Method> methods =
+        BatchExpressionCompiler.compile(
+            Arrays.asList(LONG_STRING, POSITIVE, LONG_STRING), new SequenceCompiler(), null);
+    assertEquals(2, methods.size());
+    Method longString = methods.get(LONG_STRING.key());
+    assertTrue(invoke(longString, "dummy"));
+    assertFalse(invoke(longString, "01"));
+    Method positive = methods.get(POSITIVE.key());
+    assertTrue(invoke(positive, 1));
+    assertFalse(invoke(positive, 0));
+    assertEquals("randoop.condition", positive.getDeclaringClass().getPackage().getName());
+    assertNotEquals(longString.getDeclaringClass(), positive.getDeclaringClass());
+  }
+
+  @Test
+  public void testUncompilableExpressionIsOmitted()
+      throws IllegalAccessException, InvocationTargetException {
+    List<BatchExpressionCompiler.ExpressionMethod> expressions =
+        Arrays.asList(LONG_STRING, WRONG_IDENTIFIER, POSITIVE);
+    Map<String, Method> methods =
+        BatchExpressionCompiler.compile(expressions, new SequenceCompiler(), null);
+    assertEquals(2, methods.size());
+    assertNull(methods.get(WRONG_IDENTIFIER.key()));
+    assertTrue(invoke(methods.get(LONG_STRING.key()), "dummy"));
+    assertTrue(invoke(methods.get(POSITIVE.key()), 1));
+  }
+
+  @Test
+  public void testCache() throws IOException, IllegalAccessException, InvocationTargetException {
+    Path cacheDirectory = Files.createTempDirectory("expression-cache");
+    try {
+      List<BatchExpressionCompiler.ExpressionMethod> expressions =
+          Arrays.asList(LONG_STRING, WRONG_IDENTIFIER, POSITIVE);
+      Map<String, Method> compiled =
+          BatchExpressionCompiler.compile(expressions, new SequenceCompiler(), cacheDirectory);
+      assertEquals(1, cacheDirectory.toFile().list().length);
+
+      // The order of the expressions does not matter.
+      Map<String, Method> loaded =
+          BatchExpressionCompiler.compile(
+              Arrays.asList(POSITIVE, WRONG_IDENTIFIER, LONG_STRING),
+              new SequenceCompiler(),
+              cacheDirectory);
+      assertEquals(1, cacheDirectory.toFile().list().length);
+      assertEquals(compiled.keySet(), loaded.keySet());
+      assertTrue(invoke(loaded.get(LONG_STRING.key()), "dummy"));
+      assertTrue(invoke(loaded.get(POSITIVE.key()), 1));
+    } finally {
+      FilesPlume.deleteDir(cacheDirectory.toFile());
+    }
+  }
+
+  @Test
+  public void testCacheMissAfterClasspathChange()
+      throws IOException, IllegalAccessException, InvocationTargetException {
+    Path cacheDirectory = Files.createTempDirectory("expression-cache");
+    Path classpathDirectory = Files.createTempDirectory("expression-classpath");
+    Path classFile = classpathDirectory.resolve("Rebuilt.class");
+    String classPath = System.getProperty("java.class.path");
+    System.setProperty("java.class.path", classPath + File.pathSeparator + classpathDirectory);
+    try {
+      List<BatchExpressionCompiler.ExpressionMethod> expressions =
+          Arrays.asList(LONG_STRING, POSITIVE);
+      Files.write(classFile, new byte[] {1});
+      BatchExpressionCompiler.compile(expressions, new SequenceCompiler(), cacheDirectory);
+      assertEquals(1, cacheDirectory.toFile().list().length);
+
+      // A class file on the classpath is rebuilt at the same path.
+      Files.write(classFile, new byte[] {1, 2});
+      Map<String, Method> recompiled =
+          BatchExpressionCompiler.compile(expressions, new SequenceCompiler(), cacheDirectory);
+      assertEquals(2, cacheDirectory.toFile().list().length);
+      assertTrue(invoke(recompiled.get(POSITIVE.key()), 1));
+    } finally {
+      System.setProperty("java.class.path", classPath);
+      FilesPlume.deleteDir(cacheDirectory.toFile());
+      FilesPlume.deleteDir(classpathDirectory.toFile());
+    }
+  }
+}
@@ -80,6 +80,31 @@ public class ConditionMethodTest {
     }
   }
 
+  @Test
+  public void testErrorThrownNotIgnored() {
+    RawSignature signature =
+        new RawSignature(
+            "randoop.condition",
+            "ErrorThrownNotIgnoredCondition",
+            "test",
+            new Class<?>[] {ConditionWithException.class});
+    ExecutableBooleanExpression error =
+        createCondition(
+            signature,
+            "(randoop.condition.ConditionWithException r)",
+            "r.errorPredicate()",
+            "throws an Error");
+
+    boolean old_ignore_condition_exception = GenInputsAbstract.ignore_condition_exception;
+    GenInputsAbstract.ignore_condition_exception = false;
+    try {
+      thrown.expect(RandoopSpecificationError.class);
+      error.check(new Object[] {new ConditionWithException()});
+    } finally {
+      GenInputsAbstract.ignore_condition_exception = old_ignore_condition_exception;
+    }
+  }
+
   @Test
   public void testThrowableThrown() {
     RawSignature signature =
@@ -0,0 +1,88 @@
+package randoop.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Test;
+import org.plumelib.util.FilesPlume;
+import randoop.compile.FileCompiler;
+
+public class WarmTestRunnerTest {
+
+  private static final String TEST_CLASS_SOURCE =
+      String.join(
+          "\n",
+          "package warm;",
+          "import static org.junit.Assert.assertEquals;",
+          "import org.junit.Test;",
+          "public class WarmTest {",
+          "  static int count = 0;",
+          "  @Test",
+          "  public void test1() {",
+          "    assertEquals(1, ++count);",
+          "  }",
+          "  @Test",
+          "  public void test2() {",
+          "    assertEquals(1, 2);",
+          "  }",
+          "}",
+          "");
+
+  @Test
+  public void testRunTwice() throws IOException, FileCompiler.FileCompilerException {
+    Path directory = Files.createTempDirectory("warm-test-runner");
+    try (WarmTestRunner runner =
+        new WarmTestRunner(new TestEnvironment(System.getProperty("java.class.path")))) {
+      Path sourceFile = directory.resolve("WarmTest.java");
+      Files.write(sourceFile, TEST_CLASS_SOURCE.getBytes(StandardCharsets.UTF_8));
+      new FileCompiler().compile(sourceFile, directory);
+
+      // The second run has a new copy of the static field, so test1 passes again.
+      for (int run = 0; run < 2; run++) {
+        List<WarmTestRunner.TestFailure> failures = runner.runTest("warm.WarmTest", directory);
+        assertNotNull(failures);
+        assertEquals(1, failures.size());
+        assertEquals("test2", failures.get(0).methodName);
+        assertEquals(12, failures.get(0).lineNumber);
+      }
+    } finally {
+      FilesPlume.deleteDir(directory.toFile());
+    }
+  }
+
+  @Test
+  public void testTextOutput() throws IOException, FileCompiler.FileCompilerException {
+    Path directory = Files.createTempDirectory("warm-test-runner");
+    try (WarmTestRunner runner =
+        new WarmTestRunner(new TestEnvironment(System.getProperty("java.class.path")))) {
+      Path sourceFile = directory.resolve("WarmTest.java");
+      Files.write(sourceFile, TEST_CLASS_SOURCE.getBytes(StandardCharsets.UTF_8));
+      new FileCompiler().compile(sourceFile, directory);
+
+      List<String> lines = runner.runTestWithTextOutput("warm.WarmTest", directory);
+      assertNotNull(lines);
+      assertTrue(lines.contains("There was 1 failure:"));
+      assertTrue(lines.contains("1) test2(warm.WarmTest)"));
+    } finally {
+      FilesPlume.deleteDir(directory.toFile());
+    }
+  }
+
+  @Test
+  public void testMissingClass() throws IOException {
+    Path directory = Files.createTempDirectory("warm-test-runner");
+    try (WarmTestRunner runner =
+        new WarmTestRunner(new TestEnvironment(System.getProperty("java.class.path")))) {
+      assertNull(runner.runTest("warm.NoSuchTest", directory));
+    } finally {
+      FilesPlume.deleteDir(directory.toFile());
+    }
+  }
+}
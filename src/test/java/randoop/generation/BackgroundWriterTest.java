@@ -0,0 +1,95 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+public class BackgroundWriterTest {
+
+  @Test
+  public void testWritesInOrderAndFinishWaits() {
+    List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+    BackgroundWriter<Integer> writer = new BackgroundWriter<>("test-writer", 4, 3, written::add);
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      writer.submit(i);
+      expected.add(i);
+    }
+    writer.finish();
+    assertEquals(expected, written);
+    assertTrue(writer.highWater() <= 4);
+    writer.finish(); // does nothing
+  }
+
+  @Test
+  public void testProducerWaitsWhileQueueIsFull() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+    BackgroundWriter<Integer> writer =
+        new BackgroundWriter<>(
+            "test-writer",
+            2,
+            2,
+            i -> {
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                throw new AssertionError(e);
+              }
+              written.add(i);
+            });
+    Thread releaser =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(200);
+              } catch (InterruptedException e) {
+                // release anyway
+              }
+              release.countDown();
+            });
+    releaser.start();
+    for (int i = 0; i < 10; i++) {
+      writer.submit(i);
+    }
+    writer.finish();
+    releaser.join();
+    assertEquals(10, written.size());
+    assertEquals(2, writer.highWater());
+    assertTrue(writer.fullWaits() > 0);
+  }
+
+  @Test
+  public void testFailureDoesNotBlockProducer() {
+    RuntimeException failure = new RuntimeException("disk full");
+    BackgroundWriter<Integer> writer =
+        new BackgroundWriter<>(
+            "test-writer",
+            2,
+            2,
+            i -> {
+              throw failure;
+            });
+    // Far more items than the queue holds: the writer must keep draining after its failure.
+    try {
+      for (int i = 0; i < 100; i++) {
+        writer.submit(i);
+      }
+    } catch (Error e) {
+      assertSame(failure, e.getCause());
+    }
+    try {
+      writer.finish();
+      fail("finish should report the failure of the writer");
+    } catch (Error e) {
+      assertSame(failure, e.getCause());
+    }
+  }
+}
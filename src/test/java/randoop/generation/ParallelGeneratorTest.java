@@ -0,0 +1,93 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static randoop.reflection.AccessibilityPredicate.IS_PUBLIC;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import randoop.main.GenInputsAbstract;
+import randoop.main.GenTests;
+import randoop.main.OptionsCache;
+import randoop.operation.TypedOperation;
+import randoop.reflection.DefaultReflectionPredicate;
+import randoop.reflection.OmitMethodsPredicate;
+import randoop.reflection.OperationExtractor;
+import randoop.test.ContractSet;
+import randoop.types.ClassOrInterfaceType;
+import randoop.util.MultiMap;
+
+public class ParallelGeneratorTest {
+
+  private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+  private static OptionsCache optionsCache;
+
+  @BeforeClass
+  public static void setup() {
+    optionsCache = new OptionsCache();
+    optionsCache.saveState();
+    GenInputsAbstract.progressdisplay = false;
+  }
+
+  @AfterClass
+  public static void restore() {
+    optionsCache.restoreState();
+  }
+
+  private static ParallelGenerator createGenerator(GenInputsAbstract.Limits limits) {
+    List<ClassOrInterfaceType> types =
+        OperationExtractor.classListToTypeList(
+            Collections.<Class<?>>singletonList(StringBuilder.class));
+    List<TypedOperation> operations =
+        OperationExtractor.operations(types, new DefaultReflectionPredicate(), IS_PUBLIC);
+    ParallelGenerator generator =
+        new ParallelGenerator(
+            operations,
+            new LinkedHashSet<>(),
+            limits,
+            new ComponentManager(SeedSequences.defaultSeeds()),
+            null,
+            new LinkedHashSet<>(types),
+            4);
+    generator.setTestCheckGenerator(
+        GenTests.createTestCheckGenerator(
+            IS_PUBLIC, new ContractSet(), new MultiMap<>(), OmitMethodsPredicate.NO_OMISSION));
+    generator.setTestPredicate(eSeq -> true);
+    return generator;
+  }
+
+  @Test
+  public void testAttemptedLimitIsSharedByWorkers() {
+    ParallelGenerator generator =
+        createGenerator(new GenInputsAbstract.Limits(0, 200, NO_LIMIT, NO_LIMIT));
+    generator.createAndClassifySequences();
+    assertEquals(200, generator.numAttemptedSequences());
+  }
+
+  @Test
+  public void testOutputLimitIsSharedByWorkers() {
+    ParallelGenerator generator =
+        createGenerator(new GenInputsAbstract.Limits(0, NO_LIMIT, NO_LIMIT, 10));
+    generator.createAndClassifySequences();
+    int output = generator.outputSequenceCount();
+    assertTrue("output " + output, output > 0 && output <= 10);
+  }
+
+  @Test
+  public void testStepUsesTheWorkersInTurn() {
+    ParallelGenerator generator =
+        createGenerator(new GenInputsAbstract.Limits(0, NO_LIMIT, NO_LIMIT, NO_LIMIT));
+    int sequences = 0;
+    for (int i = 0; i < 20; i++) {
+      if (generator.step() != null) {
+        sequences++;
+      }
+    }
+    assertTrue(sequences > 0);
+  }
+}
@@ -0,0 +1,38 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import randoop.sequence.Sequence;
+
+public class SharedSequencePoolTest {
+
+  @Test
+  public void testImportSkipsOwnAndAlreadyImportedSequences() {
+    SharedSequencePool pool = new SharedSequencePool();
+    Sequence first = new Sequence();
+    Sequence second = new Sequence();
+    Sequence third = new Sequence();
+
+    pool.publish(0, Arrays.asList(first, second));
+    pool.publish(1, Collections.singletonList(third));
+
+    List<Sequence> imported = new ArrayList<>();
+    int position = pool.importSince(1, 0, imported);
+    assertEquals(Arrays.asList(first, second), imported);
+    assertEquals(3, position);
+
+    imported.clear();
+    assertEquals(3, pool.importSince(1, position, imported));
+    assertEquals(Collections.emptyList(), imported);
+
+    imported.clear();
+    pool.importSince(0, 0, imported);
+    assertEquals(Collections.singletonList(third), imported);
+    assertEquals(3, pool.size());
+  }
+}
@@ -0,0 +1,137 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.binary.BinaryStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+
+public class TupleColumnWriterTest {
+
+  private final XStream xstream = new XStream();
+
+  @Test
+  public void testPrimitiveColumn() throws IOException {
+    Path folder = Files.createTempDirectory("tuples");
+    try (TupleColumnWriter column =
+        TupleColumnWriter.binary(xstream, folder.toString(), "in0", JavaTypes.INT_TYPE)) {
+      column.write(1);
+      column.write(-2);
+      column.write(Integer.MAX_VALUE);
+    }
+    ByteBuffer values = ByteBuffer.wrap(Files.readAllBytes(folder.resolve("in0.bin")));
+    assertEquals(12, values.remaining());
+    assertEquals(1, values.getInt());
+    assertEquals(-2, values.getInt());
+    assertEquals(Integer.MAX_VALUE, values.getInt());
+
+    try (TupleColumnWriter column =
+        TupleColumnWriter.binary(xstream, folder.toString(), "in1", JavaTypes.DOUBLE_TYPE)) {
+      column.write(0.5);
+    }
+    ByteBuffer doubles = ByteBuffer.wrap(Files.readAllBytes(folder.resolve("in1.bin")));
+    assertEquals(0.5, doubles.getDouble(), 0.0);
+  }
+
+  @Test
+  public void testReferenceColumn() throws IOException {
+    Path folder = Files.createTempDirectory("tuples");
+    List<Object> written = new ArrayList<>();
+    written.add("a string");
+    written.add(null);
+    written.add(new ArrayList<>(Arrays.asList(1, 2, 3)));
+    Type type = JavaTypes.OBJECT_TYPE;
+    try (TupleColumnWriter column =
+        TupleColumnWriter.binary(xstream, folder.toString(), "out0", type)) {
+      for (Object o : written) {
+        column.write(o);
+      }
+    }
+    byte[] data = Files.readAllBytes(folder.resolve("out0.ref"));
+    ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(folder.resolve("out0.idx")));
+    assertEquals(written.size() * 8, index.remaining());
+    long[] offsets = new long[written.size() + 1];
+    for (int i = 0; i < written.size(); i++) {
+      offsets[i] = index.getLong();
+    }
+    offsets[written.size()] = data.length;
+    for (int i = 0; i < written.size(); i++) {
+      int start = (int) offsets[i];
+      int length = (int) (offsets[i + 1] - start);
+      Object read =
+          xstream.unmarshal(
+              new BinaryStreamReader(new ByteArrayInputStream(data, start, length)));
+      if (written.get(i) == null) {
+        assertNull(read);
+      } else {
+        assertEquals(written.get(i), read);
+      }
+    }
+  }
+
+  @Test
+  public void testEncode() throws IOException {
+    Path folder = Files.createTempDirectory("tuples");
+    Type type = JavaTypes.OBJECT_TYPE;
+    List<Integer> list = new ArrayList<>(Arrays.asList(1, 2, 3));
+    try (TupleColumnWriter column =
+            TupleColumnWriter.binary(xstream, folder.toString(), "in0", type);
+        TupleColumnWriter encodedColumn =
+            TupleColumnWriter.binary(xstream, folder.toString(), "in1", type)) {
+      byte[] encoded = column.encode(list);
+      assertArrayEquals(encoded, column.encode(new ArrayList<>(list)));
+      assertFalse(Arrays.equals(encoded, column.encode(Arrays.asList(1, 2))));
+      column.write(list);
+      encodedColumn.writeEncoded(list, encoded);
+    }
+    for (String suffix : new String[] {".ref", ".idx"}) {
+      assertArrayEquals(
+          Files.readAllBytes(folder.resolve("in0" + suffix)),
+          Files.readAllBytes(folder.resolve("in1" + suffix)));
+    }
+
+    try (TupleColumnWriter column =
+        TupleColumnWriter.binary(xstream, folder.toString(), "in2", JavaTypes.SHORT_TYPE)) {
+      assertArrayEquals(new byte[] {1, 2}, column.encode((short) 0x0102));
+    }
+  }
+
+  @Test
+  public void testXmlColumn() throws IOException, ClassNotFoundException {
+    Path folder = Files.createTempDirectory("tuples");
+    List<Object> shared = new ArrayList<>(Arrays.asList("caf\u00e9", 2));
+    List<Object> written = Arrays.asList("a < b", null, Arrays.asList(shared, shared));
+    try (TupleColumnWriter column =
+        TupleColumnWriter.xml(xstream, folder.toString(), "in0", JavaTypes.OBJECT_TYPE)) {
+      column.write(written.get(0));
+      column.write(written.get(1));
+      Object last = written.get(2);
+      column.writeEncoded(last, column.encode(last));
+    }
+    try (InputStream in = Files.newInputStream(folder.resolve("in0.xml"));
+        ObjectInputStream objects = xstream.createObjectInputStream(in)) {
+      assertEquals(written.get(0), objects.readObject());
+      assertNull(objects.readObject());
+      @SuppressWarnings("unchecked")
+      List<List<Object>> last = (List<List<Object>>) objects.readObject();
+      assertEquals(written.get(2), last);
+      assertSame(last.get(0), last.get(1));
+    }
+  }
+}
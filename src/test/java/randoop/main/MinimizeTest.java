@@ -0,0 +1,56 @@
+package randoop.main;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import org.junit.Test;
+import randoop.Globals;
+
+public class MinimizeTest {
+
+  @Test
+  public void testRemoveFrameLocation() {
+    assertEquals(
+        "\tat org.junit.runner.JUnitCore.run(JUnitCore.java:137)",
+        Minimize.removeFrameLocation(
+            "\tat app//org.junit.runner.JUnitCore.run(JUnitCore.java:137)"));
+    assertEquals(
+        "\tat java.lang.Thread.run(Thread.java:833)",
+        Minimize.removeFrameLocation("\tat java.base/java.lang.Thread.run(Thread.java:833)"));
+    assertEquals(
+        "\tat p.C.m(C.java:1)",
+        Minimize.removeFrameLocation("\tat loader/mod@1.0/p.C.m(C.java:1)"));
+    assertEquals("\tat p.C.m(C.java:1)", Minimize.removeFrameLocation("\tat p.C.m(C.java:1)"));
+    assertEquals(
+        "java.lang.AssertionError: a/b",
+        Minimize.removeFrameLocation("java.lang.AssertionError: a/b"));
+  }
+
+  @Test
+  public void testNormalizeDropsRunnerFramesWithLocation() {
+    String output =
+        String.join(
+            Globals.lineSep,
+            "JUnit version 4.12",
+            ".E",
+            "Time: 0.01",
+            "There was 1 failure:",
+            "1) test01(Test0)",
+            "java.lang.AssertionError",
+            "\tat app//Test0.test01(Test0.java:10)",
+            "\tat java.base/jdk.internal.reflect.NativeMethodAccessorImpl.invoke0(Native Method)",
+            "\tat app//org.junit.runner.JUnitCore.run(JUnitCore.java:137)",
+            "\tat app//org.junit.runner.JUnitCore.main(JUnitCore.java:77)",
+            "",
+            "FAILURES!!!");
+    Map<String, String> failures = Minimize.normalizeJUnitOutput(output);
+    assertEquals(
+        "java.lang.AssertionError"
+            + Globals.lineSep
+            + "\tat Test0.test01"
+            + Globals.lineSep
+            + "\tat jdk.internal.reflect.NativeMethodAccessorImpl.invoke0"
+            + Globals.lineSep,
+        failures.get("1) test01(Test0)"));
+  }
+}
@@ -0,0 +1,85 @@
+package randoop.main;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShardedGenTestsTest {
+
+  private static OptionsCache optionsCache;
+  private static int savedProcesses;
+
+  @BeforeClass
+  public static void setup() {
+    optionsCache = new OptionsCache();
+    optionsCache.saveState();
+    savedProcesses = ShardedGenTests.processes;
+  }
+
+  @AfterClass
+  public static void restore() {
+    optionsCache.restoreState();
+    ShardedGenTests.processes = savedProcesses;
+  }
+
+  @Test
+  public void testMergeArgumentsCoverAllShardSequences() throws IOException {
+    Path directory = Files.createTempDirectory("randoop-shards");
+    Path shard0 = directory.resolve("shard-0.txt");
+    Path shard1 = directory.resolve("shard-1.txt");
+    String sequence =
+        String.join(
+            System.lineSeparator(),
+            "START SEQUENCE",
+            "var0 = cons : java.util.TreeSet.<init>() :",
+            "END SEQUENCE",
+            "");
+    Files.write(shard0, (sequence + sequence).getBytes(StandardCharsets.UTF_8));
+    Files.write(shard1, sequence.getBytes(StandardCharsets.UTF_8));
+
+    List<String> mergeArgs =
+        Arrays.asList(
+            ShardedGenTests.mergeArguments(
+                Arrays.asList("--testclass=java.util.TreeSet", "--output-limit=2"),
+                Arrays.asList(shard0, shard1)));
+    assertTrue(mergeArgs.contains("--time-limit=0"));
+    assertTrue(mergeArgs.contains("--attempted-limit=3"));
+    assertTrue(mergeArgs.contains("--generated-limit=3"));
+    // The limit given to the shards is overridden by the later one.
+    assertTrue(mergeArgs.indexOf("--output-limit=3") > mergeArgs.indexOf("--output-limit=2"));
+
+    Path empty = directory.resolve("shard-2.txt");
+    Files.write(empty, new byte[0]);
+    List<String> emptyMergeArgs =
+        Arrays.asList(
+            ShardedGenTests.mergeArguments(
+                Collections.singletonList("--testclass=java.util.TreeSet"),
+                Collections.singletonList(empty)));
+    assertTrue(emptyMergeArgs.contains("--output-limit=1"));
+  }
+
+  // The default limits are not valid together with the zero time limit of the merge.
+  @Test
+  public void testDefaultCommandLine() throws IOException {
+    Path outputDirectory = Files.createTempDirectory("randoop-sharded-tests");
+    String[] args = {
+      "--testclass=java.util.TreeSet",
+      "--processes=2",
+      "--time-limit=1",
+      "--junit-output-dir=" + outputDirectory
+    };
+    assertTrue(new ShardedGenTests().handle(args));
+    File[] testFiles = outputDirectory.toFile().listFiles((dir, name) -> name.endsWith(".java"));
+    assertTrue(testFiles != null && testFiles.length > 0);
+  }
+}
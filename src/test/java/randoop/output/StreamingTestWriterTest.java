@@ -0,0 +1,77 @@
+package randoop.output;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+import randoop.operation.TypedOperation;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+
+public class StreamingTestWriterTest {
+
+  /** A {@link CodeWriter} that records the classes instead of writing them. */
+  private static class RecordingCodeWriter implements CodeWriter {
+    /** Map from class name to class source, in the order the classes were written. */
+    final Map<String, String> classes = new LinkedHashMap<>();
+
+    @Override
+    public Path writeClassCode(String packageName, String classname, String classCode) {
+      classes.put(classname, classCode);
+      return Paths.get(classname + ".java");
+    }
+
+    @Override
+    public Path writeUnmodifiedClassCode(String packageName, String classname, String classCode) {
+      return writeClassCode(packageName, classname, classCode);
+    }
+  }
+
+  @Test
+  public void testClassesAreWrittenWhenFull()
+      throws NoSuchMethodException, RandoopOutputException {
+    Sequence sequence =
+        new Sequence().extend(TypedOperation.forConstructor(Object.class.getConstructor()));
+    JUnitCreator junitCreator = JUnitCreator.getTestCreator(null, null, null, null, null);
+    RecordingCodeWriter codeWriter = new RecordingCodeWriter();
+    StreamingTestWriter testWriter =
+        new StreamingTestWriter(junitCreator, codeWriter, "StreamTest", "Regression", 2);
+
+    testWriter.accept(new ExecutableSequence(sequence));
+    assertTrue(codeWriter.classes.isEmpty());
+    testWriter.accept(new ExecutableSequence(sequence));
+    assertEquals(Arrays.asList("StreamTest0"), new ArrayList<>(codeWriter.classes.keySet()));
+    String firstClass = codeWriter.classes.get("StreamTest0");
+    assertTrue(firstClass.contains("test1()"));
+    assertTrue(firstClass.contains("test2()"));
+
+    testWriter.accept(new ExecutableSequence(sequence));
+    testWriter.close();
+    assertEquals(
+        Arrays.asList("StreamTest0", "StreamTest1", "StreamTest"),
+        new ArrayList<>(codeWriter.classes.keySet()));
+    String secondClass = codeWriter.classes.get("StreamTest1");
+    assertTrue(secondClass.contains("test3()"));
+    assertFalse(secondClass.contains("test2()"));
+    String suite = codeWriter.classes.get("StreamTest");
+    assertTrue(suite.contains("StreamTest0.class, StreamTest1.class"));
+    assertEquals(3, testWriter.getSequences().size());
+  }
+
+  @Test
+  public void testNoTests() throws RandoopOutputException {
+    JUnitCreator junitCreator = JUnitCreator.getTestCreator(null, null, null, null, null);
+    RecordingCodeWriter codeWriter = new RecordingCodeWriter();
+    StreamingTestWriter testWriter =
+        new StreamingTestWriter(junitCreator, codeWriter, "StreamTest", "Regression", 2);
+    testWriter.close();
+    assertTrue(codeWriter.classes.isEmpty());
+  }
+}
@@ -0,0 +1,48 @@
+package randoop.reflection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import randoop.TestValue;
+
+/**
+ * Input for {@link OperationModelTest}: member classes whose static initializers record the order
+ * in which they run, and the thread that runs them.
+ */
+public class InitializationOrderInput {
+
+  /** The names of the initialized member classes, in initialization order. */
+  public static final List<String> initialized = Collections.synchronizedList(new ArrayList<>());
+
+  /** The threads that initialized the member classes, in initialization order. */
+  public static final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+  private static void record(String name) {
+    initialized.add(name);
+    threads.add(Thread.currentThread());
+  }
+
+  public static class Alpha {
+    static {
+      record("Alpha");
+    }
+
+    @TestValue public static int alphaValue = 1;
+
+    public enum Inner {
+      ONE;
+
+      static {
+        record("Alpha.Inner");
+      }
+    }
+  }
+
+  public enum Beta {
+    TWO;
+
+    static {
+      record("Beta");
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package randoop.reflection;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/** Tests of {@link MemberSignatures}. */
+public class MemberSignaturesTest {
+
+  @Test
+  public void testSignatureRoundTrip() throws Exception {
+    List<Member> members = new ArrayList<>();
+    members.add(ModelCacheInput.class.getConstructor(int.class));
+    members.add(ModelCacheInput.class.getMethod("add", ModelCacheInput.class));
+    members.add(ModelCacheInput.class.getMethod("values", int.class));
+    members.add(ModelCacheInput.class.getField("testValues"));
+    members.add(ModelCacheInput.Mode.SLOW.getClass().getDeclaredMethod("cost"));
+    for (Member member : members) {
+      assertEquals(member, MemberSignatures.member(MemberSignatures.signature(member)));
+    }
+    String signature = MemberSignatures.signature(ModelCacheInput.Mode.SLOW);
+    assertEquals(ModelCacheInput.Mode.SLOW, MemberSignatures.enumConstant(signature));
+  }
+
+  @Test
+  public void testOverloadsRoundTrip() throws Exception {
+    List<Member> members = new ArrayList<>();
+    members.add(StringBuilder.class.getMethod("append", int.class));
+    members.add(StringBuilder.class.getMethod("append", char.class));
+    members.add(StringBuilder.class.getMethod("append", char[].class, int.class, int.class));
+    members.add(StringBuilder.class.getMethod("appendCodePoint", int.class));
+    members.add(StringBuilder.class.getConstructor(int.class));
+    members.add(StringBuilder.class.getConstructor(String.class));
+    for (Member member : members) {
+      assertEquals(member, MemberSignatures.member(MemberSignatures.signature(member)));
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package randoop.reflection;
+
+import randoop.CheckRep;
+import randoop.TestValue;
+
+/** Input for {@link OperationModelCacheTest}: has members of each kind that the model caches. */
+public class ModelCacheInput {
+
+  @TestValue public static int[] testValues = {7, 11};
+
+  public int value;
+
+  public ModelCacheInput(int value) {
+    this.value = value;
+  }
+
+  public ModelCacheInput add(ModelCacheInput other) {
+    return new ModelCacheInput(value + other.value);
+  }
+
+  public static int[] values(int count) {
+    return new int[count];
+  }
+
+  @CheckRep
+  public boolean isValid() {
+    return value != Integer.MIN_VALUE;
+  }
+
+  /** A member enum, whose constants become operations. */
+  public enum Mode {
+    FAST,
+    SLOW {
+      @Override
+      public int cost() {
+        return 2;
+      }
+    };
+
+    public int cost() {
+      return 1;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package randoop.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static randoop.reflection.AccessibilityPredicate.IS_PUBLIC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.checkerframework.checker.signature.qual.ClassGetName;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import randoop.main.GenInputsAbstract;
+import randoop.main.OptionsCache;
+import randoop.main.ThrowClassNameError;
+
+/** Tests of {@link OperationModelCache}. */
+public class OperationModelCacheTest {
+
+  private static OptionsCache optionsCache;
+
+  @BeforeClass
+  public static void setup() {
+    optionsCache = new OptionsCache();
+    optionsCache.saveState();
+  }
+
+  @AfterClass
+  public static void restore() {
+    optionsCache.restoreState();
+  }
+
+  private static OperationModel createModel() throws Exception {
+    Set<@ClassGetName String> classnames = new LinkedHashSet<>();
+    classnames.add("randoop.reflection.ModelCacheInput");
+    classnames.add("java.util.LinkedList");
+    return OperationModel.createModel(
+        IS_PUBLIC,
+        new DefaultReflectionPredicate(),
+        classnames,
+        new LinkedHashSet<>(),
+        new ThrowClassNameError(),
+        Collections.singletonList("CLASSES"));
+  }
+
+  private static List<Path> entries(Path directory, String suffix) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(f -> f.toString().endsWith(suffix)).collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  public void testCachedModelEqualsExtractedModel() throws Exception {
+    Path directory = Files.createTempDirectory("randoop-model-cache");
+    GenInputsAbstract.operation_model_cache_dir = directory;
+
+    OperationModel extracted = createModel();
+    assertFalse(entries(directory, ".operations").isEmpty());
+    assertFalse(entries(directory, ".declarations").isEmpty());
+
+    OperationModel cached = createModel();
+    assertEquals(extracted.getClassTypes(), cached.getClassTypes());
+    assertEquals(extracted.getOperations(), cached.getOperations());
+    assertEquals(extracted.getContracts().toString(), cached.getContracts().toString());
+    assertEquals(
+        extracted.getAnnotatedTestValues().toString(), cached.getAnnotatedTestValues().toString());
+
+    // Show that the operations come from the cache: empty entries give no operations.
+    for (Path entry : entries(directory, ".operations")) {
+      Files.write(entry, new byte[0]);
+    }
+    OperationModel fromEmptyEntries = createModel();
+    assertTrue(fromEmptyEntries.getOperations().size() < extracted.getOperations().size());
+  }
+}
@@ -13,6 +13,7 @@ import static org.junit.Assert.fail;
 import static randoop.reflection.AccessibilityPredicate.IS_PUBLIC;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -320,6 +321,21 @@ public class OperationModelTest {
     }
   }
 
+  @Test
+  public void memberClassesAreInitializedSequentiallyTest() {
+    Set<@ClassGetName String> classnames = new LinkedHashSet<>();
+    classnames.add("randoop.reflection.InitializationOrderInput");
+    classnames.add("java.util.LinkedList");
+    OperationModel model = getOperationModel(classnames);
+    assertNotNull(model);
+
+    assertEquals(
+        Arrays.asList("Alpha", "Alpha.Inner", "Beta"), InitializationOrderInput.initialized);
+    for (Thread thread : InitializationOrderInput.threads) {
+      assertEquals(Thread.currentThread(), thread);
+    }
+  }
+
   private OperationModel getOperationModel(@ClassGetName String classname) {
     Set<@ClassGetName String> classnames = new LinkedHashSet<>();
     classnames.add(classname);
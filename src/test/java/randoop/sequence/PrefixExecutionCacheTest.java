@@ -0,0 +1,105 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import randoop.DummyVisitor;
+import randoop.NormalExecution;
+import randoop.operation.TypedOperation;
+import randoop.test.DummyCheckGenerator;
+
+public class PrefixExecutionCacheTest {
+
+  private static Sequence newStringBuilder() throws NoSuchMethodException {
+    return new Sequence()
+        .extend(TypedOperation.forConstructor(StringBuilder.class.getConstructor()));
+  }
+
+  private static ExecutableSequence extendWithLength(List<Sequence> components, int inputIndex)
+      throws NoSuchMethodException {
+    Sequence concatenated = Sequence.concatenate(components);
+    Sequence sequence =
+        concatenated.extend(
+            TypedOperation.forMethod(StringBuilder.class.getMethod("length")),
+            concatenated.getVariable(inputIndex));
+    ExecutableSequence eseq = new ExecutableSequence(sequence);
+    eseq.componentSequences = components;
+    return eseq;
+  }
+
+  private static Object valueAt(ExecutableSequence eseq, int index) {
+    return ((NormalExecution) eseq.getResult(index)).getRuntimeValue();
+  }
+
+  @Test
+  public void testReusesCachedComponent() throws NoSuchMethodException {
+    PrefixExecutionCache cache = new PrefixExecutionCache(10);
+    ExecutableSequence component = new ExecutableSequence(newStringBuilder());
+    component.execute(new DummyVisitor(), new DummyCheckGenerator());
+    cache.add(component);
+
+    ExecutableSequence eseq = extendWithLength(Collections.singletonList(component.sequence), 0);
+    eseq.execute(new DummyVisitor(), new DummyCheckGenerator(), cache);
+
+    assertSame(valueAt(component, 0), valueAt(eseq, 0));
+    assertEquals(0, valueAt(eseq, 1));
+    assertEquals(1, cache.hits());
+    assertEquals(0, cache.misses());
+  }
+
+  @Test
+  public void testExecutesUncachedComponent() throws NoSuchMethodException {
+    PrefixExecutionCache cache = new PrefixExecutionCache(10);
+    ExecutableSequence cached = new ExecutableSequence(newStringBuilder());
+    cached.execute(new DummyVisitor(), new DummyCheckGenerator());
+    cache.add(cached);
+    Sequence uncached = newStringBuilder();
+
+    ExecutableSequence eseq = extendWithLength(Arrays.asList(cached.sequence, uncached), 1);
+    eseq.execute(new DummyVisitor(), new DummyCheckGenerator(), cache);
+
+    assertSame(valueAt(cached, 0), valueAt(eseq, 0));
+    assertNotSame(valueAt(eseq, 0), valueAt(eseq, 1));
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  public void testRepeatedComponentIsNotShared() throws NoSuchMethodException {
+    PrefixExecutionCache cache = new PrefixExecutionCache(10);
+    ExecutableSequence component = new ExecutableSequence(newStringBuilder());
+    component.execute(new DummyVisitor(), new DummyCheckGenerator());
+    cache.add(component);
+
+    ExecutableSequence eseq =
+        extendWithLength(Arrays.asList(component.sequence, component.sequence), 1);
+    eseq.execute(new DummyVisitor(), new DummyCheckGenerator(), cache);
+
+    assertNotSame(valueAt(component, 0), valueAt(eseq, 0));
+    assertNotSame(valueAt(eseq, 0), valueAt(eseq, 1));
+    assertEquals(0, cache.hits());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() throws NoSuchMethodException {
+    PrefixExecutionCache cache = new PrefixExecutionCache(1);
+    ExecutableSequence first = new ExecutableSequence(newStringBuilder());
+    first.execute(new DummyVisitor(), new DummyCheckGenerator());
+    cache.add(first);
+    ExecutableSequence second = new ExecutableSequence(newStringBuilder());
+    second.execute(new DummyVisitor(), new DummyCheckGenerator());
+    cache.add(second);
+
+    ExecutableSequence eseq = extendWithLength(Collections.singletonList(first.sequence), 0);
+    eseq.execute(new DummyVisitor(), new DummyCheckGenerator(), cache);
+
+    assertNotSame(valueAt(first, 0), valueAt(eseq, 0));
+    assertEquals(0, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+}
@@ -0,0 +1,155 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+import org.junit.Test;
+import randoop.operation.TypedClassOperation;
+import randoop.operation.TypedOperation;
+import randoop.types.GenericClassType;
+import randoop.types.InstantiatedType;
+import randoop.types.JavaTypes;
+import randoop.types.Substitution;
+
+public class SequenceFilesTest {
+
+  /**
+   * Writes the given sequences to a file and reads them back.
+   *
+   * @param sequences the sequences to write
+   * @param expectedWritten the number of sequences that should be written
+   * @return the sequences read from the file
+   */
+  private static List<Sequence> writeAndRead(List<Sequence> sequences, int expectedWritten)
+      throws IOException {
+    Path file = Files.createTempFile("sequences", ".txt");
+    try {
+      assertEquals(expectedWritten, SequenceFiles.write(sequences, file));
+      assertEquals(expectedWritten, SequenceFiles.count(file));
+      return SequenceFiles.read(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Returns a sequence that calls the given method on a new {@code StringBuilder}, with the given
+   * argument.
+   *
+   * @param argument the operation that creates the argument
+   * @param name the name of the method
+   * @param parameterType the type of the parameter of the method
+   * @return the sequence
+   */
+  private static Sequence callOnStringBuilder(
+      TypedOperation argument, String name, Class<?> parameterType) throws NoSuchMethodException {
+    Sequence constructor =
+        new Sequence().extend(TypedOperation.forConstructor(StringBuilder.class.getConstructor()));
+    Sequence literal = new Sequence().extend(argument);
+    Sequence concatenated = Sequence.concatenate(Arrays.asList(constructor, literal));
+    return concatenated.extend(
+        TypedOperation.forMethod(StringBuilder.class.getMethod(name, parameterType)),
+        concatenated.getVariable(0),
+        concatenated.getVariable(1));
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException, NoSuchMethodException {
+    Sequence constructor =
+        new Sequence().extend(TypedOperation.forConstructor(StringBuilder.class.getConstructor()));
+    Sequence literal =
+        new Sequence().extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, 3));
+    Sequence appended =
+        callOnStringBuilder(
+            TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, 3),
+            "append",
+            int.class);
+    List<Sequence> sequences = Arrays.asList(constructor, literal, appended);
+    assertEquals(sequences, writeAndRead(sequences, 3));
+  }
+
+  @Test
+  public void testOverloadsRoundTrip() throws IOException, NoSuchMethodException {
+    TypedOperation intLiteral =
+        TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, 65);
+    TypedOperation charLiteral =
+        TypedOperation.createPrimitiveInitialization(JavaTypes.CHAR_TYPE, 'A');
+    TypedOperation stringLiteral =
+        TypedOperation.createPrimitiveInitialization(JavaTypes.STRING_TYPE, "A \"quoted\" string");
+    Sequence capacity = new Sequence().extend(intLiteral);
+    capacity =
+        capacity.extend(
+            TypedOperation.forConstructor(StringBuilder.class.getConstructor(int.class)),
+            capacity.getVariable(0));
+    List<Sequence> sequences =
+        Arrays.asList(
+            // "append" is a prefix of "appendCodePoint".
+            callOnStringBuilder(intLiteral, "appendCodePoint", int.class),
+            callOnStringBuilder(intLiteral, "append", int.class),
+            callOnStringBuilder(charLiteral, "append", char.class),
+            callOnStringBuilder(stringLiteral, "append", String.class),
+            callOnStringBuilder(stringLiteral, "append", CharSequence.class),
+            capacity);
+    assertEquals(sequences, writeAndRead(sequences, sequences.size()));
+  }
+
+  @Test
+  public void testGenericRoundTrip() throws IOException, NoSuchMethodException {
+    TypedClassOperation treeSetConstructor =
+        TypedOperation.forConstructor(TreeSet.class.getConstructor());
+    InstantiatedType treeSetType =
+        ((GenericClassType) treeSetConstructor.getDeclaringType())
+            .instantiate(JavaTypes.STRING_TYPE);
+    Substitution treeSetSubstitution = treeSetType.getTypeSubstitution();
+    Sequence treeSet =
+        new Sequence()
+            .extend(treeSetConstructor.substitute(treeSetSubstitution))
+            .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.STRING_TYPE, "x"));
+    treeSet =
+        treeSet.extend(
+            TypedOperation.forMethod(TreeSet.class.getMethod("add", Object.class))
+                .substitute(treeSetSubstitution),
+            treeSet.getVariable(0),
+            treeSet.getVariable(1));
+
+    TypedClassOperation hashMapConstructor =
+        TypedOperation.forConstructor(HashMap.class.getConstructor());
+    InstantiatedType hashMapType =
+        ((GenericClassType) hashMapConstructor.getDeclaringType())
+            .instantiate(JavaTypes.STRING_TYPE, JavaTypes.STRING_TYPE);
+    Substitution hashMapSubstitution = hashMapType.getTypeSubstitution();
+    Sequence hashMap =
+        new Sequence()
+            .extend(hashMapConstructor.substitute(hashMapSubstitution))
+            .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.STRING_TYPE, "k"));
+    hashMap =
+        hashMap.extend(
+            TypedOperation.forMethod(HashMap.class.getMethod("get", Object.class))
+                .substitute(hashMapSubstitution),
+            hashMap.getVariable(0),
+            hashMap.getVariable(1));
+
+    List<Sequence> sequences = Arrays.asList(treeSet, hashMap);
+    List<Sequence> read = writeAndRead(sequences, 2);
+    assertEquals(sequences, read);
+    assertEquals(treeSetType, read.get(0).getVariable(0).getType());
+  }
+
+  @Test
+  public void testUnwritableSequenceIsSkipped() throws IOException, NoSuchMethodException {
+    // The output type of Collections.emptyList() has a type variable as its type argument.
+    Sequence generic =
+        new Sequence().extend(TypedOperation.forMethod(Collections.class.getMethod("emptyList")));
+    Sequence literal =
+        new Sequence().extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, 3));
+    List<Sequence> sequences = Arrays.asList(generic, literal);
+    assertEquals(Collections.singletonList(literal), writeAndRead(sequences, 1));
+  }
+}
@@ -1,6 +1,7 @@
 package randoop.test;
 
 import static org.apache.commons.codec.CharEncoding.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -10,8 +11,13 @@ import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
+import randoop.operation.TypedOperation;
 import randoop.output.JUnitCreator;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
 
 /** Test for compilation predicate. */
 public class CompilePredicateTest {
@@ -182,4 +188,32 @@ public class CompilePredicateTest {
     assertTrue(
         pred.testSource("CompilablePredicateTestClass", parseCU.getResult().get(), "foo.bar"));
   }
+
+  /** A method that generated tests cannot call, because it is private. */
+  @SuppressWarnings("UnusedMethod")
+  private static int inaccessible() {
+    return 0;
+  }
+
+  @Test
+  public void batchPredicateTest() throws NoSuchMethodException {
+    Sequence compilable =
+        new Sequence().extend(TypedOperation.forConstructor(Object.class.getConstructor()));
+    Sequence uncompilable =
+        new Sequence()
+            .extend(
+                TypedOperation.forMethod(
+                    CompilePredicateTest.class.getDeclaredMethod("inaccessible")));
+    List<ExecutableSequence> sequences =
+        Arrays.asList(
+            new ExecutableSequence(compilable),
+            new ExecutableSequence(uncompilable),
+            new ExecutableSequence(compilable),
+            new ExecutableSequence(compilable));
+    JUnitCreator jUnitCreator = JUnitCreator.getTestCreator(null, null, null, null, null);
+    CompilableTestPredicate pred = new CompilableTestPredicate(jUnitCreator, null);
+
+    assertArrayEquals(new boolean[] {true, false, true, true}, pred.testAll(sequences));
+    assertArrayEquals(new boolean[0], pred.testAll(Arrays.<ExecutableSequence>asList()));
+  }
 }
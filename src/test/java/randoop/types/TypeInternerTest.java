@@ -0,0 +1,96 @@
+package randoop.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class TypeInternerTest {
+
+  /** A field whose type has a wildcard. */
+  @SuppressWarnings("unused")
+  private static List<? extends Number> wildcardList;
+
+  /** A field whose type is a parameterized type. */
+  @SuppressWarnings("unused")
+  private static List<String> stringList;
+
+  private static InstantiatedType listOf(Class<?> c) {
+    return GenericClassType.forClass(List.class).instantiate(NonParameterizedType.forClass(c));
+  }
+
+  @Test
+  public void testEqualInstantiationsAreIdentical() {
+    InstantiatedType first = listOf(String.class);
+    InstantiatedType second = listOf(String.class);
+    assertSame(first, second);
+    assertTrue(first.isCanonical());
+    assertNotSame(first, listOf(Integer.class));
+  }
+
+  @Test
+  public void testReflectiveTypeIsInterned() throws NoSuchFieldException {
+    java.lang.reflect.Type reflective =
+        TypeInternerTest.class.getDeclaredField("stringList").getGenericType();
+    assertSame(listOf(String.class), ParameterizedType.forType(reflective));
+  }
+
+  @Test
+  public void testSubstitutionIsInterned() {
+    GenericClassType genericList = GenericClassType.forClass(List.class);
+    InstantiatedType byInstantiate = genericList.instantiate(JavaTypes.STRING_TYPE);
+    Substitution substitution =
+        new Substitution(genericList.getTypeParameters().get(0), JavaTypes.STRING_TYPE);
+    assertSame(byInstantiate, genericList.substitute(substitution));
+  }
+
+  @Test
+  public void testArraysAreInterned() {
+    assertSame(ArrayType.forClass(String[].class), ArrayType.forClass(String[].class));
+    assertSame(
+        ArrayType.ofComponentType(listOf(String.class)),
+        ArrayType.ofComponentType(listOf(String.class)));
+    assertSame(
+        ArrayType.forClass(int[][].class),
+        ArrayType.ofComponentType(ArrayType.forClass(int[].class)));
+  }
+
+  @Test
+  public void testNestedClassesAreNotInterned() {
+    GenericClassType genericEntry = GenericClassType.forClass(Map.Entry.class);
+    InstantiatedType first = genericEntry.instantiate(JavaTypes.STRING_TYPE, JavaTypes.STRING_TYPE);
+    InstantiatedType second =
+        genericEntry.instantiate(JavaTypes.STRING_TYPE, JavaTypes.STRING_TYPE);
+    assertNotSame(first, second);
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+  }
+
+  @Test
+  public void testGenericTypesAreNotInterned() throws NoSuchFieldException {
+    java.lang.reflect.Type reflective =
+        TypeInternerTest.class.getDeclaredField("wildcardList").getGenericType();
+    ParameterizedType first = ParameterizedType.forType(reflective);
+    ParameterizedType second = ParameterizedType.forType(reflective);
+    assertNotSame(first, second);
+    assertEquals(first, second);
+  }
+
+  @Test
+  public void testCanonicalAndNonCanonicalAreEqual() {
+    InstantiatedType canonical = listOf(String.class);
+    InstantiatedType other =
+        new InstantiatedType(
+            GenericClassType.forClass(List.class),
+            new ArrayList<>(canonical.getTypeArguments()));
+    assertNotSame(canonical, other);
+    assertEquals(canonical, other);
+    assertEquals(other, canonical);
+    assertEquals(canonical.hashCode(), other.hashCode());
+  }
+}
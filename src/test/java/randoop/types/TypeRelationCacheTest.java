@@ -0,0 +1,73 @@
+package randoop.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TypeRelationCacheTest {
+
+  private final InstantiatedType arrayListOfString =
+      GenericClassType.forClass(ArrayList.class)
+          .instantiate(NonParameterizedType.forClass(String.class));
+
+  private final InstantiatedType listOfString =
+      GenericClassType.forClass(List.class)
+          .instantiate(NonParameterizedType.forClass(String.class));
+
+  private final InstantiatedType listOfInteger =
+      GenericClassType.forClass(List.class)
+          .instantiate(NonParameterizedType.forClass(Integer.class));
+
+  @Before
+  public void clearCache() {
+    TypeRelationCache.clear();
+  }
+
+  @Test
+  public void testIsAssignable() {
+    assertTrue(TypeRelationCache.isAssignable(listOfString, arrayListOfString));
+    assertFalse(TypeRelationCache.isAssignable(listOfInteger, arrayListOfString));
+    assertEquals(0, TypeRelationCache.assignableHits());
+    assertEquals(2, TypeRelationCache.assignableMisses());
+
+    assertTrue(TypeRelationCache.isAssignable(listOfString, arrayListOfString));
+    assertFalse(TypeRelationCache.isAssignable(listOfInteger, arrayListOfString));
+    assertEquals(2, TypeRelationCache.assignableHits());
+    assertEquals(2, TypeRelationCache.assignableMisses());
+  }
+
+  @Test
+  public void testGenericTypesAreNotCached() {
+    GenericClassType genericList = GenericClassType.forClass(List.class);
+    GenericClassType genericArrayList = GenericClassType.forClass(ArrayList.class);
+    assertEquals(
+        genericList.isAssignableFrom(genericArrayList),
+        TypeRelationCache.isAssignable(genericList, genericArrayList));
+    assertEquals(0, TypeRelationCache.assignableHits());
+    assertEquals(0, TypeRelationCache.assignableMisses());
+  }
+
+  @Test
+  public void testGetSuperTypes() {
+    Collection<ClassOrInterfaceType> expected = arrayListOfString.computeSuperTypes();
+    assertEquals(new ArrayList<>(expected), new ArrayList<>(arrayListOfString.getSuperTypes()));
+    long misses = TypeRelationCache.superTypesMisses();
+    long hits = TypeRelationCache.superTypesHits();
+    assertTrue(misses > 0);
+    assertEquals(new ArrayList<>(expected), new ArrayList<>(arrayListOfString.getSuperTypes()));
+    assertEquals(misses, TypeRelationCache.superTypesMisses());
+    assertEquals(hits + 1, TypeRelationCache.superTypesHits());
+    assertTrue(expected.contains(listOfString));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetSuperTypesIsUnmodifiable() {
+    arrayListOfString.getSuperTypes().clear();
+  }
+}
@@ -0,0 +1,44 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.Test;
+import org.plumelib.util.FilesPlume;
+
+public class ClassFileConstantsTest {
+
+  /** A class with constants of each kind. */
+  @SuppressWarnings("unused")
+  private static class Constants {
+    long aLong = 1234567890123L;
+    float aFloat = 1.5f;
+    double aDouble = 2.5;
+    String aString = "a string";
+    int anInt = 100000;
+  }
+
+  @Test
+  public void testCache() throws IOException {
+    Path directory = Files.createTempDirectory("class-literals-cache");
+    try {
+      String classname = Constants.class.getName();
+      ClassFileConstants.ConstantSet expected = ClassFileConstants.getConstants(classname);
+
+      // The first call reads the class file and caches its constants; the second reads the cache.
+      for (int run = 0; run < 2; run++) {
+        ClassFileConstants.ConstantSet actual =
+            ClassFileConstants.getConstants(classname, directory);
+        assertEquals(expected.toString(), actual.toString());
+        try (Stream<Path> entries = Files.list(directory)) {
+          assertEquals(1, entries.count());
+        }
+      }
+    } finally {
+      FilesPlume.deleteDir(directory.toFile());
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package randoop.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import org.junit.Test;
+
+public class ClassFileHeaderTest {
+
+  /** A package-private class with constants of each size in its constant pool. */
+  static class PackagePrivate {
+    static final long LONG = System.nanoTime() + 1234567890123L;
+    static final double DOUBLE = Math.random() + 2.5;
+    static final String STRING = "a string";
+  }
+
+  /** A protected member class, whose class file is public. */
+  protected static class Protected {}
+
+  /** A private member class, whose class file is package-private. */
+  @SuppressWarnings("unused")
+  private abstract static class Private {}
+
+  /**
+   * Returns the access flags in the class file of the given class.
+   *
+   * @param c a class
+   * @return the access flags in its class file
+   * @throws IOException if the class file cannot be read
+   */
+  private static int accessFlags(Class<?> c) throws IOException {
+    String classFile = c.getName().substring(c.getName().lastIndexOf('.') + 1) + ".class";
+    try (InputStream in = c.getResourceAsStream(classFile)) {
+      return ClassFileHeader.readAccessFlags(in);
+    }
+  }
+
+  @Test
+  public void testAccessFlags() throws IOException {
+    assertTrue(Modifier.isPublic(accessFlags(ClassFileHeaderTest.class)));
+    assertFalse(Modifier.isPublic(accessFlags(PackagePrivate.class)));
+    assertTrue(Modifier.isPublic(accessFlags(Protected.class)));
+    int privateFlags = accessFlags(Private.class);
+    assertFalse(Modifier.isPublic(privateFlags));
+    assertFalse(Modifier.isPrivate(privateFlags));
+    assertTrue(Modifier.isAbstract(privateFlags));
+    assertTrue(Modifier.isInterface(accessFlags(Runnable.class)));
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotAClassFile() throws IOException {
+    ClassFileHeader.readAccessFlags(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6}));
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncated() throws IOException {
+    byte[] header = {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 52, 0, 2, 1};
+    ClassFileHeader.readAccessFlags(new ByteArrayInputStream(header));
+  }
+}
@@ -0,0 +1,77 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class FlatListTest {
+
+  /**
+   * Returns a list of the given integers.
+   *
+   * @param elements the elements
+   * @return a SimpleArrayList of the elements
+   */
+  private static SimpleList<Integer> list(Integer... elements) {
+    return new SimpleArrayList<>(Arrays.asList(elements));
+  }
+
+  @Test
+  public void testNestedStructure() {
+    SimpleList<Integer> a = new OneMoreElementList<>(list(0, 1), 2);
+    SimpleList<Integer> b = new OneMoreElementList<>(new OneMoreElementList<>(list(), 3), 4);
+    SimpleList<Integer> nested =
+        new OneMoreElementList<>(new ListOfLists<>(Arrays.asList(a, list(), b, list(5, 6))), 7);
+    FlatList<Integer> flat = FlatList.of(nested);
+    assertEquals(nested.toJDKList(), flat.toJDKList());
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7), flat.toJDKList());
+    assertSame(flat, FlatList.of(flat));
+  }
+
+  @Test
+  public void testExtendFlatPrefix() {
+    FlatList<Integer> prefix = FlatList.of(list(0, 1, 2));
+    FlatList<Integer> first = FlatList.of(new OneMoreElementList<>(prefix, 3));
+    FlatList<Integer> second = FlatList.of(new OneMoreElementList<>(prefix, 4));
+    FlatList<Integer> both = FlatList.of(new ListOfLists<>(Arrays.asList(first, second)));
+    // Extending a list must not change the lists that share its array.
+    assertEquals(Arrays.asList(0, 1, 2), prefix.toJDKList());
+    assertEquals(Arrays.asList(0, 1, 2, 3), first.toJDKList());
+    assertEquals(Arrays.asList(0, 1, 2, 4), second.toJDKList());
+    assertEquals(Arrays.asList(0, 1, 2, 3, 0, 1, 2, 4), both.toJDKList());
+  }
+
+  @Test
+  public void testLongChain() {
+    SimpleList<Integer> chain = list();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      chain = new OneMoreElementList<>(chain, i);
+      expected.add(i);
+      if (i % 10 == 0) {
+        chain = FlatList.of(chain);
+      }
+    }
+    FlatList<Integer> flat = FlatList.of(chain);
+    assertEquals(expected, flat.toJDKList());
+    for (int i = 0; i < flat.size(); i++) {
+      assertEquals(expected.get(i), flat.get(i));
+    }
+  }
+
+  @Test
+  public void testGetSublist() {
+    FlatList<Integer> flat = FlatList.of(list(0, 1, 2, 3));
+    assertSame(flat, flat.getSublist(3));
+    assertEquals(Arrays.asList(0, 1), flat.getSublist(1).toJDKList());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testGetOutOfBounds() {
+    FlatList.of(list(0, 1)).get(2);
+  }
+}
@@ -0,0 +1,55 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import org.junit.Test;
+
+public class MethodHandleReflectionCodeTest {
+
+  private static ReflectionCode run(Method method, Object... inputs) {
+    MethodHandle handle = MethodHandleReflectionCode.spreadHandle(method);
+    ReflectionCode code = new MethodHandleReflectionCode(method, handle, inputs);
+    code.runReflectionCode();
+    return code;
+  }
+
+  @Test
+  public void testReturnValue() throws NoSuchMethodException {
+    Method max = Math.class.getMethod("max", long.class, long.class);
+    ReflectionCode code = run(max, 3, 5L);
+    assertNull(code.getExceptionThrown());
+    assertEquals(5L, code.getReturnValue());
+  }
+
+  @Test
+  public void testExceptionIsNotWrapped() throws NoSuchMethodException {
+    Method charAt = String.class.getMethod("charAt", int.class);
+    ReflectionCode code = run(charAt, "abc", 7);
+    assertTrue(code.getExceptionThrown() instanceof StringIndexOutOfBoundsException);
+  }
+
+  @Test
+  public void testNullReceiver() throws NoSuchMethodException {
+    Method length = String.class.getMethod("length");
+    assertTrue(MethodHandleReflectionCode.canInvoke(length, new Object[] {null}));
+    ReflectionCode code = run(length, (Object) null);
+    assertTrue(code.getExceptionThrown() instanceof NullPointerException);
+  }
+
+  @Test
+  public void testCanInvoke() throws NoSuchMethodException {
+    Method max = Math.class.getMethod("max", long.class, long.class);
+    assertTrue(MethodHandleReflectionCode.canInvoke(max, new Object[] {(byte) 1, 'c'}));
+    assertFalse(MethodHandleReflectionCode.canInvoke(max, new Object[] {1.0, 2L}));
+    assertFalse(MethodHandleReflectionCode.canInvoke(max, new Object[] {null, 2L}));
+    assertFalse(MethodHandleReflectionCode.canInvoke(max, new Object[] {1L}));
+
+    Method length = String.class.getMethod("length");
+    assertFalse(MethodHandleReflectionCode.canInvoke(length, new Object[] {new Object()}));
+  }
+}
@@ -0,0 +1,73 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import randoop.ExceptionalExecution;
+import randoop.ExecutionOutcome;
+import randoop.NormalExecution;
+
+public class ReflectionExecutorTest {
+
+  private boolean savedUsethreads;
+  private int savedCallTimeout;
+
+  @Before
+  public void setUp() {
+    savedUsethreads = ReflectionExecutor.usethreads;
+    savedCallTimeout = ReflectionExecutor.call_timeout;
+    ReflectionExecutor.usethreads = true;
+    ReflectionExecutor.call_timeout = 500;
+  }
+
+  @After
+  public void tearDown() {
+    ReflectionExecutor.usethreads = savedUsethreads;
+    ReflectionExecutor.call_timeout = savedCallTimeout;
+  }
+
+  public static String currentThreadName() {
+    return Thread.currentThread().getName() + "@" + System.identityHashCode(Thread.currentThread());
+  }
+
+  public static void loopForever() {
+    while (true) {
+      Thread.yield();
+    }
+  }
+
+  private static ExecutionOutcome call(String methodName) throws NoSuchMethodException {
+    Method method = ReflectionExecutorTest.class.getMethod(methodName);
+    return ReflectionExecutor.executeReflectionCode(
+        new MethodReflectionCode(method, null, new Object[0]));
+  }
+
+  private static Object valueOf(ExecutionOutcome outcome) {
+    return ((NormalExecution) outcome).getRuntimeValue();
+  }
+
+  @Test
+  public void testRunnerThreadIsReused() throws NoSuchMethodException {
+    Object first = valueOf(call("currentThreadName"));
+    Object second = valueOf(call("currentThreadName"));
+    assertTrue(first.toString().startsWith("randoop.util.RunnerThread"));
+    assertEquals(first, second);
+  }
+
+  @Test
+  public void testRunnerThreadIsReplacedAfterTimeout() throws NoSuchMethodException {
+    Object before = valueOf(call("currentThreadName"));
+
+    ExecutionOutcome timedOut = call("loopForever");
+    assertTrue(
+        ((ExceptionalExecution) timedOut).getException() instanceof TimeoutExceededException);
+
+    Object after = valueOf(call("currentThreadName"));
+    assertNotEquals(before, after);
+  }
+}
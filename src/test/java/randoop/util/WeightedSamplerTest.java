@@ -0,0 +1,104 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class WeightedSamplerTest {
+
+  private static final double epsilon = 1e-9;
+
+  /**
+   * Returns the index that a linear scan of the weights chooses for the given point.
+   *
+   * @param weights the weights
+   * @param point a point in the cumulative distribution
+   * @return the index of the first element whose cumulative weight exceeds {@code point}
+   */
+  private static int linearIndexAt(double[] weights, double point) {
+    double cumulative = 0;
+    for (int i = 0; i < weights.length; i++) {
+      cumulative += weights[i];
+      if (cumulative > point) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("point " + point);
+  }
+
+  @Test
+  public void testIndexAtMatchesLinearScan() {
+    double[] weights = new double[100];
+    WeightedSampler<Integer> sampler = new WeightedSampler<>(1);
+    for (int i = 0; i < weights.length; i++) {
+      // Include elements of weight zero, which must never be chosen.
+      weights[i] = (i % 7 == 0) ? 0 : 1.0 / (i + 1);
+      sampler.add(i, weights[i]);
+    }
+    assertEquals(weights.length, sampler.size());
+    double total = Arrays.stream(weights).sum();
+    assertEquals(total, sampler.totalWeight(), epsilon);
+    for (int k = 0; k < 1000; k++) {
+      double point = total * k / 1000;
+      assertEquals(linearIndexAt(weights, point), sampler.indexAt(point));
+    }
+  }
+
+  @Test
+  public void testSetWeight() {
+    double[] weights = {1, 2, 3, 4, 5};
+    WeightedSampler<String> sampler = new WeightedSampler<>();
+    for (int i = 0; i < weights.length; i++) {
+      sampler.add("e" + i, weights[i]);
+    }
+    for (int round = 0; round < 20; round++) {
+      int index = round % weights.length;
+      weights[index] = (round % 3 == 0) ? 0 : round;
+      sampler.setWeight(index, weights[index]);
+      assertEquals(weights[index], sampler.getWeight(index), 0);
+      double total = Arrays.stream(weights).sum();
+      assertEquals(total, sampler.totalWeight(), epsilon);
+      for (int k = 0; k < 50; k++) {
+        double point = total * k / 50;
+        assertEquals(linearIndexAt(weights, point), sampler.indexAt(point));
+      }
+    }
+  }
+
+  @Test
+  public void testPointPastEnd() {
+    WeightedSampler<String> sampler = new WeightedSampler<>();
+    sampler.add("a", 1);
+    sampler.add("b", 1);
+    sampler.add("c", 0);
+    // Round-off error can produce a point equal to the total weight.
+    assertEquals(1, sampler.indexAt(sampler.totalWeight()));
+  }
+
+  @Test
+  public void testRandomMemberWeightedAcrossSamplers() {
+    WeightedSampler<Integer> first = new WeightedSampler<>();
+    WeightedSampler<Integer> empty = new WeightedSampler<>();
+    WeightedSampler<Integer> second = new WeightedSampler<>();
+    first.add(0, 1);
+    first.add(1, 2);
+    second.add(2, 3);
+    second.add(3, 4);
+    int[] counts = new int[4];
+    int selections = 100000;
+    for (int i = 0; i < selections; i++) {
+      counts[Randomness.randomMemberWeighted(Arrays.asList(first, empty, second))]++;
+    }
+    for (int i = 0; i < counts.length; i++) {
+      double expectedRatio = (i + 1) / 10.0;
+      assertTrue(Math.abs(counts[i] / (double) selections - expectedRatio) < 0.01);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeWeight() {
+    new WeightedSampler<String>().add("a", -1);
+  }
+}